@@ -0,0 +1,83 @@
+package org.im.cache.benchmark;
+
+import org.im.cache.config.BackendType;
+import org.im.cache.config.CacheConfig;
+import org.im.cache.core.Cache;
+import org.im.cache.impl.cache.CaffeineCache;
+import org.im.cache.impl.cache.MemoryCache;
+import org.im.cache.impl.cache.RedisCache;
+import org.im.cache.impl.cache.SimpleMemoryCache;
+import org.im.cache.support.ProtectedCache;
+
+/**
+ * 参与基准测试的缓存后端
+ * <p>
+ * 直接构造各实现而不经过 {@link org.im.cache.factory.CacheFactory}，以便分别测量裸后端和保护层的开销
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/19
+ */
+public enum Backend {
+
+    /**
+     * 带 W-TinyLFU 淘汰的进程内缓存
+     */
+    MEMORY {
+        @Override
+        Cache<String, String> create(CacheConfig config) {
+            return new MemoryCache<>(config);
+        }
+    },
+
+    /**
+     * 基于 ConcurrentHashMap 的进程内缓存
+     */
+    SIMPLE_MEMORY {
+        @Override
+        Cache<String, String> create(CacheConfig config) {
+            return new SimpleMemoryCache<>(config);
+        }
+    },
+
+    /**
+     * 基于 Caffeine 的进程内缓存
+     */
+    CAFFEINE {
+        @Override
+        Cache<String, String> create(CacheConfig config) {
+            return new CaffeineCache<>(config);
+        }
+    },
+
+    /**
+     * 包装 Caffeine 的保护层，与 CAFFEINE 对比即为穿透、击穿、雪崩保护的开销
+     */
+    PROTECTED {
+        @Override
+        Cache<String, String> create(CacheConfig config) {
+            return new ProtectedCache<>(new CaffeineCache<>(config), config);
+        }
+    },
+
+    /**
+     * 连接 {@link LocalRedisServer} 提供的 Redis
+     */
+    REDIS {
+        @Override
+        Cache<String, String> create(CacheConfig config) {
+            config.setBackendType(BackendType.REDIS);
+            config.setRedisUri(LocalRedisServer.uri());
+            return new RedisCache<>(config, String.class);
+        }
+    };
+
+    /**
+     * 按配置创建缓存实例
+     *
+     * @param config 缓存配置
+     * @return 缓存实例
+     */
+    abstract Cache<String, String> create(CacheConfig config);
+}
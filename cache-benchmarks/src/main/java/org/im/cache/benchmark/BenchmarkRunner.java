@@ -0,0 +1,59 @@
+package org.im.cache.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ * <p>
+ * 接受与 JMH 相同的命令行参数，未指定时默认以 JSON 格式将结果写入 {@value #DEFAULT_RESULT_FILE}，
+ * 并启用 {@link GCProfiler} 输出每次操作的分配字节数（{@code gc.alloc.rate.norm}），
+ * 供升级依赖或修改实现时按吞吐量和分配率设置门槛，例如：
+ * </p>
+ * <pre>
+ * java -jar cache-benchmarks/target/benchmarks.jar CacheBenchmark.get -p backend=CAFFEINE,PROTECTED
+ * java -Dbench.redis.uri=redis://127.0.0.1:6379 -jar benchmarks.jar -p backend=REDIS -rff redis.json
+ * </pre>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/19
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * 默认结果文件
+     */
+    public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        // 通过系统属性指定的 Redis 设置传递给 fork 出的 JVM
+        for (String property : new String[]{LocalRedisServer.URI_PROPERTY, LocalRedisServer.EXECUTABLE_PROPERTY}) {
+            String value = System.getProperty(property);
+            if (value != null) {
+                options.jvmArgsAppend("-D" + property + "=" + value);
+            }
+        }
+        new Runner(options.build()).run();
+    }
+}
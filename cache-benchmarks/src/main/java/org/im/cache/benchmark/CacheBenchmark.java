@@ -0,0 +1,178 @@
+package org.im.cache.benchmark;
+
+import org.im.cache.config.CacheConfig;
+import org.im.cache.config.CacheConfigBuilder;
+import org.im.cache.core.Cache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 缓存后端基准测试
+ * <p>
+ * 每个后端预先写满 {@link #keySpace} 个键，进程内缓存的容量为键数量的一半，
+ * 因此读取的命中率取决于访问分布：Zipfian 分布下热点集中、命中率高，均匀分布下约一半读取未命中。
+ * 单操作基准默认 {@value #THREADS} 个线程并发执行，{@code readWrite} 组以 3:1 的比例混合读写，测量读写竞争。
+ * </p>
+ * <p>
+ * 写入按 {@link #TTLS_MILLIS} 轮换过期时间，0 表示使用配置的默认过期时间，
+ * 使过期调度和保护层的过期值包装都处于被测路径上。
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/19
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(CacheBenchmark.THREADS)
+public class CacheBenchmark {
+
+    static final int THREADS = 4;
+
+    /**
+     * 每个线程预先生成的访问序列长度，必须为 2 的幂
+     */
+    private static final int SAMPLES = 1 << 16;
+
+    /**
+     * 批量读取的键数量
+     */
+    private static final int BATCH_SIZE = 16;
+
+    /**
+     * 写入时轮换使用的过期时间（毫秒）
+     */
+    private static final long[] TTLS_MILLIS = {0, 1_000, 30_000, 600_000};
+
+    @Param({"MEMORY", "SIMPLE_MEMORY", "CAFFEINE", "PROTECTED", "REDIS"})
+    public Backend backend;
+
+    @Param({"UNIFORM", "ZIPFIAN"})
+    public KeyDistribution distribution;
+
+    @Param({"100000"})
+    public int keySpace;
+
+    private Cache<String, String> cache;
+    private String[] keys;
+    private String[] values;
+    private Function<String, String> loader;
+    private final AtomicLong seeds = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new String[keySpace];
+        values = new String[keySpace];
+        Map<String, String> entries = new HashMap<>(keySpace * 2);
+        for (int i = 0; i < keySpace; i++) {
+            keys[i] = "key:" + i;
+            values[i] = "value:" + i + ":0123456789abcdef0123456789abcdef0123456789abcdef";
+            entries.put(keys[i], values[i]);
+        }
+        CacheConfig config = CacheConfigBuilder.newBuilder()
+                .cacheName("bench-" + backend.name().toLowerCase() + ":")
+                .maximumSize(keySpace / 2)
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .recordStats(true)
+                .build();
+        cache = backend.create(config);
+        cache.clear();
+        cache.putAll(entries);
+        String payload = values[0];
+        loader = key -> payload;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cache.clear();
+        cache.close();
+    }
+
+    /**
+     * 每个线程独立的访问序列
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int[] indices;
+        int position;
+
+        @Setup(Level.Trial)
+        public void setUp(CacheBenchmark benchmark) {
+            indices = benchmark.distribution.sample(benchmark.keySpace, SAMPLES, benchmark.seeds.incrementAndGet());
+        }
+
+        int next() {
+            return indices[position++ & (SAMPLES - 1)];
+        }
+    }
+
+    @Benchmark
+    public String get(Cursor cursor) {
+        return cache.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public void put(Cursor cursor) {
+        int index = cursor.next();
+        long ttl = TTLS_MILLIS[index & (TTLS_MILLIS.length - 1)];
+        if (ttl == 0) {
+            cache.put(keys[index], values[index]);
+        } else {
+            cache.put(keys[index], values[index], ttl, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> getAll(Cursor cursor) {
+        Set<String> batch = new LinkedHashSet<>(BATCH_SIZE * 2);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(keys[cursor.next()]);
+        }
+        return cache.getAll(batch);
+    }
+
+    @Benchmark
+    public String getOrLoad(Cursor cursor) {
+        return cache.getOrLoad(keys[cursor.next()], loader);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public String readWriteGet(Cursor cursor) {
+        return get(cursor);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void readWritePut(Cursor cursor) {
+        put(cursor);
+    }
+}
@@ -0,0 +1,71 @@
+package org.im.cache.benchmark;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * 基准测试的键访问分布
+ * <p>
+ * 访问序列在初始化时预先生成，测量期间只做数组下标读取，随机数生成不计入被测操作的耗时
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/19
+ */
+public enum KeyDistribution {
+
+    /**
+     * 均匀分布，每个键被访问的概率相同
+     */
+    UNIFORM {
+        @Override
+        int[] sample(int keySpace, int count, long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            int[] indices = new int[count];
+            for (int i = 0; i < count; i++) {
+                indices[i] = random.nextInt(keySpace);
+            }
+            return indices;
+        }
+    },
+
+    /**
+     * Zipfian 分布，排名第 i 的键被访问的概率与 1/i^{@value #ZIPFIAN_EXPONENT} 成正比，模拟热点集中的线上流量
+     */
+    ZIPFIAN {
+        @Override
+        int[] sample(int keySpace, int count, long seed) {
+            double[] cdf = new double[keySpace];
+            double sum = 0;
+            for (int i = 0; i < keySpace; i++) {
+                sum += 1.0 / Math.pow(i + 1, ZIPFIAN_EXPONENT);
+                cdf[i] = sum;
+            }
+            SplittableRandom random = new SplittableRandom(seed);
+            int[] indices = new int[count];
+            for (int i = 0; i < count; i++) {
+                int rank = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+                rank = rank >= 0 ? rank : Math.min(-rank - 1, keySpace - 1);
+                // 打散排名与键的对应关系，避免热点键在哈希表中相邻
+                indices[i] = (int) ((rank * 0x9E3779B97F4A7C15L >>> 1) % keySpace);
+            }
+            return indices;
+        }
+    };
+
+    /**
+     * Zipfian 分布的指数，与 YCSB 的默认值相同
+     */
+    public static final double ZIPFIAN_EXPONENT = 0.99;
+
+    /**
+     * 生成访问序列
+     *
+     * @param keySpace 键的数量
+     * @param count    序列长度
+     * @param seed     随机种子
+     * @return 键下标序列
+     */
+    abstract int[] sample(int keySpace, int count, long seed);
+}
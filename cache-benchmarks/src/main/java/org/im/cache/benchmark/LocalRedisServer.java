@@ -0,0 +1,115 @@
+package org.im.cache.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基准测试使用的 Redis
+ * <p>
+ * 设置了系统属性 {@value #URI_PROPERTY} 时直接使用该地址；否则在空闲端口上启动本机的 {@code redis-server}
+ * （可通过系统属性 {@value #EXECUTABLE_PROPERTY} 指定路径），关闭持久化，JVM 退出时结束进程。
+ * 每个 JMH fork 各自启动一次。
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/19
+ */
+public final class LocalRedisServer {
+
+    /**
+     * 指定已有 Redis 地址的系统属性
+     */
+    public static final String URI_PROPERTY = "bench.redis.uri";
+
+    /**
+     * 指定 redis-server 可执行文件的系统属性
+     */
+    public static final String EXECUTABLE_PROPERTY = "bench.redis.server";
+
+    private static final long STARTUP_TIMEOUT_MILLIS = 10_000;
+
+    private static String uri;
+
+    private LocalRedisServer() {
+    }
+
+    /**
+     * 获取 Redis 地址，首次调用时按需启动本机进程
+     *
+     * @return Redis 地址
+     */
+    public static synchronized String uri() {
+        if (uri == null) {
+            String configured = System.getProperty(URI_PROPERTY);
+            uri = configured != null && !configured.isEmpty() ? configured : start();
+        }
+        return uri;
+    }
+
+    private static String start() {
+        String executable = System.getProperty(EXECUTABLE_PROPERTY, "redis-server");
+        int port = freePort();
+        Process process;
+        try {
+            process = new ProcessBuilder(executable, "--port", String.valueOf(port), "--bind", "127.0.0.1",
+                    "--save", "", "--appendonly", "no")
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot start " + executable + ", install redis-server or set -D"
+                    + URI_PROPERTY + "=redis://host:port", e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(process::destroy, "bench-redis-shutdown"));
+        awaitReady(process, port);
+        return "redis://127.0.0.1:" + port;
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot allocate a port for redis-server", e);
+        }
+    }
+
+    /**
+     * 轮询 PING 直到进程可以响应命令
+     */
+    private static void awaitReady(Process process, int port) {
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("redis-server exited with code " + process.exitValue());
+            }
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress("127.0.0.1", port), 200);
+                OutputStream out = socket.getOutputStream();
+                out.write("PING\r\n".getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                InputStream in = socket.getInputStream();
+                byte[] reply = new byte[7];
+                if (in.read(reply) > 0 && reply[0] == '+') {
+                    return;
+                }
+            } catch (IOException ignored) {
+                // 尚未开始监听
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        process.destroy();
+        throw new IllegalStateException("redis-server did not become ready on port " + port);
+    }
+}
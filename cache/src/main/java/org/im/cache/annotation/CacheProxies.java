@@ -0,0 +1,444 @@
+package org.im.cache.annotation;
+
+import org.im.cache.config.CacheConfig;
+import org.im.cache.core.Cache;
+import org.im.cache.core.CacheKeyGenerator;
+import org.im.cache.core.CacheManager;
+import org.im.cache.support.SimpleKeyGenerator;
+import org.im.cache.support.SingleFlight;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 缓存注解代理
+ * <p>
+ * 不依赖 Spring，为接口实现创建 JDK 动态代理，使 {@link Cacheable}、{@link CachePut}、{@link CacheEvict} 生效：
+ * </p>
+ * <pre>
+ * UserService service = CacheProxies.wrap(UserService.class, new UserServiceImpl(), cacheManager);
+ * </pre>
+ * <p>
+ * 注解元数据在创建代理时按 {@link Method} 一次性解析，键表达式和条件表达式编译为函数，键生成器只实例化一次，
+ * 调用时只剩一次方法表查找和编译好的函数调用。{@link Cacheable} 未命中时经 {@link SingleFlight} 按键合并加载，
+ * 同一键的并发调用只执行一次目标方法。注解可写在接口方法或实现类方法上，实现类优先。
+ * </p>
+ * <p>
+ * 不引入 SpEL，表达式只支持以下形式，其他写法在创建代理时抛出 {@link IllegalArgumentException}：
+ * </p>
+ * <ul>
+ *     <li>key：{@code #p0}、{@code #p1} 等参数引用，参数为null时退回键生成器；</li>
+ *     <li>condition：{@code #p0 != null}、{@code #p0 == null}；</li>
+ *     <li>unless：{@code #result == null}、{@code #result != null}。</li>
+ * </ul>
+ * <p>
+ * 缓存实例在首次调用时按名称从 {@link CacheManager} 获取并保留，不存在时抛出 {@link IllegalStateException}。
+ * 目标方法返回null时不写入缓存。代理的 equals 和 hashCode 按代理自身的标识计算，toString 转给目标对象。
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/18
+ */
+public final class CacheProxies {
+
+    private static final Pattern PARAM_REFERENCE = Pattern.compile("#p(\\d+)");
+    private static final Pattern PARAM_NULL_CHECK = Pattern.compile("#p(\\d+)\\s*([!=]=)\\s*null");
+    private static final Pattern RESULT_NULL_CHECK = Pattern.compile("#result\\s*([!=]=)\\s*null");
+
+    /**
+     * 私有构造函数，防止实例化
+     */
+    private CacheProxies() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+
+    /**
+     * 为目标对象创建应用缓存注解的代理
+     *
+     * @param iface        代理的接口
+     * @param target       目标对象
+     * @param cacheManager 提供注解中缓存名称对应缓存实例的管理器
+     * @param <T>          接口类型
+     * @return 代理对象
+     * @throws IllegalArgumentException 参数为空、iface 不是接口或注解中的表达式不受支持时抛出
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T wrap(Class<T> iface, T target, CacheManager cacheManager) {
+        if (iface == null || !iface.isInterface()) {
+            throw new IllegalArgumentException("Proxy type must be an interface: " + iface);
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("Target cannot be null");
+        }
+        if (cacheManager == null) {
+            throw new IllegalArgumentException("CacheManager cannot be null");
+        }
+
+        Map<Method, MethodPlan> plans = new HashMap<>();
+        for (Method method : iface.getMethods()) {
+            MethodPlan plan = MethodPlan.of(method, findImplementation(target.getClass(), method), target, cacheManager);
+            if (plan != null) {
+                plans.put(method, plan);
+            }
+        }
+
+        return (T) Proxy.newProxyInstance(iface.getClassLoader(), new Class<?>[]{iface}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeObjectMethod(proxy, target, method, args);
+            }
+            MethodPlan plan = plans.get(method);
+            Object[] arguments = args != null ? args : new Object[0];
+            if (plan == null) {
+                return invokeTarget(target, method, arguments);
+            }
+            try {
+                return plan.invoke(arguments);
+            } catch (TargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private static Method findImplementation(Class<?> targetClass, Method method) {
+        try {
+            return targetClass.getMethod(method.getName(), method.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            return method;
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * equals 和 hashCode 按代理自身的标识计算，转给目标对象会使 {@code proxy.equals(proxy)} 为false；
+     * toString 转给目标对象
+     */
+    private static Object invokeObjectMethod(Object proxy, Object target, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return target.toString();
+        }
+    }
+
+    private static <A extends Annotation> A annotation(Method implementation, Method method, Class<A> type) {
+        A annotation = implementation.getAnnotation(type);
+        return annotation != null ? annotation : method.getAnnotation(type);
+    }
+
+    // ==================== 表达式编译 ====================
+
+    private static Function<Object[], Object> compileKey(String expression, Class<? extends CacheKeyGenerator> generatorType,
+                                                         Object target, Method method) {
+        Function<Object[], Object> generator = compileGenerator(generatorType, target, method);
+        if (expression == null || expression.trim().isEmpty()) {
+            return generator;
+        }
+        Matcher matcher = PARAM_REFERENCE.matcher(expression.trim());
+        if (!matcher.matches()) {
+            throw unsupported("key", expression, method);
+        }
+        int index = paramIndex(matcher.group(1), expression, method);
+        return args -> args[index] != null ? args[index] : generator.apply(args);
+    }
+
+    private static Function<Object[], Object> compileGenerator(Class<? extends CacheKeyGenerator> generatorType,
+                                                               Object target, Method method) {
+        if (generatorType == SimpleKeyGenerator.class) {
+            // 与 SimpleKeyGenerator 规则一致，按参数个数在创建代理时选定分支
+            int paramCount = method.getParameterCount();
+            if (paramCount == 0) {
+                String name = method.getName();
+                return args -> name;
+            }
+            if (paramCount == 1) {
+                return args -> args[0] != null ? args[0] : new SimpleKeyGenerator.SimpleKey(args);
+            }
+            return args -> new SimpleKeyGenerator.SimpleKey(args.clone());
+        }
+        CacheKeyGenerator generator;
+        try {
+            generator = generatorType.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot instantiate key generator " + generatorType.getName()
+                    + " for method " + method, e);
+        }
+        return args -> generator.generate(target, method, args);
+    }
+
+    private static Predicate<Object[]> compileCondition(String expression, Method method) {
+        if (expression == null || expression.trim().isEmpty()) {
+            return null;
+        }
+        Matcher matcher = PARAM_NULL_CHECK.matcher(expression.trim());
+        if (!matcher.matches()) {
+            throw unsupported("condition", expression, method);
+        }
+        int index = paramIndex(matcher.group(1), expression, method);
+        return "==".equals(matcher.group(2)) ? args -> args[index] == null : args -> args[index] != null;
+    }
+
+    private static Predicate<Object> compileUnless(String expression, Method method) {
+        if (expression == null || expression.trim().isEmpty()) {
+            return null;
+        }
+        Matcher matcher = RESULT_NULL_CHECK.matcher(expression.trim());
+        if (!matcher.matches()) {
+            throw unsupported("unless", expression, method);
+        }
+        return "==".equals(matcher.group(1)) ? result -> result == null : result -> result != null;
+    }
+
+    private static int paramIndex(String group, String expression, Method method) {
+        int index = Integer.parseInt(group);
+        if (index >= method.getParameterCount()) {
+            throw new IllegalArgumentException("Parameter index out of range in '" + expression + "' on method " + method);
+        }
+        return index;
+    }
+
+    private static IllegalArgumentException unsupported(String attribute, String expression, Method method) {
+        return new IllegalArgumentException("Unsupported " + attribute + " expression '" + expression
+                + "' on method " + method + ", only #pN references and null checks are supported");
+    }
+
+    // ==================== 调用计划 ====================
+
+    /**
+     * 单个方法的调用计划，按清除（执行前）、查询、执行、更新、清除（执行后）的顺序应用注解
+     */
+    private static final class MethodPlan {
+        private final Method method;
+        private final Object target;
+        private final CacheableOperation cacheable;
+        private final PutOperation put;
+        private final EvictOperation evict;
+
+        private MethodPlan(Method method, Object target, CacheableOperation cacheable, PutOperation put,
+                           EvictOperation evict) {
+            this.method = method;
+            this.target = target;
+            this.cacheable = cacheable;
+            this.put = put;
+            this.evict = evict;
+        }
+
+        static MethodPlan of(Method method, Method implementation, Object target, CacheManager cacheManager) {
+            Cacheable cacheable = annotation(implementation, method, Cacheable.class);
+            CachePut cachePut = annotation(implementation, method, CachePut.class);
+            CacheEvict cacheEvict = annotation(implementation, method, CacheEvict.class);
+            if (cacheable == null && cachePut == null && cacheEvict == null) {
+                return null;
+            }
+            return new MethodPlan(method, target,
+                    cacheable != null ? new CacheableOperation(cacheable, target, method, cacheManager) : null,
+                    cachePut != null ? new PutOperation(cachePut, target, method, cacheManager) : null,
+                    cacheEvict != null ? new EvictOperation(cacheEvict, target, method, cacheManager) : null);
+        }
+
+        Object invoke(Object[] args) {
+            if (evict != null && evict.beforeInvocation) {
+                evict.apply(args);
+            }
+            Object result = cacheable != null ? cacheable.apply(args, this::invokeTarget) : invokeTarget(args);
+            if (put != null) {
+                put.apply(args, result);
+            }
+            if (evict != null && !evict.beforeInvocation) {
+                evict.apply(args);
+            }
+            return result;
+        }
+
+        private Object invokeTarget(Object[] args) {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw new TargetException(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot invoke " + method, e);
+            }
+        }
+    }
+
+    /**
+     * 缓存操作的公共部分：缓存名称、编译后的键函数和条件
+     */
+    private abstract static class CacheOperation {
+        private final String[] cacheNames;
+        private final CacheManager cacheManager;
+        final Function<Object[], Object> keyFunction;
+        final Predicate<Object[]> condition;
+        private volatile Cache<Object, Object>[] caches;
+
+        CacheOperation(String[] cacheNames, String key, Class<? extends CacheKeyGenerator> keyGenerator,
+                       String condition, Object target, Method method, CacheManager cacheManager) {
+            if (cacheNames.length == 0) {
+                throw new IllegalArgumentException("No cacheNames declared on method " + method);
+            }
+            this.cacheNames = cacheNames;
+            this.cacheManager = cacheManager;
+            this.keyFunction = compileKey(key, keyGenerator, target, method);
+            this.condition = compileCondition(condition, method);
+        }
+
+        boolean applies(Object[] args) {
+            return condition == null || condition.test(args);
+        }
+
+        @SuppressWarnings("unchecked")
+        Cache<Object, Object>[] caches() {
+            Cache<Object, Object>[] resolved = caches;
+            if (resolved == null) {
+                resolved = new Cache[cacheNames.length];
+                for (int i = 0; i < cacheNames.length; i++) {
+                    resolved[i] = cacheManager.getCache(cacheNames[i]);
+                    if (resolved[i] == null) {
+                        throw new IllegalStateException("Cache '" + cacheNames[i] + "' not found");
+                    }
+                }
+                caches = resolved;
+            }
+            return resolved;
+        }
+
+        static void write(Cache<Object, Object> cache, Object key, Object value, long ttl, TimeUnit unit) {
+            if (ttl > 0) {
+                cache.put(key, value, ttl, unit);
+            } else {
+                cache.put(key, value);
+            }
+        }
+    }
+
+    private static final class CacheableOperation extends CacheOperation {
+        private final Predicate<Object> unless;
+        private final long ttl;
+        private final TimeUnit ttlUnit;
+        private volatile SingleFlight<Object> singleFlight;
+
+        CacheableOperation(Cacheable annotation, Object target, Method method, CacheManager cacheManager) {
+            super(annotation.cacheNames(), annotation.key(), annotation.keyGenerator(), annotation.condition(),
+                    target, method, cacheManager);
+            this.unless = compileUnless(annotation.unless(), method);
+            this.ttl = annotation.ttl();
+            this.ttlUnit = annotation.ttlUnit();
+        }
+
+        Object apply(Object[] args, Function<Object[], Object> invoker) {
+            if (!applies(args)) {
+                return invoker.apply(args);
+            }
+            Cache<Object, Object>[] caches = caches();
+            Object key = keyFunction.apply(args);
+            for (Cache<Object, Object> cache : caches) {
+                Object value = cache.get(key);
+                if (value != null) {
+                    return value;
+                }
+            }
+            return singleFlight(caches[0]).load(key, () -> {
+                Object result = invoker.apply(args);
+                if (result != null && (unless == null || !unless.test(result))) {
+                    for (Cache<Object, Object> cache : caches) {
+                        write(cache, key, result, ttl, ttlUnit);
+                    }
+                }
+                return result;
+            });
+        }
+
+        private SingleFlight<Object> singleFlight(Cache<Object, Object> cache) {
+            SingleFlight<Object> flight = singleFlight;
+            if (flight == null) {
+                CacheConfig config = cache.getConfig();
+                flight = new SingleFlight<>(config != null ? config.getBreakdownLockTimeout() : 0);
+                singleFlight = flight;
+            }
+            return flight;
+        }
+    }
+
+    private static final class PutOperation extends CacheOperation {
+        private final Predicate<Object> unless;
+        private final long ttl;
+        private final TimeUnit ttlUnit;
+
+        PutOperation(CachePut annotation, Object target, Method method, CacheManager cacheManager) {
+            super(annotation.cacheNames(), annotation.key(), annotation.keyGenerator(), annotation.condition(),
+                    target, method, cacheManager);
+            this.unless = compileUnless(annotation.unless(), method);
+            this.ttl = annotation.ttl();
+            this.ttlUnit = annotation.ttlUnit();
+        }
+
+        void apply(Object[] args, Object result) {
+            if (result == null || !applies(args) || (unless != null && unless.test(result))) {
+                return;
+            }
+            Object key = keyFunction.apply(args);
+            for (Cache<Object, Object> cache : caches()) {
+                write(cache, key, result, ttl, ttlUnit);
+            }
+        }
+    }
+
+    private static final class EvictOperation extends CacheOperation {
+        private final boolean allEntries;
+        private final boolean beforeInvocation;
+
+        EvictOperation(CacheEvict annotation, Object target, Method method, CacheManager cacheManager) {
+            super(annotation.cacheNames(), annotation.key(), annotation.keyGenerator(), annotation.condition(),
+                    target, method, cacheManager);
+            if (!annotation.unless().trim().isEmpty()) {
+                throw unsupported("unless", annotation.unless(), method);
+            }
+            this.allEntries = annotation.allEntries();
+            this.beforeInvocation = annotation.beforeInvocation();
+        }
+
+        void apply(Object[] args) {
+            if (!applies(args)) {
+                return;
+            }
+            if (allEntries) {
+                for (Cache<Object, Object> cache : caches()) {
+                    cache.clear();
+                }
+                return;
+            }
+            Object key = keyFunction.apply(args);
+            for (Cache<Object, Object> cache : caches()) {
+                cache.remove(key);
+            }
+        }
+    }
+
+    /**
+     * 目标方法抛出的异常，由代理解包后原样抛给调用方
+     */
+    private static final class TargetException extends RuntimeException {
+        TargetException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.im.cache.codec;
+
+/**
+ * 缓存值编解码器接口
+ * <p>
+ * 定义缓存值与字节数组之间的转换规范，供远程缓存后端（如 Redis）以二进制形式存储值
+ * </p>
+ *
+ * @param <V> 值类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/08
+ */
+public interface CacheCodec<V> {
+
+    /**
+     * 将缓存值编码为字节数组
+     *
+     * @param value 缓存值
+     * @return 编码后的字节数组
+     */
+    byte[] encode(V value);
+
+    /**
+     * 将字节数组解码为缓存值
+     *
+     * @param bytes 字节数组
+     * @return 解码后的缓存值
+     */
+    V decode(byte[] bytes);
+}
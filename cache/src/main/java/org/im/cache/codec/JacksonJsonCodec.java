@@ -0,0 +1,84 @@
+package org.im.cache.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于 Jackson JSON 的编解码器
+ * <p>
+ * 默认编解码器，以 UTF-8 JSON 文本存储值，与历史上以字符串写入 Redis 的数据格式兼容；
+ * 字符串值原样存储，Map/List 类型使用 TypeReference 反序列化
+ * </p>
+ *
+ * @param <V> 值类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/08
+ */
+public class JacksonJsonCodec<V> implements CacheCodec<V> {
+    private static final Logger logger = LoggerFactory.getLogger(JacksonJsonCodec.class);
+
+    private final ObjectMapper objectMapper;
+    private final Class<V> valueType;
+
+    /**
+     * 构造函数
+     *
+     * @param objectMapper JSON 映射器
+     * @param valueType    值类型
+     */
+    public JacksonJsonCodec(ObjectMapper objectMapper, Class<V> valueType) {
+        this.objectMapper = objectMapper;
+        this.valueType = valueType;
+    }
+
+    @Override
+    public byte[] encode(V value) {
+        if (value instanceof String) {
+            return ((String) value).getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            logger.error("Failed to serialize value: {}", value, e);
+            throw new RuntimeException("Serialization failed", e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V decode(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+
+        // 如果值类型是String，直接返回
+        if (valueType == String.class || valueType == Object.class) {
+            return (V) new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        try {
+            // 如果是泛型类型，使用TypeReference处理
+            if (valueType == Map.class) {
+                return (V) objectMapper.readValue(bytes, new TypeReference<Map<String, Object>>() {
+                });
+            } else if (valueType == List.class) {
+                return (V) objectMapper.readValue(bytes, new TypeReference<List<Object>>() {
+                });
+            }
+
+            return objectMapper.readValue(bytes, valueType);
+        } catch (Exception e) {
+            String raw = new String(bytes, StandardCharsets.UTF_8);
+            logger.error("Failed to deserialize value: {} to type: {}", raw, valueType, e);
+            // 如果反序列化失败，返回原始字符串值
+            return (V) raw;
+        }
+    }
+}
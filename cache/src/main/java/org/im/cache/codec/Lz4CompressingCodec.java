@@ -0,0 +1,118 @@
+package org.im.cache.codec;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * LZ4 压缩编解码器装饰器
+ * <p>
+ * 委托编解码器输出的字节数超过阈值时使用 LZ4 压缩，否则原样存储。
+ * 压缩后的值以 4 字节头开始：3 字节魔数 {@code 0xFE 'L' 'Z'} 加 1 字节格式标记，已压缩时其后跟 4 字节原始长度。
+ * 0xFE 不会出现在 UTF-8 文本（JSON）和 Smile 的首字节，因此未压缩的值不加头原样存储，
+ * 只有恰好以魔数开头的未压缩值才加上未压缩标记的头。
+ * </p>
+ * <p>
+ * 解码时不以魔数开头的字节直接交给委托编解码器，因此对已有数据开启压缩阈值无需清空或迁移：
+ * 开启前写入的值照常读取，之后写入的大值按压缩格式存储。
+ * 需要在类路径中引入 lz4-java，cache 模块将其声明为可选依赖
+ * </p>
+ *
+ * @param <V> 值类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/08
+ */
+public class Lz4CompressingCodec<V> implements CacheCodec<V> {
+
+    private static final byte[] MAGIC = {(byte) 0xFE, 'L', 'Z'};
+    private static final byte RAW = 0;
+    private static final byte COMPRESSED = 1;
+    private static final int PREFIX_LENGTH = MAGIC.length + 1;
+    private static final int HEADER_LENGTH = PREFIX_LENGTH + Integer.BYTES;
+
+    private static final LZ4Factory lz4Factory = LZ4Factory.fastestInstance();
+
+    private final CacheCodec<V> delegate;
+    private final int threshold;
+    private final LZ4Compressor compressor = lz4Factory.fastCompressor();
+    private final LZ4FastDecompressor decompressor = lz4Factory.fastDecompressor();
+
+    /**
+     * 构造函数
+     *
+     * @param delegate  被装饰的编解码器
+     * @param threshold 压缩阈值（字节），编码结果不小于该值时压缩
+     */
+    public Lz4CompressingCodec(CacheCodec<V> delegate, int threshold) {
+        this.delegate = delegate;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public byte[] encode(V value) {
+        byte[] raw = delegate.encode(value);
+        if (raw.length < threshold) {
+            if (!hasMagic(raw)) {
+                return raw;
+            }
+            byte[] out = new byte[PREFIX_LENGTH + raw.length];
+            writePrefix(out, RAW);
+            System.arraycopy(raw, 0, out, PREFIX_LENGTH, raw.length);
+            return out;
+        }
+
+        int maxLength = compressor.maxCompressedLength(raw.length);
+        byte[] out = new byte[HEADER_LENGTH + maxLength];
+        int compressedLength = compressor.compress(raw, 0, raw.length, out, HEADER_LENGTH, maxLength);
+        writePrefix(out, COMPRESSED);
+        ByteBuffer.wrap(out, PREFIX_LENGTH, Integer.BYTES).putInt(raw.length);
+
+        byte[] result = new byte[HEADER_LENGTH + compressedLength];
+        System.arraycopy(out, 0, result, 0, result.length);
+        return result;
+    }
+
+    @Override
+    public V decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes.length < PREFIX_LENGTH || !hasMagic(bytes)) {
+            // 未加头的值：未压缩存储，或开启压缩之前写入
+            return delegate.decode(bytes);
+        }
+        byte format = bytes[MAGIC.length];
+        if (format == COMPRESSED) {
+            int originalLength = ByteBuffer.wrap(bytes, PREFIX_LENGTH, Integer.BYTES).getInt();
+            byte[] raw = new byte[originalLength];
+            decompressor.decompress(bytes, HEADER_LENGTH, raw, 0, originalLength);
+            return delegate.decode(raw);
+        }
+        if (format == RAW) {
+            byte[] raw = new byte[bytes.length - PREFIX_LENGTH];
+            System.arraycopy(bytes, PREFIX_LENGTH, raw, 0, raw.length);
+            return delegate.decode(raw);
+        }
+        return delegate.decode(bytes);
+    }
+
+    private static boolean hasMagic(byte[] bytes) {
+        if (bytes.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writePrefix(byte[] out, byte format) {
+        System.arraycopy(MAGIC, 0, out, 0, MAGIC.length);
+        out[MAGIC.length] = format;
+    }
+}
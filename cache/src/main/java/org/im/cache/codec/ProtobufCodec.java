@@ -0,0 +1,48 @@
+package org.im.cache.codec;
+
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import org.im.common.serde.protobuf.ProtoConverter;
+import org.im.common.serde.protobuf.ProtobufMapper;
+
+/**
+ * 基于 Protobuf 的编解码器
+ * <p>
+ * 复用 {@link ProtobufMapper} 与业务侧的 {@link ProtoConverter}，
+ * 将实体对象以 Protobuf 二进制格式存储
+ * </p>
+ *
+ * @param <V> 值类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/08
+ */
+public class ProtobufCodec<V> implements CacheCodec<V> {
+
+    private final ProtoConverter<V> converter;
+    private final Parser<? extends Message> parser;
+
+    /**
+     * 构造函数
+     *
+     * @param converter 实体与 Protobuf 消息的转换器
+     * @param parser    Protobuf 消息解析器
+     */
+    public ProtobufCodec(ProtoConverter<V> converter, Parser<? extends Message> parser) {
+        this.converter = converter;
+        this.parser = parser;
+    }
+
+    @Override
+    public byte[] encode(V value) {
+        return ProtobufMapper.serialize(value, converter);
+    }
+
+    @Override
+    public V decode(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        return ProtobufMapper.deserialize(bytes, converter, parser);
+    }
+}
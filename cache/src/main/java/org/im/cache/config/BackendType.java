@@ -27,5 +27,9 @@ public enum BackendType {
     /**
      * 混合缓存
      */
-    HYBRID
+    HYBRID,
+    /**
+     * 堆外缓存，值编码后存放在直接内存中，不参与 GC
+     */
+    OFFHEAP
 }
\ No newline at end of file
@@ -1,5 +1,9 @@
 package org.im.cache.config;
 
+import org.im.cache.codec.CacheCodec;
+import org.im.cache.core.KeyEnumerator;
+import org.im.cache.core.Weigher;
+
 import java.io.Serializable;
 import java.util.concurrent.TimeUnit;
 
@@ -31,6 +35,21 @@ public class CacheConfig implements Serializable {
      */
     private int maximumSize = 1000;
 
+    /**
+     * 条目权重计算器
+     * <p>MEMORY / CAFFEINE 模式下配置后按权重之和淘汰，maximumSize 仅用于估计条目数，
+     * 由带内存预算的缓存管理器创建时参与全局预算分配，不参与序列化</p>
+     * <p>默认值: null（每个条目权重为 1，按条目数淘汰）</p>
+     */
+    private transient Weigher<?, ?> weigher;
+
+    /**
+     * 最大权重之和
+     * <p>配置权重计算器后单个缓存的权重上限，参与全局预算时分配到的份额也不会超过该值，0 表示不限</p>
+     * <p>默认值: 0</p>
+     */
+    private long maximumWeight = 0;
+
     /**
      * 写入后过期时间（毫秒）
      * <p>缓存条目在写入后经过指定时间会被自动淘汰</p>
@@ -45,6 +64,21 @@ public class CacheConfig implements Serializable {
      */
     private long expireAfterAccess = 0;
 
+    /**
+     * 写入后刷新时间（毫秒）
+     * <p>缓存条目写入超过该时间后，读取仍返回旧值，同时在后台重新加载，0 表示禁用</p>
+     * <p>应小于写入后过期时间，否则条目会先过期而无法提前刷新</p>
+     * <p>默认值: 0（禁用）</p>
+     */
+    private long refreshAfterWrite = 0;
+
+    /**
+     * 刷新并行度
+     * <p>{@code refresh()} 批量重新加载时同时执行的加载任务数</p>
+     * <p>默认值: 4</p>
+     */
+    private int refreshParallelism = 4;
+
     // ==================== 统计配置 ====================
 
     /**
@@ -98,6 +132,35 @@ public class CacheConfig implements Serializable {
      */
     private long avalancheProtectionRange = TimeUnit.MINUTES.toMillis(5);
 
+    /**
+     * 已存在键枚举器
+     * <p>配置后周期性重建本地键过滤器（布隆过滤器），确定不存在的键在访问远程缓存和数据源之前直接返回未命中，
+     * 不再为每个不存在的键写入空值占位，null 表示禁用</p>
+     * <p>默认值: null</p>
+     */
+    private transient KeyEnumerator<?> keyEnumerator;
+
+    /**
+     * 键过滤器重建间隔（毫秒）
+     * <p>重建之间新出现于数据源、但未经本缓存写入的键会被误判为不存在，间隔决定了这段延迟的上限</p>
+     * <p>默认值: 10分钟</p>
+     */
+    private long keyFilterRebuildInterval = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * 键过滤器预期键数量
+     * <p>用于确定过滤器大小，实际键数明显超出时误判率上升</p>
+     * <p>默认值: 1000000</p>
+     */
+    private long keyFilterExpectedKeys = 1_000_000;
+
+    /**
+     * 键过滤器误判率
+     * <p>不存在的键被判为可能存在的概率，这部分键仍按原路径访问远程缓存</p>
+     * <p>默认值: 0.01</p>
+     */
+    private double keyFilterFalsePositiveRate = 0.01;
+
     // ==================== 缓存类型配置 ====================
 
     /**
@@ -145,6 +208,27 @@ public class CacheConfig implements Serializable {
      */
     private int redisSoTimeout = 2000;
 
+    /**
+     * Redis连接模式
+     * <p>POOLED 为每次操作借还连接池连接；SHARED 为所有线程复用同一个多路复用连接</p>
+     * <p>默认值: RedisConnectionMode.POOLED</p>
+     */
+    private RedisConnectionMode redisConnectionMode = RedisConnectionMode.POOLED;
+
+    /**
+     * 值编解码器
+     * <p>远程缓存后端将值编码为字节数组存储时使用的编解码器，不参与序列化</p>
+     * <p>默认值: null（使用 Jackson JSON 编解码器）</p>
+     */
+    private transient CacheCodec<?> valueCodec;
+
+    /**
+     * 值压缩阈值（字节）
+     * <p>编码后的值不小于该大小时使用 LZ4 压缩，0 表示禁用压缩</p>
+     * <p>默认值: 0</p>
+     */
+    private int compressionThreshold = 0;
+
     /**
      * Redis连接池配置
      */
@@ -153,6 +237,76 @@ public class CacheConfig implements Serializable {
     private int minIdleConnections = 2;
     private long connectionTimeout = 5000; // 毫秒
 
+    /**
+     * 热点键阈值
+     * <p>REDIS 模式下单个键在一秒窗口内的读取次数达到该值时，将其值提升到本地短期保存，0 表示禁用</p>
+     * <p>默认值: 0</p>
+     */
+    private int hotKeyThreshold = 0;
+
+    /**
+     * 热点键本地存活时间(毫秒)
+     * <p>提升到本地的热点值的存活时间，也是其他节点写入后本节点可能读到旧值的最长时间</p>
+     * <p>默认值: 200毫秒</p>
+     */
+    private long hotKeyLocalTtl = 200;
+
+    /**
+     * 热点键本地最大数量
+     * <p>同时提升到本地的热点键的最大数量，已满时不再提升新的热点键</p>
+     * <p>默认值: 100</p>
+     */
+    private int hotKeyMaxSize = 100;
+
+    // ==================== 混合缓存配置 ====================
+
+    /**
+     * 本地一级缓存最大大小
+     * <p>HYBRID 模式下本地（L1）缓存最多能存储的条目数</p>
+     * <p>默认值: 10000</p>
+     */
+    private int localMaximumSize = 10000;
+
+    /**
+     * 本地一级缓存写入后过期时间（毫秒）
+     * <p>HYBRID 模式下本地（L1）条目的最长存活时间，作为失效广播丢失时的兜底</p>
+     * <p>默认值: 1分钟</p>
+     */
+    private long localExpireAfterWrite = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * 失效广播频道
+     * <p>HYBRID 模式下用于广播本地缓存失效消息的 Redis pub/sub 频道</p>
+     * <p>默认值: null（使用 "im:cache:invalidate:" + cacheName）</p>
+     */
+    private String invalidationChannel;
+
+    // ==================== 堆外缓存配置 ====================
+
+    /**
+     * 堆外缓存容量（字节）
+     * <p>OFFHEAP 模式下直接内存的最大占用，按容量淘汰，不受 maximumSize 限制</p>
+     * <p>默认值: 64MB</p>
+     */
+    private long offHeapCapacity = 64L * 1024 * 1024;
+
+    /**
+     * 堆外缓存页大小（字节）
+     * <p>OFFHEAP 模式下每次分配的直接内存块大小，同时也是单个值编码后的最大长度</p>
+     * <p>默认值: 1MB</p>
+     */
+    private int offHeapPageSize = 1024 * 1024;
+
+    // ==================== 快照配置 ====================
+
+    /**
+     * 快照目录
+     * <p>MEMORY / CAFFEINE 模式下关闭缓存时将条目及过期时间写入该目录下的 "缓存名.snapshot" 文件，
+     * 创建同名缓存时重新加载，null 表示禁用</p>
+     * <p>默认值: null</p>
+     */
+    private String snapshotDirectory;
+
     // ==================== 构造函数 ====================
 
     /**
@@ -262,6 +416,42 @@ public class CacheConfig implements Serializable {
         this.expireAfterAccess = expireAfterAccess;
     }
 
+    /**
+     * 获取写入后刷新时间
+     *
+     * @return 写入后刷新时间（毫秒），0 表示禁用
+     */
+    public long getRefreshAfterWrite() {
+        return refreshAfterWrite;
+    }
+
+    /**
+     * 设置写入后刷新时间
+     *
+     * @param refreshAfterWrite 写入后刷新时间（毫秒），0 表示禁用
+     */
+    public void setRefreshAfterWrite(long refreshAfterWrite) {
+        this.refreshAfterWrite = refreshAfterWrite;
+    }
+
+    /**
+     * 获取刷新并行度
+     *
+     * @return 刷新并行度
+     */
+    public int getRefreshParallelism() {
+        return refreshParallelism;
+    }
+
+    /**
+     * 设置刷新并行度
+     *
+     * @param refreshParallelism 刷新并行度
+     */
+    public void setRefreshParallelism(int refreshParallelism) {
+        this.refreshParallelism = refreshParallelism;
+    }
+
     /**
      * 是否启用统计
      *
@@ -388,6 +578,78 @@ public class CacheConfig implements Serializable {
         this.avalancheProtectionRange = avalancheProtectionRange;
     }
 
+    /**
+     * 获取已存在键枚举器
+     *
+     * @return 已存在键枚举器，null 表示不启用键过滤器
+     */
+    public KeyEnumerator<?> getKeyEnumerator() {
+        return keyEnumerator;
+    }
+
+    /**
+     * 设置已存在键枚举器
+     *
+     * @param keyEnumerator 已存在键枚举器，null 表示不启用键过滤器
+     */
+    public void setKeyEnumerator(KeyEnumerator<?> keyEnumerator) {
+        this.keyEnumerator = keyEnumerator;
+    }
+
+    /**
+     * 获取键过滤器重建间隔
+     *
+     * @return 键过滤器重建间隔（毫秒）
+     */
+    public long getKeyFilterRebuildInterval() {
+        return keyFilterRebuildInterval;
+    }
+
+    /**
+     * 设置键过滤器重建间隔
+     *
+     * @param keyFilterRebuildInterval 键过滤器重建间隔（毫秒）
+     */
+    public void setKeyFilterRebuildInterval(long keyFilterRebuildInterval) {
+        this.keyFilterRebuildInterval = keyFilterRebuildInterval;
+    }
+
+    /**
+     * 获取键过滤器预期键数量
+     *
+     * @return 键过滤器预期键数量
+     */
+    public long getKeyFilterExpectedKeys() {
+        return keyFilterExpectedKeys;
+    }
+
+    /**
+     * 设置键过滤器预期键数量
+     *
+     * @param keyFilterExpectedKeys 键过滤器预期键数量
+     */
+    public void setKeyFilterExpectedKeys(long keyFilterExpectedKeys) {
+        this.keyFilterExpectedKeys = keyFilterExpectedKeys;
+    }
+
+    /**
+     * 获取键过滤器误判率
+     *
+     * @return 键过滤器误判率
+     */
+    public double getKeyFilterFalsePositiveRate() {
+        return keyFilterFalsePositiveRate;
+    }
+
+    /**
+     * 设置键过滤器误判率
+     *
+     * @param keyFilterFalsePositiveRate 键过滤器误判率，取值 (0, 1)
+     */
+    public void setKeyFilterFalsePositiveRate(double keyFilterFalsePositiveRate) {
+        this.keyFilterFalsePositiveRate = keyFilterFalsePositiveRate;
+    }
+
     /**
      * 获取缓存后端类型
      *
@@ -484,6 +746,66 @@ public class CacheConfig implements Serializable {
         return this;
     }
 
+    /**
+     * 获取Redis连接模式
+     *
+     * @return Redis连接模式
+     */
+    public RedisConnectionMode getRedisConnectionMode() {
+        return redisConnectionMode;
+    }
+
+    /**
+     * 设置Redis连接模式
+     *
+     * @param redisConnectionMode Redis连接模式
+     * @return CacheConfig实例
+     */
+    public CacheConfig setRedisConnectionMode(RedisConnectionMode redisConnectionMode) {
+        this.redisConnectionMode = redisConnectionMode;
+        return this;
+    }
+
+    /**
+     * 获取值编解码器
+     *
+     * @return 值编解码器，未设置时返回null
+     */
+    public CacheCodec<?> getValueCodec() {
+        return valueCodec;
+    }
+
+    /**
+     * 设置值编解码器
+     *
+     * @param valueCodec 值编解码器
+     * @return CacheConfig实例
+     */
+    public CacheConfig setValueCodec(CacheCodec<?> valueCodec) {
+        this.valueCodec = valueCodec;
+        return this;
+    }
+
+    /**
+     * 获取值压缩阈值
+     *
+     * @return 压缩阈值（字节），0 表示禁用
+     */
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * 设置值压缩阈值
+     *
+     * @param compressionThreshold 压缩阈值（字节），0 表示禁用
+     * @return CacheConfig实例
+     */
+    public CacheConfig setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+        return this;
+    }
+
     public int getMaxConnections() {
         return maxConnections;
     }
@@ -516,6 +838,207 @@ public class CacheConfig implements Serializable {
         this.connectionTimeout = connectionTimeout;
     }
 
+    /**
+     * 获取本地一级缓存最大大小
+     *
+     * @return 本地缓存最大大小
+     */
+    public int getLocalMaximumSize() {
+        return localMaximumSize;
+    }
+
+    /**
+     * 设置本地一级缓存最大大小
+     *
+     * @param localMaximumSize 本地缓存最大大小
+     */
+    public void setLocalMaximumSize(int localMaximumSize) {
+        this.localMaximumSize = localMaximumSize;
+    }
+
+    /**
+     * 获取本地一级缓存写入后过期时间
+     *
+     * @return 本地缓存写入后过期时间（毫秒）
+     */
+    public long getLocalExpireAfterWrite() {
+        return localExpireAfterWrite;
+    }
+
+    /**
+     * 设置本地一级缓存写入后过期时间
+     *
+     * @param localExpireAfterWrite 本地缓存写入后过期时间（毫秒）
+     */
+    public void setLocalExpireAfterWrite(long localExpireAfterWrite) {
+        this.localExpireAfterWrite = localExpireAfterWrite;
+    }
+
+    /**
+     * 获取失效广播频道
+     *
+     * @return 失效广播频道，未设置时返回 "im:cache:invalidate:" + cacheName
+     */
+    public String getInvalidationChannel() {
+        if (invalidationChannel == null || invalidationChannel.isEmpty()) {
+            return "im:cache:invalidate:" + (cacheName != null ? cacheName : "");
+        }
+        return invalidationChannel;
+    }
+
+    /**
+     * 设置失效广播频道
+     *
+     * @param invalidationChannel 失效广播频道
+     */
+    public void setInvalidationChannel(String invalidationChannel) {
+        this.invalidationChannel = invalidationChannel;
+    }
+
+    /**
+     * 获取堆外缓存容量
+     *
+     * @return 堆外缓存容量（字节）
+     */
+    public long getOffHeapCapacity() {
+        return offHeapCapacity;
+    }
+
+    /**
+     * 设置堆外缓存容量
+     *
+     * @param offHeapCapacity 堆外缓存容量（字节）
+     */
+    public void setOffHeapCapacity(long offHeapCapacity) {
+        this.offHeapCapacity = offHeapCapacity;
+    }
+
+    /**
+     * 获取堆外缓存页大小
+     *
+     * @return 堆外缓存页大小（字节）
+     */
+    public int getOffHeapPageSize() {
+        return offHeapPageSize;
+    }
+
+    /**
+     * 设置堆外缓存页大小
+     *
+     * @param offHeapPageSize 堆外缓存页大小（字节）
+     */
+    public void setOffHeapPageSize(int offHeapPageSize) {
+        this.offHeapPageSize = offHeapPageSize;
+    }
+
+    /**
+     * 获取热点键阈值
+     *
+     * @return 热点键阈值（每秒读取次数）
+     */
+    public int getHotKeyThreshold() {
+        return hotKeyThreshold;
+    }
+
+    /**
+     * 设置热点键阈值
+     *
+     * @param hotKeyThreshold 热点键阈值（每秒读取次数），0 表示禁用
+     */
+    public void setHotKeyThreshold(int hotKeyThreshold) {
+        this.hotKeyThreshold = hotKeyThreshold;
+    }
+
+    /**
+     * 获取热点键本地存活时间
+     *
+     * @return 热点键本地存活时间（毫秒）
+     */
+    public long getHotKeyLocalTtl() {
+        return hotKeyLocalTtl;
+    }
+
+    /**
+     * 设置热点键本地存活时间
+     *
+     * @param hotKeyLocalTtl 热点键本地存活时间（毫秒）
+     */
+    public void setHotKeyLocalTtl(long hotKeyLocalTtl) {
+        this.hotKeyLocalTtl = hotKeyLocalTtl;
+    }
+
+    /**
+     * 获取热点键本地最大数量
+     *
+     * @return 热点键本地最大数量
+     */
+    public int getHotKeyMaxSize() {
+        return hotKeyMaxSize;
+    }
+
+    /**
+     * 设置热点键本地最大数量
+     *
+     * @param hotKeyMaxSize 热点键本地最大数量
+     */
+    public void setHotKeyMaxSize(int hotKeyMaxSize) {
+        this.hotKeyMaxSize = hotKeyMaxSize;
+    }
+
+    /**
+     * 获取条目权重计算器
+     *
+     * @return 条目权重计算器，null 表示按条目数淘汰
+     */
+    public Weigher<?, ?> getWeigher() {
+        return weigher;
+    }
+
+    /**
+     * 设置条目权重计算器
+     *
+     * @param weigher 条目权重计算器
+     */
+    public void setWeigher(Weigher<?, ?> weigher) {
+        this.weigher = weigher;
+    }
+
+    /**
+     * 获取最大权重之和
+     *
+     * @return 最大权重之和，0 表示不限
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * 设置最大权重之和
+     *
+     * @param maximumWeight 最大权重之和，0 表示不限
+     */
+    public void setMaximumWeight(long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+    }
+
+    /**
+     * 获取快照目录
+     *
+     * @return 快照目录，null 表示禁用
+     */
+    public String getSnapshotDirectory() {
+        return snapshotDirectory;
+    }
+
+    /**
+     * 设置快照目录
+     *
+     * @param snapshotDirectory 快照目录，null 表示禁用
+     */
+    public void setSnapshotDirectory(String snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
     /**
      * 返回对象的字符串表示
      *
@@ -526,8 +1049,12 @@ public class CacheConfig implements Serializable {
         return "CacheConfig{" +
                 "cacheName='" + cacheName + '\'' +
                 ", maximumSize=" + maximumSize +
+                ", weigher=" + (weigher != null ? weigher.getClass().getSimpleName() : null) +
+                ", maximumWeight=" + maximumWeight +
                 ", expireAfterWrite=" + expireAfterWrite +
                 ", expireAfterAccess=" + expireAfterAccess +
+                ", refreshAfterWrite=" + refreshAfterWrite +
+                ", refreshParallelism=" + refreshParallelism +
                 ", recordStats=" + recordStats +
                 ", enableNullValueProtection=" + enableNullValueProtection +
                 ", nullValueExpireTime=" + nullValueExpireTime +
@@ -535,12 +1062,27 @@ public class CacheConfig implements Serializable {
                 ", breakdownLockTimeout=" + breakdownLockTimeout +
                 ", enableAvalancheProtection=" + enableAvalancheProtection +
                 ", avalancheProtectionRange=" + avalancheProtectionRange +
+                ", keyEnumerator=" + (keyEnumerator != null ? keyEnumerator.getClass().getSimpleName() : null) +
+                ", keyFilterRebuildInterval=" + keyFilterRebuildInterval +
+                ", keyFilterExpectedKeys=" + keyFilterExpectedKeys +
+                ", keyFilterFalsePositiveRate=" + keyFilterFalsePositiveRate +
                 ", backendType=" + backendType +
                 ", cacheImplementation='" + cacheImplementation + '\'' +
                 ", cleanupInterval=" + cleanupInterval +
                 ", redisUri='" + redisUri + '\'' +
                 ", redisConnectionTimeout=" + redisConnectionTimeout +
                 ", redisSoTimeout=" + redisSoTimeout +
+                ", redisConnectionMode=" + redisConnectionMode +
+                ", valueCodec=" + (valueCodec != null ? valueCodec.getClass().getSimpleName() : null) +
+                ", compressionThreshold=" + compressionThreshold +
+                ", hotKeyThreshold=" + hotKeyThreshold +
+                ", hotKeyLocalTtl=" + hotKeyLocalTtl +
+                ", hotKeyMaxSize=" + hotKeyMaxSize +
+                ", localMaximumSize=" + localMaximumSize +
+                ", localExpireAfterWrite=" + localExpireAfterWrite +
+                ", offHeapCapacity=" + offHeapCapacity +
+                ", offHeapPageSize=" + offHeapPageSize +
+                ", snapshotDirectory='" + snapshotDirectory + '\'' +
                 '}';
     }
 }
@@ -1,5 +1,9 @@
 package org.im.cache.config;
 
+import org.im.cache.codec.CacheCodec;
+import org.im.cache.core.KeyEnumerator;
+import org.im.cache.core.Weigher;
+
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -61,6 +65,30 @@ public class CacheConfigBuilder {
         return this;
     }
 
+    /**
+     * 设置条目权重计算器，缓存改为按权重之和淘汰
+     *
+     * @param weigher 条目权重计算器
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setWeigher(Weigher)
+     */
+    public CacheConfigBuilder weigher(Weigher<?, ?> weigher) {
+        config.setWeigher(weigher);
+        return this;
+    }
+
+    /**
+     * 设置最大权重之和
+     *
+     * @param maximumWeight 最大权重之和，0 表示不限
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setMaximumWeight(long)
+     */
+    public CacheConfigBuilder maximumWeight(long maximumWeight) {
+        config.setMaximumWeight(maximumWeight);
+        return this;
+    }
+
     /**
      * 设置写入后过期时间
      *
@@ -87,6 +115,31 @@ public class CacheConfigBuilder {
         return this;
     }
 
+    /**
+     * 设置写入后刷新时间
+     *
+     * @param duration 刷新时间长度
+     * @param unit     时间单位
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setRefreshAfterWrite(long)
+     */
+    public CacheConfigBuilder refreshAfterWrite(long duration, TimeUnit unit) {
+        config.setRefreshAfterWrite(unit.toMillis(duration));
+        return this;
+    }
+
+    /**
+     * 设置刷新并行度
+     *
+     * @param parallelism 批量刷新时同时执行的加载任务数
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setRefreshParallelism(int)
+     */
+    public CacheConfigBuilder refreshParallelism(int parallelism) {
+        config.setRefreshParallelism(parallelism);
+        return this;
+    }
+
     /**
      * 设置是否启用统计
      *
@@ -135,6 +188,46 @@ public class CacheConfigBuilder {
         return this;
     }
 
+    /**
+     * 设置已存在键枚举器，启用本地键过滤器
+     *
+     * @param keyEnumerator 列出数据源中全部存在键的枚举器
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setKeyEnumerator(KeyEnumerator)
+     */
+    public CacheConfigBuilder keyEnumerator(KeyEnumerator<?> keyEnumerator) {
+        config.setKeyEnumerator(keyEnumerator);
+        return this;
+    }
+
+    /**
+     * 设置键过滤器重建间隔
+     *
+     * @param interval 重建间隔
+     * @param unit     时间单位
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setKeyFilterRebuildInterval(long)
+     */
+    public CacheConfigBuilder keyFilterRebuildInterval(long interval, TimeUnit unit) {
+        config.setKeyFilterRebuildInterval(unit.toMillis(interval));
+        return this;
+    }
+
+    /**
+     * 设置键过滤器的预期键数量与误判率
+     *
+     * @param expectedKeys      预期键数量
+     * @param falsePositiveRate 误判率，取值 (0, 1)
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setKeyFilterExpectedKeys(long)
+     * @see CacheConfig#setKeyFilterFalsePositiveRate(double)
+     */
+    public CacheConfigBuilder keyFilterSizing(long expectedKeys, double falsePositiveRate) {
+        config.setKeyFilterExpectedKeys(expectedKeys);
+        config.setKeyFilterFalsePositiveRate(falsePositiveRate);
+        return this;
+    }
+
     /**
      * 设置缓存后端类型
      *
@@ -147,6 +240,42 @@ public class CacheConfigBuilder {
         return this;
     }
 
+    /**
+     * 设置Redis连接模式
+     *
+     * @param mode Redis连接模式
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setRedisConnectionMode(RedisConnectionMode)
+     */
+    public CacheConfigBuilder redisConnectionMode(RedisConnectionMode mode) {
+        config.setRedisConnectionMode(mode);
+        return this;
+    }
+
+    /**
+     * 设置值编解码器
+     *
+     * @param codec 值编解码器
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setValueCodec(CacheCodec)
+     */
+    public CacheConfigBuilder valueCodec(CacheCodec<?> codec) {
+        config.setValueCodec(codec);
+        return this;
+    }
+
+    /**
+     * 设置值压缩阈值
+     *
+     * @param threshold 压缩阈值（字节），0 表示禁用
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setCompressionThreshold(int)
+     */
+    public CacheConfigBuilder compressionThreshold(int threshold) {
+        config.setCompressionThreshold(threshold);
+        return this;
+    }
+
     public CacheConfigBuilder maxConnections(int maxConnections) {
         config.setMaxConnections(maxConnections);
         return this;
@@ -167,6 +296,116 @@ public class CacheConfigBuilder {
         return this;
     }
 
+    /**
+     * 设置热点键阈值（REDIS 模式）
+     *
+     * @param threshold 单个键每秒读取次数达到该值时提升到本地，0 表示禁用
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setHotKeyThreshold(int)
+     */
+    public CacheConfigBuilder hotKeyThreshold(int threshold) {
+        config.setHotKeyThreshold(threshold);
+        return this;
+    }
+
+    /**
+     * 设置热点键本地存活时间（REDIS 模式）
+     *
+     * @param duration 存活时间长度
+     * @param unit     时间单位
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setHotKeyLocalTtl(long)
+     */
+    public CacheConfigBuilder hotKeyLocalTtl(long duration, TimeUnit unit) {
+        config.setHotKeyLocalTtl(unit.toMillis(duration));
+        return this;
+    }
+
+    /**
+     * 设置热点键本地最大数量（REDIS 模式）
+     *
+     * @param maxSize 同时提升到本地的热点键的最大数量
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setHotKeyMaxSize(int)
+     */
+    public CacheConfigBuilder hotKeyMaxSize(int maxSize) {
+        config.setHotKeyMaxSize(maxSize);
+        return this;
+    }
+
+    /**
+     * 设置本地一级缓存最大大小（HYBRID 模式）
+     *
+     * @param localMaximumSize 本地缓存最大大小
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setLocalMaximumSize(int)
+     */
+    public CacheConfigBuilder localMaximumSize(int localMaximumSize) {
+        config.setLocalMaximumSize(localMaximumSize);
+        return this;
+    }
+
+    /**
+     * 设置本地一级缓存写入后过期时间（HYBRID 模式）
+     *
+     * @param duration 过期时间长度
+     * @param unit     时间单位
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setLocalExpireAfterWrite(long)
+     */
+    public CacheConfigBuilder localExpireAfterWrite(long duration, TimeUnit unit) {
+        config.setLocalExpireAfterWrite(unit.toMillis(duration));
+        return this;
+    }
+
+    /**
+     * 设置失效广播频道（HYBRID 模式）
+     *
+     * @param channel Redis pub/sub 频道名
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setInvalidationChannel(String)
+     */
+    public CacheConfigBuilder invalidationChannel(String channel) {
+        config.setInvalidationChannel(channel);
+        return this;
+    }
+
+    /**
+     * 设置堆外缓存容量（OFFHEAP 模式）
+     *
+     * @param capacity 直接内存最大占用（字节）
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setOffHeapCapacity(long)
+     */
+    public CacheConfigBuilder offHeapCapacity(long capacity) {
+        config.setOffHeapCapacity(capacity);
+        return this;
+    }
+
+    /**
+     * 设置堆外缓存页大小（OFFHEAP 模式）
+     *
+     * @param pageSize 直接内存块大小（字节），同时也是单个值的最大长度
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setOffHeapPageSize(int)
+     */
+    public CacheConfigBuilder offHeapPageSize(int pageSize) {
+        config.setOffHeapPageSize(pageSize);
+        return this;
+    }
+
+    /**
+     * 设置快照目录（MEMORY / CAFFEINE 模式）
+     *
+     * @param directory 关闭时写入、创建时加载快照文件的目录，null 表示禁用
+     * @return 当前构建器实例，用于链式调用
+     * @see CacheConfig#setSnapshotDirectory(String)
+     */
+    public CacheConfigBuilder snapshotDirectory(String directory) {
+        config.setSnapshotDirectory(directory);
+        return this;
+    }
+
     /**
      * 设置定期清理间隔
      *
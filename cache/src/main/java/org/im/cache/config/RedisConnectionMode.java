@@ -0,0 +1,22 @@
+package org.im.cache.config;
+
+/**
+ * Redis连接模式枚举
+ * <p>
+ * 定义RedisCache获取Lettuce连接的方式
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/08
+ */
+public enum RedisConnectionMode {
+    /**
+     * 连接池模式，每次操作从 GenericObjectPool 借出连接，执行后归还
+     */
+    POOLED,
+    /**
+     * 共享连接模式，所有线程复用同一个线程安全的 Lettuce 连接，由 Lettuce 自动流水线化命令
+     */
+    SHARED
+}
@@ -0,0 +1,92 @@
+package org.im.cache.core;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 非阻塞缓存接口
+ * <p>
+ * 所有操作立即返回 {@link CompletableFuture}，调用线程不会因等待缓存 I/O 而挂起，
+ * 适用于虚拟线程、Flink 异步算子等不应在缓存访问上阻塞的场景。
+ * 通过 {@link Cache#async()} 或 {@link CacheManager#getAsyncCache(String)} 获取：
+ * 远程缓存直接基于客户端的异步命令实现，进程内缓存的操作本身不阻塞，返回已完成的结果。
+ * </p>
+ * <p>
+ * 读取失败按未命中处理；{@link #getOrLoadAsync(Object, Function)} 中加载函数失败时返回的结果以该异常完成。
+ * </p>
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/18
+ */
+public interface AsyncCache<K, V> {
+
+    /**
+     * 异步获取缓存值
+     *
+     * @param key 缓存键
+     * @return 缓存值的异步结果，不存在时完成为null
+     */
+    CompletableFuture<V> getAsync(K key);
+
+    /**
+     * 异步设置缓存值，使用配置的过期时间
+     *
+     * @param key   缓存键
+     * @param value 缓存值
+     * @return 写入完成的异步结果
+     */
+    CompletableFuture<Void> putAsync(K key, V value);
+
+    /**
+     * 异步设置缓存值并指定过期时间
+     *
+     * @param key   缓存键
+     * @param value 缓存值
+     * @param ttl   过期时间
+     * @param unit  时间单位
+     * @return 写入完成的异步结果
+     */
+    CompletableFuture<Void> putAsync(K key, V value, long ttl, TimeUnit unit);
+
+    /**
+     * 异步删除缓存项
+     *
+     * @param key 缓存键
+     * @return 是否删除成功的异步结果
+     */
+    CompletableFuture<Boolean> removeAsync(K key);
+
+    /**
+     * 异步批量获取缓存值
+     *
+     * @param keys 缓存键集合
+     * @return 命中的键值对映射的异步结果
+     */
+    CompletableFuture<Map<K, V>> getAllAsync(Set<? extends K> keys);
+
+    /**
+     * 异步批量设置缓存值
+     *
+     * @param map 缓存键值映射
+     * @return 写入完成的异步结果
+     */
+    CompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> map);
+
+    /**
+     * 异步获取或加载缓存值
+     * <p>
+     * 未命中时调用加载函数，加载结果写入缓存后完成；同一键的并发未命中共享同一次加载
+     * </p>
+     *
+     * @param key    缓存键
+     * @param loader 异步加载函数
+     * @return 缓存值的异步结果
+     */
+    CompletableFuture<V> getOrLoadAsync(K key, Function<K, CompletableFuture<V>> loader);
+}
@@ -2,6 +2,8 @@ package org.im.cache.core;
 
 import org.im.cache.config.CacheConfig;
 import org.im.cache.stats.CacheStats;
+import org.im.cache.support.CompletedAsyncCache;
+import org.im.cache.util.CacheUtils;
 
 import java.util.Map;
 import java.util.Set;
@@ -152,6 +154,34 @@ public interface Cache<K, V> {
      */
     V getOrLoadAtFixedTime(K key, Function<K, V> loader, long expireTimestamp);
 
+    /**
+     * 批量获取或加载缓存值
+     * <p>
+     * 命中部分一次性批量读取，未命中的键只调用一次批量加载函数，加载结果批量写回缓存。
+     * 默认实现基于 {@link #getAll(Set)} 与 {@link #putAll(Map)}，加载耗时记录到 {@link #getStats()}
+     * </p>
+     *
+     * @param keys   缓存键集合
+     * @param loader 批量加载函数，参数为未命中的键集合，返回加载到的键值对
+     * @return 命中与加载结果合并后的键值对映射
+     */
+    default Map<K, V> getAllOrLoad(Set<? extends K> keys, Function<Set<K>, Map<K, V>> loader) {
+        return CacheUtils.getAllOrLoad(this, keys, loader, getStats());
+    }
+
+    /**
+     * 获取非阻塞视图
+     * <p>
+     * 默认实现以已完成的结果包装同步操作，适用于读写不涉及 I/O 的进程内缓存；
+     * 远程缓存返回基于客户端异步命令的实现
+     * </p>
+     *
+     * @return 非阻塞视图
+     */
+    default AsyncCache<K, V> async() {
+        return new CompletedAsyncCache<>(this);
+    }
+
     /**
      * 刷新缓存（重新加载所有缓存项）
      */
@@ -47,6 +47,20 @@ public interface CacheManager {
      */
     <K, V> Cache<K, V> getCache(String name);
 
+    /**
+     * Get the non-blocking view of a cache by name
+     *
+     * @param name Cache name
+     * @param <K>  Key type
+     * @param <V>  Value type
+     * @return Non-blocking view of the cache, or null if not found
+     * @see Cache#async()
+     */
+    default <K, V> AsyncCache<K, V> getAsyncCache(String name) {
+        Cache<K, V> cache = getCache(name);
+        return cache != null ? cache.async() : null;
+    }
+
     /**
      * Get or create a cache with the specified name and configuration
      *
@@ -0,0 +1,28 @@
+package org.im.cache.core;
+
+import java.util.function.Consumer;
+
+/**
+ * 已存在键枚举器
+ * <p>
+ * 由数据源一方提供，逐个列出当前存在的全部键，例如对主键列做一次游标扫描。
+ * 缓存据此周期性地重建本地键过滤器，对确定不存在的键直接返回未命中，不再访问远程缓存和数据源。
+ * 枚举在后台线程中执行，可以耗时较长，但不应一次性把所有键加载到内存中。
+ * </p>
+ *
+ * @param <K> 键类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/19
+ */
+@FunctionalInterface
+public interface KeyEnumerator<K> {
+
+    /**
+     * 枚举所有存在的键
+     *
+     * @param sink 接收每个键
+     * @throws Exception 枚举失败时抛出，本次重建被放弃并保留上一次的过滤器
+     */
+    void enumerate(Consumer<? super K> sink) throws Exception;
+}
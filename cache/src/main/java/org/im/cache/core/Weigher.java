@@ -0,0 +1,27 @@
+package org.im.cache.core;
+
+/**
+ * 缓存条目权重计算器
+ * <p>
+ * 为进程内缓存的条目估算占用，通常为值的近似字节数。配置后缓存按权重之和而非条目数淘汰，
+ * 并可参与缓存管理器的全局内存预算分配。权重在写入时计算一次，之后不再更新。
+ * </p>
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/17
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+    /**
+     * 计算条目权重
+     *
+     * @param key   缓存键
+     * @param value 缓存值，不会是空值标记
+     * @return 条目权重，不能为负数
+     */
+    int weigh(K key, V value);
+}
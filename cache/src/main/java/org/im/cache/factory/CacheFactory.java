@@ -5,8 +5,11 @@ import org.im.cache.config.CacheConfigBuilder;
 import org.im.cache.core.Cache;
 import org.im.cache.core.CacheManager;
 import org.im.cache.impl.cache.CaffeineCache;
+import org.im.cache.impl.cache.HybridCache;
+import org.im.cache.impl.cache.OffHeapCache;
 import org.im.cache.impl.cache.RedisCache;
 import org.im.cache.impl.cache.SimpleMemoryCache;
+import org.im.cache.support.ExpirationScheduler;
 import org.im.cache.support.ProtectedCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,18 +31,34 @@ public class CacheFactory {
     private static final Logger logger = LoggerFactory.getLogger(CacheFactory.class);
 
     private final CacheManager cacheManager;
+    private final ExpirationScheduler expirationScheduler;
 
     /**
-     * Constructor with injectable CacheManager
+     * Constructor with injectable CacheManager, in-memory caches use the process-wide expiration scheduler
      *
      * @param cacheManager The cache manager to manage created caches
      * @throws IllegalArgumentException if cacheManager is null
      */
     public CacheFactory(CacheManager cacheManager) {
+        this(cacheManager, ExpirationScheduler.getDefault());
+    }
+
+    /**
+     * Constructor with injectable CacheManager and the expiration scheduler shared by created in-memory caches
+     *
+     * @param cacheManager        The cache manager to manage created caches
+     * @param expirationScheduler Timing-wheel scheduler that expires entries of in-memory caches and drives key filter rebuilds
+     * @throws IllegalArgumentException if cacheManager or expirationScheduler is null
+     */
+    public CacheFactory(CacheManager cacheManager, ExpirationScheduler expirationScheduler) {
         if (cacheManager == null) {
             throw new IllegalArgumentException("CacheManager cannot be null");
         }
+        if (expirationScheduler == null) {
+            throw new IllegalArgumentException("ExpirationScheduler cannot be null");
+        }
         this.cacheManager = cacheManager;
+        this.expirationScheduler = expirationScheduler;
         logger.info("CacheFactory initialized with CacheManager: {}", cacheManager.getClass().getSimpleName());
     }
 
@@ -63,7 +82,7 @@ public class CacheFactory {
         try {
             switch (config.getBackendType()) {
                 case MEMORY:
-                    cache = new SimpleMemoryCache<>(config);
+                    cache = new SimpleMemoryCache<>(config, expirationScheduler);
                     break;
                 case CAFFEINE:
                     cache = new CaffeineCache<>(config);
@@ -72,10 +91,14 @@ public class CacheFactory {
                     cache = new RedisCache<>(config);
                     break;
                 case HYBRID:
-                    throw new UnsupportedOperationException("Hybrid cache not implemented");
+                    cache = new HybridCache<>(config);
+                    break;
+                case OFFHEAP:
+                    cache = new OffHeapCache<>(config);
+                    break;
                 default:
                     logger.warn("Unknown BackendType {}, defaulting to MEMORY", config.getBackendType());
-                    cache = new SimpleMemoryCache<>(config);
+                    cache = new SimpleMemoryCache<>(config, expirationScheduler);
                     break;
             }
             logger.info("Created cache with backend: {} for config.prefix: {}", config.getBackendType(), config.getCacheName());
@@ -87,8 +110,9 @@ public class CacheFactory {
         // Apply protection mechanisms
         if (config.isEnableNullValueProtection() ||
                 config.isEnableBreakdownProtection() ||
-                config.isEnableAvalancheProtection()) {
-            cache = new ProtectedCache<>(cache, config);
+                config.isEnableAvalancheProtection() ||
+                config.getKeyEnumerator() != null) {
+            cache = new ProtectedCache<>(cache, config, expirationScheduler);
             logger.debug("Applied ProtectedCache wrapper to cache: {}", config.getCacheName());
         }
 
@@ -117,19 +141,23 @@ public class CacheFactory {
         try {
             switch (config.getBackendType()) {
                 case MEMORY:
-                    cache = new SimpleMemoryCache<>(config);
+                    cache = new SimpleMemoryCache<>(config, expirationScheduler, keyType, valueType);
                     break;
                 case CAFFEINE:
-                    cache = new CaffeineCache<>(config);
+                    cache = new CaffeineCache<>(config, keyType, valueType);
                     break;
                 case REDIS:
                     cache = new RedisCache<>(config, valueType);
                     break;
                 case HYBRID:
-                    throw new UnsupportedOperationException("Hybrid cache not implemented");
+                    cache = new HybridCache<>(config, keyType, valueType);
+                    break;
+                case OFFHEAP:
+                    cache = new OffHeapCache<>(config, valueType);
+                    break;
                 default:
                     logger.warn("Unknown BackendType {}, defaulting to MEMORY", config.getBackendType());
-                    cache = new SimpleMemoryCache<>(config);
+                    cache = new SimpleMemoryCache<>(config, expirationScheduler, keyType, valueType);
                     break;
             }
             logger.info("Created cache with backend: {} for config.prefix: {}", config.getBackendType(), config.getCacheName());
@@ -141,8 +169,9 @@ public class CacheFactory {
         // Apply protection mechanisms
         if (config.isEnableNullValueProtection() ||
                 config.isEnableBreakdownProtection() ||
-                config.isEnableAvalancheProtection()) {
-            cache = new ProtectedCache<>(cache, config);
+                config.isEnableAvalancheProtection() ||
+                config.getKeyEnumerator() != null) {
+            cache = new ProtectedCache<>(cache, config, expirationScheduler);
             logger.debug("Applied ProtectedCache wrapper to cache: {}", config.getCacheName());
         }
 
@@ -1,13 +1,20 @@
 package org.im.cache.impl.cache;
 
 import org.im.cache.config.CacheConfig;
+import org.im.cache.core.AsyncCache;
 import org.im.cache.core.Cache;
 import org.im.cache.stats.CacheStats;
+import org.im.cache.support.CompletedAsyncCache;
+import org.im.cache.support.RefreshAheadSupport;
+import org.im.cache.support.SingleFlight;
+import org.im.cache.util.CacheUtils;
 import org.im.cache.util.ValidationUtils;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -15,6 +22,18 @@ import java.util.function.Function;
  * <p>
  * 提供缓存实现的基础功能
  * </p>
+ * <p>
+ * 所有 getOrLoad 系列方法经由 {@link SingleFlight} 按键合并并发加载：
+ * 同一个键的并发未命中只会执行一次加载函数，其余调用者共享结果，
+ * 等待超时时间取 {@link CacheConfig#getBreakdownLockTimeout()}
+ * </p>
+ * <p>
+ * 配置了 {@link CacheConfig#getRefreshAfterWrite()} 时，经 getOrLoad 加载的条目写入超过刷新时间后，
+ * 读取继续返回旧值并在后台重新加载；{@link #refresh()} 分批并行重新加载所有存活的条目
+ * </p>
+ * <p>
+ * get/put 的端到端耗时与加载耗时分别记录到 {@link CacheStats} 对应操作的耗时分布中
+ * </p>
  *
  * @param <K> 键类型
  * @param <V> 值类型
@@ -34,6 +53,21 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
      */
     protected final CacheStats stats = new CacheStats();
 
+    /**
+     * 按键合并的在途加载
+     */
+    protected final SingleFlight<K> singleFlight;
+
+    /**
+     * 提前刷新支持
+     */
+    protected final RefreshAheadSupport<K, V> refreshSupport;
+
+    /**
+     * 非阻塞视图，远程缓存重写 {@link #async()} 返回基于异步命令的实现
+     */
+    private final AsyncCache<K, V> asyncView;
+
     /**
      * 构造函数
      *
@@ -42,6 +76,19 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
     protected AbstractCache(CacheConfig config) {
         ValidationUtils.checkNotNull(config, "Cache config cannot be null");
         this.config = config;
+        this.singleFlight = new SingleFlight<>(config.getBreakdownLockTimeout());
+        this.refreshSupport = new RefreshAheadSupport<>(config);
+        this.asyncView = new CompletedAsyncCache<>(this);
+    }
+
+    /**
+     * 获取非阻塞视图
+     *
+     * @return 非阻塞视图
+     */
+    @Override
+    public AsyncCache<K, V> async() {
+        return asyncView;
     }
 
     /**
@@ -67,21 +114,7 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
         if (value != null) {
             return value;
         }
-
-        long startTime = System.nanoTime();
-        try {
-            value = loader.apply(key);
-            if (value != null) {
-                put(key, value);
-                stats.recordLoadSuccess(System.nanoTime() - startTime);
-            } else {
-                stats.recordLoadException(System.nanoTime() - startTime);
-            }
-            return value;
-        } catch (Exception e) {
-            stats.recordLoadException(System.nanoTime() - startTime);
-            throw e;
-        }
+        return loadCoalesced(key, loader, loaded -> put(key, loaded));
     }
 
     /**
@@ -99,21 +132,76 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
         if (value != null) {
             return value;
         }
+        return loadCoalesced(key, loader, loaded -> put(key, loaded, ttl, unit));
+    }
 
-        long startTime = System.nanoTime();
-        try {
-            value = loader.apply(key);
-            if (value != null) {
-                put(key, value, ttl, unit);
-                stats.recordLoadSuccess(System.nanoTime() - startTime);
-            } else {
+    /**
+     * 批量获取或加载缓存值
+     *
+     * @param keys   缓存键集合
+     * @param loader 批量加载函数
+     * @return 键值对映射
+     */
+    @Override
+    public Map<K, V> getAllOrLoad(Set<? extends K> keys, Function<Set<K>, Map<K, V>> loader) {
+        return CacheUtils.getAllOrLoad(this, keys, loader, stats);
+    }
+
+    /**
+     * 合并同一键的并发加载，加载成功后写入缓存
+     * <p>
+     * 只有加载者执行加载函数和写入，等待者直接复用加载结果
+     * </p>
+     *
+     * @param key    键
+     * @param loader 加载函数
+     * @param writer 加载到非空值后的写入操作
+     * @return 加载结果
+     */
+    protected V loadCoalesced(K key, Function<K, V> loader, Consumer<V> writer) {
+        return singleFlight.load(key, () -> {
+            long startTime = System.nanoTime();
+            try {
+                V value = loader.apply(key);
+                if (value != null) {
+                    writer.accept(value);
+                    refreshSupport.register(key, loader, writer);
+                    stats.recordLoadSuccess(System.nanoTime() - startTime);
+                } else {
+                    stats.recordLoadException(System.nanoTime() - startTime);
+                }
+                return value;
+            } catch (RuntimeException e) {
                 stats.recordLoadException(System.nanoTime() - startTime);
+                throw e;
             }
-            return value;
-        } catch (Exception e) {
-            stats.recordLoadException(System.nanoTime() - startTime);
-            throw e;
-        }
+        });
+    }
+
+    /**
+     * 合并同一键的并发异步加载，加载成功后写入缓存
+     *
+     * @param key    键
+     * @param loader 异步加载函数
+     * @param writer 加载到非空值后的异步写入操作
+     * @return 加载结果的 future
+     */
+    protected CompletableFuture<V> loadCoalescedAsync(K key, Function<K, CompletableFuture<V>> loader,
+                                                      Function<V, CompletableFuture<Void>> writer) {
+        return singleFlight.loadAsync(key, () -> {
+            long startTime = System.nanoTime();
+            CompletableFuture<V> loading = CacheUtils.loadAsync(loader, key);
+            loading.whenComplete((value, e) -> {
+                if (e == null && value != null) {
+                    stats.recordLoadSuccess(System.nanoTime() - startTime);
+                } else {
+                    stats.recordLoadException(System.nanoTime() - startTime);
+                }
+            });
+            return loading.thenCompose(value -> value != null
+                    ? writer.apply(value).thenApply(ignored -> value)
+                    : CompletableFuture.completedFuture(null));
+        });
     }
 
     /**
@@ -149,6 +237,9 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
     public int removeAll(Set<? extends K> keys) {
         ValidationUtils.checkNotNull(keys, "Keys cannot be null");
         do_removeAll(keys);
+        for (K key : keys) {
+            refreshSupport.unregister(key);
+        }
         return keys.size();
     }
 
@@ -163,15 +254,22 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
     @Override
     public void put(K key, V value, long ttl, TimeUnit unit) {
         ValidationUtils.checkNotNull(key, "Key cannot be null");
+        long startTime = System.nanoTime();
         do_putWithTtl(key, value, ttl, unit);
+        stats.recordLatency(CacheStats.Operation.PUT, System.nanoTime() - startTime);
+        refreshSupport.recordWrite(key);
     }
 
     /**
      * 刷新缓存
+     * <p>
+     * 按 {@link CacheConfig#getRefreshParallelism()} 分批并行重新加载所有经 getOrLoad 加载且仍存活的条目。
+     * 未启用 refreshAfterWrite 时只登记首次调用本方法之后加载的条目
+     * </p>
      */
     @Override
     public void refresh() {
-        // 默认实现为空，子类可重写
+        refreshSupport.refreshAll(this::containsKey);
     }
 
     /**
@@ -251,7 +349,13 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
     @Override
     public V get(K key) {
         ValidationUtils.checkNotNull(key, "Key cannot be null");
-        return do_get(key);
+        long startTime = System.nanoTime();
+        V value = do_get(key);
+        stats.recordLatency(CacheStats.Operation.GET, System.nanoTime() - startTime);
+        if (value != null) {
+            refreshSupport.onRead(key);
+        }
+        return value;
     }
 
     /**
@@ -263,7 +367,10 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
     @Override
     public void put(K key, V value) {
         ValidationUtils.checkNotNull(key, "Key cannot be null");
+        long startTime = System.nanoTime();
         do_put(key, value);
+        stats.recordLatency(CacheStats.Operation.PUT, System.nanoTime() - startTime);
+        refreshSupport.recordWrite(key);
     }
 
     /**
@@ -275,6 +382,7 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
     @Override
     public boolean remove(K key) {
         ValidationUtils.checkNotNull(key, "Key cannot be null");
+        refreshSupport.unregister(key);
         return do_remove(key);
     }
 }
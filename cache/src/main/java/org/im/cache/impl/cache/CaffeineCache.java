@@ -1,19 +1,33 @@
 package org.im.cache.impl.cache;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
 import org.im.cache.config.CacheConfig;
+import org.im.cache.core.AsyncCache;
 import org.im.cache.core.Cache;
+import org.im.cache.core.Weigher;
 import org.im.cache.stats.CacheStats;
+import org.im.cache.support.CacheSnapshot;
 import org.im.cache.support.ExpiringValue;
+import org.im.cache.support.MemoryBudget;
+import org.im.cache.support.RefreshAheadSupport;
+import org.im.cache.support.SingleFlight;
+import org.im.cache.util.CacheUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 /**
@@ -21,6 +35,26 @@ import java.util.function.Function;
  * <p>
  * 提供高性能的本地缓存功能，支持过期策略、大小限制、统计等特性
  * </p>
+ * <p>
+ * getOrLoad 系列方法按键合并并发加载，同一键的并发未命中只执行一次加载函数
+ * </p>
+ * <p>
+ * 配置了快照目录时，关闭缓存会将条目连同按写入后过期时间推算的剩余存活时间写入 {@link CacheSnapshot}，
+ * 创建同名缓存时重新加载；仅配置访问后过期的条目重新加载后重新开始计算空闲时间
+ * </p>
+ * <p>
+ * 配置了 {@link Weigher} 时按权重之和淘汰，容量可由共享的 {@link MemoryBudget} 在运行时调整
+ * </p>
+ * <p>
+ * 底层为 Caffeine 的异步缓存，同步操作使用其同步视图；{@link AsyncCache} 的实现直接读取在途的 future，
+ * {@link #getOrLoadAsync(Object, Function)} 由 Caffeine 按键合并加载，读取不会阻塞在其他调用者的在途加载上
+ * </p>
+ * <p>
+ * Caffeine 自身的 refreshAfterWrite 要求构建时固定一个加载函数，而这里的加载函数随每次 getOrLoad 传入，
+ * 因此 {@link CacheConfig#getRefreshAfterWrite()} 与其他本地缓存一样由 {@link RefreshAheadSupport} 实现：
+ * 经 {@link #getOrLoad(Object, Function)} 加载的条目超过刷新时间后读取返回旧值并在后台重新加载，
+ * {@link #refresh()} 重新加载所有存活的条目；条目被淘汰或过期时由驱逐监听取消登记
+ * </p>
  *
  * @param <K> 键类型
  * @param <V> 值类型
@@ -28,12 +62,17 @@ import java.util.function.Function;
  * @email gaoolin@gmail.com
  * @date 2025/08/19
  */
-public class CaffeineCache<K, V> implements Cache<K, V> {
+public class CaffeineCache<K, V> implements Cache<K, V>, AsyncCache<K, V>, MemoryBudget.Member {
     private static final Logger logger = LoggerFactory.getLogger(CaffeineCache.class);
 
-    private final com.github.benmanes.caffeine.cache.Cache<K, Object> cache; // 使用Object以支持ExpiringValue
+    private final com.github.benmanes.caffeine.cache.AsyncCache<K, Object> asyncCache; // 使用Object以支持ExpiringValue
+    private final com.github.benmanes.caffeine.cache.Cache<K, Object> cache;
     private final CacheConfig config;
     private final CacheStats stats = new CacheStats();
+    private final AtomicLong syncedEvictionCount = new AtomicLong();
+    private final SingleFlight<K> singleFlight;
+    private final RefreshAheadSupport<K, V> refreshSupport;
+    private final CacheSnapshot<K, V> snapshot;
     private ScheduledExecutorService cleanupScheduler;
 
     /**
@@ -42,8 +81,26 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
      * @param config 缓存配置
      */
     public CaffeineCache(CacheConfig config) {
+        this(config, null, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param config    缓存配置
+     * @param keyType   键类型，用于解码快照，为null时不启用快照
+     * @param valueType 值类型，用于解码快照，为null且未配置值编解码器时不启用快照
+     */
+    public CaffeineCache(CacheConfig config, Class<K> keyType, Class<V> valueType) {
         this.config = config;
-        this.cache = buildCache(config);
+        this.refreshSupport = new RefreshAheadSupport<>(config);
+        this.asyncCache = buildCache(config);
+        this.cache = asyncCache.synchronous();
+        this.singleFlight = new SingleFlight<>(config.getBreakdownLockTimeout());
+        this.snapshot = CacheSnapshot.of(config, keyType, valueType);
+        if (snapshot != null) {
+            snapshot.load(this::restore);
+        }
 
         // 如果启用了统计或设置了清理间隔，则启动定期清理任务
         if (config.isRecordStats() || config.getCleanupInterval() > 0) {
@@ -57,11 +114,15 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
      * @param config 缓存配置
      * @return Caffeine缓存实例
      */
-    private com.github.benmanes.caffeine.cache.Cache<K, Object> buildCache(CacheConfig config) {
+    @SuppressWarnings("unchecked")
+    private com.github.benmanes.caffeine.cache.AsyncCache<K, Object> buildCache(CacheConfig config) {
         Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        Weigher<K, V> weigher = (Weigher<K, V>) config.getWeigher();
 
-        // 设置最大大小
-        if (config.getMaximumSize() > 0) {
+        // 设置最大大小，配置了权重计算器时改为按权重淘汰
+        if (weigher != null) {
+            builder.maximumWeight(config.getMaximumWeight() > 0 ? config.getMaximumWeight() : Long.MAX_VALUE);
+        } else if (config.getMaximumSize() > 0) {
             builder.maximumSize(config.getMaximumSize());
         }
 
@@ -80,39 +141,26 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
             builder.recordStats();
         }
 
-        return builder.build();
+        // 淘汰或过期的条目同步取消提前刷新的登记，显式删除由对应方法处理
+        Caffeine<K, Object> typed = builder.<K, Object>evictionListener((key, value, cause) -> {
+            if (key != null) {
+                refreshSupport.unregister(key);
+            }
+        });
+        if (weigher != null) {
+            return typed.weigher((key, value) -> CacheUtils.weigh(weigher, key, value)).buildAsync();
+        }
+        return typed.buildAsync();
     }
 
     @Override
     public V get(K key) {
         try {
-            Object value = cache.getIfPresent(key);
-
-            // 处理过期值包装器
-            if (value instanceof ExpiringValue) {
-                @SuppressWarnings("unchecked")
-                ExpiringValue<V> expiringValue = (ExpiringValue<V>) value;
-
-                if (expiringValue.isExpired()) {
-                    // 过期了，清理并记录未命中
-                    cache.invalidate(key);
-                    stats.recordMiss();
-                    return null;
-                }
-
-                stats.recordHit();
-                return expiringValue.getValue();
-            } else {
-                @SuppressWarnings("unchecked")
-                V typedValue = (V) value;
-
-                if (typedValue != null) {
-                    stats.recordHit();
-                } else {
-                    stats.recordMiss();
-                }
-                return typedValue;
+            V value = unwrap(key, cache.getIfPresent(key));
+            if (value != null) {
+                refreshSupport.onRead(key);
             }
+            return value;
         } catch (Exception e) {
             logger.warn("Error getting value from cache for key: {}", key, e);
             stats.recordMiss();
@@ -120,10 +168,46 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
         }
     }
 
+    /**
+     * 处理读取到的原始值并记录命中统计，过期的包装值被清理并视为未命中
+     *
+     * @param key   缓存键
+     * @param value 原始值
+     * @return 缓存值
+     */
+    private V unwrap(K key, Object value) {
+        // 处理过期值包装器
+        if (value instanceof ExpiringValue) {
+            @SuppressWarnings("unchecked")
+            ExpiringValue<V> expiringValue = (ExpiringValue<V>) value;
+
+            if (expiringValue.isExpired()) {
+                // 过期了，清理并记录未命中
+                cache.invalidate(key);
+                stats.recordMiss();
+                return null;
+            }
+
+            stats.recordHit();
+            return expiringValue.getValue();
+        }
+
+        @SuppressWarnings("unchecked")
+        V typedValue = (V) value;
+
+        if (typedValue != null) {
+            stats.recordHit();
+        } else {
+            stats.recordMiss();
+        }
+        return typedValue;
+    }
+
     @Override
     public void put(K key, V value) {
         try {
             cache.put(key, value);
+            refreshSupport.recordWrite(key);
         } catch (Exception e) {
             logger.warn("Error putting value to cache for key: {}", key, e);
         }
@@ -200,6 +284,7 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
             boolean existed = cache.getIfPresent(key) != null;
             // 执行删除操作
             cache.invalidate(key);
+            refreshSupport.unregister(key);
             // 返回删除前是否存在该键
             return existed;
         } catch (Exception e) {
@@ -219,6 +304,7 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
                 }
             }
             cache.invalidateAll(keys);
+            keys.forEach(refreshSupport::unregister);
             return count;
         } catch (Exception e) {
             logger.warn("Error removing values from cache for keys: {}", keys, e);
@@ -249,30 +335,16 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
     @Override
     public void clear() {
         cache.invalidateAll();
+        refreshSupport.clear();
     }
 
     @Override
     public CacheStats getStats() {
         if (config.isRecordStats()) {
-            com.github.benmanes.caffeine.cache.stats.CacheStats caffeineStats = cache.stats();
-            for (long i = 0; i < caffeineStats.hitCount(); i++) {
-                stats.recordHit();
-            }
-            for (long i = 0; i < caffeineStats.missCount(); i++) {
-                stats.recordMiss();
-            }
-            for (long i = 0; i < caffeineStats.loadSuccessCount(); i++) {
-                stats.recordLoadSuccess(caffeineStats.totalLoadTime());
-            }
-            for (long i = 0; i < caffeineStats.loadFailureCount(); i++) {
-                stats.recordLoadException(caffeineStats.totalLoadTime());
-            }
-            for (long i = 0; i < caffeineStats.evictionCount(); i++) {
-                stats.recordEviction();
-            }
-            for (long i = 0; i < caffeineStats.evictionWeight(); i++) {
-                stats.recordEviction();
-            }
+            // 命中、未命中与加载已由本类记录，这里只同步 Caffeine 内部驱逐次数的增量
+            long evictions = cache.stats().evictionCount();
+            long synced = syncedEvictionCount.getAndAccumulate(evictions, Math::max);
+            stats.recordEvictions(evictions - synced);
         }
         return stats;
     }
@@ -282,6 +354,30 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
         return config;
     }
 
+    /**
+     * 获取当前权重之和，未按权重淘汰时为估计条目数
+     *
+     * @return 权重之和
+     */
+    @Override
+    public long getWeightedSize() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(cache.estimatedSize()))
+                .orElse(cache.estimatedSize());
+    }
+
+    /**
+     * 调整容量，缩小时由 Caffeine 淘汰超出的条目
+     *
+     * @param maximumWeight 最大权重之和，未配置权重计算器时为最大条目数
+     */
+    @Override
+    public void setMaximumWeight(long maximumWeight) {
+        cache.policy().eviction()
+                .orElseThrow(() -> new IllegalStateException("Cache is unbounded, configure maximumSize or a weigher"))
+                .setMaximum(maximumWeight);
+    }
+
     @Override
     public V getOrLoad(K key, Function<K, V> loader) {
         try {
@@ -297,26 +393,33 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
                     cache.invalidate(key);
                 } else {
                     stats.recordHit();
+                    refreshSupport.onRead(key);
                     return expiringValue.getValue();
                 }
             } else if (value != null) {
                 @SuppressWarnings("unchecked")
                 V typedValue = (V) value;
                 stats.recordHit();
+                refreshSupport.onRead(key);
                 return typedValue;
             }
 
             // 缓存未命中或已过期，加载新值
-            long startTime = System.nanoTime();
-            try {
-                V result = loader.apply(key);
-                stats.recordLoadSuccess(System.nanoTime() - startTime);
-                cache.put(key, result);
-                return result;
-            } catch (Exception e) {
-                stats.recordLoadException(System.nanoTime() - startTime);
-                throw new RuntimeException(e);
-            }
+            return singleFlight.load(key, () -> {
+                long startTime = System.nanoTime();
+                try {
+                    V result = loader.apply(key);
+                    stats.recordLoadSuccess(System.nanoTime() - startTime);
+                    cache.put(key, result);
+                    if (result != null) {
+                        refreshSupport.register(key, loader, loaded -> cache.put(key, loaded));
+                    }
+                    return result;
+                } catch (Exception e) {
+                    stats.recordLoadException(System.nanoTime() - startTime);
+                    throw new RuntimeException(e);
+                }
+            });
         } catch (Exception e) {
             logger.warn("Error loading value for key: {}", key, e);
             return null;
@@ -346,16 +449,18 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
             }
 
             // 缓存未命中或已过期，加载新值
-            long startTime = System.nanoTime();
-            try {
-                V result = loader.apply(key);
-                stats.recordLoadSuccess(System.nanoTime() - startTime);
-                put(key, result, ttl, unit); // 使用带ttl的put方法
-                return result;
-            } catch (Exception e) {
-                stats.recordLoadException(System.nanoTime() - startTime);
-                throw new RuntimeException(e);
-            }
+            return singleFlight.load(key, () -> {
+                long startTime = System.nanoTime();
+                try {
+                    V result = loader.apply(key);
+                    stats.recordLoadSuccess(System.nanoTime() - startTime);
+                    put(key, result, ttl, unit); // 使用带ttl的put方法
+                    return result;
+                } catch (Exception e) {
+                    stats.recordLoadException(System.nanoTime() - startTime);
+                    throw new RuntimeException(e);
+                }
+            });
         } catch (Exception e) {
             logger.warn("Error loading value for key: {}", key, e);
             return null;
@@ -385,30 +490,135 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
             }
 
             // 缓存未命中或已过期，加载新值
-            long startTime = System.nanoTime();
-            try {
-                V result = loader.apply(key);
-                stats.recordLoadSuccess(System.nanoTime() - startTime);
-                putAtFixedTime(key, result, expireTimestamp); // 使用带绝对过期时间的put方法
-                return result;
-            } catch (Exception e) {
-                stats.recordLoadException(System.nanoTime() - startTime);
-                throw new RuntimeException(e);
-            }
+            return singleFlight.load(key, () -> {
+                long startTime = System.nanoTime();
+                try {
+                    V result = loader.apply(key);
+                    stats.recordLoadSuccess(System.nanoTime() - startTime);
+                    putAtFixedTime(key, result, expireTimestamp); // 使用带绝对过期时间的put方法
+                    return result;
+                } catch (Exception e) {
+                    stats.recordLoadException(System.nanoTime() - startTime);
+                    throw new RuntimeException(e);
+                }
+            });
         } catch (Exception e) {
             logger.warn("Error loading value for key: {}", key, e);
             return null;
         }
     }
 
+    /**
+     * 批量获取或加载缓存值
+     *
+     * @param keys   缓存键集合
+     * @param loader 批量加载函数
+     * @return 键值对映射
+     */
+    @Override
+    public Map<K, V> getAllOrLoad(Set<? extends K> keys, Function<Set<K>, Map<K, V>> loader) {
+        return CacheUtils.getAllOrLoad(this, keys, loader, stats);
+    }
+
+    // ==================== 异步操作 ====================
+
+    @Override
+    public AsyncCache<K, V> async() {
+        return this;
+    }
+
+    @Override
+    public CompletableFuture<V> getAsync(K key) {
+        CompletableFuture<Object> future = asyncCache.getIfPresent(key);
+        if (future == null) {
+            stats.recordMiss();
+            return CompletableFuture.completedFuture(null);
+        }
+        // 在途加载失败时 Caffeine 会移除该条目，对读取者而言视为未命中
+        return future.handle((value, e) -> e != null ? unwrap(key, null) : unwrap(key, value));
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(K key, V value) {
+        put(key, value);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(K key, V value, long ttl, TimeUnit unit) {
+        put(key, value, ttl, unit);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeAsync(K key) {
+        return CompletableFuture.completedFuture(asyncCache.asMap().remove(key) != null);
+    }
+
+    @Override
+    public CompletableFuture<Map<K, V>> getAllAsync(Set<? extends K> keys) {
+        List<K> keyList = new ArrayList<>(keys);
+        List<CompletableFuture<V>> futures = new ArrayList<>(keyList.size());
+        for (K key : keyList) {
+            futures.add(getAsync(key));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            Map<K, V> result = new HashMap<>();
+            for (int i = 0; i < keyList.size(); i++) {
+                V value = futures.get(i).join();
+                if (value != null) {
+                    result.put(keyList.get(i), value);
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> map) {
+        putAll(map);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<V> getOrLoadAsync(K key, Function<K, CompletableFuture<V>> loader) {
+        AtomicBoolean loaded = new AtomicBoolean();
+        CompletableFuture<Object> future = asyncCache.get(key, (k, executor) -> {
+            loaded.set(true);
+            long startTime = System.nanoTime();
+            return CacheUtils.loadAsync(loader, k).whenComplete((value, e) -> {
+                if (e == null) {
+                    stats.recordLoadSuccess(System.nanoTime() - startTime);
+                } else {
+                    stats.recordLoadException(System.nanoTime() - startTime);
+                }
+            }).thenApply(value -> value);
+        });
+        return future.thenCompose(value -> {
+            if (value instanceof ExpiringValue && ((ExpiringValue<?>) value).isExpired()) {
+                // 过期的包装值只移除这一个 future，再按未命中重新加载
+                asyncCache.asMap().remove(key, future);
+                return getOrLoadAsync(key, loader);
+            }
+            if (!loaded.get()) {
+                stats.recordHit();
+            }
+            @SuppressWarnings("unchecked")
+            V typedValue = (V) (value instanceof ExpiringValue ? ((ExpiringValue<?>) value).getValue() : value);
+            return CompletableFuture.completedFuture(typedValue);
+        });
+    }
+
     @Override
     public void refresh() {
-        // Caffeine缓存不支持整体刷新
-        logger.debug("Caffeine cache does not support refresh operation");
+        refreshSupport.refreshAll(this::containsKey);
     }
 
     @Override
     public void close() {
+        if (snapshot != null) {
+            snapshot.save(snapshotEntries());
+        }
         cache.cleanUp();
         if (cleanupScheduler != null) {
             cleanupScheduler.shutdown();
@@ -420,6 +630,46 @@ public class CaffeineCache<K, V> implements Cache<K, V> {
         cache.cleanUp();
     }
 
+    /**
+     * 放回快照中的条目，有限的过期时间以过期值包装器保存，保证不晚于原过期时间失效
+     */
+    private void restore(K key, V value, long expireTimestamp) {
+        if (value != null && expireTimestamp == Long.MAX_VALUE) {
+            cache.put(key, value);
+        } else {
+            cache.put(key, new ExpiringValue<>(value, expireTimestamp));
+        }
+    }
+
+    /**
+     * 收集待写入快照的条目，普通值的过期时间按 Caffeine 记录的写入时间推算
+     *
+     * @return 键到带过期时间值的映射
+     */
+    @SuppressWarnings("unchecked")
+    private Map<K, ExpiringValue<Object>> snapshotEntries() {
+        Map<K, ExpiringValue<Object>> entries = new HashMap<>();
+        Optional<Policy.Expiration<K, Object>> expiration = cache.policy().expireAfterWrite();
+        long now = System.currentTimeMillis();
+        cache.asMap().forEach((key, value) -> {
+            long deadline = Long.MAX_VALUE;
+            if (expiration.isPresent()) {
+                long age = expiration.get().ageOf(key, TimeUnit.MILLISECONDS).orElse(0L);
+                deadline = now - age + expiration.get().getExpiresAfter(TimeUnit.MILLISECONDS);
+            }
+            if (value instanceof ExpiringValue) {
+                ExpiringValue<Object> expiringValue = (ExpiringValue<Object>) value;
+                if (expiringValue.getExpireTimestamp() <= deadline) {
+                    entries.put(key, expiringValue);
+                    return;
+                }
+                value = expiringValue.getValue();
+            }
+            entries.put(key, new ExpiringValue<>(value, deadline));
+        });
+        return entries;
+    }
+
     /**
      * 启动定期清理任务
      */
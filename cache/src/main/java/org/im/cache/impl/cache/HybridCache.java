@@ -0,0 +1,696 @@
+package org.im.cache.impl.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import org.im.cache.config.BackendType;
+import org.im.cache.config.CacheConfig;
+import org.im.cache.core.AsyncCache;
+import org.im.cache.core.Cache;
+import org.im.common.json.JsonMapperProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 混合缓存实现（本地 L1 + Redis L2）
+ * <p>
+ * 读请求优先命中进程内的 Caffeine 一级缓存，未命中时回落到 Redis 二级缓存并回填本地；
+ * 写入和删除先落到 Redis，再通过 Redis pub/sub 广播失效消息，使其他节点丢弃各自的本地副本。
+ * 本地条目额外设置较短的写入后过期时间，作为广播消息丢失时的兜底。
+ * </p>
+ * <p>
+ * 回填本地之前检查键的失效代数：远程读取期间收到失效消息或本节点写入了该键时放弃回填，
+ * 避免读到的旧值在失效之后写入本地并一直保留到本地过期。
+ * </p>
+ * <p>
+ * {@link AsyncCache} 的实现先同步查本地，未命中部分再经 Redis 的异步命令读取，写入在 Redis 确认后更新本地并广播。
+ * </p>
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/08
+ */
+public class HybridCache<K, V> extends AbstractCache<K, V> implements AsyncCache<K, V> {
+    private static final Logger logger = LoggerFactory.getLogger(HybridCache.class);
+
+    private static final ObjectMapper objectMapper = JsonMapperProvider.getSharedInstance();
+
+    /**
+     * 消息字段分隔符
+     */
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 单键失效操作
+     */
+    private static final String OP_INVALIDATE = "K";
+
+    /**
+     * 全量清空操作
+     */
+    private static final String OP_CLEAR = "C";
+
+    /**
+     * 失效代数的分段数
+     */
+    private static final int GENERATION_STRIPES = 1024;
+
+    /**
+     * 本地一级缓存
+     */
+    private final Cache<K, V> localCache;
+
+    /**
+     * 远程二级缓存，通常为 {@link RedisCache}
+     */
+    private final Cache<K, V> remoteCache;
+
+    /**
+     * 键类型，用于反序列化广播消息中的非字符串键
+     */
+    private final Class<K> keyType;
+
+    /**
+     * 当前节点标识，用于忽略自身发出的广播
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 按键分段的失效代数，收到失效消息或本节点写入时递增
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * 全量清空的代数
+     */
+    private final AtomicLong clearGeneration = new AtomicLong();
+
+    private final String channel;
+    private final InvalidationBus invalidationBus;
+
+    /**
+     * 构造函数
+     *
+     * @param config 缓存配置
+     */
+    @SuppressWarnings("unchecked")
+    public HybridCache(CacheConfig config) {
+        this(config, (Class<K>) Object.class, (Class<V>) Object.class);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param config    缓存配置
+     * @param keyType   键类型
+     * @param valueType 值类型
+     */
+    public HybridCache(CacheConfig config, Class<K> keyType, Class<V> valueType) {
+        this(config, keyType, new CaffeineCache<>(createLocalConfig(config)), new RedisCache<>(config, valueType),
+                HybridCache::openRedisBus);
+    }
+
+    /**
+     * 构造函数，由调用方提供两级缓存和广播通道
+     * <p>
+     * 打开广播通道失败时关闭两级缓存后抛出异常，不泄漏已建立的连接
+     * </p>
+     *
+     * @param config      缓存配置
+     * @param keyType     键类型
+     * @param localCache  本地一级缓存
+     * @param remoteCache 远程二级缓存
+     * @param busFactory  失效广播通道工厂
+     */
+    @SuppressWarnings("unchecked")
+    HybridCache(CacheConfig config, Class<K> keyType, Cache<K, V> localCache, Cache<K, V> remoteCache,
+                InvalidationBusFactory busFactory) {
+        super(config);
+        this.keyType = keyType != null ? keyType : (Class<K>) Object.class;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.channel = config.getInvalidationChannel();
+        try {
+            this.invalidationBus = busFactory.open(remoteCache, channel, this::onInvalidation);
+        } catch (RuntimeException | Error e) {
+            localCache.close();
+            remoteCache.close();
+            throw e;
+        }
+
+        logger.info("HybridCache initialized, channel: {}, nodeId: {}", channel, nodeId);
+    }
+
+    /**
+     * 根据混合缓存配置派生本地一级缓存配置
+     *
+     * @param config 混合缓存配置
+     * @return 本地缓存配置
+     */
+    private static CacheConfig createLocalConfig(CacheConfig config) {
+        CacheConfig local = new CacheConfig(config.getCacheName());
+        local.setBackendType(BackendType.CAFFEINE);
+        local.setMaximumSize(config.getLocalMaximumSize());
+        long localTtl = config.getLocalExpireAfterWrite();
+        if (config.getExpireAfterWrite() > 0 && (localTtl <= 0 || localTtl > config.getExpireAfterWrite())) {
+            localTtl = config.getExpireAfterWrite();
+        }
+        local.setExpireAfterWrite(localTtl);
+        local.setRecordStats(false);
+        local.setCleanupInterval(0);
+        return local;
+    }
+
+    // ==================== 读写操作 ====================
+
+    @Override
+    protected V do_get(K key) {
+        V value = localCache.get(key);
+        if (value != null) {
+            stats.recordHit();
+            return value;
+        }
+        long generation = generation(key);
+        value = remoteCache.get(key);
+        if (value != null) {
+            fillLocal(key, value, generation);
+            stats.recordHit();
+        } else {
+            stats.recordMiss();
+        }
+        return value;
+    }
+
+    @Override
+    protected void do_put(K key, V value) {
+        remoteCache.put(key, value);
+        advanceGeneration(key);
+        localCache.put(key, value);
+        stats.recordPut();
+        publishInvalidation(key);
+    }
+
+    @Override
+    protected void do_putWithTtl(K key, V value, long ttl, TimeUnit unit) {
+        remoteCache.put(key, value, ttl, unit);
+        advanceGeneration(key);
+        long localTtl = Math.min(unit.toMillis(ttl), localTtlMillis());
+        localCache.put(key, value, localTtl, TimeUnit.MILLISECONDS);
+        stats.recordPut();
+        publishInvalidation(key);
+    }
+
+    @Override
+    public void putAtFixedTime(K key, V value, long expireTimestamp) {
+        if (key == null) {
+            return;
+        }
+        remoteCache.putAtFixedTime(key, value, expireTimestamp);
+        advanceGeneration(key);
+        long localTtl = localTtlMillis();
+        long localExpire = localTtl == Long.MAX_VALUE
+                ? expireTimestamp : Math.min(expireTimestamp, System.currentTimeMillis() + localTtl);
+        localCache.putAtFixedTime(key, value, localExpire);
+        stats.recordPut();
+        publishInvalidation(key);
+    }
+
+    @Override
+    protected boolean do_remove(K key) {
+        boolean removed = remoteCache.remove(key);
+        advanceGeneration(key);
+        localCache.remove(key);
+        publishInvalidation(key);
+        return removed;
+    }
+
+    @Override
+    protected Map<K, V> do_getAll(Set<? extends K> keys) {
+        Map<K, V> result = new HashMap<>(localCache.getAll(keys));
+        if (result.size() < keys.size()) {
+            Map<K, Long> missing = missingGenerations(keys, result);
+            Map<K, V> remote = remoteCache.getAll(missing.keySet());
+            fillLocal(remote, missing);
+            result.putAll(remote);
+        }
+        stats.recordHits(result.size());
+        stats.recordMisses(keys.size() - result.size());
+        return result;
+    }
+
+    @Override
+    protected void do_putAll(Map<? extends K, ? extends V> map) {
+        remoteCache.putAll(map);
+        for (K key : map.keySet()) {
+            advanceGeneration(key);
+        }
+        localCache.putAll(map);
+        stats.recordPuts(map.size());
+        for (K key : map.keySet()) {
+            publishInvalidation(key);
+        }
+    }
+
+    @Override
+    protected void do_removeAll(Set<? extends K> keys) {
+        remoteCache.removeAll(keys);
+        for (K key : keys) {
+            advanceGeneration(key);
+        }
+        localCache.removeAll(keys);
+        for (K key : keys) {
+            publishInvalidation(key);
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return localCache.containsKey(key) || remoteCache.containsKey(key);
+    }
+
+    @Override
+    public long size() {
+        return remoteCache.size();
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        clearGeneration.incrementAndGet();
+        localCache.clear();
+        refreshSupport.clear();
+        publish(OP_CLEAR, "");
+    }
+
+    @Override
+    public CacheConfig getConfig() {
+        return config;
+    }
+
+    @Override
+    public V getOrLoadAtFixedTime(K key, Function<K, V> loader, long expireTimestamp) {
+        if (key == null || loader == null) {
+            return null;
+        }
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        return loadCoalesced(key, loader, loaded -> putAtFixedTime(key, loaded, expireTimestamp));
+    }
+
+    @Override
+    public void cleanUp() {
+        localCache.cleanUp();
+    }
+
+    @Override
+    public void close() {
+        try {
+            invalidationBus.close();
+        } catch (Exception e) {
+            logger.warn("Error closing invalidation pub/sub connections", e);
+        }
+        localCache.close();
+        remoteCache.close();
+    }
+
+    // ==================== 异步操作 ====================
+
+    @Override
+    public AsyncCache<K, V> async() {
+        return this;
+    }
+
+    @Override
+    public CompletableFuture<V> getAsync(K key) {
+        if (key == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        V local = localCache.get(key);
+        if (local != null) {
+            stats.recordHit();
+            return CompletableFuture.completedFuture(local);
+        }
+        long generation = generation(key);
+        return remoteCache.async().getAsync(key).thenApply(value -> {
+            if (value != null) {
+                fillLocal(key, value, generation);
+                stats.recordHit();
+            } else {
+                stats.recordMiss();
+            }
+            return value;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(K key, V value) {
+        if (key == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return remoteCache.async().putAsync(key, value).thenRun(() -> {
+            advanceGeneration(key);
+            localCache.put(key, value);
+            stats.recordPut();
+            publishInvalidation(key);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(K key, V value, long ttl, TimeUnit unit) {
+        if (key == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return remoteCache.async().putAsync(key, value, ttl, unit).thenRun(() -> {
+            advanceGeneration(key);
+            long localTtl = Math.min(unit.toMillis(ttl), localTtlMillis());
+            localCache.put(key, value, localTtl, TimeUnit.MILLISECONDS);
+            stats.recordPut();
+            publishInvalidation(key);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeAsync(K key) {
+        if (key == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        refreshSupport.unregister(key);
+        return remoteCache.async().removeAsync(key).thenApply(removed -> {
+            advanceGeneration(key);
+            localCache.remove(key);
+            publishInvalidation(key);
+            return removed;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<K, V>> getAllAsync(Set<? extends K> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return CompletableFuture.completedFuture(new HashMap<>());
+        }
+        Map<K, V> result = new HashMap<>(localCache.getAll(keys));
+        Map<K, Long> missing = missingGenerations(keys, result);
+        if (missing.isEmpty()) {
+            stats.recordHits(result.size());
+            return CompletableFuture.completedFuture(result);
+        }
+        return remoteCache.async().getAllAsync(missing.keySet()).thenApply(remote -> {
+            fillLocal(remote, missing);
+            result.putAll(remote);
+            stats.recordHits(result.size());
+            stats.recordMisses(keys.size() - result.size());
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> map) {
+        if (map == null || map.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return remoteCache.async().putAllAsync(map).thenRun(() -> {
+            for (K key : map.keySet()) {
+                advanceGeneration(key);
+            }
+            localCache.putAll(map);
+            stats.recordPuts(map.size());
+            for (K key : map.keySet()) {
+                publishInvalidation(key);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<V> getOrLoadAsync(K key, Function<K, CompletableFuture<V>> loader) {
+        if (key == null || loader == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return getAsync(key).thenCompose(value -> value != null
+                ? CompletableFuture.completedFuture(value)
+                : loadCoalescedAsync(key, loader, loaded -> putAsync(key, loaded)));
+    }
+
+    // ==================== 本地回填 ====================
+
+    /**
+     * 获取键当前的失效代数，在发起远程读取之前调用，回填时传回
+     *
+     * @param key 缓存键
+     * @return 失效代数
+     */
+    private long generation(Object key) {
+        return clearGeneration.get() + generations.get(stripeOf(key));
+    }
+
+    /**
+     * 递增键的失效代数，须在远程写入完成之后、本地更新之前调用
+     *
+     * @param key 缓存键
+     */
+    private void advanceGeneration(Object key) {
+        generations.incrementAndGet(stripeOf(key));
+    }
+
+    /**
+     * 远程读取到的值回填本地，读取期间失效代数变化时放弃回填
+     *
+     * @param key        缓存键
+     * @param value      远程读取到的值
+     * @param generation 远程读取之前取得的失效代数
+     */
+    private void fillLocal(K key, V value, long generation) {
+        if (generation(key) != generation) {
+            return;
+        }
+        localCache.put(key, value);
+        // 失效可能在检查之后、写入之前到达，代数变化时撤回本次回填
+        if (generation(key) != generation) {
+            localCache.remove(key);
+        }
+    }
+
+    private void fillLocal(Map<K, V> remote, Map<K, Long> generations) {
+        for (Map.Entry<K, V> entry : remote.entrySet()) {
+            Long generation = generations.get(entry.getKey());
+            if (generation != null && entry.getValue() != null) {
+                fillLocal(entry.getKey(), entry.getValue(), generation);
+            }
+        }
+    }
+
+    /**
+     * 收集本地未命中的键及其当前失效代数
+     */
+    private Map<K, Long> missingGenerations(Set<? extends K> keys, Map<K, V> found) {
+        Map<K, Long> missing = new HashMap<>();
+        for (K key : keys) {
+            if (!found.containsKey(key)) {
+                missing.put(key, generation(key));
+            }
+        }
+        return missing;
+    }
+
+    private static int stripeOf(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    // ==================== 失效广播 ====================
+
+    /**
+     * 广播单个键的失效消息
+     *
+     * @param key 缓存键
+     */
+    private void publishInvalidation(K key) {
+        String encodedKey = encodeKey(key);
+        if (encodedKey != null) {
+            publish(OP_INVALIDATE, encodedKey);
+        } else {
+            publish(OP_CLEAR, "");
+        }
+    }
+
+    /**
+     * 异步发布广播消息，发布失败只影响其他节点的本地副本新鲜度，不影响本次写入
+     *
+     * @param op      操作类型
+     * @param payload 消息内容
+     */
+    private void publish(String op, String payload) {
+        try {
+            invalidationBus.publish(nodeId + SEPARATOR + op + SEPARATOR + payload);
+        } catch (Exception e) {
+            logger.warn("Failed to publish invalidation on channel: {}", channel, e);
+        }
+    }
+
+    /**
+     * 处理收到的失效消息
+     *
+     * @param message 消息内容，格式为 nodeId|op|key
+     */
+    private void onInvalidation(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        if (OP_CLEAR.equals(parts[1])) {
+            clearGeneration.incrementAndGet();
+            localCache.clear();
+            return;
+        }
+        K key = decodeKey(parts[2]);
+        if (key != null) {
+            advanceGeneration(key);
+            localCache.remove(key);
+        } else {
+            // 无法还原键时退化为清空本地缓存，保证不会读到旧值
+            clearGeneration.incrementAndGet();
+            localCache.clear();
+        }
+    }
+
+    /**
+     * 编码键：字符串键以 S 前缀原样传输，其他键以 J 前缀按 JSON 传输
+     *
+     * @param key 缓存键
+     * @return 编码后的键，无法编码时返回null
+     */
+    private String encodeKey(K key) {
+        if (key instanceof String) {
+            return "S" + key;
+        }
+        try {
+            return "J" + objectMapper.writeValueAsString(key);
+        } catch (Exception e) {
+            logger.warn("Failed to encode key for invalidation: {}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * 解码键
+     *
+     * @param encoded 编码后的键
+     * @return 缓存键，无法解码时返回null
+     */
+    @SuppressWarnings("unchecked")
+    private K decodeKey(String encoded) {
+        if (encoded.isEmpty()) {
+            return null;
+        }
+        String body = encoded.substring(1);
+        if (encoded.charAt(0) == 'S') {
+            return (K) body;
+        }
+        if (keyType == Object.class) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(body, keyType);
+        } catch (Exception e) {
+            logger.warn("Failed to decode invalidation key: {}", body, e);
+            return null;
+        }
+    }
+
+    private long localTtlMillis() {
+        CacheConfig localConfig = localCache.getConfig();
+        return localConfig.getExpireAfterWrite() > 0 ? localConfig.getExpireAfterWrite() : Long.MAX_VALUE;
+    }
+
+    /**
+     * 在 Redis 上打开失效广播通道：一个连接订阅频道，另一个连接发布消息
+     *
+     * @param remoteCache 远程缓存，必须为 {@link RedisCache}
+     * @param channel     频道名
+     * @param listener    收到消息时的回调
+     * @return 广播通道
+     */
+    private static InvalidationBus openRedisBus(Cache<?, ?> remoteCache, String channel, Consumer<String> listener) {
+        RedisCache<?, ?> redisCache = (RedisCache<?, ?>) remoteCache;
+        StatefulRedisPubSubConnection<String, String> subscribe = redisCache.connectPubSub();
+        StatefulRedisPubSubConnection<String, String> publish = null;
+        try {
+            subscribe.addListener(new RedisPubSubAdapter<String, String>() {
+                @Override
+                public void message(String ch, String message) {
+                    listener.accept(message);
+                }
+            });
+            subscribe.sync().subscribe(channel);
+            publish = redisCache.connectPubSub();
+        } catch (RuntimeException e) {
+            subscribe.close();
+            throw e;
+        }
+        StatefulRedisPubSubConnection<String, String> publishConnection = publish;
+        return new InvalidationBus() {
+            @Override
+            public void publish(String message) {
+                publishConnection.async().publish(channel, message);
+            }
+
+            @Override
+            public void close() {
+                try {
+                    subscribe.close();
+                } finally {
+                    publishConnection.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * 失效消息的广播通道
+     */
+    interface InvalidationBus {
+
+        /**
+         * 异步发布消息
+         *
+         * @param message 消息内容
+         */
+        void publish(String message);
+
+        /**
+         * 关闭通道
+         */
+        void close();
+    }
+
+    /**
+     * 失效广播通道工厂
+     */
+    @FunctionalInterface
+    interface InvalidationBusFactory {
+
+        /**
+         * 打开广播通道并订阅频道
+         *
+         * @param remoteCache 远程缓存
+         * @param channel     频道名
+         * @param listener    收到消息时的回调，包括本节点发出的消息
+         * @return 广播通道
+         */
+        InvalidationBus open(Cache<?, ?> remoteCache, String channel, Consumer<String> listener);
+    }
+}
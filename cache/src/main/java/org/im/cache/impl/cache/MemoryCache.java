@@ -1,16 +1,17 @@
 package org.im.cache.impl.cache;
 
 import org.im.cache.config.CacheConfig;
+import org.im.cache.support.CacheSnapshot;
+import org.im.cache.support.ExpirationScheduler;
 import org.im.cache.support.ExpiringValue;
+import org.im.cache.support.TinyLfuPolicy;
 import org.im.cache.util.CacheUtils;
+import org.im.cache.util.ValidationUtils;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -19,6 +20,13 @@ import java.util.function.Function;
  * <p>
  * 提供基本的内存缓存功能，支持过期时间和大小限制
  * </p>
+ * <p>
+ * 配置了最大容量时由 {@link TinyLfuPolicy} 决定淘汰对象，维护成本为 O(1) 均摊；
+ * 过期条目由共享的 {@link ExpirationScheduler} 时间轮按到期时间删除，不再定期全量扫描
+ * </p>
+ * <p>
+ * 配置了快照目录时，关闭缓存会将未过期条目写入 {@link CacheSnapshot}，创建同名缓存时重新加载
+ * </p>
  *
  * @param <K> 键类型
  * @param <V> 值类型
@@ -34,43 +42,71 @@ public class MemoryCache<K, V> extends AbstractCache<K, V> {
     private final Map<K, ExpiringValue<Object>> cache = new ConcurrentHashMap<>();
 
     /**
-     * 定期清理调度器
+     * 淘汰策略，未配置最大容量时为null
      */
-    private ScheduledExecutorService cleanupScheduler;
+    private final TinyLfuPolicy<K> evictionPolicy;
 
     /**
-     * 构造函数
+     * 过期调度器
+     */
+    private final ExpirationScheduler expirationScheduler;
+
+    /**
+     * 热重启快照，未配置快照目录时为null
+     */
+    private final CacheSnapshot<K, V> snapshot;
+
+    /**
+     * 构造函数，使用进程级默认过期调度器
      *
      * @param config 缓存配置
      */
     public MemoryCache(CacheConfig config) {
-        super(config);
+        this(config, ExpirationScheduler.getDefault());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param config              缓存配置
+     * @param expirationScheduler 过期调度器，通常由缓存管理器共享
+     */
+    public MemoryCache(CacheConfig config, ExpirationScheduler expirationScheduler) {
+        this(config, expirationScheduler, null, null);
+    }
 
-        // 如果配置了清理间隔，则启动定期清理任务
-        if (config.getCleanupInterval() > 0) {
-            this.cleanupScheduler = Executors.newSingleThreadScheduledExecutor();
-            this.cleanupScheduler.scheduleWithFixedDelay(
-                    this::cleanup,
-                    config.getCleanupInterval(),
-                    config.getCleanupInterval(),
-                    TimeUnit.MILLISECONDS
-            );
+    /**
+     * 构造函数
+     *
+     * @param config              缓存配置
+     * @param expirationScheduler 过期调度器，通常由缓存管理器共享
+     * @param keyType             键类型，用于解码快照，为null时不启用快照
+     * @param valueType           值类型，用于解码快照，为null且未配置值编解码器时不启用快照
+     */
+    public MemoryCache(CacheConfig config, ExpirationScheduler expirationScheduler, Class<K> keyType, Class<V> valueType) {
+        super(config);
+        this.evictionPolicy = config.getMaximumSize() > 0
+                ? new TinyLfuPolicy<>(config.getMaximumSize(), config.getMaximumSize(), this::evict, cache::containsKey)
+                : null;
+        this.expirationScheduler = expirationScheduler != null ? expirationScheduler : ExpirationScheduler.getDefault();
+        this.snapshot = CacheSnapshot.of(config, keyType, valueType);
+        if (snapshot != null) {
+            snapshot.load((key, value, expireTimestamp) -> putAtFixedTime(key, value, expireTimestamp));
         }
     }
 
     /**
-     * 清理过期数据
+     * 清理过期数据（全量扫描，仅用于手动触发）
      */
     private void cleanup() {
-        long currentTime = System.currentTimeMillis();
-        cache.entrySet().removeIf(entry -> {
-            ExpiringValue<Object> expiringValue = entry.getValue();
-            if (expiringValue.isExpired()) {
+        for (Map.Entry<K, ExpiringValue<Object>> entry : cache.entrySet()) {
+            if (entry.getValue().isExpired() && cache.remove(entry.getKey(), entry.getValue())) {
                 stats.recordEviction();
-                return true;
+                if (evictionPolicy != null) {
+                    evictionPolicy.recordRemoval(entry.getKey());
+                }
             }
-            return false;
-        });
+        }
     }
 
     /**
@@ -91,10 +127,16 @@ public class MemoryCache<K, V> extends AbstractCache<K, V> {
             cache.remove(key);
             stats.recordMiss();
             stats.recordEviction();
+            if (evictionPolicy != null) {
+                evictionPolicy.recordRemoval(key);
+            }
             return null;
         }
 
         stats.recordHit();
+        if (evictionPolicy != null) {
+            evictionPolicy.recordAccess(key);
+        }
         return CacheUtils.unwrapNullValue(expiringValue.getValue());
     }
 
@@ -111,9 +153,10 @@ public class MemoryCache<K, V> extends AbstractCache<K, V> {
                 CacheUtils.wrapNullValue(value), expireTime);
         cache.put(key, expiringValue);
         stats.recordPut();
+        expirationScheduler.schedule(expireTime, () -> expire(key, expiringValue));
 
         // 检查大小限制
-        evictIfNeeded();
+        evictIfNeeded(key);
     }
 
     /**
@@ -124,7 +167,11 @@ public class MemoryCache<K, V> extends AbstractCache<K, V> {
      */
     @Override
     protected boolean do_remove(K key) {
-        return cache.remove(key) != null;
+        boolean removed = cache.remove(key) != null;
+        if (removed && evictionPolicy != null) {
+            evictionPolicy.recordRemoval(key);
+        }
+        return removed;
     }
 
     /**
@@ -184,9 +231,10 @@ public class MemoryCache<K, V> extends AbstractCache<K, V> {
                 CacheUtils.wrapNullValue(value), expireTime);
         cache.put(key, expiringValue);
         stats.recordPut();
+        expirationScheduler.schedule(expireTime, () -> expire(key, expiringValue));
 
         // 检查大小限制
-        evictIfNeeded();
+        evictIfNeeded(key);
     }
 
     /**
@@ -213,31 +261,52 @@ public class MemoryCache<K, V> extends AbstractCache<K, V> {
     }
 
     /**
-     * 根据大小限制驱逐数据
+     * 记录写入，由淘汰策略在超出大小限制时选出并驱逐数据
+     *
+     * @param key 写入的键
      */
-    private void evictIfNeeded() {
-        if (config.getMaximumSize() > 0 && cache.size() > config.getMaximumSize()) {
-            // 简单的LRU驱逐策略：随机移除一些条目
-            int excess = (int) (cache.size() - config.getMaximumSize());
-            if (excess > 0) {
-                Set<K> keysToRemove = new HashSet<>();
-                int count = 0;
-
-                for (K key : cache.keySet()) {
-                    if (count++ >= excess) {
-                        break;
-                    }
-                    keysToRemove.add(key);
-                }
+    private void evictIfNeeded(K key) {
+        if (evictionPolicy != null) {
+            evictionPolicy.recordWrite(key);
+        }
+    }
 
-                for (K key : keysToRemove) {
-                    cache.remove(key);
-                    stats.recordEviction();
-                }
+    /**
+     * 时间轮到期回调：每次写入只登记一个绑定写入值的定时器，值已被覆盖时由新写入的定时器负责，直接返回
+     *
+     * @param key   到期的键
+     * @param armed 登记定时器时写入的值
+     */
+    private void expire(K key, ExpiringValue<Object> armed) {
+        ExpiringValue<Object> current = cache.get(key);
+        if (current != armed) {
+            return;
+        }
+        if (!current.isExpired()) {
+            expirationScheduler.schedule(current.getExpireTimestamp(), () -> expire(key, armed));
+            return;
+        }
+        if (cache.remove(key, current)) {
+            stats.recordEviction();
+            refreshSupport.unregister(key);
+            if (evictionPolicy != null) {
+                evictionPolicy.recordRemoval(key);
             }
         }
     }
 
+    /**
+     * 淘汰策略回调：驱逐被选中的键
+     *
+     * @param key 被淘汰的键
+     */
+    private void evict(K key) {
+        if (cache.remove(key) != null) {
+            stats.recordEviction();
+            refreshSupport.unregister(key);
+        }
+    }
+
     /**
      * 设置缓存值并指定绝对过期时间戳
      *
@@ -247,7 +316,17 @@ public class MemoryCache<K, V> extends AbstractCache<K, V> {
      */
     @Override
     public void putAtFixedTime(K key, V value, long expireTimestamp) {
+        ValidationUtils.checkNotNull(key, "Key cannot be null");
+        if (expireTimestamp <= System.currentTimeMillis()) {
+            return;
+        }
+        ExpiringValue<Object> expiringValue = new ExpiringValue<>(CacheUtils.wrapNullValue(value), expireTimestamp);
+        cache.put(key, expiringValue);
+        stats.recordPut();
+        expirationScheduler.schedule(expireTimestamp, () -> expire(key, expiringValue));
 
+        // 检查大小限制
+        evictIfNeeded(key);
     }
 
     /**
@@ -258,7 +337,8 @@ public class MemoryCache<K, V> extends AbstractCache<K, V> {
      */
     @Override
     public boolean containsKey(K key) {
-        return false;
+        ExpiringValue<Object> expiringValue = cache.get(key);
+        return expiringValue != null && !expiringValue.isExpired();
     }
 
     /**
@@ -277,6 +357,10 @@ public class MemoryCache<K, V> extends AbstractCache<K, V> {
     @Override
     public void clear() {
         cache.clear();
+        refreshSupport.clear();
+        if (evictionPolicy != null) {
+            evictionPolicy.clear();
+        }
     }
 
     /**
@@ -299,7 +383,11 @@ public class MemoryCache<K, V> extends AbstractCache<K, V> {
      */
     @Override
     public V getOrLoadAtFixedTime(K key, Function<K, V> loader, long expireTimestamp) {
-        return null;
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        return loadCoalesced(key, loader, loaded -> putAtFixedTime(key, loaded, expireTimestamp));
     }
 
     /**
@@ -307,8 +395,8 @@ public class MemoryCache<K, V> extends AbstractCache<K, V> {
      */
     @Override
     public void close() {
-        if (cleanupScheduler != null) {
-            cleanupScheduler.shutdown();
+        if (snapshot != null) {
+            snapshot.save(cache);
         }
         cache.clear();
     }
@@ -318,7 +406,7 @@ public class MemoryCache<K, V> extends AbstractCache<K, V> {
      */
     @Override
     public void cleanUp() {
-
+        cleanup();
     }
 }
 
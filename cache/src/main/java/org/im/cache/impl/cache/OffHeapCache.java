@@ -0,0 +1,308 @@
+package org.im.cache.impl.cache;
+
+import org.im.cache.codec.CacheCodec;
+import org.im.cache.codec.JacksonJsonCodec;
+import org.im.cache.codec.Lz4CompressingCodec;
+import org.im.cache.config.CacheConfig;
+import org.im.cache.support.OffHeapStore;
+import org.im.cache.util.ValidationUtils;
+import org.im.common.json.JsonMapperProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 堆外缓存实现
+ * <p>
+ * 值经 {@link CacheCodec} 编码后存放在 {@link OffHeapStore} 的直接内存页中，堆上只保留键和索引，
+ * 适合体积大、存活时间长的值，避免它们进入老年代拖长 GC 停顿。
+ * 每次读取都会解码出新的值对象，读多写少且值很小的场景应优先使用内存缓存。
+ * </p>
+ * <p>
+ * 容量按字节计，由 {@link CacheConfig#getOffHeapCapacity()} 限定；单个值编码后不能超过
+ * {@link CacheConfig#getOffHeapPageSize()}，超出的值不会被缓存。
+ * 过期条目在读取时、写入时时钟指针经过时以及 {@link #cleanUp()} 时回收。
+ * </p>
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/14
+ */
+public class OffHeapCache<K, V> extends AbstractCache<K, V> {
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapCache.class);
+
+    /**
+     * 堆外存储
+     */
+    private final OffHeapStore<K> store;
+
+    /**
+     * 值编解码器
+     */
+    private final CacheCodec<V> codec;
+
+    /**
+     * 构造函数
+     *
+     * @param config 缓存配置
+     */
+    public OffHeapCache(CacheConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param config    缓存配置
+     * @param valueType 值类型，用于默认 JSON 编解码器反序列化，为null时按 Object 处理
+     */
+    @SuppressWarnings("unchecked")
+    public OffHeapCache(CacheConfig config, Class<V> valueType) {
+        super(config);
+        this.codec = createCodec(config, valueType != null ? valueType : (Class<V>) Object.class);
+        this.store = new OffHeapStore<>(config.getOffHeapCapacity(), config.getOffHeapPageSize(), this::onRemoval);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> CacheCodec<V> createCodec(CacheConfig config, Class<V> valueType) {
+        CacheCodec<V> codec = config.getValueCodec() != null
+                ? (CacheCodec<V>) config.getValueCodec()
+                : new JacksonJsonCodec<>(JsonMapperProvider.getSharedInstance(), valueType);
+        if (config.getCompressionThreshold() > 0) {
+            codec = new Lz4CompressingCodec<>(codec, config.getCompressionThreshold());
+        }
+        return codec;
+    }
+
+    /**
+     * 存储回调：条目因容量淘汰或过期被删除
+     *
+     * @param key 被删除的键
+     */
+    private void onRemoval(K key) {
+        stats.recordEviction();
+        refreshSupport.unregister(key);
+    }
+
+    /**
+     * 获取数据
+     *
+     * @param key 键
+     * @return 值
+     */
+    @Override
+    protected V do_get(K key) {
+        byte[] bytes = store.get(key);
+        if (bytes == null) {
+            stats.recordMiss();
+            return null;
+        }
+        stats.recordHit();
+        return bytes == OffHeapStore.NULL_VALUE ? null : codec.decode(bytes);
+    }
+
+    /**
+     * 存储数据
+     *
+     * @param key   键
+     * @param value 值
+     */
+    @Override
+    protected void do_put(K key, V value) {
+        long ttl = config.getExpireAfterWrite();
+        store(key, value, ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE);
+    }
+
+    /**
+     * 存储数据并指定过期时间
+     *
+     * @param key   键
+     * @param value 值
+     * @param ttl   过期时间
+     * @param unit  时间单位
+     */
+    @Override
+    protected void do_putWithTtl(K key, V value, long ttl, TimeUnit unit) {
+        store(key, value, System.currentTimeMillis() + unit.toMillis(ttl));
+    }
+
+    /**
+     * 设置缓存值并指定绝对过期时间戳
+     *
+     * @param key             缓存键
+     * @param value           缓存值
+     * @param expireTimestamp 绝对过期时间戳（毫秒）
+     */
+    @Override
+    public void putAtFixedTime(K key, V value, long expireTimestamp) {
+        ValidationUtils.checkNotNull(key, "Key cannot be null");
+        if (expireTimestamp <= System.currentTimeMillis()) {
+            return;
+        }
+        store(key, value, expireTimestamp);
+        refreshSupport.recordWrite(key);
+    }
+
+    /**
+     * 编码并写入存储，值超过页大小时放弃缓存并删除旧值
+     */
+    private void store(K key, V value, long expireTimestamp) {
+        byte[] bytes = value == null ? null : codec.encode(value);
+        if (store.put(key, bytes, expireTimestamp)) {
+            stats.recordPut();
+        } else {
+            refreshSupport.unregister(key);
+            logger.debug("Value of {} bytes for key {} not cached, page size is {} bytes",
+                    bytes != null ? bytes.length : 0, key, config.getOffHeapPageSize());
+        }
+    }
+
+    /**
+     * 删除数据
+     *
+     * @param key 键
+     * @return 是否删除成功
+     */
+    @Override
+    protected boolean do_remove(K key) {
+        return store.remove(key);
+    }
+
+    /**
+     * 批量获取数据
+     *
+     * @param keys 键集合
+     * @return 键值对映射
+     */
+    @Override
+    protected Map<K, V> do_getAll(Set<? extends K> keys) {
+        Map<K, V> result = new HashMap<>();
+        int hits = 0;
+        int misses = 0;
+        for (K key : keys) {
+            if (key == null) {
+                continue;
+            }
+            byte[] bytes = store.get(key);
+            if (bytes == null) {
+                misses++;
+                continue;
+            }
+            hits++;
+            if (bytes != OffHeapStore.NULL_VALUE) {
+                result.put(key, codec.decode(bytes));
+            }
+        }
+        stats.recordHits(hits);
+        stats.recordMisses(misses);
+        return result;
+    }
+
+    /**
+     * 批量存储数据
+     *
+     * @param map 键值对映射
+     */
+    @Override
+    protected void do_putAll(Map<? extends K, ? extends V> map) {
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * 批量删除数据
+     *
+     * @param keys 键集合
+     */
+    @Override
+    protected void do_removeAll(Set<? extends K> keys) {
+        for (K key : keys) {
+            if (key != null) {
+                store.remove(key);
+            }
+        }
+    }
+
+    @Override
+    public V getOrLoadAtFixedTime(K key, Function<K, V> loader, long expireTimestamp) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        return loadCoalesced(key, loader, loaded -> putAtFixedTime(key, loaded, expireTimestamp));
+    }
+
+    /**
+     * 判断缓存项是否存在
+     *
+     * @param key 缓存键
+     * @return 存在返回true，否则返回false
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return key != null && store.containsKey(key);
+    }
+
+    /**
+     * 获取缓存大小，包含尚未回收的过期条目
+     *
+     * @return 缓存大小
+     */
+    @Override
+    public long size() {
+        return store.size();
+    }
+
+    /**
+     * 获取已占用的直接内存
+     *
+     * @return 已占用字节数，按分配块大小计
+     */
+    public long getUsedBytes() {
+        return store.usedBytes();
+    }
+
+    /**
+     * 清空缓存，已分配的直接内存保留复用
+     */
+    @Override
+    public void clear() {
+        store.clear();
+        refreshSupport.clear();
+    }
+
+    /**
+     * 获取缓存配置
+     *
+     * @return 缓存配置
+     */
+    @Override
+    public CacheConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 关闭缓存，释放对直接内存页的引用
+     */
+    @Override
+    public void close() {
+        store.close();
+        refreshSupport.clear();
+    }
+
+    /**
+     * 回收全部已过期的条目
+     */
+    @Override
+    public void cleanUp() {
+        store.expire();
+    }
+}
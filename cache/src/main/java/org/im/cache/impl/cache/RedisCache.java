@@ -1,25 +1,39 @@
 package org.im.cache.impl.cache;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import io.lettuce.core.KeyScanCursor;
 import io.lettuce.core.KeyValue;
 import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
 import io.lettuce.core.RedisURI;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.api.StatefulConnection;
 import io.lettuce.core.api.StatefulRedisConnection;
-import io.lettuce.core.api.sync.RedisCommands;
 import io.lettuce.core.cluster.RedisClusterClient;
 import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
 import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
 import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
 import io.lettuce.core.support.ConnectionPoolSupport;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.im.cache.codec.CacheCodec;
+import org.im.cache.codec.JacksonJsonCodec;
+import org.im.cache.codec.Lz4CompressingCodec;
 import org.im.cache.config.CacheConfig;
+import org.im.cache.config.RedisConnectionMode;
+import org.im.cache.core.AsyncCache;
+import org.im.cache.support.HotKeyTracker;
 import org.im.common.json.JsonMapperProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,8 +41,14 @@ import org.slf4j.LoggerFactory;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Redis缓存实现（基于Lettuce的代理层）
@@ -38,23 +58,80 @@ import java.util.function.Function;
  * 支持多种Redis部署模式：单节点、主从、哨兵、集群
  * 支持Hash操作以适配特定场景
  * </p>
+ * <p>
+ * 连接模式由 {@link CacheConfig#getRedisConnectionMode()} 决定：
+ * POOLED 模式每次操作借还连接池连接；SHARED 模式所有线程复用同一个线程安全的连接，
+ * 由 Lettuce 自动流水线化并发命令，避免高并发下的连接池争用。
+ * 两种模式下都通过 {@link AsyncCache} 提供直接基于 Lettuce 异步命令、不阻塞调用线程的 API。
+ * </p>
+ * <p>
+ * 值以字节数组存储，编解码由 {@link CacheConfig#getValueCodec()} 指定的 {@link CacheCodec} 完成，
+ * 未指定时使用与历史字符串格式兼容的 JSON 编解码器；配置压缩阈值后大值会使用 LZ4 压缩。
+ * </p>
+ * <p>
+ * {@link #size()}、{@link #clear()} 以及键/条目迭代都只作用于以缓存名为前缀的键，
+ * 通过 {@code SCAN MATCH prefix*} 游标分页完成，删除使用非阻塞的 {@code UNLINK} 分批执行；
+ * 集群模式下并行扫描每个主节点。
+ * </p>
+ * <p>
+ * 集群模式下的批量读写删除直接发出一条 {@code MGET} / {@code MSET} / {@code UNLINK}，
+ * 由 Lettuce 的集群连接按槽位拆分、路由到各自的主节点并行执行，{@code MGET} 结果按请求顺序合并。
+ * </p>
+ * <p>
+ * 配置 {@link CacheConfig#getHotKeyThreshold()} 后，{@link #get(Object)} 会通过 {@link HotKeyTracker}
+ * 统计读取频率，读取频繁的键在本地保存极短时间，避免单个热点键把流量集中到一个 Redis 节点上。
+ * 本节点的写入在发送前和完成后各移除一次本地值，读取按写入版本号提升，写入期间读到的旧值不会被提升。
+ * </p>
  *
  * @param <K> 键类型
  * @param <V> 值类型
  * @author gaozhilin
  */
-public class RedisCache<K, V> extends AbstractCache<K, V> {
+public class RedisCache<K, V> extends AbstractCache<K, V> implements AsyncCache<K, V> {
     private static final Logger logger = LoggerFactory.getLogger(RedisCache.class);
 
     private static final ObjectMapper objectMapper = createObjectMapper();
 
+    /**
+     * 键使用 UTF-8 字符串，值使用原始字节数组
+     */
+    private static final RedisCodec<String, byte[]> REDIS_CODEC = RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+
+    /**
+     * SCAN 每页建议返回的键数量，同时也是 UNLINK / MGET 的批大小
+     */
+    private static final int SCAN_BATCH_SIZE = 500;
+
+    /**
+     * 未配置连接超时时使用的默认超时时间（毫秒）
+     */
+    private static final long DEFAULT_CONNECTION_TIMEOUT_MS = 5000;
+
     private final Object client; // RedisClient or RedisClusterClient
-    private final GenericObjectPool<StatefulRedisConnection<String, String>> connectionPool; // 添加连接池
+    private final GenericObjectPool<StatefulRedisConnection<String, byte[]>> connectionPool; // 添加连接池
+
+    private final GenericObjectPool<StatefulRedisClusterConnection<String, byte[]>> clusterConnectionPool; // 集群连接池
+
+    /**
+     * 共享连接（仅 SHARED 模式）
+     */
+    private final StatefulConnection<String, byte[]> sharedConnection;
+    private final RedisClusterCommands<String, byte[]> sharedSyncCommands;
+    private final RedisClusterAsyncCommands<String, byte[]> sharedAsyncCommands;
 
-    private final GenericObjectPool<StatefulRedisClusterConnection<String, String>> clusterConnectionPool; // 集群连接池
     private final String cacheName;
     private final boolean isCluster;
-    private final Class<V> valueType;
+    private final CacheCodec<V> codec;
+
+    /**
+     * 本缓存键的 SCAN 匹配模式
+     */
+    private final String scanPattern;
+
+    /**
+     * 热点键探测器，未配置热点键阈值时为null
+     */
+    private final HotKeyTracker<K, V> hotKeyTracker;
 
     /**
      * 构造函数
@@ -77,8 +154,11 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
         super(config);
         validateConfig(config);
 
-        this.valueType = valueType != null ? valueType : (Class<V>) Object.class;
+        this.codec = createCodec(config, valueType != null ? valueType : (Class<V>) Object.class);
         this.cacheName = config.getCacheName() != null ? config.getCacheName() : "";
+        this.scanPattern = escapeGlob(cacheName) + "*";
+        this.hotKeyTracker = config.getHotKeyThreshold() > 0 ? new HotKeyTracker<>(config, stats) : null;
+        boolean shared = config.getRedisConnectionMode() == RedisConnectionMode.SHARED;
 
         String redisUri = config.getRedisUri();
         if (redisUri == null || redisUri.isEmpty()) {
@@ -96,29 +176,52 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
 
             RedisClusterClient clusterClient = RedisClusterClient.create(redisURIs);
             this.client = clusterClient;
-
-            // 创建集群连接池
-            GenericObjectPoolConfig<StatefulRedisClusterConnection<String, String>> poolConfig =
-                    createPoolConfig(config);
-            this.clusterConnectionPool = ConnectionPoolSupport.createGenericObjectPool(
-                    clusterClient::connect, poolConfig);
             this.connectionPool = null;
+
+            if (shared) {
+                StatefulRedisClusterConnection<String, byte[]> connection = clusterClient.connect(REDIS_CODEC);
+                this.sharedConnection = connection;
+                this.sharedSyncCommands = connection.sync();
+                this.sharedAsyncCommands = connection.async();
+                this.clusterConnectionPool = null;
+            } else {
+                // 创建集群连接池
+                GenericObjectPoolConfig<StatefulRedisClusterConnection<String, byte[]>> poolConfig =
+                        createPoolConfig(config);
+                this.clusterConnectionPool = ConnectionPoolSupport.createGenericObjectPool(
+                        () -> clusterClient.connect(REDIS_CODEC), poolConfig);
+                this.sharedConnection = null;
+                this.sharedSyncCommands = null;
+                this.sharedAsyncCommands = null;
+            }
         } else {
             // 单机模式
             this.isCluster = false;
             RedisURI uri = RedisURI.create(redisUri);
             RedisClient redisClient = RedisClient.create(uri);
             this.client = redisClient;
-
-            // 创建单机连接池
-            GenericObjectPoolConfig<StatefulRedisConnection<String, String>> poolConfig =
-                    createPoolConfig(config);
-            this.connectionPool = ConnectionPoolSupport.createGenericObjectPool(
-                    () -> redisClient.connect(StringCodec.UTF8), poolConfig);
             this.clusterConnectionPool = null;
+
+            if (shared) {
+                StatefulRedisConnection<String, byte[]> connection = redisClient.connect(REDIS_CODEC);
+                this.sharedConnection = connection;
+                this.sharedSyncCommands = connection.sync();
+                this.sharedAsyncCommands = connection.async();
+                this.connectionPool = null;
+            } else {
+                // 创建单机连接池
+                GenericObjectPoolConfig<StatefulRedisConnection<String, byte[]>> poolConfig =
+                        createPoolConfig(config);
+                this.connectionPool = ConnectionPoolSupport.createGenericObjectPool(
+                        () -> redisClient.connect(REDIS_CODEC), poolConfig);
+                this.sharedConnection = null;
+                this.sharedSyncCommands = null;
+                this.sharedAsyncCommands = null;
+            }
         }
 
-        logger.info("RedisCache initialized with config: {} and mode: {}", config, isCluster ? "CLUSTER" : "STANDALONE");
+        logger.info("RedisCache initialized with config: {} and mode: {}, connection: {}",
+                config, isCluster ? "CLUSTER" : "STANDALONE", shared ? "SHARED" : "POOLED");
     }
 
     /**
@@ -144,13 +247,31 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
         });
     }
 
+    /**
+     * 创建值编解码器
+     *
+     * @param config    缓存配置
+     * @param valueType 值类型
+     * @return 值编解码器
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> CacheCodec<V> createCodec(CacheConfig config, Class<V> valueType) {
+        CacheCodec<V> codec = config.getValueCodec() != null
+                ? (CacheCodec<V>) config.getValueCodec()
+                : new JacksonJsonCodec<>(objectMapper, valueType);
+        if (config.getCompressionThreshold() > 0) {
+            codec = new Lz4CompressingCodec<>(codec, config.getCompressionThreshold());
+        }
+        return codec;
+    }
+
     // 添加连接池配置创建方法
     private <T> GenericObjectPoolConfig<T> createPoolConfig(CacheConfig config) {
         GenericObjectPoolConfig<T> poolConfig = new GenericObjectPoolConfig<>();
         poolConfig.setMaxTotal(config.getMaxConnections() > 0 ? config.getMaxConnections() : 20);
         poolConfig.setMaxIdle(config.getMaxIdleConnections() > 0 ? config.getMaxIdleConnections() : 10);
         poolConfig.setMinIdle(config.getMinIdleConnections() >= 0 ? config.getMinIdleConnections() : 2);
-        poolConfig.setMaxWaitMillis(config.getConnectionTimeout() > 0 ? config.getConnectionTimeout() : 5000);
+        poolConfig.setMaxWaitMillis(connectionTimeoutMillis());
         poolConfig.setTestOnBorrow(true);
         poolConfig.setTestOnReturn(true);
         poolConfig.setTestWhileIdle(true);
@@ -183,47 +304,41 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
      * @return 值
      */
     @Override
-    @SuppressWarnings("unchecked")
     protected V do_get(K key) {
         if (key == null) {
             return null;
         }
 
-        long startTime = System.nanoTime();
-        Object connection = null;
-        try {
-            connection = createConnection();
-
-            String value;
-            if (isCluster) {
-                StatefulRedisClusterConnection<String, String> clusterConnection =
-                        (StatefulRedisClusterConnection<String, String>) connection;
-                RedisClusterCommands<String, String> commands = clusterConnection.sync();
-                value = commands.get(wrapKey(key));
-                logger.debug("RedisCache get value: {} for key: {}", value, wrapKey(key));
-            } else {
-                StatefulRedisConnection<String, String> standaloneConnection =
-                        (StatefulRedisConnection<String, String>) connection;
-                RedisCommands<String, String> commands = standaloneConnection.sync();
-                value = commands.get(wrapKey(key));
-                logger.debug("RedisCache get value: {} for key: {}", value, wrapKey(key));
+        if (hotKeyTracker != null) {
+            V local = hotKeyTracker.get(key);
+            if (local != null) {
+                stats.recordHit();
+                return local;
             }
+        }
+
+        long version = hotKeyTracker != null ? hotKeyTracker.version(key) : 0;
+        try {
+            String wrappedKey = wrapKey(key);
+            byte[] value = execute(commands -> commands.get(wrappedKey));
+            logger.debug("RedisCache get {} bytes for key: {}", value != null ? value.length : 0, wrappedKey);
 
             if (value != null) {
                 stats.recordHit();
                 // 反序列化为对象
-                return deserialize(value);
+                V result = deserialize(value);
+                if (hotKeyTracker != null) {
+                    hotKeyTracker.promoteIfHot(key, result, version);
+                }
+                return result;
             } else {
                 stats.recordMiss();
                 return null;
             }
         } catch (Exception e) {
             stats.recordMiss();
-            stats.recordLoadException(System.nanoTime() - startTime);
             logger.warn("Failed to get value from Redis for key: {}", key, e);
             return null;
-        } finally {
-            closeConnection(connection);
         }
     }
 
@@ -234,44 +349,25 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
      * @param value 值
      */
     @Override
-    @SuppressWarnings("unchecked")
     protected void do_put(K key, V value) {
         if (key == null) {
             return;
         }
+        invalidateHotKey(key);
 
-        long startTime = System.nanoTime();
-        Object connection = null;
         try {
-            connection = createConnection();
-            String serializedValue = serialize(value);
-
-            if (isCluster) {
-                StatefulRedisClusterConnection<String, String> clusterConnection =
-                        (StatefulRedisClusterConnection<String, String>) connection;
-                RedisClusterCommands<String, String> commands = clusterConnection.sync();
-                if (config.getExpireAfterWrite() > 0) {
-                    commands.setex(wrapKey(key), (int) (config.getExpireAfterWrite() / 1000), serializedValue);
-                } else {
-                    commands.set(wrapKey(key), serializedValue);
-                }
-            } else {
-                StatefulRedisConnection<String, String> standaloneConnection =
-                        (StatefulRedisConnection<String, String>) connection;
-                RedisCommands<String, String> commands = standaloneConnection.sync();
-                if (config.getExpireAfterWrite() > 0) {
-                    commands.setex(wrapKey(key), (int) (config.getExpireAfterWrite() / 1000), serializedValue);
-                } else {
-                    commands.set(wrapKey(key), serializedValue);
-                }
-            }
+            String wrappedKey = wrapKey(key);
+            byte[] serializedValue = serialize(value);
+            long ttlSeconds = config.getExpireAfterWrite() / 1000;
+            execute(commands -> ttlSeconds > 0
+                    ? commands.setex(wrappedKey, ttlSeconds, serializedValue)
+                    : commands.set(wrappedKey, serializedValue));
             stats.recordPut();
-            stats.recordLoadSuccess(System.nanoTime() - startTime);
         } catch (Exception e) {
-            stats.recordLoadException(System.nanoTime() - startTime);
             logger.error("Failed to put value to Redis for key: {}", key, e);
         } finally {
-            closeConnection(connection);
+            // 写入完成后再次移除，撤回写入期间由旧值完成的提升
+            invalidateHotKey(key);
         }
     }
 
@@ -282,36 +378,22 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
      * @return 是否删除成功
      */
     @Override
-    @SuppressWarnings("unchecked")
     protected boolean do_remove(K key) {
         if (key == null) {
             return false;
         }
+        invalidateHotKey(key);
 
-        long startTime = System.nanoTime();
-        Object connection = null;
         try {
-            connection = createConnection();
-            Long result;
-            if (isCluster) {
-                StatefulRedisClusterConnection<String, String> clusterConnection =
-                        (StatefulRedisClusterConnection<String, String>) connection;
-                RedisClusterCommands<String, String> commands = clusterConnection.sync();
-                result = commands.del(wrapKey(key));
-            } else {
-                StatefulRedisConnection<String, String> standaloneConnection =
-                        (StatefulRedisConnection<String, String>) connection;
-                RedisCommands<String, String> commands = standaloneConnection.sync();
-                result = commands.del(wrapKey(key));
-            }
-            stats.recordLoadSuccess(System.nanoTime() - startTime);
+            String wrappedKey = wrapKey(key);
+            Long result = execute(commands -> commands.del(wrappedKey));
             return result != null && result > 0;
         } catch (Exception e) {
-            stats.recordLoadException(System.nanoTime() - startTime);
             logger.error("Failed to remove value from Redis for key: {}", key, e);
             return false;
         } finally {
-            closeConnection(connection);
+            // 写入完成后再次移除，撤回写入期间由旧值完成的提升
+            invalidateHotKey(key);
         }
     }
 
@@ -322,19 +404,17 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
      * @return 键值对映射
      */
     @Override
-    @SuppressWarnings("unchecked")
     protected Map<K, V> do_getAll(Set<? extends K> keys) {
         if (keys == null || keys.isEmpty()) {
             return Collections.emptyMap();
         }
 
-        long startTime = System.nanoTime();
-        Object connection = null;
         try {
-            connection = createConnection();
-            List<String> wrappedKeys = new ArrayList<>();
+            List<K> originalKeys = new ArrayList<>(keys.size());
+            List<String> wrappedKeys = new ArrayList<>(keys.size());
             for (K key : keys) {
                 if (key != null) {
+                    originalKeys.add(key);
                     wrappedKeys.add(wrapKey(key));
                 }
             }
@@ -343,77 +423,13 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
                 return Collections.emptyMap();
             }
 
-            Map<K, V> result = new HashMap<>();
-            if (isCluster) {
-                StatefulRedisClusterConnection<String, String> clusterConnection =
-                        (StatefulRedisClusterConnection<String, String>) connection;
-                RedisClusterCommands<String, String> commands = clusterConnection.sync();
-                List<KeyValue<String, String>> values = commands.mget(wrappedKeys.toArray(new String[0]));
-                Iterator<? extends K> keyIterator = keys.iterator();
-
-                int hitCount = 0;
-                int missCount = 0;
-
-                for (KeyValue<String, String> keyValue : values) {
-                    K originalKey = keyIterator.next();
-                    if (keyValue.hasValue()) {
-                        V deserializedValue = deserialize(keyValue.getValue());
-                        result.put(originalKey, deserializedValue);
-                        hitCount++;
-                    } else {
-                        missCount++;
-                    }
-                }
-
-                // Record stats
-                for (int i = 0; i < hitCount; i++) {
-                    stats.recordHit();
-                }
-                for (int i = 0; i < missCount; i++) {
-                    stats.recordMiss();
-                }
-            } else {
-                StatefulRedisConnection<String, String> standaloneConnection =
-                        (StatefulRedisConnection<String, String>) connection;
-                RedisCommands<String, String> commands = standaloneConnection.sync();
-                List<KeyValue<String, String>> values = commands.mget(wrappedKeys.toArray(new String[0]));
-                Iterator<? extends K> keyIterator = keys.iterator();
-
-                int hitCount = 0;
-                int missCount = 0;
-
-                for (KeyValue<String, String> keyValue : values) {
-                    K originalKey = keyIterator.next();
-                    if (keyValue.hasValue()) {
-                        V deserializedValue = deserialize(keyValue.getValue());
-                        result.put(originalKey, deserializedValue);
-                        hitCount++;
-                    } else {
-                        missCount++;
-                    }
-                }
-
-                // Record stats
-                for (int i = 0; i < hitCount; i++) {
-                    stats.recordHit();
-                }
-                for (int i = 0; i < missCount; i++) {
-                    stats.recordMiss();
-                }
-            }
-
-            stats.recordLoadSuccess(System.nanoTime() - startTime);
-            return result;
+            List<KeyValue<String, byte[]>> values =
+                    execute(commands -> commands.mget(wrappedKeys.toArray(new String[0])));
+            return collectValues(originalKeys, values);
         } catch (Exception e) {
-            // Record all as misses
-            for (int i = 0; i < keys.size(); i++) {
-                stats.recordMiss();
-            }
-            stats.recordLoadException(System.nanoTime() - startTime);
+            stats.recordMisses(keys.size());
             logger.error("Failed to get all values from Redis for keys: {}", keys, e);
             return new HashMap<>();
-        } finally {
-            closeConnection(connection);
         }
     }
 
@@ -423,51 +439,35 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
      * @param map 键值对映射
      */
     @Override
-    @SuppressWarnings("unchecked")
     protected void do_putAll(Map<? extends K, ? extends V> map) {
         if (map == null || map.isEmpty()) {
             return;
         }
 
-        long startTime = System.nanoTime();
-        Object connection = null;
+        map.keySet().forEach(this::invalidateHotKey);
         try {
-            connection = createConnection();
-            Map<String, String> serializedMap = new HashMap<>();
-            for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
-                K key = entry.getKey();
-                V value = entry.getValue();
-                if (key != null) {
-                    String serializedValue = serialize(value);
-                    serializedMap.put(wrapKey(key), serializedValue);
-                }
-            }
-
+            Map<String, byte[]> serializedMap = serializeAll(map);
             if (!serializedMap.isEmpty()) {
-                if (isCluster) {
-                    StatefulRedisClusterConnection<String, String> clusterConnection =
-                            (StatefulRedisClusterConnection<String, String>) connection;
-                    RedisClusterCommands<String, String> commands = clusterConnection.sync();
-                    commands.mset(serializedMap);
+                long ttlSeconds = config.getExpireAfterWrite() / 1000;
+                if (ttlSeconds > 0) {
+                    // MSET 不支持过期时间，改为在同一连接上流水线发送 SETEX
+                    pipeline(commands -> {
+                        List<RedisFuture<?>> futures = new ArrayList<>(serializedMap.size());
+                        for (Map.Entry<String, byte[]> entry : serializedMap.entrySet()) {
+                            futures.add(commands.setex(entry.getKey(), ttlSeconds, entry.getValue()));
+                        }
+                        return futures;
+                    });
                 } else {
-                    StatefulRedisConnection<String, String> standaloneConnection =
-                            (StatefulRedisConnection<String, String>) connection;
-                    RedisCommands<String, String> commands = standaloneConnection.sync();
-                    commands.mset(serializedMap);
+                    execute(commands -> commands.mset(serializedMap));
                 }
 
-                // Record stats
-                for (int i = 0; i < serializedMap.size(); i++) {
-                    stats.recordPut();
-                }
+                stats.recordPuts(serializedMap.size());
             }
-
-            stats.recordLoadSuccess(System.nanoTime() - startTime);
         } catch (Exception e) {
-            stats.recordLoadException(System.nanoTime() - startTime);
             logger.error("Failed to put all values to Redis for map: {}", map, e);
         } finally {
-            closeConnection(connection);
+            map.keySet().forEach(this::invalidateHotKey);
         }
     }
 
@@ -477,19 +477,16 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
      * @param keys 键集合
      */
     @Override
-    @SuppressWarnings("unchecked")
     protected void do_removeAll(Set<? extends K> keys) {
         if (keys == null || keys.isEmpty()) {
             return;
         }
 
-        long startTime = System.nanoTime();
-        Object connection = null;
         try {
-            connection = createConnection();
             List<String> wrappedKeys = new ArrayList<>();
             for (K key : keys) {
                 if (key != null) {
+                    invalidateHotKey(key);
                     wrappedKeys.add(wrapKey(key));
                 }
             }
@@ -498,23 +495,11 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
                 return;
             }
 
-            if (isCluster) {
-                StatefulRedisClusterConnection<String, String> clusterConnection =
-                        (StatefulRedisClusterConnection<String, String>) connection;
-                RedisClusterCommands<String, String> commands = clusterConnection.sync();
-                commands.del(wrappedKeys.toArray(new String[wrappedKeys.size()]));
-            } else {
-                StatefulRedisConnection<String, String> standaloneConnection =
-                        (StatefulRedisConnection<String, String>) connection;
-                RedisCommands<String, String> commands = standaloneConnection.sync();
-                commands.del(wrappedKeys.toArray(new String[wrappedKeys.size()]));
-            }
-            stats.recordLoadSuccess(System.nanoTime() - startTime);
+            execute(commands -> commands.unlink(wrappedKeys.toArray(new String[0])));
         } catch (Exception e) {
-            stats.recordLoadException(System.nanoTime() - startTime);
             logger.error("Failed to remove all values from Redis for keys: {}", keys, e);
         } finally {
-            closeConnection(connection);
+            keys.forEach(this::invalidateHotKey);
         }
     }
 
@@ -527,45 +512,25 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
      * @param unit  时间单位
      */
     @Override
-    @SuppressWarnings("unchecked")
     protected void do_putWithTtl(K key, V value, long ttl, TimeUnit unit) {
         if (key == null) {
             return;
         }
+        invalidateHotKey(key);
 
-        long startTime = System.nanoTime();
-        Object connection = null;
         try {
-            connection = createConnection();
-            String serializedValue = serialize(value);
+            String wrappedKey = wrapKey(key);
+            byte[] serializedValue = serialize(value);
             long ttlSeconds = unit.toSeconds(ttl);
-
-            if (isCluster) {
-                StatefulRedisClusterConnection<String, String> clusterConnection =
-                        (StatefulRedisClusterConnection<String, String>) connection;
-                RedisClusterCommands<String, String> commands = clusterConnection.sync();
-                if (ttlSeconds > 0) {
-                    commands.setex(wrapKey(key), (int) ttlSeconds, serializedValue);
-                } else {
-                    commands.set(wrapKey(key), serializedValue);
-                }
-            } else {
-                StatefulRedisConnection<String, String> standaloneConnection =
-                        (StatefulRedisConnection<String, String>) connection;
-                RedisCommands<String, String> commands = standaloneConnection.sync();
-                if (ttlSeconds > 0) {
-                    commands.setex(wrapKey(key), (int) ttlSeconds, serializedValue);
-                } else {
-                    commands.set(wrapKey(key), serializedValue);
-                }
-            }
+            execute(commands -> ttlSeconds > 0
+                    ? commands.setex(wrappedKey, ttlSeconds, serializedValue)
+                    : commands.set(wrappedKey, serializedValue));
             stats.recordPut();
-            stats.recordLoadSuccess(System.nanoTime() - startTime);
         } catch (Exception e) {
-            stats.recordLoadException(System.nanoTime() - startTime);
             logger.error("Failed to put value to Redis for key: {} with ttl", key, e);
         } finally {
-            closeConnection(connection);
+            // 写入完成后再次移除，撤回写入期间由旧值完成的提升
+            invalidateHotKey(key);
         }
     }
 
@@ -577,48 +542,29 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
      * @param expireTimestamp 绝对过期时间戳（毫秒）
      */
     @Override
-    @SuppressWarnings("unchecked")
     public void putAtFixedTime(K key, V value, long expireTimestamp) {
         if (key == null) {
             return;
         }
+        invalidateHotKey(key);
 
-        long startTime = System.nanoTime();
-        Object connection = null;
         try {
-            connection = createConnection();
-            String serializedValue = serialize(value);
+            String wrappedKey = wrapKey(key);
+            byte[] serializedValue = serialize(value);
             long ttlSeconds = (expireTimestamp - System.currentTimeMillis()) / 1000;
-
-            if (isCluster) {
-                StatefulRedisClusterConnection<String, String> clusterConnection = (StatefulRedisClusterConnection<String, String>) connection;
-                RedisClusterCommands<String, String> commands = clusterConnection.sync();
-                if (ttlSeconds > 0) {
-                    commands.setex(wrapKey(key), ttlSeconds, serializedValue);
-                } else {
-                    commands.set(wrapKey(key), serializedValue);
-                }
-            } else {
-                StatefulRedisConnection<String, String> standaloneConnection = (StatefulRedisConnection<String, String>) connection;
-                RedisCommands<String, String> commands = standaloneConnection.sync();
-                if (ttlSeconds > 0) {
-                    commands.setex(wrapKey(key), ttlSeconds, serializedValue);
-                } else {
-                    commands.set(wrapKey(key), serializedValue);
-                }
-            }
+            execute(commands -> ttlSeconds > 0
+                    ? commands.setex(wrappedKey, ttlSeconds, serializedValue)
+                    : commands.set(wrappedKey, serializedValue));
             stats.recordPut();
-            stats.recordLoadSuccess(System.nanoTime() - startTime);
         } catch (Exception e) {
-            stats.recordLoadException(System.nanoTime() - startTime);
             logger.error("Failed to put value to Redis for key: {} with fixed time", key, e);
         } finally {
-            closeConnection(connection);
+            // 写入完成后再次移除，撤回写入期间由旧值完成的提升
+            invalidateHotKey(key);
         }
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public V getOrLoadAtFixedTime(K key, Function<K, V> loader, long expireTimestamp) {
         if (key == null || loader == null) {
             return null;
@@ -629,26 +575,7 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
             return value;
         }
 
-        synchronized (this) {
-            value = get(key);
-            if (value != null) {
-                return value;
-            }
-
-            long startTime = System.nanoTime();
-            try {
-                value = loader.apply(key);
-                stats.recordLoadSuccess(System.nanoTime() - startTime);
-                if (value != null) {
-                    putAtFixedTime(key, value, expireTimestamp);
-                }
-                return value;
-            } catch (Exception e) {
-                stats.recordLoadException(System.nanoTime() - startTime);
-                logger.error("Failed to load value for key: {} with fixed time", key, e);
-                throw e;
-            }
-        }
+        return loadCoalesced(key, loader, loaded -> putAtFixedTime(key, loaded, expireTimestamp));
     }
 
     /**
@@ -659,74 +586,149 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
      */
     @Override
     public boolean containsKey(K key) {
-        return false;
+        if (key == null) {
+            return false;
+        }
+        String wrappedKey = wrapKey(key);
+        try {
+            Long count = execute(commands -> commands.exists(wrappedKey));
+            return count != null && count > 0;
+        } catch (Exception e) {
+            logger.error("Failed to check key existence in Redis for key: {}", key, e);
+            return false;
+        }
     }
 
     /**
      * 获取缓存大小
+     * <p>
+     * 通过 SCAN 统计以缓存名为前缀的键数量。SCAN 期间发生的写入可能导致结果偏差，
+     * 该值应视为近似值，且耗时与键数量成正比
+     * </p>
      *
      * @return 缓存大小
      */
     @Override
-    @SuppressWarnings("unchecked")
     public long size() {
-        long startTime = System.nanoTime();
-        Object connection = null;
-        try {
-            connection = createConnection();
-            long size;
-            if (isCluster) {
-                StatefulRedisClusterConnection<String, String> clusterConnection =
-                        (StatefulRedisClusterConnection<String, String>) connection;
-                RedisClusterCommands<String, String> commands = clusterConnection.sync();
-                size = commands.dbsize();
-            } else {
-                StatefulRedisConnection<String, String> standaloneConnection =
-                        (StatefulRedisConnection<String, String>) connection;
-                RedisCommands<String, String> commands = standaloneConnection.sync();
-                size = commands.dbsize();
-            }
-            stats.recordLoadSuccess(System.nanoTime() - startTime);
+        try (Stream<List<String>> pages = scanPages(true)) {
+            long size = pages.mapToLong(List::size).sum();
             return size;
         } catch (Exception e) {
-            stats.recordLoadException(System.nanoTime() - startTime);
-            logger.error("Failed to get Redis database size", e);
+            logger.error("Failed to scan Redis cache size: {}", cacheName, e);
             return -1;
-        } finally {
-            closeConnection(connection);
         }
     }
 
     /**
      * 清空缓存
+     * <p>
+     * 只删除以缓存名为前缀的键：逐页 SCAN，并对每页使用 UNLINK 在后台线程释放内存，
+     * 不会像 FLUSHDB 那样清空共享数据库或阻塞 Redis
+     * </p>
      */
     @Override
-    @SuppressWarnings("unchecked")
     public void clear() {
-        long startTime = System.nanoTime();
-        Object connection = null;
-        try {
-            connection = createConnection();
-            if (isCluster) {
-                StatefulRedisClusterConnection<String, String> clusterConnection =
-                        (StatefulRedisClusterConnection<String, String>) connection;
-                RedisClusterCommands<String, String> commands = clusterConnection.sync();
-                commands.flushdb();
-            } else {
-                StatefulRedisConnection<String, String> standaloneConnection =
-                        (StatefulRedisConnection<String, String>) connection;
-                RedisCommands<String, String> commands = standaloneConnection.sync();
-                commands.flushdb();
+        try (Stream<List<String>> pages = scanPages(true)) {
+            pages.forEach(page -> execute(commands -> commands.unlink(page.toArray(new String[0]))));
+            refreshSupport.clear();
+            if (hotKeyTracker != null) {
+                hotKeyTracker.clear();
             }
-            stats.recordLoadSuccess(System.nanoTime() - startTime);
         } catch (Exception e) {
-            stats.recordLoadException(System.nanoTime() - startTime);
-            logger.error("Failed to clear Redis database", e);
-        } finally {
-            closeConnection(connection);
+            logger.error("Failed to clear Redis cache: {}", cacheName, e);
+        }
+    }
+
+    /**
+     * 本节点写入或删除键时移除其本地热点值
+     *
+     * @param key 键
+     */
+    private void invalidateHotKey(K key) {
+        if (hotKeyTracker != null && key != null) {
+            hotKeyTracker.invalidate(key);
         }
     }
 
+    // ==================== 键/条目迭代 ====================
+
+    /**
+     * 获取缓存键的迭代器
+     * <p>
+     * 返回去掉缓存名前缀后的键；非字符串键为其 JSON 形式。
+     * 迭代过程按页拉取，不会一次性加载全部键，同一个键可能被返回多次
+     * </p>
+     *
+     * @return 键迭代器
+     */
+    public Iterator<String> keyIterator() {
+        return keyStream(false).iterator();
+    }
+
+    /**
+     * 获取缓存键的可拆分迭代器
+     * <p>
+     * 集群模式下按主节点拆分，可用于 {@code StreamSupport.stream(spliterator, true)} 并行处理
+     * </p>
+     *
+     * @return 键的可拆分迭代器
+     */
+    public Spliterator<String> keySpliterator() {
+        return keyStream(false).spliterator();
+    }
+
+    /**
+     * 获取缓存条目的迭代器
+     * <p>
+     * 每页键通过一次 MGET 取值，迭代期间已过期或被删除的键会被跳过
+     * </p>
+     *
+     * @return 条目迭代器，键为去掉缓存名前缀后的键
+     */
+    public Iterator<Map.Entry<String, V>> entryIterator() {
+        return entryStream(false).iterator();
+    }
+
+    /**
+     * 获取缓存条目的可拆分迭代器
+     *
+     * @return 条目的可拆分迭代器
+     * @see #keySpliterator()
+     */
+    public Spliterator<Map.Entry<String, V>> entrySpliterator() {
+        return entryStream(false).spliterator();
+    }
+
+    /**
+     * 获取缓存键流
+     *
+     * @param parallel 是否并行扫描各主节点
+     * @return 键流
+     */
+    public Stream<String> keyStream(boolean parallel) {
+        return scanPages(parallel).flatMap(page -> page.stream().map(this::unwrapKey));
+    }
+
+    /**
+     * 获取缓存条目流
+     *
+     * @param parallel 是否并行扫描各主节点
+     * @return 条目流
+     */
+    public Stream<Map.Entry<String, V>> entryStream(boolean parallel) {
+        return scanPages(parallel).flatMap(page -> {
+            List<KeyValue<String, byte[]>> values = execute(commands -> commands.mget(page.toArray(new String[0])));
+            List<Map.Entry<String, V>> entries = new ArrayList<>(values.size());
+            for (KeyValue<String, byte[]> keyValue : values) {
+                if (keyValue.hasValue()) {
+                    entries.add(new AbstractMap.SimpleImmutableEntry<>(
+                            unwrapKey(keyValue.getKey()), deserialize(keyValue.getValue())));
+                }
+            }
+            return entries.stream();
+        });
+    }
+
     /**
      * 获取缓存配置
      *
@@ -745,7 +747,6 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
      * @return 缓存值
      */
     @Override
-    @SuppressWarnings("unchecked")
     public V getOrLoad(K key, Function<K, V> loader) {
         if (key == null || loader == null) {
             return null;
@@ -756,26 +757,188 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
             return value;
         }
 
-        synchronized (this) {
-            value = get(key);
-            if (value != null) {
-                return value;
+        return loadCoalesced(key, loader, loaded -> put(key, loaded));
+    }
+
+    // ==================== 异步操作 ====================
+
+    /**
+     * 获取非阻塞视图，即本实例
+     *
+     * @return 本实例
+     */
+    @Override
+    public AsyncCache<K, V> async() {
+        return this;
+    }
+
+    /**
+     * 异步获取数据
+     *
+     * @param key 键
+     * @return 值的异步结果，不存在时完成为null
+     */
+    @Override
+    public CompletableFuture<V> getAsync(K key) {
+        if (key == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (hotKeyTracker != null) {
+            V local = hotKeyTracker.get(key);
+            if (local != null) {
+                stats.recordHit();
+                return CompletableFuture.completedFuture(local);
             }
+        }
+        long version = hotKeyTracker != null ? hotKeyTracker.version(key) : 0;
+        String wrappedKey = wrapKey(key);
+        return executeAsync(commands -> commands.get(wrappedKey))
+                .handle((value, e) -> {
+                    if (e != null) {
+                        stats.recordMiss();
+                        logger.warn("Failed to get value from Redis for key: {}", key, e);
+                        return null;
+                    }
+                    if (value == null) {
+                        stats.recordMiss();
+                        return null;
+                    }
+                    stats.recordHit();
+                    V result = deserialize(value);
+                    if (hotKeyTracker != null) {
+                        hotKeyTracker.promoteIfHot(key, result, version);
+                    }
+                    return result;
+                });
+    }
 
-            long startTime = System.nanoTime();
-            try {
-                value = loader.apply(key);
-                stats.recordLoadSuccess(System.nanoTime() - startTime);
-                if (value != null) {
-                    put(key, value);
-                }
-                return value;
-            } catch (Exception e) {
-                stats.recordLoadException(System.nanoTime() - startTime);
-                logger.error("Failed to load value for key: {}", key, e);
-                throw e;
+    /**
+     * 异步存储数据，使用配置的写入后过期时间
+     *
+     * @param key   键
+     * @param value 值
+     * @return 写入完成的异步结果
+     */
+    @Override
+    public CompletableFuture<Void> putAsync(K key, V value) {
+        return putAsync(key, value, config.getExpireAfterWrite(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 异步存储数据并指定过期时间
+     *
+     * @param key   键
+     * @param value 值
+     * @param ttl   过期时间
+     * @param unit  时间单位
+     * @return 写入完成的异步结果
+     */
+    @Override
+    public CompletableFuture<Void> putAsync(K key, V value, long ttl, TimeUnit unit) {
+        if (key == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        invalidateHotKey(key);
+        String wrappedKey = wrapKey(key);
+        byte[] serializedValue = serialize(value);
+        long ttlSeconds = unit.toSeconds(ttl);
+        return executeAsync(commands -> ttlSeconds > 0
+                ? commands.setex(wrappedKey, ttlSeconds, serializedValue)
+                : commands.set(wrappedKey, serializedValue))
+                .whenComplete((ok, e) -> invalidateHotKey(key))
+                .thenAccept(ok -> stats.recordPut());
+    }
+
+    /**
+     * 异步删除数据
+     *
+     * @param key 键
+     * @return 是否删除成功的异步结果
+     */
+    @Override
+    public CompletableFuture<Boolean> removeAsync(K key) {
+        if (key == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        invalidateHotKey(key);
+        String wrappedKey = wrapKey(key);
+        return executeAsync(commands -> commands.del(wrappedKey))
+                .whenComplete((result, e) -> invalidateHotKey(key))
+                .thenApply(result -> result != null && result > 0);
+    }
+
+    /**
+     * 异步批量获取数据
+     *
+     * @param keys 键集合
+     * @return 键值对映射的异步结果
+     */
+    @Override
+    public CompletableFuture<Map<K, V>> getAllAsync(Set<? extends K> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        List<K> originalKeys = new ArrayList<>(keys.size());
+        List<String> wrappedKeys = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            if (key != null) {
+                originalKeys.add(key);
+                wrappedKeys.add(wrapKey(key));
             }
         }
+        if (wrappedKeys.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        return executeAsync(commands -> commands.mget(wrappedKeys.toArray(new String[0])))
+                .thenApply(values -> collectValues(originalKeys, values));
+    }
+
+    /**
+     * 异步批量存储数据
+     *
+     * @param map 键值对映射
+     * @return 写入完成的异步结果
+     */
+    @Override
+    public CompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> map) {
+        if (map == null || map.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        map.keySet().forEach(this::invalidateHotKey);
+        Map<String, byte[]> serializedMap = serializeAll(map);
+        if (serializedMap.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long ttlSeconds = config.getExpireAfterWrite() / 1000;
+        CompletableFuture<?> written = ttlSeconds > 0
+                ? pipelineAsync(commands -> {
+                    List<RedisFuture<?>> futures = new ArrayList<>(serializedMap.size());
+                    for (Map.Entry<String, byte[]> entry : serializedMap.entrySet()) {
+                        futures.add(commands.setex(entry.getKey(), ttlSeconds, entry.getValue()));
+                    }
+                    return futures;
+                })
+                : executeAsync(commands -> commands.mset(serializedMap));
+        return written
+                .whenComplete((ok, e) -> map.keySet().forEach(this::invalidateHotKey))
+                .thenAccept(ok -> stats.recordPuts(serializedMap.size()));
+    }
+
+    /**
+     * 异步获取或加载数据，同一键的并发未命中共享同一次加载
+     *
+     * @param key    键
+     * @param loader 异步加载函数
+     * @return 值的异步结果
+     */
+    @Override
+    public CompletableFuture<V> getOrLoadAsync(K key, Function<K, CompletableFuture<V>> loader) {
+        if (key == null || loader == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return getAsync(key).thenCompose(value -> value != null
+                ? CompletableFuture.completedFuture(value)
+                : loadCoalescedAsync(key, loader, loaded -> putAsync(key, loaded)));
     }
 
     /**
@@ -784,13 +947,16 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
     @Override
     public void close() {
         try {
-            // 先关闭连接池
+            // 先关闭连接池或共享连接
             if (connectionPool != null) {
                 connectionPool.close();
             }
             if (clusterConnectionPool != null) {
                 clusterConnectionPool.close();
             }
+            if (sharedConnection != null) {
+                sharedConnection.close();
+            }
 
             // 再关闭客户端
             if (client instanceof RedisClient) {
@@ -811,8 +977,97 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
 
     }
 
+    /**
+     * 基于当前客户端创建发布/订阅连接
+     * <p>
+     * 复用本缓存的 RedisClient / RedisClusterClient，供混合缓存广播失效消息使用，
+     * 由调用方负责关闭返回的连接
+     * </p>
+     *
+     * @return 发布/订阅连接
+     */
+    StatefulRedisPubSubConnection<String, String> connectPubSub() {
+        if (isCluster) {
+            return ((RedisClusterClient) client).connectPubSub();
+        }
+        return ((RedisClient) client).connectPubSub(StringCodec.UTF8);
+    }
+
     // ==================== 辅助方法 ====================
 
+    /**
+     * 按页扫描本缓存的键
+     *
+     * @param parallel 是否并行扫描各主节点
+     * @return 每个元素为一页包装后的键
+     */
+    private Stream<List<String>> scanPages(boolean parallel) {
+        return StreamSupport.stream(new RedisScanSpliterator(scanSources(), this::scanPage), parallel);
+    }
+
+    /**
+     * 获取扫描源：集群模式下为所有主节点ID，单机模式下为单个null
+     *
+     * @return 扫描源列表
+     */
+    private List<String> scanSources() {
+        if (!isCluster) {
+            return Collections.singletonList(null);
+        }
+        return executeCluster(connection -> {
+            List<String> nodeIds = new ArrayList<>();
+            for (RedisClusterNode node : connection.getPartitions()) {
+                if (node.getRole().isUpstream()) {
+                    nodeIds.add(node.getNodeId());
+                }
+            }
+            return nodeIds;
+        });
+    }
+
+    /**
+     * 在指定扫描源上执行一次 SCAN
+     *
+     * @param nodeId 集群节点ID，单机模式为null
+     * @param cursor 游标
+     * @return 本页扫描结果
+     */
+    private KeyScanCursor<String> scanPage(String nodeId, ScanCursor cursor) {
+        ScanArgs args = ScanArgs.Builder.matches(scanPattern).limit(SCAN_BATCH_SIZE);
+        if (nodeId == null) {
+            return execute(commands -> commands.scan(cursor, args));
+        }
+        return executeCluster(connection -> connection.getConnection(nodeId).sync().scan(cursor, args));
+    }
+
+    /**
+     * 去掉键的缓存名前缀
+     *
+     * @param wrappedKey 包装后的键
+     * @return 原始键字符串
+     */
+    private String unwrapKey(String wrappedKey) {
+        return wrappedKey.startsWith(cacheName) ? wrappedKey.substring(cacheName.length()) : wrappedKey;
+    }
+
+    /**
+     * 转义 glob 模式中的特殊字符
+     *
+     * @param literal 字面量
+     * @return 转义后的模式片段
+     */
+    private static String escapeGlob(String literal) {
+        StringBuilder builder = new StringBuilder(literal.length());
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                builder.append('\\');
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
     /**
      * 包装键名
      *
@@ -838,53 +1093,257 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
      * 序列化值
      *
      * @param value 值
-     * @return 序列化后的字符串
+     * @return 序列化后的字节数组
      */
-    private String serialize(V value) {
-        if (value instanceof String) {
-            return (String) value;
-        }
-        try {
-            return objectMapper.writeValueAsString(value);
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to serialize value: {}", value, e);
-            throw new RuntimeException("Serialization failed", e);
+    private byte[] serialize(V value) {
+        return codec.encode(value);
+    }
+
+    /**
+     * 批量序列化键值对
+     *
+     * @param map 键值对映射
+     * @return 包装键到序列化值的映射
+     */
+    private Map<String, byte[]> serializeAll(Map<? extends K, ? extends V> map) {
+        Map<String, byte[]> serializedMap = new HashMap<>();
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            K key = entry.getKey();
+            if (key != null) {
+                serializedMap.put(wrapKey(key), serialize(entry.getValue()));
+            }
         }
+        return serializedMap;
     }
 
     /**
      * 反序列化值
      *
-     * @param value 序列化的字符串
+     * @param value 序列化的字节数组
      * @return 反序列化后的值
      */
-    @SuppressWarnings("unchecked")
-    private V deserialize(String value) {
+    private V deserialize(byte[] value) {
         if (value == null) {
             return null;
         }
+        return codec.decode(value);
+    }
 
-        // 如果值类型是String，直接返回
-        if (valueType == String.class || valueType == Object.class) {
-            return (V) value;
+    /**
+     * 将 MGET 结果按顺序映射回原始键并记录命中统计
+     *
+     * @param originalKeys 原始键列表，顺序与请求一致
+     * @param values       MGET 结果
+     * @return 命中的键值对映射
+     */
+    private Map<K, V> collectValues(List<K> originalKeys, List<KeyValue<String, byte[]>> values) {
+        Map<K, V> result = new HashMap<>();
+        int hitCount = 0;
+        int missCount = 0;
+
+        for (int i = 0; i < values.size(); i++) {
+            KeyValue<String, byte[]> keyValue = values.get(i);
+            if (keyValue.hasValue()) {
+                result.put(originalKeys.get(i), deserialize(keyValue.getValue()));
+                hitCount++;
+            } else {
+                missCount++;
+            }
         }
 
+        stats.recordHits(hitCount);
+        stats.recordMisses(missCount);
+        return result;
+    }
+
+    /**
+     * 在同步命令上执行操作
+     * <p>
+     * SHARED 模式直接复用共享连接；POOLED 模式借出连接执行后归还。
+     * 每次调用的耗时计入远程调用耗时分布，抛出异常时同时计为一次远程调用失败
+     * </p>
+     *
+     * @param action 命令操作
+     * @param <R>    返回值类型
+     * @return 命令执行结果
+     */
+    @SuppressWarnings("unchecked")
+    private <R> R execute(Function<RedisClusterCommands<String, byte[]>, R> action) {
+        long startTime = System.nanoTime();
+        Object connection = null;
         try {
-            // 如果是泛型类型，使用TypeReference处理
-            if (valueType == Map.class) {
-                return (V) objectMapper.readValue(value, new TypeReference<Map<String, Object>>() {
-                });
-            } else if (valueType == List.class) {
-                return (V) objectMapper.readValue(value, new TypeReference<List<Object>>() {
-                });
+            R result;
+            if (sharedSyncCommands != null) {
+                result = action.apply(sharedSyncCommands);
+            } else {
+                connection = createConnection();
+                RedisClusterCommands<String, byte[]> commands = isCluster
+                        ? ((StatefulRedisClusterConnection<String, byte[]>) connection).sync()
+                        : ((StatefulRedisConnection<String, byte[]>) connection).sync();
+                result = action.apply(commands);
+            }
+            stats.recordRemoteCall(System.nanoTime() - startTime);
+            return result;
+        } catch (RuntimeException e) {
+            stats.recordRemoteFailure(System.nanoTime() - startTime);
+            throw e;
+        } finally {
+            closeConnection(connection);
+        }
+    }
+
+    /**
+     * 在集群连接上执行操作，用于需要访问拓扑或单个节点的命令
+     *
+     * @param action 连接操作
+     * @param <R>    返回值类型
+     * @return 操作结果
+     */
+    @SuppressWarnings("unchecked")
+    private <R> R executeCluster(Function<StatefulRedisClusterConnection<String, byte[]>, R> action) {
+        long startTime = System.nanoTime();
+        Object connection = null;
+        try {
+            R result;
+            if (sharedConnection != null) {
+                result = action.apply((StatefulRedisClusterConnection<String, byte[]>) sharedConnection);
+            } else {
+                connection = createConnection();
+                result = action.apply((StatefulRedisClusterConnection<String, byte[]>) connection);
             }
+            stats.recordRemoteCall(System.nanoTime() - startTime);
+            return result;
+        } catch (RuntimeException e) {
+            stats.recordRemoteFailure(System.nanoTime() - startTime);
+            throw e;
+        } finally {
+            closeConnection(connection);
+        }
+    }
 
-            return objectMapper.readValue(value, valueType);
+    /**
+     * 在异步命令上执行操作
+     * <p>
+     * SHARED 模式直接在共享连接上发送命令；POOLED 模式借出连接，在命令完成后归还。
+     * 从发送到完成的耗时计入远程调用耗时分布
+     * </p>
+     *
+     * @param action 命令操作
+     * @param <R>    返回值类型
+     * @return 命令执行结果的异步结果
+     */
+    private <R> CompletableFuture<R> executeAsync(
+            Function<RedisClusterAsyncCommands<String, byte[]>, ? extends CompletionStage<R>> action) {
+        long startTime = System.nanoTime();
+        CompletableFuture<R> future;
+        if (sharedAsyncCommands != null) {
+            try {
+                future = action.apply(sharedAsyncCommands).toCompletableFuture();
+            } catch (Exception e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+            }
+        } else {
+            future = executePooledAsync(action);
+        }
+        return future.whenComplete((result, e) -> {
+            if (e == null) {
+                stats.recordRemoteCall(System.nanoTime() - startTime);
+            } else {
+                stats.recordRemoteFailure(System.nanoTime() - startTime);
+            }
+        });
+    }
+
+    /**
+     * 借出连接执行异步命令，在命令完成后归还
+     */
+    @SuppressWarnings("unchecked")
+    private <R> CompletableFuture<R> executePooledAsync(
+            Function<RedisClusterAsyncCommands<String, byte[]>, ? extends CompletionStage<R>> action) {
+        Object connection;
+        try {
+            connection = createConnection();
         } catch (Exception e) {
-            logger.error("Failed to deserialize value: {} to type: {}", value, valueType, e);
-            // 如果反序列化失败，返回原始字符串值
-            return (V) value;
+            CompletableFuture<R> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
         }
+
+        try {
+            RedisClusterAsyncCommands<String, byte[]> commands = isCluster
+                    ? ((StatefulRedisClusterConnection<String, byte[]>) connection).async()
+                    : ((StatefulRedisConnection<String, byte[]>) connection).async();
+            final Object borrowed = connection;
+            return action.apply(commands).toCompletableFuture()
+                    .whenComplete((result, e) -> closeConnection(borrowed));
+        } catch (Exception e) {
+            closeConnection(connection);
+            CompletableFuture<R> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    /**
+     * 在同一连接上流水线发送一组命令并等待全部完成
+     * <p>
+     * Lettuce 异步命令写出后不等待响应，同一连接上连续发送的命令即构成一次流水线
+     * </p>
+     *
+     * @param action 发送命令并返回各命令结果的操作
+     */
+    private void pipeline(Function<RedisClusterAsyncCommands<String, byte[]>, List<RedisFuture<?>>> action) {
+        await(pipelineAsync(action));
+    }
+
+    /**
+     * 获取连接超时时间，未配置或配置为非正数时返回默认值
+     *
+     * @return 连接超时时间（毫秒）
+     */
+    private long connectionTimeoutMillis() {
+        return config.getConnectionTimeout() > 0 ? config.getConnectionTimeout() : DEFAULT_CONNECTION_TIMEOUT_MS;
+    }
+
+    /**
+     * 等待异步命令完成，最长等待连接超时时间，未配置时使用默认值
+     *
+     * @param future 异步结果
+     * @param <R>    返回值类型
+     * @return 命令执行结果
+     */
+    private <R> R await(CompletableFuture<R> future) {
+        try {
+            return future.get(connectionTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for pipelined Redis commands", e);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out waiting for pipelined Redis commands", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Pipelined Redis commands failed", e.getCause());
+        }
+    }
+
+    /**
+     * 在同一连接上流水线发送一组命令
+     * <p>
+     * POOLED 模式借出一个连接发送全部命令，在全部命令完成后归还
+     * </p>
+     *
+     * @param action 发送命令并返回各命令结果的操作
+     * @return 全部命令完成时完成的异步结果
+     */
+    private CompletableFuture<Void> pipelineAsync(Function<RedisClusterAsyncCommands<String, byte[]>, List<RedisFuture<?>>> action) {
+        return executeAsync(commands -> {
+            List<RedisFuture<?>> futures = action.apply(commands);
+            CompletableFuture<?>[] all = new CompletableFuture<?>[futures.size()];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = futures.get(i).toCompletableFuture();
+            }
+            return CompletableFuture.allOf(all);
+        });
     }
 
     /**
@@ -892,7 +1351,6 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
      *
      * @return 连接对象
      */
-    @SuppressWarnings("unchecked")
     private Object createConnection() {
         try {
             if (isCluster) {
@@ -911,13 +1369,14 @@ public class RedisCache<K, V> extends AbstractCache<K, V> {
      *
      * @param connection 连接对象
      */
+    @SuppressWarnings("unchecked")
     private void closeConnection(Object connection) {
         if (connection != null) {
             try {
                 if (connection instanceof StatefulRedisConnection) {
-                    connectionPool.returnObject((StatefulRedisConnection<String, String>) connection);
+                    connectionPool.returnObject((StatefulRedisConnection<String, byte[]>) connection);
                 } else if (connection instanceof StatefulRedisClusterConnection) {
-                    clusterConnectionPool.returnObject((StatefulRedisClusterConnection<String, String>) connection);
+                    clusterConnectionPool.returnObject((StatefulRedisClusterConnection<String, byte[]>) connection);
                 }
             } catch (Exception e) {
                 logger.warn("Error returning connection to pool", e);
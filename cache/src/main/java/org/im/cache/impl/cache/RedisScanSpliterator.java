@@ -0,0 +1,97 @@
+package org.im.cache.impl.cache;
+
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.ScanCursor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * 基于 SCAN 游标的分页键迭代器
+ * <p>
+ * 每个元素是一次 SCAN 调用返回的一页键。扫描源对应一个 Redis 节点（单机模式下只有一个），
+ * {@link #trySplit()} 按扫描源拆分，使集群模式下各主节点可以被并行流同时扫描。
+ * 迭代过程中每次只持有一个游标，不会一次性把全部键加载到内存。
+ * </p>
+ * <p>
+ * SCAN 语义保证迭代期间一直存在的键至少返回一次，但同一个键可能被返回多次。
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/10
+ */
+class RedisScanSpliterator implements Spliterator<List<String>> {
+
+    /**
+     * 尚未扫描的扫描源（节点ID，单机模式为null）
+     */
+    private final List<String> sources;
+
+    /**
+     * 扫描函数：(扫描源, 游标) -> 下一页
+     */
+    private final BiFunction<String, ScanCursor, KeyScanCursor<String>> scanner;
+
+    private int index;
+    private ScanCursor cursor = ScanCursor.INITIAL;
+
+    /**
+     * 构造函数
+     *
+     * @param sources 扫描源列表
+     * @param scanner 扫描函数
+     */
+    RedisScanSpliterator(List<String> sources, BiFunction<String, ScanCursor, KeyScanCursor<String>> scanner) {
+        this.sources = new ArrayList<>(sources);
+        this.scanner = scanner;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super List<String>> action) {
+        while (index < sources.size()) {
+            KeyScanCursor<String> page = scanner.apply(sources.get(index), cursor);
+            if (page.isFinished()) {
+                index++;
+                cursor = ScanCursor.INITIAL;
+            } else {
+                cursor = page;
+            }
+            List<String> keys = page.getKeys();
+            if (!keys.isEmpty()) {
+                action.accept(keys);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<List<String>> trySplit() {
+        // 当前扫描源已经开始时不拆分它，只拆出后续尚未开始的扫描源
+        boolean started = cursor != ScanCursor.INITIAL;
+        int start = started ? index + 1 : index;
+        int remaining = sources.size() - start;
+        if (remaining < (started ? 1 : 2)) {
+            return null;
+        }
+        int mid = start + remaining / 2;
+        List<String> tail = sources.subList(mid, sources.size());
+        List<String> split = new ArrayList<>(tail);
+        tail.clear();
+        return new RedisScanSpliterator(split, scanner);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return NONNULL;
+    }
+}
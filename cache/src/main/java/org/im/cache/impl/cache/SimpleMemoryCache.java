@@ -3,9 +3,17 @@ package org.im.cache.impl.cache;
 import org.im.cache.config.CacheConfig;
 import org.im.cache.config.CacheConfigBuilder;
 import org.im.cache.core.Cache;
+import org.im.cache.core.Weigher;
 import org.im.cache.stats.CacheStats;
+import org.im.cache.support.CacheSnapshot;
+import org.im.cache.support.ExpirationScheduler;
 import org.im.cache.support.ExpiringValue;
+import org.im.cache.support.MemoryBudget;
 import org.im.cache.support.NullValueMarker;
+import org.im.cache.support.RefreshAheadSupport;
+import org.im.cache.support.SingleFlight;
+import org.im.cache.support.TinyLfuPolicy;
+import org.im.cache.util.CacheUtils;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -13,10 +21,31 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 /**
  * Simple memory cache implementation based on ConcurrentHashMap, no external dependencies
+ * <p>
+ * When a maximum size is configured, eviction is driven by a {@link TinyLfuPolicy}
+ * (window LRU + frequency-admitted segmented LRU) with O(1) amortized maintenance.
+ * Expired entries are removed by a shared {@link ExpirationScheduler} timing wheel that only
+ * visits entries whose deadline has passed, instead of scanning the whole store.
+ * </p>
+ * <p>
+ * With {@code refreshAfterWrite} configured, entries loaded through getOrLoad keep serving the old
+ * value once stale while a background pool reloads them; {@link #refresh()} reloads all live loaded
+ * entries in bounded parallel batches.
+ * </p>
+ * <p>
+ * With a snapshot directory configured, live entries and their expiry deadlines are written to a
+ * {@link CacheSnapshot} on {@link #close()} and read back when a cache of the same name is created.
+ * </p>
+ * <p>
+ * With a {@link Weigher} configured, the policy bounds the sum of entry weights instead of the entry
+ * count, and the bound can be moved at runtime by a {@link MemoryBudget} shared across caches.
+ * </p>
  *
  * @param <K> Key type
  * @param <V> Value type
@@ -24,15 +53,52 @@ import java.util.function.Function;
  * @email gaoolin@gmail.com
  * @date 2025/08/29
  */
-public class SimpleMemoryCache<K, V> implements Cache<K, V> {
+public class SimpleMemoryCache<K, V> implements Cache<K, V>, MemoryBudget.Member {
 
     private final ConcurrentMap<K, ExpiringValue<V>> store = new ConcurrentHashMap<>();
     private final CacheConfig config;
     private final CacheStats stats;
+    private final TinyLfuPolicy<K> evictionPolicy;
+    private final Weigher<K, V> weigher;
+    private final ExpirationScheduler expirationScheduler;
+    private final SingleFlight<K> singleFlight;
+    private final RefreshAheadSupport<K, V> refreshSupport;
+    private final CacheSnapshot<K, V> snapshot;
 
     public SimpleMemoryCache(CacheConfig config) {
+        this(config, ExpirationScheduler.getDefault());
+    }
+
+    public SimpleMemoryCache(CacheConfig config, ExpirationScheduler expirationScheduler) {
+        this(config, expirationScheduler, null, null);
+    }
+
+    /**
+     * @param keyType   key type used to decode a warm-restart snapshot, snapshot is skipped when null
+     * @param valueType value type used to decode a warm-restart snapshot, snapshot is skipped when null and no value codec is configured
+     */
+    @SuppressWarnings("unchecked")
+    public SimpleMemoryCache(CacheConfig config, ExpirationScheduler expirationScheduler, Class<K> keyType, Class<V> valueType) {
         this.config = config != null ? config : CacheConfigBuilder.newBuilder().build();
         this.stats = config != null && config.isRecordStats() ? new CacheStats() : null;
+        this.weigher = (Weigher<K, V>) this.config.getWeigher();
+        if (weigher != null) {
+            long maximumWeight = this.config.getMaximumWeight() > 0 ? this.config.getMaximumWeight() : Long.MAX_VALUE;
+            // sketch starts from maximumSize when one is set and grows with the live entry count
+            this.evictionPolicy = new TinyLfuPolicy<>(maximumWeight, this.config.getMaximumSize(), this::evict,
+                    store::containsKey);
+        } else {
+            this.evictionPolicy = this.config.getMaximumSize() > 0
+                    ? new TinyLfuPolicy<>(this.config.getMaximumSize(), this.config.getMaximumSize(), this::evict,
+                    store::containsKey) : null;
+        }
+        this.expirationScheduler = expirationScheduler != null ? expirationScheduler : ExpirationScheduler.getDefault();
+        this.singleFlight = new SingleFlight<>(this.config.getBreakdownLockTimeout());
+        this.refreshSupport = new RefreshAheadSupport<>(this.config);
+        this.snapshot = CacheSnapshot.of(this.config, keyType, valueType);
+        if (snapshot != null) {
+            snapshot.load(this::restore);
+        }
     }
 
     @Override
@@ -46,11 +112,13 @@ public class SimpleMemoryCache<K, V> implements Cache<K, V> {
             if (ev != null) {
                 store.remove(key);
                 recordEviction();
+                onRemoved(key);
             }
             recordMiss();
             return null;
         }
         recordHit();
+        onRead(key);
         V value = ev.getValue();
         updateAccessTime(key, ev);
         return value instanceof NullValueMarker ? null : value;
@@ -61,11 +129,12 @@ public class SimpleMemoryCache<K, V> implements Cache<K, V> {
         if (key == null || (value == null && !config.isEnableNullValueProtection())) {
             return;
         }
-        enforceMaxSize();
         long ttl = config.getExpireAfterWrite();
         long expireTime = ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE;
-        store.put(key, new ExpiringValue<>(value == null ? (V) NullValueMarker.getInstance() : value, expireTime));
+        ExpiringValue<V> ev = new ExpiringValue<>(value == null ? (V) NullValueMarker.getInstance() : value, expireTime);
+        store.put(key, ev);
         recordPut();
+        onWritten(key, ev);
     }
 
     @Override
@@ -73,10 +142,11 @@ public class SimpleMemoryCache<K, V> implements Cache<K, V> {
         if (key == null || (value == null && !config.isEnableNullValueProtection()) || ttl <= 0 || unit == null) {
             return;
         }
-        enforceMaxSize();
         long ttlMs = unit.toMillis(ttl);
-        store.put(key, new ExpiringValue<>(value == null ? (V) NullValueMarker.getInstance() : value, System.currentTimeMillis() + ttlMs));
+        ExpiringValue<V> ev = new ExpiringValue<>(value == null ? (V) NullValueMarker.getInstance() : value, System.currentTimeMillis() + ttlMs);
+        store.put(key, ev);
         recordPut();
+        onWritten(key, ev);
     }
 
     @Override
@@ -84,9 +154,10 @@ public class SimpleMemoryCache<K, V> implements Cache<K, V> {
         if (key == null || (value == null && !config.isEnableNullValueProtection()) || expireTimestamp <= System.currentTimeMillis()) {
             return;
         }
-        enforceMaxSize();
-        store.put(key, new ExpiringValue<>(value == null ? (V) NullValueMarker.getInstance() : value, expireTimestamp));
+        ExpiringValue<V> ev = new ExpiringValue<>(value == null ? (V) NullValueMarker.getInstance() : value, expireTimestamp);
+        store.put(key, ev);
         recordPut();
+        onWritten(key, ev);
     }
 
     @Override
@@ -110,15 +181,16 @@ public class SimpleMemoryCache<K, V> implements Cache<K, V> {
         if (map == null || map.isEmpty()) {
             return;
         }
-        enforceMaxSize();
         long ttl = config.getExpireAfterWrite();
         long expireTime = ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE;
         for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
             K key = entry.getKey();
             V value = entry.getValue();
             if (key != null && (value != null || config.isEnableNullValueProtection())) {
-                store.put(key, new ExpiringValue<>(value == null ? (V) NullValueMarker.getInstance() : value, expireTime));
+                ExpiringValue<V> ev = new ExpiringValue<>(value == null ? (V) NullValueMarker.getInstance() : value, expireTime);
+                store.put(key, ev);
                 recordPut();
+                onWritten(key, ev);
             }
         }
     }
@@ -131,6 +203,7 @@ public class SimpleMemoryCache<K, V> implements Cache<K, V> {
         ExpiringValue<V> removed = store.remove(key);
         if (removed != null) {
             recordEviction();
+            onRemoved(key);
             return true;
         }
         return false;
@@ -160,6 +233,7 @@ public class SimpleMemoryCache<K, V> implements Cache<K, V> {
             if (ev != null) {
                 store.remove(key);
                 recordEviction();
+                onRemoved(key);
             }
             return false;
         }
@@ -177,6 +251,10 @@ public class SimpleMemoryCache<K, V> implements Cache<K, V> {
     public void clear() {
         long size = store.size();
         store.clear();
+        if (evictionPolicy != null) {
+            evictionPolicy.clear();
+        }
+        refreshSupport.clear();
         recordEviction(size);
     }
 
@@ -190,40 +268,33 @@ public class SimpleMemoryCache<K, V> implements Cache<K, V> {
         return config;
     }
 
+    /**
+     * Sum of entry weights tracked by the eviction policy, or the entry count without a policy
+     */
+    @Override
+    public long getWeightedSize() {
+        return evictionPolicy != null ? evictionPolicy.getWeightedSize() : store.size();
+    }
+
+    /**
+     * Move the eviction bound; shrinking evicts the excess immediately
+     */
+    @Override
+    public void setMaximumWeight(long maximumWeight) {
+        if (evictionPolicy == null) {
+            throw new IllegalStateException("Cache is unbounded, configure maximumSize or a weigher");
+        }
+        evictionPolicy.setMaximum(maximumWeight);
+    }
+
     @Override
     public V getOrLoad(K key, Function<K, V> loader) {
         if (key == null || loader == null) {
             recordMiss();
             return null;
         }
-        enforceMaxSize();
-        long startTime = stats != null ? System.nanoTime() : 0;
-        try {
-            ExpiringValue<V> ev = store.computeIfAbsent(key, k -> {
-                V value = loader.apply(k);
-                long ttl = config.getExpireAfterWrite();
-                long expireTime = ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE;
-                return new ExpiringValue<>(value == null && config.isEnableNullValueProtection() ? (V) NullValueMarker.getInstance() : value, expireTime);
-            });
-            if (ev.isExpired()) {
-                store.remove(key);
-                recordEviction();
-                recordMiss();
-                return null;
-            }
-            recordHit();
-            updateAccessTime(key, ev);
-            V value = ev.getValue();
-            if (stats != null) {
-                recordLoadSuccess(System.nanoTime() - startTime);
-            }
-            return value instanceof NullValueMarker ? null : value;
-        } catch (Exception e) {
-            if (stats != null) {
-                recordLoadException(System.nanoTime() - startTime);
-            }
-            throw new RuntimeException("Failed to load value for key: " + key, e);
-        }
+        long ttl = config.getExpireAfterWrite();
+        return load(key, loader, () -> ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE);
     }
 
     @Override
@@ -232,31 +303,8 @@ public class SimpleMemoryCache<K, V> implements Cache<K, V> {
             recordMiss();
             return null;
         }
-        enforceMaxSize();
-        long startTime = stats != null ? System.nanoTime() : 0;
-        try {
-            long ttlMs = unit.toMillis(ttl);
-            ExpiringValue<V> ev = store.computeIfAbsent(key, k ->
-                    new ExpiringValue<>(loader.apply(k) == null && config.isEnableNullValueProtection() ? (V) NullValueMarker.getInstance() : loader.apply(k), System.currentTimeMillis() + ttlMs));
-            if (ev.isExpired()) {
-                store.remove(key);
-                recordEviction();
-                recordMiss();
-                return null;
-            }
-            recordHit();
-            updateAccessTime(key, ev);
-            V value = ev.getValue();
-            if (stats != null) {
-                recordLoadSuccess(System.nanoTime() - startTime);
-            }
-            return value instanceof NullValueMarker ? null : value;
-        } catch (Exception e) {
-            if (stats != null) {
-                recordLoadException(System.nanoTime() - startTime);
-            }
-            throw new RuntimeException("Failed to load value for key: " + key, e);
-        }
+        long ttlMs = unit.toMillis(ttl);
+        return load(key, loader, () -> System.currentTimeMillis() + ttlMs);
     }
 
     @Override
@@ -265,40 +313,39 @@ public class SimpleMemoryCache<K, V> implements Cache<K, V> {
             recordMiss();
             return null;
         }
-        enforceMaxSize();
-        long startTime = stats != null ? System.nanoTime() : 0;
-        try {
-            ExpiringValue<V> ev = store.computeIfAbsent(key, k ->
-                    new ExpiringValue<>(loader.apply(k) == null && config.isEnableNullValueProtection() ? (V) NullValueMarker.getInstance() : loader.apply(k), expireTimestamp));
-            if (ev.isExpired()) {
-                store.remove(key);
-                recordEviction();
-                recordMiss();
-                return null;
-            }
-            recordHit();
-            updateAccessTime(key, ev);
-            V value = ev.getValue();
-            if (stats != null) {
-                recordLoadSuccess(System.nanoTime() - startTime);
-            }
-            return value instanceof NullValueMarker ? null : value;
-        } catch (Exception e) {
-            if (stats != null) {
-                recordLoadException(System.nanoTime() - startTime);
-            }
-            throw new RuntimeException("Failed to load value for key: " + key, e);
-        }
+        return load(key, loader, () -> expireTimestamp);
+    }
+
+    /**
+     * Get the cached values for the keys and load the missing ones in a single loader call
+     *
+     * @param keys   the keys to look up
+     * @param loader loads all missing keys at once
+     * @return the values found or loaded, keyed by cache key
+     */
+    @Override
+    public Map<K, V> getAllOrLoad(Set<? extends K> keys, Function<Set<K>, Map<K, V>> loader) {
+        return CacheUtils.getAllOrLoad(this, keys, loader, stats);
     }
 
     @Override
     public void refresh() {
-        cleanUp(); // Placeholder: clean expired entries
+        cleanUp();
+        refreshSupport.refreshAll(key -> {
+            ExpiringValue<V> ev = store.get(key);
+            return ev != null && !ev.isExpired();
+        });
     }
 
     @Override
     public void close() {
+        if (snapshot != null) {
+            snapshot.save(store);
+        }
         store.clear();
+        if (evictionPolicy != null) {
+            evictionPolicy.clear();
+        }
         if (stats != null) {
             stats.reset();
         }
@@ -306,28 +353,151 @@ public class SimpleMemoryCache<K, V> implements Cache<K, V> {
 
     @Override
     public void cleanUp() {
-        long removed = store.entrySet().stream()
-                .filter(entry -> entry.getValue().isExpired())
-                .count();
-        store.entrySet().removeIf(entry -> entry.getValue().isExpired());
+        long removed = 0;
+        for (Map.Entry<K, ExpiringValue<V>> entry : store.entrySet()) {
+            if (entry.getValue().isExpired() && store.remove(entry.getKey(), entry.getValue())) {
+                onRemoved(entry.getKey());
+                removed++;
+            }
+        }
         recordEviction(removed);
     }
 
-    private void enforceMaxSize() {
-        if (config.getMaximumSize() > 0 && store.size() >= config.getMaximumSize()) {
-            cleanUp();
-            // Simple LRU simulation: remove oldest entries
-            while (store.size() >= config.getMaximumSize()) {
-                store.entrySet().iterator().remove();
-                recordEviction();
+    /**
+     * Read-through load shared by the getOrLoad variants. Concurrent misses on the same key are
+     * coalesced so the loader runs once; the loader runs outside any map lock.
+     */
+    @SuppressWarnings("unchecked")
+    private V load(K key, Function<K, V> loader, LongSupplier expireTime) {
+        ExpiringValue<V> ev = store.get(key);
+        if (ev != null && !ev.isExpired()) {
+            recordHit();
+            onRead(key);
+            updateAccessTime(key, ev);
+            V value = ev.getValue();
+            return value instanceof NullValueMarker ? null : value;
+        }
+        if (ev != null && store.remove(key, ev)) {
+            recordEviction();
+            onRemoved(key);
+        }
+        recordMiss();
+        return singleFlight.load(key, () -> {
+            long startTime = stats != null ? System.nanoTime() : 0;
+            try {
+                V value = loader.apply(key);
+                if (value != null || config.isEnableNullValueProtection()) {
+                    Consumer<V> writer = loaded -> storeLoaded(key, loaded, expireTime.getAsLong());
+                    writer.accept(value);
+                    refreshSupport.register(key, loader, writer);
+                }
+                if (stats != null) {
+                    recordLoadSuccess(System.nanoTime() - startTime);
+                }
+                return value;
+            } catch (Exception e) {
+                if (stats != null) {
+                    recordLoadException(System.nanoTime() - startTime);
+                }
+                throw new RuntimeException("Failed to load value for key: " + key, e);
             }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void storeLoaded(K key, V value, long expireTimestamp) {
+        ExpiringValue<V> loaded = new ExpiringValue<>(value == null ? (V) NullValueMarker.getInstance() : value, expireTimestamp);
+        store.put(key, loaded);
+        onWritten(key, loaded);
+    }
+
+    /**
+     * Put back an entry read from the warm-restart snapshot with its original deadline
+     */
+    @SuppressWarnings("unchecked")
+    private void restore(K key, V value, long expireTimestamp) {
+        ExpiringValue<V> restored = new ExpiringValue<>(value == null ? (V) NullValueMarker.getInstance() : value, expireTimestamp);
+        store.put(key, restored);
+        onWritten(key, restored);
+    }
+
+    private int weigh(K key, ExpiringValue<V> ev) {
+        return weigher != null ? CacheUtils.weigh(weigher, key, ev.getValue()) : 1;
+    }
+
+    private void onRead(K key) {
+        if (evictionPolicy != null) {
+            evictionPolicy.recordAccess(key);
+        }
+        refreshSupport.onRead(key);
+    }
+
+    private void onWritten(K key, ExpiringValue<V> ev) {
+        if (evictionPolicy != null) {
+            evictionPolicy.recordWrite(key, weigh(key, ev));
+        }
+        refreshSupport.recordWrite(key);
+        expirationScheduler.schedule(ev.getExpireTimestamp(), () -> expire(key, ev));
+    }
+
+    /**
+     * Expiration callback from the timing wheel. Each write arms exactly one timer bound to the
+     * value it stored; a later write arms its own, so a timer whose value has been overwritten
+     * does nothing. Access extensions keep the originating write, so that timer re-arms instead.
+     */
+    private void expire(K key, ExpiringValue<V> armed) {
+        ExpiringValue<V> current = store.get(key);
+        if (current == null || originOf(current) != armed) {
+            return;
+        }
+        if (!current.isExpired()) {
+            expirationScheduler.schedule(current.getExpireTimestamp(), () -> expire(key, armed));
+            return;
+        }
+        if (store.remove(key, current)) {
+            recordEviction();
+            onRemoved(key);
+        }
+    }
+
+    private void onRemoved(K key) {
+        if (evictionPolicy != null) {
+            evictionPolicy.recordRemoval(key);
+        }
+        refreshSupport.unregister(key);
+    }
+
+    /**
+     * Eviction callback from the policy: drop the entry chosen as victim
+     */
+    private void evict(K key) {
+        if (store.remove(key) != null) {
+            recordEviction();
+            refreshSupport.unregister(key);
         }
     }
 
     private void updateAccessTime(K key, ExpiringValue<V> ev) {
         if (config.getExpireAfterAccess() > 0) {
             store.computeIfPresent(key, (k, oldEv) ->
-                    new ExpiringValue<>(oldEv.getValue(), System.currentTimeMillis() + config.getExpireAfterAccess()));
+                    new TouchedValue<>(oldEv.getValue(), System.currentTimeMillis() + config.getExpireAfterAccess(),
+                            originOf(oldEv)));
+        }
+    }
+
+    private static <V> ExpiringValue<V> originOf(ExpiringValue<V> ev) {
+        return ev instanceof TouchedValue ? ((TouchedValue<V>) ev).origin : ev;
+    }
+
+    /**
+     * Value whose deadline was pushed back by a read; remembers the write whose timer owns it
+     */
+    private static final class TouchedValue<V> extends ExpiringValue<V> {
+        private final ExpiringValue<V> origin;
+
+        TouchedValue(V value, long expireTimestamp, ExpiringValue<V> origin) {
+            super(value, expireTimestamp);
+            this.origin = origin;
         }
     }
 
@@ -344,16 +514,14 @@ public class SimpleMemoryCache<K, V> implements Cache<K, V> {
     }
 
     private void recordMiss(long count) {
-        if (stats != null && count >= 0) {
-            for (int i = 0; i < count; i++) {
-                stats.recordMiss();
-            }
+        if (stats != null) {
+            stats.recordMisses(count);
         }
     }
 
     private void recordPut() {
         if (stats != null) {
-            stats.recordPut(); // Note: CacheStats has no recordPut, assuming typo; using recordEviction as placeholder
+            stats.recordPut();
         }
     }
 
@@ -364,10 +532,8 @@ public class SimpleMemoryCache<K, V> implements Cache<K, V> {
     }
 
     private void recordEviction(long count) {
-        if (stats != null && count >= 0) {
-            for (int i = 0; i < count; i++) {
-                stats.recordEviction();
-            }
+        if (stats != null) {
+            stats.recordEvictions(count);
         }
     }
 
@@ -8,6 +8,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 /**
@@ -43,6 +45,18 @@ public abstract class AbstractCacheManager implements CacheManager {
             cacheNames.forEach(name -> aggregated.merge(getCache(name).getStats()));
             return aggregated;
         }
+
+        @Override
+        public Map<String, CacheStats> getCacheStats() {
+            Map<String, CacheStats> result = new LinkedHashMap<>();
+            for (String name : cacheNames) {
+                CacheStats cacheStats = getCache(name).getStats();
+                if (cacheStats != null) {
+                    result.put(name, cacheStats);
+                }
+            }
+            return result;
+        }
     };
 
     /**
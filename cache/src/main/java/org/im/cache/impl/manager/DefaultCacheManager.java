@@ -5,11 +5,15 @@ import org.im.cache.core.Cache;
 import org.im.cache.factory.CacheFactory;
 import org.im.cache.stats.CacheManagerStats;
 import org.im.cache.stats.CacheStats;
+import org.im.cache.support.ExpirationScheduler;
+import org.im.cache.support.MemoryBudget;
+import org.im.cache.support.ProtectedCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -18,6 +22,10 @@ import java.util.concurrent.ConcurrentHashMap;
  * <p>
  * 提供完整的缓存管理功能，支持多缓存实例管理
  * </p>
+ * <p>
+ * 指定内存预算时，配置了权重计算器的进程内缓存注册后共享同一个 {@link MemoryBudget}，
+ * 各缓存的容量按命中收益动态分配，其自身的 maximumWeight 作为份额上限
+ * </p>
  *
  * @author gaozhilin
  * @author lingma
@@ -30,6 +38,16 @@ public class DefaultCacheManager extends AbstractCacheManager {
      */
     private final Map<String, Cache<?, ?>> caches = new ConcurrentHashMap<>();
 
+    /**
+     * 过期调度器，由本管理器创建的所有内存缓存共享同一个调度线程
+     */
+    private final ExpirationScheduler expirationScheduler = new ExpirationScheduler();
+
+    /**
+     * 共享内存预算，未指定预算时为null
+     */
+    private final MemoryBudget memoryBudget;
+
     /**
      * 缓存工厂
      */
@@ -60,13 +78,38 @@ public class DefaultCacheManager extends AbstractCacheManager {
             caches.values().forEach(cache -> aggregated.merge(cache.getStats()));
             return aggregated;
         }
+
+        @Override
+        public Map<String, CacheStats> getCacheStats() {
+            Map<String, CacheStats> result = new LinkedHashMap<>();
+            caches.forEach((name, cache) -> {
+                CacheStats cacheStats = cache.getStats();
+                if (cacheStats != null) {
+                    result.put(name, cacheStats);
+                }
+            });
+            return result;
+        }
     };
 
     /**
      * 默认构造函数
      */
     public DefaultCacheManager() {
-        this.cacheFactory = new CacheFactory(this);
+        this(0);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param memoryBudget 配置了权重计算器的进程内缓存共享的内存预算，与权重单位相同，0 表示不启用
+     */
+    public DefaultCacheManager(long memoryBudget) {
+        if (memoryBudget < 0) {
+            throw new IllegalArgumentException("Memory budget cannot be negative");
+        }
+        this.memoryBudget = memoryBudget > 0 ? new MemoryBudget(memoryBudget, expirationScheduler) : null;
+        this.cacheFactory = new CacheFactory(this, expirationScheduler);
         logger.info("DefaultCacheManager initialized");
     }
 
@@ -167,9 +210,26 @@ public class DefaultCacheManager extends AbstractCacheManager {
         caches.put(name, cache);
         cacheNames.add(name);
         recordCacheCreate();
+        joinMemoryBudget(name, cache);
         logger.info("Cache '{}' registered", name);
     }
 
+    /**
+     * 将按权重计量的进程内缓存加入共享内存预算
+     *
+     * @param name  缓存名称
+     * @param cache 缓存实例
+     */
+    private void joinMemoryBudget(String name, Cache<?, ?> cache) {
+        if (memoryBudget == null || cache.getConfig() == null || cache.getConfig().getWeigher() == null) {
+            return;
+        }
+        Cache<?, ?> target = cache instanceof ProtectedCache ? ((ProtectedCache<?, ?>) cache).getDelegate() : cache;
+        if (target instanceof MemoryBudget.Member) {
+            memoryBudget.register(name, (MemoryBudget.Member) target, cache.getConfig().getMaximumWeight());
+        }
+    }
+
     /**
      * 获取缓存实例
      *
@@ -255,6 +315,9 @@ public class DefaultCacheManager extends AbstractCacheManager {
         if (cache != null) {
             cacheNames.remove(name);
             recordCacheRemove();
+            if (memoryBudget != null) {
+                memoryBudget.unregister(name);
+            }
 
             try {
                 cache.close();
@@ -289,6 +352,15 @@ public class DefaultCacheManager extends AbstractCacheManager {
         return managerStats;
     }
 
+    /**
+     * 获取共享内存预算
+     *
+     * @return 共享内存预算，未启用时返回null
+     */
+    public MemoryBudget getMemoryBudget() {
+        return memoryBudget;
+    }
+
     /**
      * 关闭缓存管理器
      */
@@ -309,6 +381,10 @@ public class DefaultCacheManager extends AbstractCacheManager {
         // 清理资源
         caches.clear();
         cacheNames.clear();
+        if (memoryBudget != null) {
+            memoryBudget.close();
+        }
+        expirationScheduler.close();
 
         super.close();
     }
@@ -1,6 +1,9 @@
 package org.im.cache.stats;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -10,6 +13,10 @@ import java.util.concurrent.atomic.AtomicLong;
  * 缓存管理器统计信息类
  * 收集和统计缓存管理器级别的使用情况
  * </p>
+ * <p>
+ * {@link #snapshot()} 以拉取方式导出管理器、全部缓存汇总及每个缓存的指标，
+ * JMX 可在 MBean 的属性读取中调用，Micrometer 可在每次采集时调用一次并以 Gauge 注册各指标
+ * </p>
  *
  * @author gaozhilin
  * @email gaoolin@gmail.com
@@ -151,4 +158,38 @@ public abstract class CacheManagerStats implements Serializable {
     }
 
     public abstract CacheStats getAggregatedStats();
+
+    /**
+     * 获取每个缓存的统计信息，未开启统计的缓存不包含在内
+     * <p>
+     * 默认不提供单个缓存的统计，持有缓存实例的管理器覆盖此方法
+     * </p>
+     *
+     * @return 缓存名称到统计信息的映射
+     */
+    public Map<String, CacheStats> getCacheStats() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * 导出当前全部指标的快照
+     * <p>
+     * 管理器指标以 {@code manager.} 为前缀，全部缓存的汇总指标以 {@code all.} 为前缀，
+     * 单个缓存的指标以 {@code caches.<缓存名>.} 为前缀，后缀同 {@link CacheStats#snapshot()}
+     * </p>
+     *
+     * @return 指标名到取值的有序映射
+     */
+    public Map<String, Number> snapshot() {
+        Map<String, Number> metrics = new LinkedHashMap<>();
+        metrics.put("manager.cache.count", getCacheCount());
+        metrics.put("manager.cache.create.count", getCacheCreateCount());
+        metrics.put("manager.cache.remove.count", getCacheRemoveCount());
+        metrics.put("manager.cache.get.count", getCacheGetCount());
+        metrics.put("manager.uptime", getUptime());
+        getAggregatedStats().snapshot().forEach((name, value) -> metrics.put("all." + name, value));
+        getCacheStats().forEach((cacheName, cacheStats) ->
+                cacheStats.snapshot().forEach((name, value) -> metrics.put("caches." + cacheName + "." + name, value)));
+        return metrics;
+    }
 }
\ No newline at end of file
@@ -1,7 +1,13 @@
 package org.im.cache.stats;
 
 import java.io.Serializable;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Cache statistics
@@ -10,6 +16,11 @@ import java.util.concurrent.atomic.AtomicLong;
  * Records cache hit rate, request count, and other statistics
  * 收集和统计缓存使用情况，包括命中率、加载时间等关键指标
  * </p>
+ * <p>
+ * 计数器使用 {@link LongAdder}，高并发下各线程累加到不同的单元，读取时再求和，
+ * 批量操作通过 {@link #recordHits(long)} 等方法一次性累加。
+ * 每类操作另有一个 {@link LatencyHistogram} 记录耗时分布，见 {@link Operation}。
+ * </p>
  *
  * @author gaozhilin
  * @email gaoolin@gmail.com
@@ -21,56 +32,106 @@ public class CacheStats implements Serializable {
     /**
      * 命中次数
      */
-    private final AtomicLong hitCount = new AtomicLong(0);
+    private final LongAdder hitCount = new LongAdder();
 
     /**
      * 未命中次数
      */
-    private final AtomicLong missCount = new AtomicLong(0);
+    private final LongAdder missCount = new LongAdder();
 
     /**
      * 加载成功次数
      */
-    private final AtomicLong loadSuccessCount = new AtomicLong(0);
+    private final LongAdder loadSuccessCount = new LongAdder();
 
     /**
      * 加载异常次数
      */
-    private final AtomicLong loadExceptionCount = new AtomicLong(0);
+    private final LongAdder loadExceptionCount = new LongAdder();
 
     /**
      * 驱逐次数
      */
-    private final AtomicLong evictionCount = new AtomicLong(0);
+    private final LongAdder evictionCount = new LongAdder();
 
     /**
      * 存储次数
      */
-    private final AtomicLong putCount = new AtomicLong(0);
+    private final LongAdder putCount = new LongAdder();
 
     /**
      * 总加载时间（纳秒）
      */
-    private final AtomicLong totalLoadTime = new AtomicLong(0);
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    /**
+     * 远程调用失败次数
+     */
+    private final LongAdder remoteFailureCount = new LongAdder();
+
+    /**
+     * 热点键本地命中次数
+     */
+    private final LongAdder hotKeyHitCount = new LongAdder();
+
+    /**
+     * 被键过滤器判定为不存在而直接返回的次数
+     */
+    private final LongAdder keyFilterRejectCount = new LongAdder();
+
+    /**
+     * 当前提升到本地的热点键
+     */
+    private final Set<Object> hotKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 各类操作的耗时分布，按 {@link Operation#ordinal()} 索引
+     */
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Operation.values().length];
 
     /**
      * 默认构造函数
      */
     public CacheStats() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
     }
 
     /**
      * 记录命中
      */
     public void recordHit() {
-        hitCount.incrementAndGet();
+        hitCount.increment();
+    }
+
+    /**
+     * 批量记录命中
+     *
+     * @param count 命中次数
+     */
+    public void recordHits(long count) {
+        if (count > 0) {
+            hitCount.add(count);
+        }
     }
 
     /**
      * 记录未命中
      */
     public void recordMiss() {
-        missCount.incrementAndGet();
+        missCount.increment();
+    }
+
+    /**
+     * 批量记录未命中
+     *
+     * @param count 未命中次数
+     */
+    public void recordMisses(long count) {
+        if (count > 0) {
+            missCount.add(count);
+        }
     }
 
     /**
@@ -79,8 +140,9 @@ public class CacheStats implements Serializable {
      * @param loadTime 加载时间（纳秒）
      */
     public void recordLoadSuccess(long loadTime) {
-        loadSuccessCount.incrementAndGet();
-        totalLoadTime.addAndGet(loadTime);
+        loadSuccessCount.increment();
+        totalLoadTime.add(loadTime);
+        latencies[Operation.LOAD.ordinal()].record(loadTime);
     }
 
     /**
@@ -89,22 +151,106 @@ public class CacheStats implements Serializable {
      * @param loadTime 加载时间（纳秒）
      */
     public void recordLoadException(long loadTime) {
-        loadExceptionCount.incrementAndGet();
-        totalLoadTime.addAndGet(loadTime);
+        loadExceptionCount.increment();
+        totalLoadTime.add(loadTime);
+        latencies[Operation.LOAD.ordinal()].record(loadTime);
     }
 
     /**
      * 记录驱逐
      */
     public void recordEviction() {
-        evictionCount.incrementAndGet();
+        evictionCount.increment();
+    }
+
+    /**
+     * 批量记录驱逐
+     *
+     * @param count 驱逐次数
+     */
+    public void recordEvictions(long count) {
+        if (count > 0) {
+            evictionCount.add(count);
+        }
     }
 
     /**
      * 记录存储
      */
     public void recordPut() {
-        putCount.incrementAndGet();
+        putCount.increment();
+    }
+
+    /**
+     * 批量记录存储
+     *
+     * @param count 存储次数
+     */
+    public void recordPuts(long count) {
+        if (count > 0) {
+            putCount.add(count);
+        }
+    }
+
+    /**
+     * 记录一次操作耗时
+     *
+     * @param operation 操作类型
+     * @param nanos     耗时（纳秒）
+     */
+    public void recordLatency(Operation operation, long nanos) {
+        latencies[operation.ordinal()].record(nanos);
+    }
+
+    /**
+     * 记录一次成功的远程调用
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void recordRemoteCall(long nanos) {
+        latencies[Operation.REMOTE.ordinal()].record(nanos);
+    }
+
+    /**
+     * 记录一次失败的远程调用
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void recordRemoteFailure(long nanos) {
+        remoteFailureCount.increment();
+        latencies[Operation.REMOTE.ordinal()].record(nanos);
+    }
+
+    /**
+     * 记录一次由本地热点值返回的读取
+     */
+    public void recordHotKeyHit() {
+        hotKeyHitCount.increment();
+    }
+
+    /**
+     * 记录一次被键过滤器判定为不存在而直接返回的读取
+     */
+    public void recordKeyFilterReject() {
+        keyFilterRejectCount.increment();
+    }
+
+    /**
+     * 记录一个提升到本地的热点键
+     *
+     * @param key 热点键
+     */
+    public void recordHotKey(Object key) {
+        hotKeys.add(key);
+    }
+
+    /**
+     * 移除一个不再保存在本地的热点键
+     *
+     * @param key 热点键
+     */
+    public void removeHotKey(Object key) {
+        hotKeys.remove(key);
     }
 
     /**
@@ -113,7 +259,7 @@ public class CacheStats implements Serializable {
      * @return 命中次数
      */
     public long getHitCount() {
-        return hitCount.get();
+        return hitCount.sum();
     }
 
     /**
@@ -122,7 +268,7 @@ public class CacheStats implements Serializable {
      * @return 未命中次数
      */
     public long getMissCount() {
-        return missCount.get();
+        return missCount.sum();
     }
 
     /**
@@ -131,7 +277,7 @@ public class CacheStats implements Serializable {
      * @return 加载成功次数
      */
     public long getLoadSuccessCount() {
-        return loadSuccessCount.get();
+        return loadSuccessCount.sum();
     }
 
     /**
@@ -140,7 +286,7 @@ public class CacheStats implements Serializable {
      * @return 加载异常次数
      */
     public long getLoadExceptionCount() {
-        return loadExceptionCount.get();
+        return loadExceptionCount.sum();
     }
 
     /**
@@ -149,7 +295,7 @@ public class CacheStats implements Serializable {
      * @return 驱逐次数
      */
     public long getEvictionCount() {
-        return evictionCount.get();
+        return evictionCount.sum();
     }
 
     /**
@@ -158,7 +304,7 @@ public class CacheStats implements Serializable {
      * @return 存储次数
      */
     public long getPutCount() {
-        return putCount.get();
+        return putCount.sum();
     }
 
     /**
@@ -167,7 +313,7 @@ public class CacheStats implements Serializable {
      * @return 总加载时间（纳秒）
      */
     public long getTotalLoadTime() {
-        return totalLoadTime.get();
+        return totalLoadTime.sum();
     }
 
     /**
@@ -176,8 +322,8 @@ public class CacheStats implements Serializable {
      * @return 命中率 (0.0 to 1.0)
      */
     public double getHitRate() {
-        long hits = hitCount.get();
-        long misses = missCount.get();
+        long hits = hitCount.sum();
+        long misses = missCount.sum();
         long total = hits + misses;
         return total == 0 ? 0.0 : (double) hits / total;
     }
@@ -188,36 +334,134 @@ public class CacheStats implements Serializable {
      * @return 平均加载时间（毫秒）
      */
     public double getAverageLoadTime() {
-        long loads = loadSuccessCount.get() + loadExceptionCount.get();
-        return loads == 0 ? 0.0 : totalLoadTime.get() / (1000000.0 * loads);
+        long loads = loadSuccessCount.sum() + loadExceptionCount.sum();
+        return loads == 0 ? 0.0 : totalLoadTime.sum() / (1000000.0 * loads);
+    }
+
+    /**
+     * 获取远程调用失败次数
+     *
+     * @return 远程调用失败次数
+     */
+    public long getRemoteFailureCount() {
+        return remoteFailureCount.sum();
+    }
+
+    /**
+     * 获取热点键本地命中次数，已计入命中次数
+     *
+     * @return 热点键本地命中次数
+     */
+    public long getHotKeyHitCount() {
+        return hotKeyHitCount.sum();
+    }
+
+    /**
+     * 获取被键过滤器拦截的次数，未计入未命中次数
+     *
+     * @return 被键过滤器拦截的次数
+     */
+    public long getKeyFilterRejectCount() {
+        return keyFilterRejectCount.sum();
+    }
+
+    /**
+     * 获取当前提升到本地的热点键
+     *
+     * @return 热点键的只读视图
+     */
+    public Set<Object> getHotKeys() {
+        return Collections.unmodifiableSet(hotKeys);
+    }
+
+    /**
+     * 获取操作的耗时分布
+     *
+     * @param operation 操作类型
+     * @return 耗时分布
+     */
+    public LatencyHistogram getLatency(Operation operation) {
+        return latencies[operation.ordinal()];
+    }
+
+    /**
+     * 导出当前统计数据的快照
+     * <p>
+     * 指标名为点分小写形式，如 {@code hit.count}、{@code get.latency.p99}，耗时单位为纳秒。
+     * 供 JMX、Micrometer 等监控系统按需拉取，本类不依赖任何监控库
+     * </p>
+     *
+     * @return 指标名到取值的有序映射
+     */
+    public Map<String, Number> snapshot() {
+        Map<String, Number> metrics = new LinkedHashMap<>();
+        metrics.put("hit.count", getHitCount());
+        metrics.put("miss.count", getMissCount());
+        metrics.put("hit.rate", getHitRate());
+        metrics.put("put.count", getPutCount());
+        metrics.put("eviction.count", getEvictionCount());
+        metrics.put("load.success.count", getLoadSuccessCount());
+        metrics.put("load.exception.count", getLoadExceptionCount());
+        metrics.put("load.total.time", getTotalLoadTime());
+        metrics.put("remote.failure.count", getRemoteFailureCount());
+        metrics.put("hot.key.count", hotKeys.size());
+        metrics.put("hot.key.hit.count", getHotKeyHitCount());
+        metrics.put("key.filter.reject.count", getKeyFilterRejectCount());
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = getLatency(operation);
+            String prefix = operation.name().toLowerCase(Locale.ROOT) + ".latency.";
+            metrics.put(prefix + "count", histogram.getCount());
+            metrics.put(prefix + "mean", histogram.getMean());
+            metrics.put(prefix + "p50", histogram.getP50());
+            metrics.put(prefix + "p99", histogram.getP99());
+            metrics.put(prefix + "p999", histogram.getP999());
+        }
+        return metrics;
     }
 
     /**
      * 合并另一个统计对象的数据
      *
-     * @param other 另一个统计对象
+     * @param other 另一个统计对象，为null时忽略
      */
     public void merge(CacheStats other) {
-        hitCount.addAndGet(other.getHitCount());
-        missCount.addAndGet(other.getMissCount());
-        loadSuccessCount.addAndGet(other.getLoadSuccessCount());
-        loadExceptionCount.addAndGet(other.getLoadExceptionCount());
-        evictionCount.addAndGet(other.getEvictionCount());
-        putCount.addAndGet(other.getPutCount());
-        totalLoadTime.addAndGet(other.getTotalLoadTime());
+        if (other == null) {
+            return;
+        }
+        hitCount.add(other.getHitCount());
+        missCount.add(other.getMissCount());
+        loadSuccessCount.add(other.getLoadSuccessCount());
+        loadExceptionCount.add(other.getLoadExceptionCount());
+        evictionCount.add(other.getEvictionCount());
+        putCount.add(other.getPutCount());
+        totalLoadTime.add(other.getTotalLoadTime());
+        remoteFailureCount.add(other.getRemoteFailureCount());
+        hotKeyHitCount.add(other.getHotKeyHitCount());
+        keyFilterRejectCount.add(other.getKeyFilterRejectCount());
+        hotKeys.addAll(other.hotKeys);
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i].merge(other.latencies[i]);
+        }
     }
 
     /**
      * 重置统计数据
      */
     public void reset() {
-        hitCount.set(0);
-        missCount.set(0);
-        loadSuccessCount.set(0);
-        loadExceptionCount.set(0);
-        evictionCount.set(0);
-        putCount.set(0);
-        totalLoadTime.set(0);
+        hitCount.reset();
+        missCount.reset();
+        loadSuccessCount.reset();
+        loadExceptionCount.reset();
+        evictionCount.reset();
+        putCount.reset();
+        totalLoadTime.reset();
+        remoteFailureCount.reset();
+        hotKeyHitCount.reset();
+        keyFilterRejectCount.reset();
+        hotKeys.clear();
+        for (LatencyHistogram histogram : latencies) {
+            histogram.reset();
+        }
     }
 
     /**
@@ -228,15 +472,41 @@ public class CacheStats implements Serializable {
     @Override
     public String toString() {
         return "CacheStats{" +
-                "hitCount=" + hitCount.get() +
-                ", missCount=" + missCount.get() +
-                ", loadSuccessCount=" + loadSuccessCount.get() +
-                ", loadExceptionCount=" + loadExceptionCount.get() +
-                ", evictionCount=" + evictionCount.get() +
-                ", putCount=" + putCount.get() +
-                ", totalLoadTime=" + totalLoadTime.get() +
+                "hitCount=" + hitCount.sum() +
+                ", missCount=" + missCount.sum() +
+                ", loadSuccessCount=" + loadSuccessCount.sum() +
+                ", loadExceptionCount=" + loadExceptionCount.sum() +
+                ", evictionCount=" + evictionCount.sum() +
+                ", putCount=" + putCount.sum() +
+                ", totalLoadTime=" + totalLoadTime.sum() +
                 ", hitRate=" + String.format("%.2f%%", getHitRate() * 100) +
                 ", averageLoadTime=" + String.format("%.2fms", getAverageLoadTime()) +
+                ", remoteFailureCount=" + remoteFailureCount.sum() +
+                ", hotKeyHitCount=" + hotKeyHitCount.sum() +
+                ", hotKeys=" + hotKeys.size() +
+                ", keyFilterRejectCount=" + keyFilterRejectCount.sum() +
                 '}';
     }
+
+    /**
+     * 统计耗时分布的操作类型
+     */
+    public enum Operation {
+        /**
+         * 单键读取
+         */
+        GET,
+        /**
+         * 单键写入
+         */
+        PUT,
+        /**
+         * 经加载函数加载
+         */
+        LOAD,
+        /**
+         * 对远程存储的一次调用（含批量命令与流水线）
+         */
+        REMOTE
+    }
 }
\ No newline at end of file
@@ -0,0 +1,218 @@
+package org.im.cache.stats;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 延迟直方图
+ * <p>
+ * 对数线性分桶：按 2 的幂划分量级，每个量级再等分为 8 个子桶，
+ * 因此任意取值的相对误差不超过 12.5%，覆盖 0 纳秒到约 18 分钟，超出上限的取值计入最后一个桶。
+ * 每个桶是一个 {@link LongAdder}，记录操作只定位桶并累加，并发写入时没有共享热点。
+ * </p>
+ * <p>
+ * 分位数在读取时按桶计数累计得出，返回所在桶的上界；读取期间并发写入的数据可能只被部分计入，
+ * 结果适合用于监控而非精确计量。
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/13
+ */
+public class LatencyHistogram implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 每个量级的子桶位数
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 可区分的最大量级，2^40 纳秒约为 18 分钟
+     */
+    private static final int MAX_EXPONENT = 40;
+
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+
+    /**
+     * 默认构造函数
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时（纳秒），负数按0计
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[indexOf(value)].increment();
+        count.increment();
+        totalTime.add(value);
+    }
+
+    /**
+     * 获取记录次数
+     *
+     * @return 记录次数
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * 获取总耗时（纳秒）
+     *
+     * @return 总耗时（纳秒）
+     */
+    public long getTotalTime() {
+        return totalTime.sum();
+    }
+
+    /**
+     * 获取平均耗时（纳秒）
+     *
+     * @return 平均耗时（纳秒）
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) totalTime.sum() / n;
+    }
+
+    /**
+     * 获取分位数
+     *
+     * @param quantile 分位点 (0.0 to 1.0)
+     * @return 分位数耗时（纳秒），没有记录时返回0
+     */
+    public long getPercentile(double quantile) {
+        if (quantile < 0.0 || quantile > 1.0) {
+            throw new IllegalArgumentException("Quantile must be between 0.0 and 1.0: " + quantile);
+        }
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * 获取中位数耗时（纳秒）
+     *
+     * @return p50 耗时（纳秒）
+     */
+    public long getP50() {
+        return getPercentile(0.5);
+    }
+
+    /**
+     * 获取 p99 耗时（纳秒）
+     *
+     * @return p99 耗时（纳秒）
+     */
+    public long getP99() {
+        return getPercentile(0.99);
+    }
+
+    /**
+     * 获取 p999 耗时（纳秒）
+     *
+     * @return p999 耗时（纳秒）
+     */
+    public long getP999() {
+        return getPercentile(0.999);
+    }
+
+    /**
+     * 合并另一个直方图的数据
+     *
+     * @param other 另一个直方图
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long n = other.buckets[i].sum();
+            if (n != 0) {
+                buckets[i].add(n);
+            }
+        }
+        count.add(other.count.sum());
+        totalTime.add(other.totalTime.sum());
+    }
+
+    /**
+     * 重置直方图
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        totalTime.reset();
+    }
+
+    /**
+     * 计算取值所在的桶：小于 8 的取值各占一个桶，其余按最高位所在量级与其后 3 位定位
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * 计算桶内的最大取值
+     */
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+
+    /**
+     * 返回对象的字符串表示
+     *
+     * @return 对象的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+                "count=" + getCount() +
+                ", mean=" + String.format("%.3fms", getMean() / 1e6) +
+                ", p50=" + String.format("%.3fms", getP50() / 1e6) +
+                ", p99=" + String.format("%.3fms", getP99() / 1e6) +
+                ", p999=" + String.format("%.3fms", getP999() / 1e6) +
+                '}';
+    }
+}
@@ -0,0 +1,344 @@
+package org.im.cache.support;
+
+import org.im.cache.codec.CacheCodec;
+import org.im.cache.codec.JacksonJsonCodec;
+import org.im.cache.codec.Lz4CompressingCodec;
+import org.im.cache.config.CacheConfig;
+import org.im.common.json.JsonMapperProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 进程内缓存的热重启快照
+ * <p>
+ * 缓存关闭时将未过期的条目连同绝对过期时间写入 {@link CacheConfig#getSnapshotDirectory()} 下的
+ * "缓存名.snapshot" 文件，同名缓存创建时以内存映射方式顺序读回，部署重启后不必从空缓存开始。
+ * 快照文件加载后先解除映射再删除，只有正常关闭才会留下快照，异常退出后不会读到更早的旧数据。
+ * </p>
+ * <p>
+ * 文件格式为魔数与版本号之后紧跟若干条目，以 -1 结束：
+ * {@code [int 键长度][键][int 值长度，null 值为 -1][值][long 过期时间戳]}。
+ * 写入先落到临时文件再原子替换；读取遇到截断或损坏的数据时保留已读出的条目并停止。
+ * </p>
+ * <p>
+ * 键按 JSON 编码，值使用 {@link CacheConfig#getValueCodec()}，未配置时按 JSON 编码。
+ * JSON 按 Object 解码会把对象还原为 Map、把 Long 还原为 Integer，因此只有键类型已知、
+ * 且值类型已知或配置了值编解码器时才启用快照，否则记录警告并跳过。
+ * </p>
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/16
+ */
+public final class CacheSnapshot<K, V> {
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshot.class);
+
+    /**
+     * 文件魔数 "IMCS"
+     */
+    private static final int MAGIC = 0x494D4353;
+    private static final int VERSION = 1;
+    private static final int END_OF_ENTRIES = -1;
+    private static final int NULL_LENGTH = -1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final CacheCodec<K> keyCodec;
+    private final CacheCodec<V> valueCodec;
+    private final AtomicBoolean saved = new AtomicBoolean();
+
+    private CacheSnapshot(Path file, CacheCodec<K> keyCodec, CacheCodec<V> valueCodec) {
+        this.file = file;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+    }
+
+    /**
+     * 根据缓存配置创建快照
+     *
+     * @param config    缓存配置
+     * @param keyType   键类型，为null时不启用快照
+     * @param valueType 值类型，为null且未配置值编解码器时不启用快照
+     * @param <K>       键类型
+     * @param <V>       值类型
+     * @return 快照，未配置快照目录或缓存名、或类型未知时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> CacheSnapshot<K, V> of(CacheConfig config, Class<K> keyType, Class<V> valueType) {
+        if (config == null || config.getSnapshotDirectory() == null) {
+            return null;
+        }
+        String cacheName = config.getCacheName();
+        if (cacheName == null || cacheName.isEmpty()) {
+            logger.warn("Snapshot directory {} ignored for cache without a name", config.getSnapshotDirectory());
+            return null;
+        }
+        if (keyType == null || (valueType == null && config.getValueCodec() == null)) {
+            logger.warn("Snapshot skipped for cache {}: key/value types are unknown, create the cache with types "
+                    + "or configure a value codec", cacheName);
+            return null;
+        }
+        Path file = Paths.get(config.getSnapshotDirectory(), cacheName.replaceAll("[^A-Za-z0-9._-]", "_") + ".snapshot");
+        CacheCodec<K> keyCodec = new JacksonJsonCodec<>(JsonMapperProvider.getSharedInstance(), keyType);
+        CacheCodec<V> valueCodec = config.getValueCodec() != null
+                ? (CacheCodec<V>) config.getValueCodec()
+                : new JacksonJsonCodec<>(JsonMapperProvider.getSharedInstance(), valueType);
+        if (config.getCompressionThreshold() > 0) {
+            valueCodec = new Lz4CompressingCodec<>(valueCodec, config.getCompressionThreshold());
+        }
+        return new CacheSnapshot<>(file, keyCodec, valueCodec);
+    }
+
+    /**
+     * 获取快照文件路径
+     *
+     * @return 快照文件路径
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 加载快照并删除快照文件，已过期的条目被跳过
+     *
+     * @param consumer 接收键、值与绝对过期时间戳，值为null表示缓存的空值
+     * @return 加载的条目数
+     */
+    public int load(EntryConsumer<K, V> consumer) {
+        if (!Files.isRegularFile(file)) {
+            return 0;
+        }
+        int loaded = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                logger.warn("Snapshot {} of {} bytes is too large to load", file, size);
+                return 0;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            try {
+                if (size < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                    logger.warn("Snapshot {} has an unknown format, ignored", file);
+                    return 0;
+                }
+                loaded = readEntries(buffer, consumer);
+            } finally {
+                // 映射存在时部分平台无法删除文件，删除前先解除映射
+                unmap(buffer);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to load snapshot {}", file, e);
+        } finally {
+            delete();
+        }
+        logger.info("Loaded {} entries from snapshot {}", loaded, file);
+        return loaded;
+    }
+
+    /**
+     * 顺序读取条目直到结束标记，遇到截断或损坏的数据时停止
+     *
+     * @return 读出的条目数
+     */
+    private int readEntries(MappedByteBuffer buffer, EntryConsumer<K, V> consumer) {
+        int loaded = 0;
+        long now = System.currentTimeMillis();
+        try {
+            int keyLength;
+            while ((keyLength = buffer.getInt()) != END_OF_ENTRIES) {
+                byte[] keyBytes = readBytes(buffer, keyLength);
+                byte[] valueBytes = readBytes(buffer, buffer.getInt());
+                long expireTimestamp = buffer.getLong();
+                if (expireTimestamp <= now || keyBytes == null) {
+                    continue;
+                }
+                try {
+                    K key = keyCodec.decode(keyBytes);
+                    V value = valueBytes != null ? valueCodec.decode(valueBytes) : null;
+                    consumer.accept(key, value, expireTimestamp);
+                    loaded++;
+                } catch (RuntimeException e) {
+                    logger.debug("Skipped undecodable snapshot entry in {}", file, e);
+                }
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            logger.warn("Snapshot {} is truncated, {} entries loaded", file, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * 将条目写入快照文件，每个快照只写入一次，重复关闭缓存不会用空数据覆盖
+     * <p>
+     * 值为 {@link NullValueMarker} 时按空值写入，嵌套的过期值包装器展开后按最早的过期时间写入，
+     * 已过期或编码失败的条目被跳过
+     * </p>
+     *
+     * @param entries 键到带过期时间值的映射
+     * @return 写入的条目数
+     */
+    @SuppressWarnings("unchecked")
+    public int save(Map<K, ? extends ExpiringValue<?>> entries) {
+        if (!saved.compareAndSet(false, true)) {
+            return 0;
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        int written = 0;
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                for (Map.Entry<K, ? extends ExpiringValue<?>> entry : entries.entrySet()) {
+                    ExpiringValue<?> expiringValue = entry.getValue();
+                    if (entry.getKey() == null || expiringValue == null || expiringValue.isExpired()) {
+                        continue;
+                    }
+                    // 外层包装（如 ProtectedCache 写入的过期值）展开后取最早的过期时间
+                    long expireTimestamp = expiringValue.getExpireTimestamp();
+                    Object value = expiringValue.getValue();
+                    while (value instanceof ExpiringValue) {
+                        ExpiringValue<?> inner = (ExpiringValue<?>) value;
+                        expireTimestamp = Math.min(expireTimestamp, inner.getExpireTimestamp());
+                        value = inner.getValue();
+                    }
+                    if (expireTimestamp <= System.currentTimeMillis()) {
+                        continue;
+                    }
+                    byte[] keyBytes;
+                    byte[] valueBytes;
+                    try {
+                        keyBytes = keyCodec.encode(entry.getKey());
+                        valueBytes = NullValueMarker.isNullValue(value) || value == null
+                                ? null : valueCodec.encode((V) value);
+                    } catch (RuntimeException e) {
+                        logger.debug("Skipped unencodable snapshot entry for key {}", entry.getKey(), e);
+                        continue;
+                    }
+                    writeBytes(out, keyBytes);
+                    writeBytes(out, valueBytes);
+                    out.writeLong(expireTimestamp);
+                    written++;
+                }
+                out.writeInt(END_OF_ENTRIES);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.info("Saved {} entries to snapshot {}", written, file);
+        } catch (IOException e) {
+            logger.warn("Failed to save snapshot {}", file, e);
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // 临时文件会在下次写入时被覆盖
+            }
+            return 0;
+        }
+        return written;
+    }
+
+    /**
+     * 尽力解除内存映射：Java 9 及以上通过 Unsafe.invokeCleaner，Java 8 通过 DirectBuffer.cleaner()，
+     * 均不可用时映射在缓冲区被回收后释放
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            return;
+        } catch (NoSuchMethodException e) {
+            // Java 8 没有 invokeCleaner，改用 DirectBuffer.cleaner()
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Failed to unmap snapshot buffer", e);
+            return;
+        }
+        try {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Failed to unmap snapshot buffer", e);
+        }
+    }
+
+    private void delete() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete snapshot {}", file, e);
+        }
+    }
+
+    private static byte[] readBytes(MappedByteBuffer buffer, int length) {
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * 快照条目接收器
+     *
+     * @param <K> 键类型
+     * @param <V> 值类型
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<K, V> {
+
+        /**
+         * 接收一个快照条目
+         *
+         * @param key             键
+         * @param value           值，null 表示缓存的空值
+         * @param expireTimestamp 绝对过期时间戳（毫秒），Long.MAX_VALUE 表示永不过期
+         */
+        void accept(K key, V value, long expireTimestamp);
+    }
+}
@@ -0,0 +1,119 @@
+package org.im.cache.support;
+
+import org.im.cache.core.AsyncCache;
+import org.im.cache.core.Cache;
+import org.im.cache.util.CacheUtils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 以已完成结果实现的异步缓存视图
+ * <p>
+ * 用于进程内缓存：读写本身不涉及 I/O，直接在调用线程上执行同步操作并返回已完成的 future；
+ * 只有未命中时的加载是真正异步的，同一键的并发加载经 {@link SingleFlight#loadAsync} 合并，
+ * 加载结果写入缓存后完成。同步操作抛出的异常以异常完成的 future 返回。
+ * </p>
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/18
+ */
+public class CompletedAsyncCache<K, V> implements AsyncCache<K, V> {
+
+    private final Cache<K, V> cache;
+    private final SingleFlight<K> singleFlight = new SingleFlight<>(0);
+
+    /**
+     * 构造函数
+     *
+     * @param cache 同步缓存
+     */
+    public CompletedAsyncCache(Cache<K, V> cache) {
+        if (cache == null) {
+            throw new IllegalArgumentException("Cache cannot be null");
+        }
+        this.cache = cache;
+    }
+
+    @Override
+    public CompletableFuture<V> getAsync(K key) {
+        try {
+            return CompletableFuture.completedFuture(cache.get(key));
+        } catch (RuntimeException e) {
+            return CacheUtils.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(K key, V value) {
+        try {
+            cache.put(key, value);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CacheUtils.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> putAsync(K key, V value, long ttl, TimeUnit unit) {
+        try {
+            cache.put(key, value, ttl, unit);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CacheUtils.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeAsync(K key) {
+        try {
+            return CompletableFuture.completedFuture(cache.remove(key));
+        } catch (RuntimeException e) {
+            return CacheUtils.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Map<K, V>> getAllAsync(Set<? extends K> keys) {
+        try {
+            return CompletableFuture.completedFuture(cache.getAll(keys));
+        } catch (RuntimeException e) {
+            return CacheUtils.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> map) {
+        try {
+            cache.putAll(map);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CacheUtils.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<V> getOrLoadAsync(K key, Function<K, CompletableFuture<V>> loader) {
+        V value;
+        try {
+            value = cache.get(key);
+        } catch (RuntimeException e) {
+            return CacheUtils.failedFuture(e);
+        }
+        if (value != null) {
+            return CompletableFuture.completedFuture(value);
+        }
+        return singleFlight.loadAsync(key, () -> CacheUtils.loadAsync(loader, key).thenApply(loaded -> {
+            if (loaded != null) {
+                cache.put(key, loaded);
+            }
+            return loaded;
+        }));
+    }
+}
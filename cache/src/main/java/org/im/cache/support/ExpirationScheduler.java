@@ -0,0 +1,144 @@
+package org.im.cache.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存过期调度器
+ * <p>
+ * 多个缓存实例共享的过期驱动器：内部持有一个 {@link TimerWheel} 和一个守护调度线程，
+ * 缓存写入时登记条目的到期时间，调度线程每个 tick 只处理真正到期的条目，
+ * 取代每个缓存各自启动定时线程全量扫描存储的做法。
+ * </p>
+ * <p>
+ * 登记操作只是无锁入队，由调度线程批量放入时间轮，因此写入路径不会与调度线程竞争。
+ * 到期任务在调度线程上执行，应当快速返回。
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/11
+ */
+public class ExpirationScheduler implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ExpirationScheduler.class);
+
+    /**
+     * 默认 tick 间隔（毫秒）
+     */
+    public static final long DEFAULT_TICK_MILLIS = 100;
+
+    private final long tickMillis;
+    private final Queue<PendingTask> pending = new ConcurrentLinkedQueue<>();
+    private final TimerWheel wheel;
+    private final ScheduledExecutorService ticker;
+
+    /**
+     * 使用默认 tick 间隔构造
+     */
+    public ExpirationScheduler() {
+        this(DEFAULT_TICK_MILLIS);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param tickMillis tick 间隔（毫秒），决定过期的时间精度
+     */
+    public ExpirationScheduler(long tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.wheel = new TimerWheel(tickMillis, System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-expiration");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 获取进程级默认调度器，供未由缓存管理器创建的缓存实例使用
+     *
+     * @return 默认调度器
+     */
+    public static ExpirationScheduler getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * 登记到期任务
+     *
+     * @param expireTimestamp 到期时间戳（毫秒），{@code Long.MAX_VALUE} 表示永不过期，不登记
+     * @param task            到期任务
+     */
+    public void schedule(long expireTimestamp, Runnable task) {
+        if (expireTimestamp == Long.MAX_VALUE || task == null) {
+            return;
+        }
+        pending.offer(new PendingTask(expireTimestamp, task));
+    }
+
+    /**
+     * 获取 tick 间隔
+     *
+     * @return tick 间隔（毫秒）
+     */
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * 关闭调度器，未到期的任务不再执行
+     */
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        pending.clear();
+    }
+
+    /**
+     * 调度线程每个 tick 执行：先将新登记的任务放入时间轮，再推进时间轮
+     */
+    private void tick() {
+        try {
+            PendingTask task;
+            while ((task = pending.poll()) != null) {
+                wheel.schedule(task.expireTimestamp, task.task);
+            }
+            wheel.advance(System.currentTimeMillis(), this::runQuietly);
+        } catch (Throwable e) {
+            // 保证异常不会终止调度线程
+            logger.error("Cache expiration tick failed", e);
+        }
+    }
+
+    private void runQuietly(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            logger.warn("Cache expiration task failed", e);
+        }
+    }
+
+    private static final class PendingTask {
+        final long expireTimestamp;
+        final Runnable task;
+
+        PendingTask(long expireTimestamp, Runnable task) {
+            this.expireTimestamp = expireTimestamp;
+            this.task = task;
+        }
+    }
+
+    private static final class DefaultHolder {
+        static final ExpirationScheduler INSTANCE = new ExpirationScheduler();
+    }
+}
@@ -0,0 +1,161 @@
+package org.im.cache.support;
+
+import java.util.Arrays;
+
+/**
+ * 访问频率草图（Count-Min Sketch，4 位计数器）
+ * <p>
+ * 以固定内存近似记录每个键的访问频率，供 TinyLFU 准入策略比较候选与淘汰对象的热度。
+ * 每个 long 保存 16 个 4 位计数器，一个键在 4 个位置上计数并取最小值作为估计频率。
+ * 累计次数达到采样上限后所有计数器减半，使历史热点随时间衰减。
+ * 按权重淘汰时条目数事先未知，可通过 {@link #ensureCapacity(long)} 随条目数增长扩容。
+ * </p>
+ * <p>
+ * 非线程安全，由调用方在锁内访问。
+ * </p>
+ *
+ * @param <K> 键类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/10
+ */
+public class FrequencySketch<K> {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    /**
+     * 每个计数器减半时保留的位
+     */
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    /**
+     * 每个计数器的最低位，用于修正减半后的累计次数
+     */
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    /**
+     * 单个计数器的最大值
+     */
+    private static final int MAX_COUNT = 15;
+
+    private long[] table;
+    private int tableMask;
+    private int sampleSize;
+    private int additions;
+
+    /**
+     * 构造函数
+     *
+     * @param expectedEntries 预计条目数，决定计数器数量和衰减周期
+     */
+    public FrequencySketch(long expectedEntries) {
+        allocate(expectedEntries);
+    }
+
+    /**
+     * 计数器数量小于预计条目数时扩容，扩容后计数清零
+     *
+     * @param expectedEntries 预计条目数
+     */
+    public void ensureCapacity(long expectedEntries) {
+        if (expectedEntries > table.length && table.length < (1 << 30)) {
+            allocate(expectedEntries);
+        }
+    }
+
+    /**
+     * 获取计数器表能够有效区分的条目数
+     *
+     * @return 条目数
+     */
+    public int capacity() {
+        return table.length;
+    }
+
+    private void allocate(long expectedEntries) {
+        int capacity = (int) Math.min(Math.max(expectedEntries, 16), 1 << 30);
+        int length = Integer.highestOneBit(capacity - 1) << 1;
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = (int) Math.min(10L * capacity, Integer.MAX_VALUE);
+        this.additions = 0;
+    }
+
+    /**
+     * 获取键的估计访问频率
+     *
+     * @param key 键
+     * @return 估计频率，范围 0~15
+     */
+    public int frequency(K key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * 记录一次访问
+     *
+     * @param key 键
+     */
+    public void increment(K key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * 清空所有计数
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        additions = 0;
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 所有计数器减半
+     */
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions = (additions >>> 1) - (odd >>> 2);
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return ((int) h) & tableMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
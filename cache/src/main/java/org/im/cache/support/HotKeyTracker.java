@@ -0,0 +1,229 @@
+package org.im.cache.support;
+
+import org.im.cache.config.CacheConfig;
+import org.im.cache.stats.CacheStats;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 热点键探测与本地提升
+ * <p>
+ * 用 Count-Min Sketch 统计每个键在当前一秒窗口内的读取次数，窗口结束时计数清零。
+ * 读取次数达到 {@link CacheConfig#getHotKeyThreshold()} 的键被视为热点，
+ * 其值提升到一个容量为 {@link CacheConfig#getHotKeyMaxSize()} 的本地表中，
+ * 在 {@link CacheConfig#getHotKeyLocalTtl()} 内的读取直接由本地返回，不再访问远程存储。
+ * 热点持续时本地条目到期后会在下一次远程读取时重新提升。
+ * </p>
+ * <p>
+ * 本节点的写入和删除会立即移除本地条目；其他节点的写入最多在本地存活时间内不可见，
+ * 因此本地存活时间应保持在数百毫秒以内。
+ * 每次移除同时推进该键所在分段的版本号，读取方在远程读取前取得版本号（{@link #version(Object)}），
+ * 提升时版本号已变化说明期间发生过写入，读到的可能是旧值，放弃本次提升。
+ * 计数器的并发累加不加锁，高并发下可能少计个别次数，只影响探测的灵敏度。
+ * 当前已提升的热点键记录在 {@link CacheStats#getHotKeys()} 中。
+ * </p>
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/15
+ */
+public class HotKeyTracker<K, V> {
+
+    /**
+     * 统计窗口（毫秒）
+     */
+    public static final long WINDOW_MILLIS = 1000;
+
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 4096;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+    private static final int VERSION_STRIPES = 1024;
+
+    private final int threshold;
+    private final long localTtlMillis;
+    private final int maxSize;
+    private final CacheStats stats;
+
+    private final int[] counters = new int[DEPTH * WIDTH];
+    private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+    private final ConcurrentMap<K, LocalEntry<V>> local = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    /**
+     * 构造函数
+     *
+     * @param config 缓存配置
+     * @param stats  记录热点键与本地命中的统计对象
+     */
+    public HotKeyTracker(CacheConfig config, CacheStats stats) {
+        if (config.getHotKeyThreshold() <= 0) {
+            throw new IllegalArgumentException("hotKeyThreshold must be positive");
+        }
+        this.threshold = config.getHotKeyThreshold();
+        this.localTtlMillis = Math.max(1, config.getHotKeyLocalTtl());
+        this.maxSize = Math.max(1, config.getHotKeyMaxSize());
+        this.stats = stats;
+    }
+
+    /**
+     * 记录一次读取，并返回仍在有效期内的本地值
+     *
+     * @param key 键
+     * @return 本地值，未提升或已过期时返回null
+     */
+    public V get(K key) {
+        long now = System.currentTimeMillis();
+        rollWindow(now);
+        int hash = spread(key.hashCode());
+        for (int i = 0; i < DEPTH; i++) {
+            counters[indexOf(hash, i)]++;
+        }
+        LocalEntry<V> entry = local.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireTimestamp <= now) {
+            demote(key, entry);
+            return null;
+        }
+        stats.recordHotKeyHit();
+        return entry.value;
+    }
+
+    /**
+     * 获取键的写入版本号，在发起远程读取之前调用，提升时传回
+     *
+     * @param key 键
+     * @return 版本号
+     */
+    public long version(K key) {
+        return versions.get(stripeOf(key));
+    }
+
+    /**
+     * 键已达到热点阈值时将远程读取到的值提升到本地
+     *
+     * @param key     键
+     * @param value   远程读取到的值
+     * @param version 远程读取之前取得的版本号，期间发生过写入时放弃提升
+     */
+    public void promoteIfHot(K key, V value, long version) {
+        if (value == null || estimate(key) < threshold) {
+            return;
+        }
+        int stripe = stripeOf(key);
+        if (versions.get(stripe) != version) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (local.size() >= maxSize && !local.containsKey(key)) {
+            purgeExpired(now);
+            if (local.size() >= maxSize) {
+                return;
+            }
+        }
+        LocalEntry<V> entry = new LocalEntry<>(value, now + localTtlMillis);
+        local.put(key, entry);
+        stats.recordHotKey(key);
+        // 写入期间的 invalidate 可能先于 put 执行，版本号变化时撤回本次提升
+        if (versions.get(stripe) != version) {
+            demote(key, entry);
+        }
+    }
+
+    /**
+     * 移除本地条目，在本节点写入或删除该键时调用
+     *
+     * @param key 键
+     */
+    public void invalidate(K key) {
+        versions.incrementAndGet(stripeOf(key));
+        if (local.remove(key) != null) {
+            stats.removeHotKey(key);
+        }
+    }
+
+    /**
+     * 移除所有本地条目并清零计数
+     */
+    public void clear() {
+        for (K key : local.keySet()) {
+            invalidate(key);
+        }
+        Arrays.fill(counters, 0);
+    }
+
+    /**
+     * 获取键在当前窗口内的估计读取次数
+     *
+     * @param key 键
+     * @return 估计读取次数
+     */
+    public int estimate(K key) {
+        int hash = spread(key.hashCode());
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            min = Math.min(min, counters[indexOf(hash, i)]);
+        }
+        return min;
+    }
+
+    /**
+     * 进入新窗口时由一个线程清零计数
+     */
+    private void rollWindow(long now) {
+        long start = windowStart.get();
+        if (now - start >= WINDOW_MILLIS && windowStart.compareAndSet(start, now)) {
+            Arrays.fill(counters, 0);
+        }
+    }
+
+    private void purgeExpired(long now) {
+        Iterator<Map.Entry<K, LocalEntry<V>>> iterator = local.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, LocalEntry<V>> entry = iterator.next();
+            if (entry.getValue().expireTimestamp <= now) {
+                demote(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void demote(K key, LocalEntry<V> entry) {
+        if (local.remove(key, entry)) {
+            stats.removeHotKey(key);
+        }
+    }
+
+    private static int stripeOf(Object key) {
+        return spread(key.hashCode()) & (VERSION_STRIPES - 1);
+    }
+
+    private static int indexOf(int hash, int row) {
+        int h = hash * SEEDS[row];
+        return row * WIDTH + ((h >>> 20) & (WIDTH - 1));
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+    private static final class LocalEntry<V> {
+        final V value;
+        final long expireTimestamp;
+
+        LocalEntry(V value, long expireTimestamp) {
+            this.value = value;
+            this.expireTimestamp = expireTimestamp;
+        }
+    }
+}
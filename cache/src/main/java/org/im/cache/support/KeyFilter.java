@@ -0,0 +1,313 @@
+package org.im.cache.support;
+
+import org.im.cache.config.CacheConfig;
+import org.im.cache.core.KeyEnumerator;
+import org.im.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 已存在键的本地过滤器
+ * <p>
+ * 基于布隆过滤器记录数据源中存在的键：{@link #mightContain(Object)} 返回false时该键确定不存在，
+ * 调用方可以直接返回未命中，不再访问远程缓存和数据源，用于挡住大量随机不存在键的穿透流量。
+ * 返回true时键可能存在，误判率由 {@link CacheConfig#getKeyFilterFalsePositiveRate()} 决定。
+ * </p>
+ * <p>
+ * 过滤器由 {@link KeyEnumerator} 在后台周期性重建，重建完成后整体替换旧过滤器；枚举失败时保留旧过滤器。
+ * 重建时机由共享的 {@link ExpirationScheduler} 驱动，枚举在所有过滤器共享的有界线程池中执行，
+ * 不为每个过滤器单独启动线程；线程池繁忙时本次重建推迟到下一个周期。经缓存写入的键通过 {@link #add(Object)} 立即加入当前过滤器和正在重建的过滤器，
+ * 因此过滤器对新数据的滞后只限于绕过缓存直接写入数据源、且尚未经过下一次重建的键。
+ * 首次重建完成前过滤器放行所有键。
+ * </p>
+ *
+ * @param <K> 键类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/19
+ */
+public class KeyFilter<K> implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(KeyFilter.class);
+
+    private final String name;
+    private final KeyEnumerator<K> enumerator;
+    private final long expectedKeys;
+    private final double falsePositiveRate;
+    private final CacheStats stats;
+    private final ExpirationScheduler scheduler;
+    private final long rebuildInterval;
+    private volatile boolean closed;
+
+    /**
+     * 当前生效的过滤器，首次重建完成前为null
+     */
+    private volatile BloomFilter current;
+
+    /**
+     * 正在重建的过滤器，重建期间写入的键同时加入其中
+     */
+    private volatile BloomFilter building;
+
+    /**
+     * 使用进程级默认调度器构造，立即在后台开始首次重建
+     *
+     * @param name   缓存名称，用于日志
+     * @param config 缓存配置，必须配置键枚举器
+     * @param stats  统计信息，记录被过滤器拦截的次数，可为null
+     */
+    public KeyFilter(String name, CacheConfig config, CacheStats stats) {
+        this(name, config, stats, ExpirationScheduler.getDefault());
+    }
+
+    /**
+     * 构造函数，立即在后台开始首次重建
+     *
+     * @param name      缓存名称，用于日志
+     * @param config    缓存配置，必须配置键枚举器
+     * @param stats     统计信息，记录被过滤器拦截的次数，可为null
+     * @param scheduler 驱动周期性重建的调度器
+     */
+    @SuppressWarnings("unchecked")
+    public KeyFilter(String name, CacheConfig config, CacheStats stats, ExpirationScheduler scheduler) {
+        if (config == null || config.getKeyEnumerator() == null) {
+            throw new IllegalArgumentException("KeyEnumerator cannot be null");
+        }
+        if (config.getKeyFilterExpectedKeys() <= 0) {
+            throw new IllegalArgumentException("Key filter expected keys must be positive");
+        }
+        if (config.getKeyFilterFalsePositiveRate() <= 0 || config.getKeyFilterFalsePositiveRate() >= 1) {
+            throw new IllegalArgumentException("Key filter false positive rate must be between 0 and 1");
+        }
+        if (config.getKeyFilterRebuildInterval() <= 0) {
+            throw new IllegalArgumentException("Key filter rebuild interval must be positive");
+        }
+        if (scheduler == null) {
+            throw new IllegalArgumentException("ExpirationScheduler cannot be null");
+        }
+        this.name = name;
+        this.enumerator = (KeyEnumerator<K>) config.getKeyEnumerator();
+        this.expectedKeys = config.getKeyFilterExpectedKeys();
+        this.falsePositiveRate = config.getKeyFilterFalsePositiveRate();
+        this.stats = stats;
+        this.scheduler = scheduler;
+        this.rebuildInterval = config.getKeyFilterRebuildInterval();
+        submitRebuild();
+    }
+
+    /**
+     * 判断键是否可能存在
+     *
+     * @param key 缓存键
+     * @return false表示键确定不存在；首次重建完成前总是返回true
+     */
+    public boolean mightContain(K key) {
+        BloomFilter filter = current;
+        if (filter == null || key == null || filter.mightContain(hash(key))) {
+            return true;
+        }
+        if (stats != null) {
+            stats.recordKeyFilterReject();
+        }
+        return false;
+    }
+
+    /**
+     * 加入经缓存写入的键
+     *
+     * @param key 缓存键
+     */
+    public void add(K key) {
+        if (key == null) {
+            return;
+        }
+        long hash = hash(key);
+        // 先读正在重建的过滤器：若先读 current 再读 building，重建可能在两次读取之间完成替换，
+        // 键只进入被丢弃的旧过滤器。重建在 building 置空之前已替换 current，
+        // 因此读到 building 为空时再读到的 current 要么是新过滤器，要么重建尚未开始
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(hash);
+        }
+        BloomFilter filter = current;
+        if (filter != null && filter != next) {
+            filter.put(hash);
+        }
+    }
+
+    /**
+     * 立即重建过滤器
+     *
+     * @throws Exception 枚举失败时抛出，当前过滤器保持不变
+     */
+    public synchronized void rebuild() throws Exception {
+        BloomFilter next = new BloomFilter(expectedKeys, falsePositiveRate);
+        building = next;
+        long start = System.currentTimeMillis();
+        long[] count = new long[1];
+        try {
+            enumerator.enumerate(key -> {
+                if (key != null) {
+                    next.put(hash(key));
+                    count[0]++;
+                }
+            });
+            current = next;
+        } finally {
+            building = null;
+        }
+        if (count[0] > expectedKeys) {
+            logger.warn("Key filter for cache '{}' holds {} keys, more than the expected {}, false positive rate will rise",
+                    name, count[0], expectedKeys);
+        }
+        logger.debug("Rebuilt key filter for cache '{}' with {} keys in {}ms",
+                name, count[0], System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 首次重建是否已完成
+     *
+     * @return 是否已完成
+     */
+    public boolean isReady() {
+        return current != null;
+    }
+
+    /**
+     * 停止周期性重建，正在进行的枚举执行完毕后不再安排下一次
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * 将重建交给共享线程池，调度器线程只做提交
+     */
+    private void submitRebuild() {
+        if (closed) {
+            return;
+        }
+        try {
+            RebuildPool.INSTANCE.execute(this::rebuildAndReschedule);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Key filter rebuild pool is saturated, postponing rebuild for cache '{}'", name);
+            scheduleRebuild();
+        }
+    }
+
+    private void rebuildAndReschedule() {
+        if (closed) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("Failed to rebuild key filter for cache '{}', keeping the previous one", name, e);
+        }
+        scheduleRebuild();
+    }
+
+    /**
+     * 按上次重建结束的时间安排下一次，与原先的固定间隔语义一致
+     */
+    private void scheduleRebuild() {
+        if (!closed) {
+            scheduler.schedule(System.currentTimeMillis() + rebuildInterval, this::submitRebuild);
+        }
+    }
+
+    /**
+     * 将键的哈希码扩展为64位，字符串按字符重新计算以减少碰撞
+     */
+    private static long hash(Object key) {
+        long h;
+        if (key instanceof CharSequence) {
+            CharSequence chars = (CharSequence) key;
+            h = 0xcbf29ce484222325L;
+            for (int i = 0; i < chars.length(); i++) {
+                h = (h ^ chars.charAt(i)) * 0x100000001b3L;
+            }
+        } else {
+            h = key.hashCode();
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 所有过滤器共享的有界重建线程池，枚举通常是扫描数据源的阻塞操作
+     */
+    private static final class RebuildPool {
+        static final ThreadPoolExecutor INSTANCE = create();
+
+        private static ThreadPoolExecutor create() {
+            int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+            AtomicInteger index = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(256), r -> {
+                Thread thread = new Thread(r, "cache-key-filter-" + index.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    /**
+     * 按预期键数量和误判率定长的布隆过滤器，位图可并发写入
+     */
+    private static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(long expectedKeys, double falsePositiveRate) {
+            long optimalBits = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, (Math.max(64, optimalBits) + 63) >>> 6);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words << 6;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedKeys * Math.log(2)));
+        }
+
+        void put(long hash) {
+            long h1 = hash;
+            long h2 = (hash >>> 32) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long index = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long old;
+                do {
+                    old = bits.get(word);
+                    if ((old & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(word, old, old | mask));
+            }
+        }
+
+        boolean mightContain(long hash) {
+            long h1 = hash;
+            long h2 = (hash >>> 32) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long index = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
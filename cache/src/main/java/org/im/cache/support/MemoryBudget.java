@@ -0,0 +1,248 @@
+package org.im.cache.support;
+
+import org.im.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多个缓存共享的内存预算
+ * <p>
+ * 按权重计量的进程内缓存注册到预算后，各自的容量不再由配置固定，而是每隔
+ * {@link #REBALANCE_INTERVAL_MILLIS} 毫秒按收益重新分配，所有成员的容量之和不超过预算：
+ * </p>
+ * <ul>
+ *     <li>每个成员保底获得预算的 1/(4n)；</li>
+ *     <li>其余部分按上一周期的命中次数加权分配，命中越多的缓存份额越大；</li>
+ *     <li>已用量低于容量 90% 或没有未命中的缓存只需要已用量的 1.25 倍，多出的份额让给仍在因容量不足而未命中的缓存；</li>
+ *     <li>每次调整只向目标值移动一半，避免容量来回振荡，同时保证调整过程中容量之和仍不超过预算。</li>
+ * </ul>
+ * <p>
+ * 容量缩小时成员立即淘汰超出的条目。调整在过期调度线程上执行。
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/17
+ */
+public class MemoryBudget implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MemoryBudget.class);
+
+    /**
+     * 重新分配间隔（毫秒）
+     */
+    public static final long REBALANCE_INTERVAL_MILLIS = 1000;
+
+    /**
+     * 已用量达到容量的该比例且仍有未命中时视为容量不足
+     */
+    private static final double PRESSURE_RATIO = 0.9;
+
+    private final long budget;
+    private final ExpirationScheduler scheduler;
+    private final Map<String, Allocation> allocations = new LinkedHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * 构造函数
+     *
+     * @param budget    预算，与成员权重的单位相同，通常为字节数
+     * @param scheduler 驱动周期性重新分配的调度器
+     */
+    public MemoryBudget(long budget, ExpirationScheduler scheduler) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive");
+        }
+        if (scheduler == null) {
+            throw new IllegalArgumentException("ExpirationScheduler cannot be null");
+        }
+        this.budget = budget;
+        this.scheduler = scheduler;
+        scheduleRebalance();
+    }
+
+    /**
+     * 注册成员并立即重新分配
+     *
+     * @param name          成员名称
+     * @param member        成员
+     * @param maximumWeight 成员自身的容量上限，0 表示不限
+     */
+    public synchronized void register(String name, Member member, long maximumWeight) {
+        allocations.put(name, new Allocation(member, maximumWeight > 0 ? maximumWeight : Long.MAX_VALUE));
+        logger.info("Cache '{}' joined memory budget of {}", name, budget);
+        rebalance();
+    }
+
+    /**
+     * 注销成员，其份额在下次重新分配时归还其他成员
+     *
+     * @param name 成员名称
+     */
+    public synchronized void unregister(String name) {
+        allocations.remove(name);
+    }
+
+    /**
+     * 获取预算
+     *
+     * @return 预算
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * 获取各成员当前分配到的容量
+     *
+     * @return 成员名称到容量的映射
+     */
+    public synchronized Map<String, Long> getAllocations() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        allocations.forEach((name, allocation) -> result.put(name, allocation.limit));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * 按上一周期的命中与未命中重新分配容量
+     */
+    public synchronized void rebalance() {
+        int n = allocations.size();
+        if (n == 0) {
+            return;
+        }
+        long floor = Math.max(1, budget / (4L * n));
+        List<Allocation> members = new ArrayList<>(allocations.values());
+        long remaining = budget;
+        for (Allocation allocation : members) {
+            allocation.sample();
+            long used = allocation.member.getWeightedSize();
+            boolean pressured = allocation.limit > 0 && used >= allocation.limit * PRESSURE_RATIO
+                    && allocation.deltaMisses > 0;
+            long demand = pressured || allocation.limit == 0 ? Long.MAX_VALUE : Math.max(floor, used + used / 4);
+            allocation.demand = Math.min(demand, allocation.cap);
+            allocation.target = Math.min(floor, allocation.demand);
+            remaining -= allocation.target;
+        }
+
+        // 按命中次数加权的注水分配：满足需求的成员退出，剩余部分在其他成员间继续分配
+        while (remaining > 0) {
+            double totalWeight = 0;
+            for (Allocation allocation : members) {
+                if (allocation.target < allocation.demand) {
+                    totalWeight += allocation.deltaHits + 1;
+                }
+            }
+            if (totalWeight == 0) {
+                break;
+            }
+            long granted = 0;
+            for (Allocation allocation : members) {
+                if (allocation.target < allocation.demand) {
+                    long share = Math.max(1, (long) (remaining * ((allocation.deltaHits + 1) / totalWeight)));
+                    long grant = Math.min(Math.min(share, allocation.demand - allocation.target), remaining - granted);
+                    allocation.target += grant;
+                    granted += grant;
+                }
+            }
+            if (granted == 0) {
+                break;
+            }
+            remaining -= granted;
+        }
+
+        for (Allocation allocation : members) {
+            // 增长向下取整、缩小向上取整，调整后的容量之和不超过调整前后两次分配的平均值
+            long gap = allocation.target - allocation.limit;
+            long limit = Math.max(1, gap >= 0 ? allocation.limit + gap / 2 : allocation.limit - (-gap + 1) / 2);
+            if (limit != allocation.limit) {
+                allocation.limit = limit;
+                allocation.member.setMaximumWeight(limit);
+            }
+        }
+    }
+
+    /**
+     * 停止周期性重新分配
+     */
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            allocations.clear();
+        }
+    }
+
+    private void scheduleRebalance() {
+        scheduler.schedule(System.currentTimeMillis() + REBALANCE_INTERVAL_MILLIS, () -> {
+            if (closed) {
+                return;
+            }
+            try {
+                rebalance();
+            } catch (RuntimeException e) {
+                logger.warn("Memory budget rebalance failed", e);
+            }
+            scheduleRebalance();
+        });
+    }
+
+    /**
+     * 预算成员，即按权重计量且容量可调整的缓存
+     */
+    public interface Member {
+
+        /**
+         * 获取当前权重之和
+         *
+         * @return 权重之和
+         */
+        long getWeightedSize();
+
+        /**
+         * 调整容量，缩小时立即淘汰超出的条目
+         *
+         * @param maximumWeight 最大权重之和
+         */
+        void setMaximumWeight(long maximumWeight);
+
+        /**
+         * 获取统计信息，用于衡量分配收益
+         *
+         * @return 统计信息，未启用统计时可为null
+         */
+        CacheStats getStats();
+    }
+
+    private static final class Allocation {
+        final Member member;
+        final long cap;
+        long limit;
+        long target;
+        long demand;
+        long lastHits;
+        long lastMisses;
+        long deltaHits;
+        long deltaMisses;
+
+        Allocation(Member member, long cap) {
+            this.member = member;
+            this.cap = cap;
+        }
+
+        void sample() {
+            CacheStats stats = member.getStats();
+            long hits = stats != null ? stats.getHitCount() : 0;
+            long misses = stats != null ? stats.getMissCount() : 0;
+            deltaHits = Math.max(0, hits - lastHits);
+            deltaMisses = Math.max(0, misses - lastMisses);
+            lastHits = hits;
+            lastMisses = misses;
+        }
+    }
+}
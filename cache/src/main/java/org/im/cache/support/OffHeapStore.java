@@ -0,0 +1,713 @@
+package org.im.cache.support;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 堆外字节存储
+ * <p>
+ * 值以字节数组形式存放在 {@link ByteBuffer#allocateDirect(int)} 分配的页中，堆上只保留键和定长的索引数组，
+ * 条目数量增长不会产生新的堆对象，也就不会增加老年代 GC 的负担。
+ * 存储按键的哈希分为多个段，每个段有独立的锁、页、索引和时钟指针。
+ * </p>
+ * <p>
+ * 段内按 slab 方式分配：每页在首次使用时归属一个块大小（64 字节起按 2 的幂递增，最大为页大小），
+ * 值写入能容纳它的最小块，块头 4 字节记录索引槽位，空闲块通过块头串成链表，因此页内不需要额外的堆上元数据。
+ * 索引为开放寻址的线性探测哈希表，删除时后移填补空位，不留墓碑。
+ * </p>
+ * <p>
+ * 每个段的时钟指针循环扫描索引：读命中设置访问位，写入时指针顺带前进几步回收已过期的条目；
+ * 容量用尽时指针继续前进，清除访问位并选出最近未访问的条目淘汰（CLOCK 近似 LRU）。
+ * 淘汰优先选择与新值块大小相同的条目；扫描一定数量的条目仍未找到时，整页淘汰最先遇到的未访问条目所在的页，
+ * 并将该页改为新的块大小，避免页长期固定在某个块大小上。
+ * </p>
+ * <p>
+ * 被淘汰或过期删除的键通过构造时传入的回调通知调用方，回调在段锁内执行，应当快速返回且不能访问本存储。
+ * </p>
+ *
+ * @param <K> 键类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/14
+ */
+public class OffHeapStore<K> implements AutoCloseable {
+
+    /**
+     * 最小块大小（字节）
+     */
+    private static final int MIN_CHUNK_SHIFT = 6;
+
+    /**
+     * 块头长度，存放索引槽位或空闲链表的下一个块
+     */
+    private static final int HEADER_SIZE = 4;
+
+    /**
+     * 每次写入时时钟指针顺带检查的槽位数
+     */
+    private static final int SWEEP_STEPS = 4;
+
+    private static final int MAX_SEGMENTS = 16;
+
+    /**
+     * 每个段至少为每个块大小级别保留的页数，容量较小时减少段数而不是让各级别争抢少量的页
+     */
+    private static final int MIN_PAGES_PER_CLASS = 4;
+
+    /**
+     * 淘汰时寻找同级别条目最多扫描的条目数，超过后改为整页淘汰
+     */
+    private static final int PAGE_EVICTION_SCAN = 128;
+
+    /**
+     * 空值写入后读取时返回的共享实例，调用方按引用比较
+     */
+    public static final byte[] NULL_VALUE = new byte[0];
+
+    private final int pageSize;
+    private final int segmentShift;
+    private final Segment<K>[] segments;
+    private final Consumer<K> removalListener;
+
+    /**
+     * 构造函数
+     *
+     * @param capacity        直接内存最大占用（字节）
+     * @param pageSize        页大小（字节），同时决定单个值的最大长度
+     * @param removalListener 条目因容量淘汰或过期被删除时的回调，参数为键
+     */
+    @SuppressWarnings("unchecked")
+    public OffHeapStore(long capacity, int pageSize, Consumer<K> removalListener) {
+        if (pageSize < (1 << MIN_CHUNK_SHIFT) || Integer.bitCount(pageSize) != 1) {
+            throw new IllegalArgumentException("pageSize must be a power of two not less than "
+                    + (1 << MIN_CHUNK_SHIFT) + ": " + pageSize);
+        }
+        if (capacity < pageSize) {
+            throw new IllegalArgumentException("capacity must not be less than pageSize: " + capacity);
+        }
+        long pages = capacity / pageSize;
+        int chunkClasses = Integer.numberOfTrailingZeros(pageSize) - MIN_CHUNK_SHIFT + 1;
+        long minPagesPerSegment = (long) chunkClasses * MIN_PAGES_PER_CLASS;
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && segmentCount * 2L * minPagesPerSegment <= pages) {
+            segmentCount <<= 1;
+        }
+        this.pageSize = pageSize;
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+        this.removalListener = removalListener;
+        this.segments = new Segment[segmentCount];
+        int pagesPerSegment = (int) Math.min(Integer.MAX_VALUE, pages / segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(this, pagesPerSegment);
+        }
+    }
+
+    /**
+     * 读取值
+     *
+     * @param key 键
+     * @return 值的副本，写入的是null时返回 {@link #NULL_VALUE}，不存在或已过期时返回null
+     */
+    public byte[] get(K key) {
+        int hash = spread(key.hashCode());
+        return segmentFor(hash).get(key, hash, System.currentTimeMillis());
+    }
+
+    /**
+     * 写入值，覆盖已有的值
+     *
+     * @param key             键
+     * @param value           值，可以为null
+     * @param expireTimestamp 到期时间戳（毫秒），{@code Long.MAX_VALUE} 表示永不过期
+     * @return 写入成功返回true；值超过页大小或无法腾出空间时返回false，此时该键原有的值也被删除
+     */
+    public boolean put(K key, byte[] value, long expireTimestamp) {
+        int hash = spread(key.hashCode());
+        return segmentFor(hash).put(key, hash, value, expireTimestamp);
+    }
+
+    /**
+     * 删除值
+     *
+     * @param key 键
+     * @return 存在并被删除返回true
+     */
+    public boolean remove(K key) {
+        int hash = spread(key.hashCode());
+        return segmentFor(hash).remove(key, hash);
+    }
+
+    /**
+     * 判断键是否存在且未过期
+     *
+     * @param key 键
+     * @return 存在返回true
+     */
+    public boolean containsKey(K key) {
+        int hash = spread(key.hashCode());
+        return segmentFor(hash).containsKey(key, hash, System.currentTimeMillis());
+    }
+
+    /**
+     * 获取条目数量，包含尚未回收的过期条目
+     *
+     * @return 条目数量
+     */
+    public long size() {
+        long size = 0;
+        for (Segment<K> segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * 获取已分配给条目的直接内存（字节），按块大小计
+     *
+     * @return 已使用字节数
+     */
+    public long usedBytes() {
+        long used = 0;
+        for (Segment<K> segment : segments) {
+            used += segment.usedBytes;
+        }
+        return used;
+    }
+
+    /**
+     * 扫描全部条目并删除已过期的条目
+     *
+     * @return 删除的条目数
+     */
+    public int expire() {
+        int removed = 0;
+        long now = System.currentTimeMillis();
+        for (Segment<K> segment : segments) {
+            removed += segment.expireAll(now);
+        }
+        return removed;
+    }
+
+    /**
+     * 清空所有条目，已分配的页保留以便复用
+     */
+    public void clear() {
+        for (Segment<K> segment : segments) {
+            segment.clear(false);
+        }
+    }
+
+    /**
+     * 清空所有条目并释放页的引用，直接内存在页对象被回收后释放
+     */
+    @Override
+    public void close() {
+        for (Segment<K> segment : segments) {
+            segment.clear(true);
+        }
+    }
+
+    private Segment<K> segmentFor(int hash) {
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    private static int spread(int hashCode) {
+        int h = hashCode * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 按值长度计算块大小的级别，超过页大小时返回-1
+     */
+    private int chunkClassOf(int length) {
+        int required = length + HEADER_SIZE;
+        if (required > pageSize) {
+            return -1;
+        }
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(required, 1 << MIN_CHUNK_SHIFT) - 1);
+        return shift - MIN_CHUNK_SHIFT;
+    }
+
+    private static int chunkSizeOf(int chunkClass) {
+        return 1 << (chunkClass + MIN_CHUNK_SHIFT);
+    }
+
+    private static void position(ByteBuffer buffer, int position) {
+        // 转为 Buffer 调用，兼容在 Java 8 上运行
+        ((Buffer) buffer).position(position);
+    }
+
+    /**
+     * 一个直接内存页，划分为等长的块
+     */
+    private static final class Page {
+        final ByteBuffer buffer;
+        int chunkClass;
+        int chunkSize;
+        int chunkCount;
+        /**
+         * 已划分出的块数，之后的块尚未使用过，视为空闲
+         */
+        int carved;
+        int freeHead = -1;
+        int live;
+
+        Page(int pageSize, int chunkClass) {
+            this.buffer = ByteBuffer.allocateDirect(pageSize);
+            assign(chunkClass);
+        }
+
+        void assign(int chunkClass) {
+            this.chunkClass = chunkClass;
+            this.chunkSize = chunkSizeOf(chunkClass);
+            this.chunkCount = buffer.capacity() / chunkSize;
+            this.carved = 0;
+            this.freeHead = -1;
+            this.live = 0;
+        }
+
+        boolean hasFree() {
+            return freeHead >= 0 || carved < chunkCount;
+        }
+
+        /**
+         * 取出一个空闲块并写入所属槽位
+         */
+        int allocate(int slot) {
+            int chunk;
+            if (freeHead >= 0) {
+                chunk = freeHead;
+                freeHead = -buffer.getInt(chunk * chunkSize) - 2;
+            } else {
+                chunk = carved++;
+            }
+            buffer.putInt(chunk * chunkSize, slot);
+            live++;
+            return chunk;
+        }
+
+        void free(int chunk) {
+            buffer.putInt(chunk * chunkSize, -freeHead - 2);
+            freeHead = chunk;
+            live--;
+        }
+
+        int owner(int chunk) {
+            return buffer.getInt(chunk * chunkSize);
+        }
+
+        void setOwner(int chunk, int slot) {
+            buffer.putInt(chunk * chunkSize, slot);
+        }
+
+        void write(int chunk, byte[] value) {
+            if (value == null) {
+                return;
+            }
+            position(buffer, chunk * chunkSize + HEADER_SIZE);
+            buffer.put(value);
+        }
+
+        byte[] read(int chunk, int length) {
+            byte[] value = new byte[length];
+            position(buffer, chunk * chunkSize + HEADER_SIZE);
+            buffer.get(value);
+            return value;
+        }
+    }
+
+    /**
+     * 存储段：页、索引与时钟指针，全部操作在段锁内执行
+     */
+    private static final class Segment<K> {
+        private static final int INITIAL_TABLE_SIZE = 64;
+
+        final OffHeapStore<K> store;
+        final ReentrantLock lock = new ReentrantLock();
+        final int maxPages;
+        Page[] pages = new Page[0];
+
+        /**
+         * 每个块大小级别最近一次分配所用的页
+         */
+        final int[] pageHints = new int[32];
+
+        Object[] keys;
+        int[] hashes;
+        int[] pageIndexes;
+        int[] chunkIndexes;
+        int[] lengths;
+        long[] expireTimestamps;
+        boolean[] referenced;
+        int mask;
+        int hand;
+        volatile int size;
+        volatile long usedBytes;
+
+        Segment(OffHeapStore<K> store, int maxPages) {
+            this.store = store;
+            this.maxPages = Math.max(1, maxPages);
+            Arrays.fill(pageHints, -1);
+            initTable(INITIAL_TABLE_SIZE);
+        }
+
+        byte[] get(K key, int hash, long now) {
+            lock.lock();
+            try {
+                int slot = find(key, hash);
+                if (slot < 0) {
+                    return null;
+                }
+                if (expireTimestamps[slot] <= now) {
+                    removeAt(slot, true);
+                    return null;
+                }
+                referenced[slot] = true;
+                if (lengths[slot] < 0) {
+                    return NULL_VALUE;
+                }
+                return pages[pageIndexes[slot]].read(chunkIndexes[slot], lengths[slot]);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean containsKey(K key, int hash, long now) {
+            lock.lock();
+            try {
+                int slot = find(key, hash);
+                return slot >= 0 && expireTimestamps[slot] > now;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean put(K key, int hash, byte[] value, long expireTimestamp) {
+            int length = value == null ? -1 : value.length;
+            int chunkClass = store.chunkClassOf(Math.max(0, length));
+            lock.lock();
+            try {
+                int slot = find(key, hash);
+                if (slot >= 0 && chunkClass >= 0 && pages[pageIndexes[slot]].chunkClass == chunkClass) {
+                    // 块大小不变时原地覆盖
+                    pages[pageIndexes[slot]].write(chunkIndexes[slot], value);
+                    lengths[slot] = length;
+                    expireTimestamps[slot] = expireTimestamp;
+                    referenced[slot] = true;
+                    return true;
+                }
+                if (slot >= 0) {
+                    removeAt(slot, false);
+                }
+                if (chunkClass < 0) {
+                    return false;
+                }
+                sweep(System.currentTimeMillis());
+                int pageIndex = pageWithFree(chunkClass);
+                if (pageIndex < 0) {
+                    return false;
+                }
+                if (size + 1 > (mask + 1) * 3 / 4) {
+                    resize();
+                }
+                slot = insertionSlot(hash);
+                Page page = pages[pageIndex];
+                int chunk = page.allocate(slot);
+                page.write(chunk, value);
+                keys[slot] = key;
+                hashes[slot] = hash;
+                pageIndexes[slot] = pageIndex;
+                chunkIndexes[slot] = chunk;
+                lengths[slot] = length;
+                expireTimestamps[slot] = expireTimestamp;
+                referenced[slot] = false;
+                size++;
+                usedBytes += page.chunkSize;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean remove(K key, int hash) {
+            lock.lock();
+            try {
+                int slot = find(key, hash);
+                if (slot < 0) {
+                    return false;
+                }
+                removeAt(slot, false);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int expireAll(long now) {
+            lock.lock();
+            try {
+                int removed = 0;
+                int slot = 0;
+                while (slot <= mask) {
+                    if (keys[slot] != null && expireTimestamps[slot] <= now) {
+                        // 后移删除可能把后面的条目移到当前槽位，因此不前进
+                        removeAt(slot, true);
+                        removed++;
+                    } else {
+                        slot++;
+                    }
+                }
+                return removed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear(boolean releasePages) {
+            lock.lock();
+            try {
+                initTable(INITIAL_TABLE_SIZE);
+                size = 0;
+                usedBytes = 0;
+                if (releasePages) {
+                    pages = new Page[0];
+                } else {
+                    for (Page page : pages) {
+                        page.assign(page.chunkClass);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // ==================== 空间分配 ====================
+
+        /**
+         * 找到一个有空闲块的页，依次尝试：已有的同级别页、新分配页、空页改级别、时钟淘汰
+         *
+         * @return 页下标，无法腾出空间时返回-1
+         */
+        private int pageWithFree(int chunkClass) {
+            int hint = pageHints[chunkClass];
+            if (hint >= 0 && pages[hint].chunkClass == chunkClass && pages[hint].hasFree()) {
+                return hint;
+            }
+            int found = findPage(chunkClass);
+            if (found >= 0) {
+                pageHints[chunkClass] = found;
+            }
+            return found;
+        }
+
+        private int findPage(int chunkClass) {
+            for (int i = 0; i < pages.length; i++) {
+                if (pages[i].chunkClass == chunkClass && pages[i].hasFree()) {
+                    return i;
+                }
+            }
+            if (pages.length < maxPages) {
+                Page[] grown = Arrays.copyOf(pages, pages.length + 1);
+                grown[pages.length] = new Page(store.pageSize, chunkClass);
+                pages = grown;
+                return pages.length - 1;
+            }
+            for (int i = 0; i < pages.length; i++) {
+                if (pages[i].live == 0) {
+                    pages[i].assign(chunkClass);
+                    return i;
+                }
+            }
+            return evict(chunkClass);
+        }
+
+        /**
+         * 时钟指针最多扫描两圈：跳过设置了访问位的条目并清除访问位，
+         * 过期条目直接回收，选中的淘汰对象块大小相同时只淘汰该条目，否则淘汰整页并改级别
+         */
+        private int evict(int chunkClass) {
+            long now = System.currentTimeMillis();
+            int candidatePage = -1;
+            int scanned = 0;
+            for (int steps = 2 * (mask + 1); steps > 0 && size > 0; steps--) {
+                if (candidatePage >= 0 && scanned >= PAGE_EVICTION_SCAN) {
+                    break;
+                }
+                int slot = hand;
+                hand = (hand + 1) & mask;
+                if (keys[slot] == null) {
+                    continue;
+                }
+                scanned++;
+                int pageIndex = pageIndexes[slot];
+                Page page = pages[pageIndex];
+                if (expireTimestamps[slot] <= now) {
+                    removeAt(slot, true);
+                    // 后移删除可能把后续条目移到当前槽位，下一步重新检查
+                    hand = slot;
+                    if (page.chunkClass == chunkClass || page.live == 0) {
+                        return reuse(pageIndex, chunkClass);
+                    }
+                    continue;
+                }
+                if (referenced[slot]) {
+                    referenced[slot] = false;
+                    continue;
+                }
+                if (page.chunkClass != chunkClass) {
+                    if (candidatePage < 0) {
+                        candidatePage = pageIndex;
+                    }
+                    continue;
+                }
+                removeAt(slot, true);
+                hand = slot;
+                return pageIndex;
+            }
+            if (candidatePage < 0) {
+                return -1;
+            }
+            evictPage(pages[candidatePage]);
+            return reuse(candidatePage, chunkClass);
+        }
+
+        /**
+         * 页已清空时改为目标级别，否则页内已有空闲的同级别块
+         */
+        private int reuse(int pageIndex, int chunkClass) {
+            Page page = pages[pageIndex];
+            if (page.chunkClass != chunkClass) {
+                page.assign(chunkClass);
+            }
+            return pageIndex;
+        }
+
+        private void evictPage(Page page) {
+            for (int chunk = 0; chunk < page.carved && page.live > 0; chunk++) {
+                int owner = page.owner(chunk);
+                if (owner >= 0) {
+                    removeAt(owner, true);
+                }
+            }
+        }
+
+        /**
+         * 时钟指针前进几步，顺带回收过期条目
+         */
+        private void sweep(long now) {
+            for (int i = 0; i < SWEEP_STEPS && size > 0; i++) {
+                int slot = hand;
+                if (keys[slot] != null && expireTimestamps[slot] <= now) {
+                    removeAt(slot, true);
+                } else {
+                    hand = (hand + 1) & mask;
+                }
+            }
+        }
+
+        // ==================== 索引 ====================
+
+        private void initTable(int tableSize) {
+            keys = new Object[tableSize];
+            hashes = new int[tableSize];
+            pageIndexes = new int[tableSize];
+            chunkIndexes = new int[tableSize];
+            lengths = new int[tableSize];
+            expireTimestamps = new long[tableSize];
+            referenced = new boolean[tableSize];
+            mask = tableSize - 1;
+            hand = 0;
+        }
+
+        private int find(Object key, int hash) {
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                if (hashes[slot] == hash && keys[slot].equals(key)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int insertionSlot(int hash) {
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize() {
+            Object[] oldKeys = keys;
+            int[] oldHashes = hashes;
+            int[] oldPageIndexes = pageIndexes;
+            int[] oldChunkIndexes = chunkIndexes;
+            int[] oldLengths = lengths;
+            long[] oldExpireTimestamps = expireTimestamps;
+            boolean[] oldReferenced = referenced;
+            initTable(oldKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int slot = insertionSlot(oldHashes[i]);
+                    keys[slot] = oldKeys[i];
+                    hashes[slot] = oldHashes[i];
+                    pageIndexes[slot] = oldPageIndexes[i];
+                    chunkIndexes[slot] = oldChunkIndexes[i];
+                    lengths[slot] = oldLengths[i];
+                    expireTimestamps[slot] = oldExpireTimestamps[i];
+                    referenced[slot] = oldReferenced[i];
+                    pages[pageIndexes[slot]].setOwner(chunkIndexes[slot], slot);
+                }
+            }
+        }
+
+        /**
+         * 删除槽位上的条目并释放其块，随后把探测链上的后续条目前移填补空位
+         *
+         * @param notify 是否通知删除回调（淘汰与过期时通知，显式删除与覆盖时不通知）
+         */
+        @SuppressWarnings("unchecked")
+        private void removeAt(int slot, boolean notify) {
+            K key = (K) keys[slot];
+            Page page = pages[pageIndexes[slot]];
+            page.free(chunkIndexes[slot]);
+            usedBytes -= page.chunkSize;
+            size--;
+
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (keys[next] != null) {
+                int home = hashes[next] & mask;
+                // home 不在 (hole, next] 区间内时，条目可以前移到 hole
+                boolean movable = hole <= next
+                        ? home <= hole || home > next
+                        : home <= hole && home > next;
+                if (movable) {
+                    move(next, hole);
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            keys[hole] = null;
+
+            if (notify && store.removalListener != null) {
+                store.removalListener.accept(key);
+            }
+        }
+
+        private void move(int from, int to) {
+            keys[to] = keys[from];
+            hashes[to] = hashes[from];
+            pageIndexes[to] = pageIndexes[from];
+            chunkIndexes[to] = chunkIndexes[from];
+            lengths[to] = lengths[from];
+            expireTimestamps[to] = expireTimestamps[from];
+            referenced[to] = referenced[from];
+            pages[pageIndexes[to]].setOwner(chunkIndexes[to], to);
+        }
+    }
+}
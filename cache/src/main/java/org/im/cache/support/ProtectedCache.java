@@ -1,25 +1,39 @@
 package org.im.cache.support;
 
 import org.im.cache.config.CacheConfig;
+import org.im.cache.core.AsyncCache;
 import org.im.cache.core.Cache;
 import org.im.cache.stats.CacheStats;
+import org.im.cache.util.CacheUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * 带保护机制的缓存实现
  * <p>
  * 提供缓存穿透、击穿、雪崩等保护机制
  * </p>
+ * <p>
+ * 击穿保护基于 {@link SingleFlight}：同一键的并发回源只执行一次，其余调用者等待同一结果，
+ * 等待超时时间取 {@link CacheConfig#getBreakdownLockTimeout()}
+ * </p>
+ * <p>
+ * {@link #async()} 返回建立在被保护缓存非阻塞视图之上的同等保护：过期值与空值标记在回调中解包，
+ * 过期条目的清理和加载结果的写入都走异步命令，不会在客户端的回调线程上发起同步调用
+ * </p>
+ * <p>
+ * 配置了 {@link CacheConfig#getKeyEnumerator()} 时，读取先经过 {@link KeyFilter}：
+ * 确定不存在的键直接返回未命中，既不访问被保护的缓存，也不调用加载函数
+ * </p>
  *
  * @param <K> 键类型
  * @param <V> 值类型
@@ -32,11 +46,73 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
 
     private final Cache<K, V> delegate;
     private final CacheConfig config;
-    private final Map<K, Lock> locks = new ConcurrentHashMap<>();
+    private final SingleFlight<K> singleFlight;
+    private final AsyncCache<K, V> asyncView;
+    private final KeyFilter<K> keyFilter;
 
+    /**
+     * 使用进程级默认调度器构造
+     *
+     * @param delegate 被保护的缓存实例
+     * @param config   缓存配置
+     */
     public ProtectedCache(Cache<K, V> delegate, CacheConfig config) {
+        this(delegate, config, ExpirationScheduler.getDefault());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param delegate  被保护的缓存实例
+     * @param config    缓存配置
+     * @param scheduler 驱动键过滤器周期性重建的调度器
+     */
+    public ProtectedCache(Cache<K, V> delegate, CacheConfig config, ExpirationScheduler scheduler) {
         this.delegate = delegate;
         this.config = config;
+        this.singleFlight = new SingleFlight<>(config.getBreakdownLockTimeout());
+        this.asyncView = new ProtectedAsyncCache(delegate.async());
+        this.keyFilter = config.getKeyEnumerator() != null
+                ? new KeyFilter<>(config.getCacheName(), config, delegate.getStats(), scheduler) : null;
+    }
+
+    /**
+     * 获取被保护的缓存实例
+     *
+     * @return 被保护的缓存实例
+     */
+    public Cache<K, V> getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 获取键过滤器
+     *
+     * @return 键过滤器，未配置键枚举器时为null
+     */
+    public KeyFilter<K> getKeyFilter() {
+        return keyFilter;
+    }
+
+    /**
+     * 键过滤器判定键确定不存在
+     *
+     * @param key 缓存项的键
+     * @return 是否确定不存在
+     */
+    private boolean isDefinitelyAbsent(K key) {
+        return keyFilter != null && !keyFilter.mightContain(key);
+    }
+
+    /**
+     * 将写入的键加入键过滤器
+     *
+     * @param key 缓存项的键
+     */
+    private void admit(K key) {
+        if (keyFilter != null) {
+            keyFilter.add(key);
+        }
     }
 
     /**
@@ -47,26 +123,22 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
      */
     @Override
     public V get(K key) {
+        if (isDefinitelyAbsent(key)) {
+            return null;
+        }
         try {
-            // 缓存穿透保护
-            if (config.isEnableNullValueProtection()) {
-                Object value = delegate.get(key);
-                // 检查是否是空值标记
-                if (NullValueMarker.isNullValue(value)) {
-                    return null; // 返回实际的null值
-                }
+            Object value = delegate.get(key);
 
-                // 检查是否是过期值
-                return getV(key, value);
+            // 缓存击穿保护：未命中时先等待同一键正在进行的加载，再判断空值标记
+            if (value == null && config.isEnableBreakdownProtection()) {
+                return singleFlight.awaitIfLoading(key, () -> null);
             }
 
-            // 缓存击穿保护
-            if (config.isEnableBreakdownProtection()) {
-                return getWithBreakdownProtection(key);
+            // 缓存穿透保护：空值标记表示回源结果为null
+            if (config.isEnableNullValueProtection() && NullValueMarker.isNullValue(value)) {
+                return null;
             }
 
-            Object value = delegate.get(key);
-
             // 处理过期值
             return getV(key, value);
         } catch (Exception e) {
@@ -76,38 +148,17 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
     }
 
     /**
-     * 缓存击穿保护
+     * 执行回源加载，启用击穿保护时同一键的并发加载被合并为一次
      *
-     * @param key 缓存项的键
-     * @return 缓存项的值
+     * @param key  缓存项的键
+     * @param load 加载并写入缓存的操作
+     * @return 加载结果
      */
-    private V getWithBreakdownProtection(K key) {
-        Object value = delegate.get(key);
-
-        if (value == null) {
-            Lock lock = locks.computeIfAbsent(key, k -> new ReentrantLock());
-            try {
-                if (lock.tryLock(config.getBreakdownLockTimeout(), TimeUnit.MILLISECONDS)) {
-                    try {
-                        // 双重检查
-                        value = delegate.get(key);
-                        if (value == null) {
-                            // 这里需要与业务逻辑结合，暂时返回null
-                            return null;
-                        }
-                    } finally {
-                        lock.unlock();
-                    }
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                logger.warn("Thread interrupted while waiting for cache lock", e);
-                return null;
-            }
+    private V loadWithProtection(K key, Supplier<V> load) {
+        if (config.isEnableBreakdownProtection()) {
+            return singleFlight.load(key, load);
         }
-
-        // 处理过期值
-        return getV(key, value);
+        return load.get();
     }
 
     /**
@@ -119,6 +170,7 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
      */
     @Override
     public void put(K key, V value) {
+        admit(key);
         delegate.put(key, value);
     }
 
@@ -137,6 +189,7 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
         // 需要类型转换，因为 ExpiringValue<V> 被当作 V 存储
         @SuppressWarnings("unchecked")
         V expiringValueAsV = (V) expiringValue;
+        admit(key);
         delegate.put(key, expiringValueAsV);
     }
 
@@ -152,6 +205,7 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
         ExpiringValue<V> expiringValue = new ExpiringValue<>(value, expireTimestamp);
         @SuppressWarnings("unchecked")
         V expiringValueAsV = (V) expiringValue;
+        admit(key);
         delegate.put(key, expiringValueAsV);
     }
 
@@ -165,7 +219,7 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
     public Map<K, V> getAll(Set<? extends K> keys) {
         try {
             // 获取原始值（可能包含ExpiringValue包装器）
-            Map<K, V> rawValues = delegate.getAll(keys);
+            Map<K, V> rawValues = delegate.getAll(filterKeys(keys));
 
             // 创建结果映射
             Map<K, V> result = new HashMap<>(rawValues.size());
@@ -210,6 +264,9 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
      */
     @Override
     public void putAll(Map<? extends K, ? extends V> map) {
+        if (keyFilter != null) {
+            map.keySet().forEach(keyFilter::add);
+        }
         delegate.putAll(map);
     }
 
@@ -243,6 +300,9 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
      */
     @Override
     public boolean containsKey(K key) {
+        if (isDefinitelyAbsent(key)) {
+            return false;
+        }
         Object value = delegate.get(key);
 
         if (value instanceof ExpiringValue) {
@@ -320,6 +380,9 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
      */
     @Override
     public V getOrLoad(K key, Function<K, V> loader) {
+        if (isDefinitelyAbsent(key)) {
+            return null;
+        }
         try {
             V value = delegate.get(key);
 
@@ -341,17 +404,19 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
             }
 
             // 缓存未命中或已过期，加载新值
-            V result = loader.apply(key);
-
-            // 根据配置决定是否存储null值
-            if (result == null && config.isEnableNullValueProtection()) {
-                // 存储空值标记
-                delegate.put(key, (V) NullValueMarker.getInstance());
-            } else {
-                delegate.put(key, result);
-            }
+            return loadWithProtection(key, () -> {
+                V result = loader.apply(key);
 
-            return result;
+                // 根据配置决定是否存储null值
+                if (result == null && config.isEnableNullValueProtection()) {
+                    // 存储空值标记
+                    delegate.put(key, (V) NullValueMarker.getInstance());
+                } else {
+                    delegate.put(key, result);
+                }
+
+                return result;
+            });
         } catch (Exception e) {
             logger.warn("Error loading value for key: {}", key, e);
             return null;
@@ -369,6 +434,9 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
      */
     @Override
     public V getOrLoad(K key, Function<K, V> loader, long ttl, TimeUnit unit) {
+        if (isDefinitelyAbsent(key)) {
+            return null;
+        }
         try {
             Object value = delegate.get(key);
 
@@ -390,19 +458,21 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
             }
 
             // 缓存未命中或已过期，加载新值
-            V result = loader.apply(key);
-
-            // 存储带TTL的值
-            if (result == null && config.isEnableNullValueProtection()) {
-                // 存储带过期时间的空值标记
-                long expireTimestamp = System.currentTimeMillis() + config.getNullValueExpireTime();
-                ExpiringValue<Object> expiringNull = new ExpiringValue<>(NullValueMarker.getInstance(), expireTimestamp);
-                delegate.put(key, (V) expiringNull);
-            } else {
-                put(key, result, ttl, unit);
-            }
+            return loadWithProtection(key, () -> {
+                V result = loader.apply(key);
+
+                // 存储带TTL的值
+                if (result == null && config.isEnableNullValueProtection()) {
+                    // 存储带过期时间的空值标记
+                    long expireTimestamp = System.currentTimeMillis() + config.getNullValueExpireTime();
+                    ExpiringValue<Object> expiringNull = new ExpiringValue<>(NullValueMarker.getInstance(), expireTimestamp);
+                    delegate.put(key, (V) expiringNull);
+                } else {
+                    put(key, result, ttl, unit);
+                }
 
-            return result;
+                return result;
+            });
         } catch (Exception e) {
             logger.warn("Error loading value for key: {}", key, e);
             return null;
@@ -419,6 +489,9 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
      */
     @Override
     public V getOrLoadAtFixedTime(K key, Function<K, V> loader, long expireTimestamp) {
+        if (isDefinitelyAbsent(key)) {
+            return null;
+        }
         try {
             Object value = delegate.get(key);
 
@@ -453,20 +526,22 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
             }
 
             // 缓存未命中或已过期，加载新值
-            V result = loader.apply(key);
+            return loadWithProtection(key, () -> {
+                V result = loader.apply(key);
 
-            // 存储带绝对过期时间的值
-            if (result == null && config.isEnableNullValueProtection()) {
-                // 存储带过期时间的空值标记
-                ExpiringValue<Object> expiringNull = new ExpiringValue<>(NullValueMarker.getInstance(), expireTimestamp);
-                @SuppressWarnings("unchecked")
-                V expiringNullAsV = (V) expiringNull;
-                delegate.put(key, expiringNullAsV);
-            } else {
-                putAtFixedTime(key, result, expireTimestamp);
-            }
+                // 存储带绝对过期时间的值
+                if (result == null && config.isEnableNullValueProtection()) {
+                    // 存储带过期时间的空值标记
+                    ExpiringValue<Object> expiringNull = new ExpiringValue<>(NullValueMarker.getInstance(), expireTimestamp);
+                    @SuppressWarnings("unchecked")
+                    V expiringNullAsV = (V) expiringNull;
+                    delegate.put(key, expiringNullAsV);
+                } else {
+                    putAtFixedTime(key, result, expireTimestamp);
+                }
 
-            return result;
+                return result;
+            });
         } catch (Exception e) {
             logger.warn("Error loading value for key: {}", key, e);
             return null;
@@ -474,6 +549,28 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
     }
 
 
+    /**
+     * 批量获取或加载缓存值
+     *
+     * @param keys   缓存键集合
+     * @param loader 批量加载函数
+     * @return 键值对映射
+     */
+    @Override
+    public Map<K, V> getAllOrLoad(Set<? extends K> keys, Function<Set<K>, Map<K, V>> loader) {
+        return CacheUtils.getAllOrLoad(this, filterKeys(keys), loader, delegate.getStats());
+    }
+
+    /**
+     * 获取带保护机制的非阻塞视图
+     *
+     * @return 非阻塞视图
+     */
+    @Override
+    public AsyncCache<K, V> async() {
+        return asyncView;
+    }
+
     /**
      * 刷新缓存，根据配置决定是否清理过期的缓存项
      */
@@ -487,6 +584,9 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
      */
     @Override
     public void close() {
+        if (keyFilter != null) {
+            keyFilter.close();
+        }
         delegate.close();
     }
 
@@ -498,6 +598,25 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
         delegate.cleanUp();
     }
 
+    /**
+     * 去掉键过滤器判定确定不存在的键
+     *
+     * @param keys 缓存项的键集合
+     * @return 可能存在的键集合
+     */
+    private Set<? extends K> filterKeys(Set<? extends K> keys) {
+        if (keyFilter == null) {
+            return keys;
+        }
+        Set<K> candidates = new HashSet<>(keys.size());
+        for (K key : keys) {
+            if (keyFilter.mightContain(key)) {
+                candidates.add(key);
+            }
+        }
+        return candidates;
+    }
+
     /**
      * 处理过期值
      *
@@ -545,4 +664,112 @@ public class ProtectedCache<K, V> implements Cache<K, V> {
         }
     }
 
+    /**
+     * 带保护机制的非阻塞视图
+     */
+    private final class ProtectedAsyncCache implements AsyncCache<K, V> {
+        private final AsyncCache<K, V> delegateAsync;
+
+        ProtectedAsyncCache(AsyncCache<K, V> delegateAsync) {
+            this.delegateAsync = delegateAsync;
+        }
+
+        @Override
+        public CompletableFuture<V> getAsync(K key) {
+            if (isDefinitelyAbsent(key)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return delegateAsync.getAsync(key).thenApply(value -> isLive(key, value) ? unwrap(value) : null);
+        }
+
+        @Override
+        public CompletableFuture<Void> putAsync(K key, V value) {
+            admit(key);
+            return delegateAsync.putAsync(key, value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public CompletableFuture<Void> putAsync(K key, V value, long ttl, TimeUnit unit) {
+            long expireTimestamp = System.currentTimeMillis() + unit.toMillis(ttl);
+            admit(key);
+            return delegateAsync.putAsync(key, (V) new ExpiringValue<>(value, expireTimestamp));
+        }
+
+        @Override
+        public CompletableFuture<Boolean> removeAsync(K key) {
+            return delegateAsync.removeAsync(key);
+        }
+
+        @Override
+        public CompletableFuture<Map<K, V>> getAllAsync(Set<? extends K> keys) {
+            return delegateAsync.getAllAsync(filterKeys(keys)).thenApply(rawValues -> {
+                Map<K, V> result = new HashMap<>(rawValues.size());
+                for (Map.Entry<K, V> entry : rawValues.entrySet()) {
+                    if (isLive(entry.getKey(), entry.getValue())) {
+                        V value = unwrap(entry.getValue());
+                        if (value != null) {
+                            result.put(entry.getKey(), value);
+                        }
+                    }
+                }
+                return result;
+            });
+        }
+
+        @Override
+        public CompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> map) {
+            if (keyFilter != null) {
+                map.keySet().forEach(keyFilter::add);
+            }
+            return delegateAsync.putAllAsync(map);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public CompletableFuture<V> getOrLoadAsync(K key, Function<K, CompletableFuture<V>> loader) {
+            if (isDefinitelyAbsent(key)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return delegateAsync.getAsync(key).thenCompose(value -> {
+                if (isLive(key, value)) {
+                    return CompletableFuture.completedFuture(unwrap(value));
+                }
+                Supplier<CompletableFuture<V>> load = () -> CacheUtils.loadAsync(loader, key).thenCompose(result -> {
+                    CompletableFuture<Void> written;
+                    if (result != null) {
+                        written = delegateAsync.putAsync(key, result);
+                    } else if (config.isEnableNullValueProtection()) {
+                        long expireTimestamp = System.currentTimeMillis() + config.getNullValueExpireTime();
+                        written = delegateAsync.putAsync(key,
+                                (V) new ExpiringValue<>(NullValueMarker.getInstance(), expireTimestamp));
+                    } else {
+                        written = CompletableFuture.completedFuture(null);
+                    }
+                    return written.thenApply(ignored -> result);
+                });
+                return config.isEnableBreakdownProtection() ? singleFlight.loadAsync(key, load) : load.get();
+            });
+        }
+
+        /**
+         * 判断读取到的原始值是否仍然有效，过期的包装值被异步清理
+         */
+        private boolean isLive(K key, Object value) {
+            if (value instanceof ExpiringValue && ((ExpiringValue<?>) value).isExpired()) {
+                delegateAsync.removeAsync(key);
+                return false;
+            }
+            return value != null;
+        }
+
+        /**
+         * 解包有效的原始值，空值标记返回null
+         */
+        @SuppressWarnings("unchecked")
+        private V unwrap(Object value) {
+            Object unwrapped = value instanceof ExpiringValue ? ((ExpiringValue<?>) value).getValue() : value;
+            return NullValueMarker.isNullValue(unwrapped) ? null : (V) unwrapped;
+        }
+    }
 }
@@ -0,0 +1,337 @@
+package org.im.cache.support;
+
+import org.im.cache.config.CacheConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 提前刷新（refresh-ahead / stale-while-revalidate）支持
+ * <p>
+ * 记录通过 getOrLoad 加载的键及其加载函数和写回方式。条目写入超过
+ * {@link CacheConfig#getRefreshAfterWrite()} 后，读取仍立即返回旧值，同时把该键提交到
+ * 所有缓存共享的后台加载线程池重新加载，同一个键同一时刻只有一个刷新任务。
+ * {@link #refreshAll(Predicate)} 按 {@link CacheConfig#getRefreshParallelism()} 分批并行重新加载全部存活的键。
+ * </p>
+ * <p>
+ * 后台线程池有界，队列已满时放弃本次刷新，旧值仍可用，下一次读取会再次触发；
+ * 加载失败时同样保留旧值，并在下一个刷新周期之后再重试。
+ * </p>
+ * <p>
+ * 每个登记持有加载函数和写回操作，只在需要时登记：启用了 refreshAfterWrite，
+ * 或者调用过 {@link #refreshAll(Predicate)}（首次调用之前加载的键不在其范围内）。两者都没有时 {@link #register} 直接返回。
+ * </p>
+ * <p>
+ * 登记数有上限（配置了 maximumSize 时取该值，否则取 {@link #DEFAULT_MAX_REGISTRATIONS}）。
+ * 远程缓存的条目由服务端过期，不会回调取消登记，超出上限时在后台线程池上淘汰最近读写时间最早的登记：
+ * 抽样估计淘汰的时间分界，再遍历一次删除分界之前的登记，不复制、不排序全部登记，也不占用加载线程；
+ * {@link #refreshAll(Predicate)} 同时取消已不存在的键的登记。
+ * </p>
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/12
+ */
+public class RefreshAheadSupport<K, V> {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshAheadSupport.class);
+
+    /**
+     * 未配置 maximumSize 时的登记数上限
+     */
+    public static final int DEFAULT_MAX_REGISTRATIONS = 100_000;
+
+    /**
+     * 淘汰登记时估计时间分界的抽样数
+     */
+    private static final int TRIM_SAMPLE_SIZE = 1024;
+
+    private final long refreshAfterWriteMillis;
+    private final int parallelism;
+    private final int maxRegistrations;
+    private final ConcurrentMap<K, Registration<K, V>> registrations = new ConcurrentHashMap<>();
+    private final Set<K> refreshing = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+
+    /**
+     * 是否调用过 {@link #refreshAll(Predicate)}，调用过之后未启用自动刷新也需要登记
+     */
+    private volatile boolean refreshRequested;
+
+    /**
+     * 构造函数
+     *
+     * @param config 缓存配置
+     */
+    public RefreshAheadSupport(CacheConfig config) {
+        this.refreshAfterWriteMillis = config.getRefreshAfterWrite();
+        this.parallelism = Math.max(1, config.getRefreshParallelism());
+        this.maxRegistrations = config.getMaximumSize() > 0 ? config.getMaximumSize() : DEFAULT_MAX_REGISTRATIONS;
+    }
+
+    /**
+     * 是否启用了写入后自动刷新
+     *
+     * @return 启用返回true
+     */
+    public boolean isEnabled() {
+        return refreshAfterWriteMillis > 0;
+    }
+
+    /**
+     * 登记键的加载方式，在 getOrLoad 加载并写入成功后调用；未启用自动刷新且从未调用 {@link #refreshAll} 时不登记
+     *
+     * @param key    键
+     * @param loader 加载函数
+     * @param writer 加载结果的写回操作
+     */
+    public void register(K key, Function<K, V> loader, Consumer<V> writer) {
+        if (!isEnabled() && !refreshRequested) {
+            return;
+        }
+        if (registrations.put(key, new Registration<>(loader, writer)) == null
+                && registrations.size() > maxRegistrations) {
+            trim();
+        }
+    }
+
+    /**
+     * 登记数超过上限时在后台淘汰，同一时刻只有一个淘汰任务；线程池饱和时放弃，下一次新增登记再触发
+     */
+    private void trim() {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            RefreshPool.INSTANCE.execute(this::evictLeastRecentlyUsed);
+        } catch (RejectedExecutionException e) {
+            trimming.set(false);
+        }
+    }
+
+    /**
+     * 淘汰最久未读写的登记，一次淘汰到上限的九成
+     */
+    void evictLeastRecentlyUsed() {
+        try {
+            int size = registrations.size();
+            int excess = size - maxRegistrations + maxRegistrations / 10;
+            if (excess <= 0) {
+                return;
+            }
+            long[] sample = new long[Math.min(size, TRIM_SAMPLE_SIZE)];
+            int sampled = 0;
+            for (Registration<K, V> registration : registrations.values()) {
+                if (sampled == sample.length) {
+                    break;
+                }
+                sample[sampled++] = registration.lastUsed();
+            }
+            if (sampled == 0) {
+                return;
+            }
+            Arrays.sort(sample, 0, sampled);
+            long cutoff = sample[(int) Math.min(sampled - 1, (long) sampled * excess / size)];
+            int removed = 0;
+            Iterator<Registration<K, V>> it = registrations.values().iterator();
+            while (removed < excess && it.hasNext()) {
+                if (it.next().lastUsed() <= cutoff) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        } finally {
+            trimming.set(false);
+        }
+        // 淘汰期间新增的登记不会再触发淘汰，仍超出上限时再来一轮
+        if (registrations.size() > maxRegistrations) {
+            trim();
+        }
+    }
+
+    /**
+     * 获取当前登记数
+     *
+     * @return 登记数
+     */
+    public int size() {
+        return registrations.size();
+    }
+
+    /**
+     * 记录一次写入，重置键的刷新计时
+     *
+     * @param key 键
+     */
+    public void recordWrite(K key) {
+        Registration<K, V> registration = registrations.get(key);
+        if (registration != null) {
+            registration.writeTime = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 取消键的登记，在键被删除、淘汰或过期时调用
+     *
+     * @param key 键
+     */
+    public void unregister(K key) {
+        registrations.remove(key);
+    }
+
+    /**
+     * 取消所有登记
+     */
+    public void clear() {
+        registrations.clear();
+    }
+
+    /**
+     * 记录一次读命中，值已超过刷新时间时在后台重新加载，本次读取不等待
+     *
+     * @param key 键
+     */
+    public void onRead(K key) {
+        if (!isEnabled()) {
+            return;
+        }
+        Registration<K, V> registration = registrations.get(key);
+        if (registration != null) {
+            registration.readTime = System.currentTimeMillis();
+        }
+        if (registration == null
+                || System.currentTimeMillis() - registration.writeTime < refreshAfterWriteMillis
+                || !refreshing.add(key)) {
+            return;
+        }
+        try {
+            RefreshPool.INSTANCE.execute(() -> reload(key, registration));
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            logger.debug("Refresh pool saturated, skip refreshing key: {}", key);
+        }
+    }
+
+    /**
+     * 按并行度分批重新加载所有存活的键，阻塞直到全部完成
+     *
+     * @param isLive 判断键是否仍在缓存中，不在的键会被取消登记而不是重新加载
+     * @return 重新加载的键数量
+     */
+    public int refreshAll(Predicate<K> isLive) {
+        refreshRequested = true;
+        AtomicInteger refreshed = new AtomicInteger();
+        List<CompletableFuture<Void>> batch = new ArrayList<>(parallelism);
+        for (Map.Entry<K, Registration<K, V>> entry : registrations.entrySet()) {
+            K key = entry.getKey();
+            if (!isLive.test(key)) {
+                registrations.remove(key, entry.getValue());
+                continue;
+            }
+            if (!refreshing.add(key)) {
+                continue;
+            }
+            batch.add(submit(() -> {
+                if (reload(key, entry.getValue())) {
+                    refreshed.incrementAndGet();
+                }
+            }));
+            if (batch.size() >= parallelism) {
+                CompletableFuture.allOf(batch.toArray(new CompletableFuture[0])).join();
+                batch.clear();
+            }
+        }
+        CompletableFuture.allOf(batch.toArray(new CompletableFuture[0])).join();
+        return refreshed.get();
+    }
+
+    /**
+     * 提交到后台线程池，线程池饱和时在调用线程执行
+     */
+    private CompletableFuture<Void> submit(Runnable task) {
+        try {
+            return CompletableFuture.runAsync(task, RefreshPool.INSTANCE);
+        } catch (RejectedExecutionException e) {
+            task.run();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * 重新加载并写回，调用前需已将键加入 refreshing
+     *
+     * @return 加载成功返回true
+     */
+    private boolean reload(K key, Registration<K, V> registration) {
+        try {
+            V value = registration.loader.apply(key);
+            if (value != null) {
+                registration.writer.accept(value);
+            }
+            registration.writeTime = System.currentTimeMillis();
+            return true;
+        } catch (Exception e) {
+            // 保留旧值，推迟到下一个刷新周期再重试
+            registration.writeTime = System.currentTimeMillis();
+            logger.warn("Failed to refresh value for key: {}", key, e);
+            return false;
+        } finally {
+            refreshing.remove(key);
+        }
+    }
+
+    private static final class Registration<K, V> {
+        final Function<K, V> loader;
+        final Consumer<V> writer;
+        volatile long writeTime = System.currentTimeMillis();
+        volatile long readTime;
+
+        Registration(Function<K, V> loader, Consumer<V> writer) {
+            this.loader = loader;
+            this.writer = writer;
+        }
+
+        long lastUsed() {
+            return Math.max(writeTime, readTime);
+        }
+    }
+
+    /**
+     * 所有缓存共享的有界后台加载线程池
+     */
+    private static final class RefreshPool {
+        static final ThreadPoolExecutor INSTANCE = create();
+
+        private static ThreadPoolExecutor create() {
+            int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+            AtomicInteger index = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(1024), r -> {
+                Thread thread = new Thread(r, "cache-refresh-" + index.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
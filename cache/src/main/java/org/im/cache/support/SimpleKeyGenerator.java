@@ -8,7 +8,7 @@ import java.util.Arrays;
 /**
  * 简单键生成器实现
  * <p>
- * 基于类名、方法名和参数生成缓存键
+ * 基于类名、方法名和参数生成缓存键：无参数时为方法名，单个非空参数时为参数本身，其余情况为 {@link SimpleKey}
  *
  * @author gaozhilin
  * @email gaoolin@gmail.com
@@ -35,7 +35,8 @@ public class SimpleKeyGenerator implements CacheKeyGenerator {
         if (params.length == 1 && params[0] != null) {
             return params[0];
         }
-        return Arrays.hashCode(params);
+        // 多个参数按内容比较，避免以哈希值作键时不同参数发生冲突
+        return new SimpleKey(params);
     }
 
     /**
@@ -0,0 +1,179 @@
+package org.im.cache.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 按键合并并发加载（single-flight）
+ * <p>
+ * 同一个键同一时刻只有一个加载在执行：第一个未命中的线程成为加载者并在自身线程中执行加载函数，
+ * 其余线程等待同一个结果，加载结束（成功或失败）后立即从在途表中移除，不会残留按键分配的锁对象。
+ * 等待者最多等待配置的超时时间，超时后抛出异常而不是各自重复加载，避免缓存击穿时压垮数据源。
+ * </p>
+ * <p>
+ * {@link #loadAsync(Object, Supplier)} 是非阻塞版本：并发调用者直接拿到同一个在途的 future，不占用线程等待。
+ * </p>
+ *
+ * @param <K> 键类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/12
+ */
+public class SingleFlight<K> {
+
+    private final ConcurrentMap<K, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<K, CompletableFuture<Object>> asyncInFlight = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    /**
+     * 构造函数
+     *
+     * @param timeoutMillis 等待在途加载的超时时间（毫秒），小于等于0表示不限时
+     */
+    public SingleFlight(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 执行加载，同一键的并发调用共享同一次加载结果
+     *
+     * @param key    键
+     * @param loader 加载函数
+     * @param <V>    值类型
+     * @return 加载结果
+     * @throws IllegalStateException 加载函数中递归加载同一个键时抛出
+     * @throws RuntimeException      加载失败或等待超时时抛出
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V load(K key, Supplier<V> loader) {
+        InFlight call = new InFlight(Thread.currentThread());
+        InFlight existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            if (existing.owner == Thread.currentThread()) {
+                throw new IllegalStateException("Recursive load detected for key: " + key);
+            }
+            return (V) await(key, existing);
+        }
+
+        try {
+            V value = loader.get();
+            call.future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * 执行异步加载，同一键的并发调用共享同一个加载结果
+     * <p>
+     * 加载函数在第一个调用者的线程中被调用，返回的 future 完成（成功或失败）后从在途表中移除
+     * </p>
+     *
+     * @param key    键
+     * @param loader 异步加载函数
+     * @param <V>    值类型
+     * @return 加载结果的 future
+     */
+    @SuppressWarnings("unchecked")
+    public <V> CompletableFuture<V> loadAsync(K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> existing = asyncInFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return (CompletableFuture<V>) existing;
+        }
+
+        CompletableFuture<V> loading;
+        try {
+            loading = loader.get();
+        } catch (RuntimeException | Error e) {
+            loading = new CompletableFuture<>();
+            loading.completeExceptionally(e);
+        }
+        loading.whenComplete((value, e) -> {
+            asyncInFlight.remove(key, call);
+            if (e != null) {
+                call.completeExceptionally(e);
+            } else {
+                call.complete(value);
+            }
+        });
+        return (CompletableFuture<V>) call;
+    }
+
+    /**
+     * 若该键有在途加载则等待其结果，否则返回备选值
+     *
+     * @param key      键
+     * @param fallback 无在途加载时的备选值
+     * @param <V>      值类型
+     * @return 在途加载结果或备选值
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V awaitIfLoading(K key, Supplier<V> fallback) {
+        InFlight existing = inFlight.get(key);
+        if (existing == null || existing.owner == Thread.currentThread()) {
+            return fallback.get();
+        }
+        return (V) await(key, existing);
+    }
+
+    /**
+     * 判断键是否有在途加载
+     *
+     * @param key 键
+     * @return 有在途加载返回true
+     */
+    public boolean isLoading(K key) {
+        return inFlight.containsKey(key) || asyncInFlight.containsKey(key);
+    }
+
+    /**
+     * 获取当前在途加载数量
+     *
+     * @return 在途加载数量
+     */
+    public int inFlightCount() {
+        return inFlight.size() + asyncInFlight.size();
+    }
+
+    private Object await(K key, InFlight call) {
+        try {
+            if (timeoutMillis > 0) {
+                return call.future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+            return call.future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Failed to load value for key: " + key, cause);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out after " + timeoutMillis + "ms waiting for in-flight load of key: " + key, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for in-flight load of key: " + key, e);
+        }
+    }
+
+    private static final class InFlight {
+        final Thread owner;
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        InFlight(Thread owner) {
+            this.owner = owner;
+        }
+    }
+}
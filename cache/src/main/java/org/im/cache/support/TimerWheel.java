@@ -0,0 +1,154 @@
+package org.im.cache.support;
+
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮
+ * <p>
+ * 共 4 层、每层 64 个槽，第 0 层每槽一个 tick，上层每槽覆盖下层一整圈。
+ * 定时任务按到期 tick 与当前 tick 的距离放入对应层的槽中，
+ * 时间推进时只处理当前到期的槽，上层槽在轮到时整体下沉到下层，
+ * 因此插入与每个 tick 的处理成本都只与实际到期的任务数有关。
+ * </p>
+ * <p>
+ * 超出最高层范围的任务先放在最高层，下沉时按真实到期时间重新定位。
+ * 非线程安全，由 {@link ExpirationScheduler} 的调度线程独占访问。
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/11
+ */
+class TimerWheel {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /**
+     * 时间轮可直接定位的最大 tick 距离
+     */
+    private static final long MAX_SPAN = 1L << (BITS * LEVELS);
+
+    private final long tickMillis;
+    private final Node[][] slots = new Node[LEVELS][SLOTS];
+    private long currentTick;
+    private int size;
+
+    /**
+     * 构造函数
+     *
+     * @param tickMillis 每个 tick 的毫秒数
+     * @param nowMillis  当前时间戳（毫秒）
+     */
+    TimerWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * 添加定时任务，已到期的任务在下一个 tick 执行
+     *
+     * @param expireTimestamp 到期时间戳（毫秒）
+     * @param task            到期任务
+     */
+    void schedule(long expireTimestamp, Runnable task) {
+        long expireTick = expireTimestamp >= Long.MAX_VALUE - tickMillis
+                ? Long.MAX_VALUE : (expireTimestamp + tickMillis - 1) / tickMillis;
+        insert(new Node(expireTick, task), 1);
+        size++;
+    }
+
+    /**
+     * 推进时间轮到指定时间，执行期间到期的所有任务
+     *
+     * @param nowMillis 当前时间戳（毫秒）
+     * @param executor  任务执行器
+     */
+    void advance(long nowMillis, Consumer<Runnable> executor) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((currentTick >>> (BITS * level)) & MASK));
+                }
+            }
+            Node node = detach(0, (int) (currentTick & MASK));
+            while (node != null) {
+                Node next = node.next;
+                node.next = null;
+                if (node.expireTick <= currentTick) {
+                    size--;
+                    executor.accept(node.task);
+                } else {
+                    insert(node, 1);
+                }
+                node = next;
+            }
+        }
+    }
+
+    /**
+     * 获取尚未到期的任务数量
+     *
+     * @return 任务数量
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * 将上层槽中的任务按剩余时间重新放入下层
+     */
+    private void cascade(int level, int index) {
+        Node node = detach(level, index);
+        while (node != null) {
+            Node next = node.next;
+            node.next = null;
+            insert(node, 0);
+            node = next;
+        }
+    }
+
+    /**
+     * 按到期 tick 将任务放入对应层的槽中
+     *
+     * @param node     任务节点
+     * @param minDelta 与当前 tick 的最小距离，外部插入为 1（当前槽已处理过），下沉时为 0
+     */
+    private void insert(Node node, long minDelta) {
+        long delta = node.expireTick - currentTick;
+        if (delta < minDelta) {
+            delta = minDelta;
+        } else if (delta >= MAX_SPAN) {
+            delta = MAX_SPAN - 1;
+        }
+        long target = currentTick + delta;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (BITS * (level + 1)))) {
+            level++;
+        }
+        int index = (int) ((target >>> (BITS * level)) & MASK);
+        node.next = slots[level][index];
+        slots[level][index] = node;
+    }
+
+    private Node detach(int level, int index) {
+        Node head = slots[level][index];
+        slots[level][index] = null;
+        return head;
+    }
+
+    private static final class Node {
+        final long expireTick;
+        final Runnable task;
+        Node next;
+
+        Node(long expireTick, Runnable task) {
+            this.expireTick = expireTick;
+            this.task = task;
+        }
+    }
+}
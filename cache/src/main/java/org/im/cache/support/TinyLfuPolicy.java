@@ -0,0 +1,493 @@
+package org.im.cache.support;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * W-TinyLFU 淘汰策略
+ * <p>
+ * 维护与缓存存储分离的淘汰顺序：新写入的键先进入约占容量 1% 的窗口 LRU，
+ * 从窗口溢出的候选键只有在访问频率高于主区淘汰对象时才被接纳，
+ * 主区为分段 LRU（试用段 20% + 保护段 80%），在试用段中再次被访问的键晋升到保护段。
+ * </p>
+ * <p>
+ * 读写操作不直接修改策略结构，而是先记录到缓冲区：读缓冲区有界且允许丢弃，
+ * 写缓冲区保证不丢失；缓冲区在获取到锁的线程中批量回放，
+ * 因此每次缓存操作的维护成本是 O(1) 均摊的，且读路径不会因为锁竞争而阻塞。
+ * </p>
+ * <p>
+ * 需要淘汰的键通过构造时传入的回调通知缓存，由缓存从存储中删除。
+ * </p>
+ * <p>
+ * 写入和删除记录在存储修改之后才进入缓冲区，同一个键的并发写入与删除可能以与存储相反的顺序回放。
+ * 构造时传入存储的存在性判断后，回放时以存储的当前状态为准：键仍在存储中时忽略删除记录，
+ * 键已不在存储中时写入记录按删除处理，策略跟踪的键因此始终与存储一致，不会有条目逃出容量限制。
+ * </p>
+ * <p>
+ * 写入时可以指定条目权重，容量与各区大小均按权重之和计算；不指定时每个条目权重为 1，即按条目数淘汰。
+ * 容量可通过 {@link #setMaximum(long)} 在运行时调整，供缓存管理器在多个缓存间分配内存预算。
+ * </p>
+ *
+ * @param <K> 键类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/10
+ */
+public class TinyLfuPolicy<K> {
+
+    /**
+     * 读缓冲区容量，溢出时丢弃读记录
+     */
+    private static final int READ_BUFFER_SIZE = 128;
+
+    /**
+     * 积压的写记录超过该数量时写线程阻塞等待回放，避免存储无限超出容量
+     */
+    private static final int WRITE_BUFFER_THRESHOLD = 64;
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    /**
+     * 写记录的权重取该值时表示删除
+     */
+    private static final int REMOVAL = -1;
+
+    private volatile long maximum;
+    private long maxWindow;
+    private long maxProtected;
+    private long weightedSize;
+    private final Consumer<K> evictionListener;
+    private final Predicate<K> liveness;
+
+    private final FrequencySketch<K> sketch;
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    private final AccessOrderQueue<K> window = new AccessOrderQueue<>();
+    private final AccessOrderQueue<K> probation = new AccessOrderQueue<>();
+    private final AccessOrderQueue<K> protectedQueue = new AccessOrderQueue<>();
+
+    private final Queue<K> readBuffer = new ArrayBlockingQueue<>(READ_BUFFER_SIZE);
+    private final Queue<WriteTask<K>> writeBuffer = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 构造函数
+     *
+     * @param maximumSize      最大条目数
+     * @param evictionListener 淘汰回调，参数为被淘汰的键
+     */
+    public TinyLfuPolicy(long maximumSize, Consumer<K> evictionListener) {
+        this(maximumSize, maximumSize, evictionListener, null);
+    }
+
+    /**
+     * 构造函数，按权重淘汰
+     *
+     * @param maximumWeight    最大权重之和
+     * @param expectedEntries  预计条目数，用于确定频率草图的初始大小，条目数超出后草图随之扩容
+     * @param evictionListener 淘汰回调，参数为被淘汰的键
+     */
+    public TinyLfuPolicy(long maximumWeight, long expectedEntries, Consumer<K> evictionListener) {
+        this(maximumWeight, expectedEntries, evictionListener, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param maximumWeight    最大权重之和，不指定权重时即最大条目数
+     * @param expectedEntries  预计条目数，用于确定频率草图的初始大小，条目数超出后草图随之扩容
+     * @param evictionListener 淘汰回调，参数为被淘汰的键
+     * @param liveness         判断键当前是否在存储中，回放时用于纠正乱序的写入与删除记录，可为null
+     */
+    public TinyLfuPolicy(long maximumWeight, long expectedEntries, Consumer<K> evictionListener,
+                         Predicate<K> liveness) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximumWeight must be positive");
+        }
+        this.evictionListener = evictionListener;
+        this.liveness = liveness;
+        this.sketch = new FrequencySketch<>(expectedEntries);
+        resize(maximumWeight);
+    }
+
+    /**
+     * 记录一次读命中
+     *
+     * @param key 键
+     */
+    public void recordAccess(K key) {
+        if (!readBuffer.offer(key)) {
+            // 读缓冲区已满，直接尝试回放，丢弃本次读记录
+            tryDrain();
+            return;
+        }
+        if (readBuffer.size() >= READ_BUFFER_SIZE / 2) {
+            tryDrain();
+        }
+    }
+
+    /**
+     * 记录一次写入（新增或覆盖）
+     *
+     * @param key 键
+     */
+    public void recordWrite(K key) {
+        recordWrite(key, 1);
+    }
+
+    /**
+     * 记录一次带权重的写入（新增或覆盖）
+     *
+     * @param key    键
+     * @param weight 条目权重，不能为负数
+     */
+    public void recordWrite(K key, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        }
+        writeBuffer.offer(new WriteTask<>(key, weight));
+        afterWrite();
+    }
+
+    /**
+     * 记录一次删除（显式删除或过期）
+     *
+     * @param key 键
+     */
+    public void recordRemoval(K key) {
+        writeBuffer.offer(new WriteTask<>(key, REMOVAL));
+        afterWrite();
+    }
+
+    /**
+     * 清空策略状态
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            readBuffer.clear();
+            writeBuffer.clear();
+            nodes.clear();
+            window.clear();
+            probation.clear();
+            protectedQueue.clear();
+            sketch.clear();
+            weightedSize = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取策略当前跟踪的键数量
+     *
+     * @return 键数量
+     */
+    public int size() {
+        lock.lock();
+        try {
+            drainBuffers();
+            return nodes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取策略当前跟踪的权重之和
+     *
+     * @return 权重之和，未指定权重时即为条目数
+     */
+    public long getWeightedSize() {
+        lock.lock();
+        try {
+            drainBuffers();
+            return weightedSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取容量
+     *
+     * @return 最大权重之和
+     */
+    public long getMaximum() {
+        return maximum;
+    }
+
+    /**
+     * 调整容量，缩小时立即淘汰超出的条目
+     *
+     * @param maximum 最大权重之和
+     */
+    public void setMaximum(long maximum) {
+        if (maximum <= 0) {
+            throw new IllegalArgumentException("maximum must be positive");
+        }
+        lock.lock();
+        try {
+            resize(maximum);
+            drainBuffers();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resize(long maximum) {
+        this.maximum = maximum;
+        this.maxWindow = Math.max(1, maximum / 100);
+        this.maxProtected = (long) ((maximum - maxWindow) * 0.8);
+    }
+
+    // ==================== 缓冲区回放 ====================
+
+    private void afterWrite() {
+        if (writeBuffer.size() > WRITE_BUFFER_THRESHOLD) {
+            lock.lock();
+            try {
+                drainBuffers();
+            } finally {
+                lock.unlock();
+            }
+        }
+        tryDrain();
+    }
+
+    /**
+     * 尝试获取锁回放缓冲区；释放锁后若仍有写记录积压则继续回放，防止记录滞留
+     */
+    private void tryDrain() {
+        do {
+            if (!lock.tryLock()) {
+                return;
+            }
+            try {
+                drainBuffers();
+            } finally {
+                lock.unlock();
+            }
+        } while (!writeBuffer.isEmpty());
+    }
+
+    private void drainBuffers() {
+        K key;
+        while ((key = readBuffer.poll()) != null) {
+            onAccess(key);
+        }
+        WriteTask<K> task;
+        while ((task = writeBuffer.poll()) != null) {
+            if (task.weight != REMOVAL) {
+                if (liveness == null || liveness.test(task.key)) {
+                    onWrite(task.key, task.weight);
+                } else {
+                    // 写入之后键已被删除，删除记录可能先于本记录回放
+                    onRemove(task.key);
+                }
+            } else if (liveness == null || !liveness.test(task.key)) {
+                onRemove(task.key);
+            }
+        }
+        evict();
+    }
+
+    // ==================== 策略结构维护（需持有锁） ====================
+
+    private void onAccess(K key) {
+        Node<K> node = nodes.get(key);
+        if (node == null) {
+            return;
+        }
+        sketch.increment(key);
+        if (node.segment == WINDOW) {
+            window.moveToBack(node);
+        } else if (node.segment == PROBATION) {
+            probation.remove(node);
+            node.segment = PROTECTED;
+            protectedQueue.addLast(node);
+            demoteProtected();
+        } else {
+            protectedQueue.moveToBack(node);
+        }
+    }
+
+    private void onWrite(K key, int weight) {
+        Node<K> existing = nodes.get(key);
+        if (existing != null) {
+            int delta = weight - existing.weight;
+            existing.weight = weight;
+            queueOf(existing).size += delta;
+            weightedSize += delta;
+            onAccess(key);
+            return;
+        }
+        sketch.increment(key);
+        Node<K> node = new Node<>(key, weight);
+        node.segment = WINDOW;
+        nodes.put(key, node);
+        window.addLast(node);
+        weightedSize += weight;
+        if (nodes.size() > sketch.capacity()) {
+            sketch.ensureCapacity(2L * nodes.size());
+        }
+    }
+
+    private void onRemove(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node != null) {
+            queueOf(node).remove(node);
+            weightedSize -= node.weight;
+        }
+    }
+
+    /**
+     * 保护段超出容量时将最久未访问的键降级到试用段
+     */
+    private void demoteProtected() {
+        while (protectedQueue.size > maxProtected) {
+            Node<K> demoted = protectedQueue.pollFirst();
+            demoted.segment = PROBATION;
+            probation.addLast(demoted);
+        }
+    }
+
+    /**
+     * 将窗口溢出的候选键与主区淘汰对象按频率比较，并淘汰超出容量的键
+     */
+    private void evict() {
+        while (window.size > maxWindow) {
+            Node<K> candidate = window.pollFirst();
+            if (weightedSize <= maximum) {
+                candidate.segment = PROBATION;
+                probation.addLast(candidate);
+                continue;
+            }
+            Node<K> victim = probation.peekFirst() != null ? probation.peekFirst() : protectedQueue.peekFirst();
+            if (victim == null || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                evictNode(candidate);
+            } else {
+                queueOf(victim).remove(victim);
+                evictNode(victim);
+                candidate.segment = PROBATION;
+                probation.addLast(candidate);
+            }
+        }
+        while (weightedSize > maximum) {
+            Node<K> victim = probation.peekFirst();
+            if (victim == null) {
+                victim = protectedQueue.peekFirst();
+            }
+            if (victim == null) {
+                victim = window.peekFirst();
+            }
+            queueOf(victim).remove(victim);
+            evictNode(victim);
+        }
+    }
+
+    private void evictNode(Node<K> node) {
+        nodes.remove(node.key);
+        weightedSize -= node.weight;
+        evictionListener.accept(node.key);
+    }
+
+    private AccessOrderQueue<K> queueOf(Node<K> node) {
+        if (node.segment == WINDOW) {
+            return window;
+        }
+        return node.segment == PROBATION ? probation : protectedQueue;
+    }
+
+    private static final class WriteTask<K> {
+        final K key;
+        final int weight;
+
+        WriteTask(K key, int weight) {
+            this.key = key;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Node<K> {
+        final K key;
+        int weight;
+        int segment;
+        Node<K> prev;
+        Node<K> next;
+
+        Node(K key, int weight) {
+            this.key = key;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 侵入式双向链表，队首为最久未访问的节点，size 为节点权重之和
+     */
+    private static final class AccessOrderQueue<K> {
+        Node<K> head;
+        Node<K> tail;
+        long size;
+
+        void addLast(Node<K> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size += node.weight;
+        }
+
+        Node<K> peekFirst() {
+            return head;
+        }
+
+        Node<K> pollFirst() {
+            Node<K> node = head;
+            if (node != null) {
+                remove(node);
+            }
+            return node;
+        }
+
+        void remove(Node<K> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size -= node.weight;
+        }
+
+        void moveToBack(Node<K> node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+            size = 0;
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package org.im.cache.util;
 
 import org.im.cache.core.Cache;
+import org.im.cache.core.Weigher;
+import org.im.cache.stats.CacheStats;
+import org.im.cache.support.ExpiringValue;
 import org.im.cache.support.NullValueMarker;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 /**
@@ -55,6 +62,28 @@ public class CacheUtils {
         return value;
     }
 
+    /**
+     * 计算条目权重
+     * <p>
+     * 存储中的值可能被过期值包装器（如 ProtectedCache 写入的）包裹，按其中的实际值计算；空值权重为 1
+     * </p>
+     *
+     * @param weigher 权重计算器
+     * @param key     缓存键
+     * @param value   存储中的值
+     * @param <K>     键类型
+     * @param <V>     值类型
+     * @return 条目权重
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> int weigh(Weigher<K, V> weigher, K key, Object value) {
+        Object unwrapped = value;
+        while (unwrapped instanceof ExpiringValue) {
+            unwrapped = ((ExpiringValue<?>) unwrapped).getValue();
+        }
+        return unwrapped == null || NullValueMarker.isNullValue(unwrapped) ? 1 : weigher.weigh(key, (V) unwrapped);
+    }
+
     /**
      * 检查值是否为有效的缓存值（非空且非空值标记）
      *
@@ -115,4 +144,97 @@ public class CacheUtils {
             return null;
         }
     }
+
+    /**
+     * 调用异步加载函数，同步抛出的异常和返回的null都转换为 future
+     *
+     * @param loader 异步加载函数
+     * @param key    键
+     * @param <K>    键类型
+     * @param <V>    值类型
+     * @return 加载结果的 future，加载函数返回null时完成为null
+     */
+    public static <K, V> CompletableFuture<V> loadAsync(Function<K, CompletableFuture<V>> loader, K key) {
+        try {
+            CompletableFuture<V> future = loader.apply(key);
+            return future != null ? future : CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return failedFuture(e);
+        }
+    }
+
+    /**
+     * 创建以指定异常完成的 future
+     *
+     * @param e   异常
+     * @param <T> 结果类型
+     * @return 以异常完成的 future
+     */
+    public static <T> CompletableFuture<T> failedFuture(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    /**
+     * 批量获取缓存值，未命中的键通过批量加载函数一次性加载并批量写回
+     * <p>
+     * 命中部分通过一次 {@link Cache#getAll(Set)} 读取，加载函数只会收到未命中的键且只调用一次，
+     * 加载结果中属于未命中键的非空值通过一次 {@link Cache#putAll(Map)} 写回
+     * </p>
+     *
+     * @param cache  缓存实例
+     * @param keys   键集合
+     * @param loader 批量加载函数，参数为未命中的键集合
+     * @param stats  统计信息，为null时不记录加载耗时
+     * @param <K>    键类型
+     * @param <V>    值类型
+     * @return 命中与加载结果合并后的键值对映射
+     */
+    public static <K, V> Map<K, V> getAllOrLoad(Cache<K, V> cache, Set<? extends K> keys,
+                                                Function<Set<K>, Map<K, V>> loader, CacheStats stats) {
+        ValidationUtils.checkNotNull(keys, "Keys cannot be null");
+        ValidationUtils.checkNotNull(loader, "Loader cannot be null");
+
+        Map<K, V> result = new HashMap<>(cache.getAll(keys));
+        if (result.size() >= keys.size()) {
+            return result;
+        }
+
+        Set<K> missing = new HashSet<>();
+        for (K key : keys) {
+            if (key != null && !result.containsKey(key)) {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            Map<K, V> loaded = loader.apply(Collections.unmodifiableSet(missing));
+            if (loaded != null && !loaded.isEmpty()) {
+                Map<K, V> toStore = new HashMap<>();
+                for (Map.Entry<K, V> entry : loaded.entrySet()) {
+                    if (entry.getValue() != null && missing.contains(entry.getKey())) {
+                        toStore.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                if (!toStore.isEmpty()) {
+                    cache.putAll(toStore);
+                    result.putAll(toStore);
+                }
+            }
+            if (stats != null) {
+                stats.recordLoadSuccess(System.nanoTime() - startTime);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            if (stats != null) {
+                stats.recordLoadException(System.nanoTime() - startTime);
+            }
+            throw e;
+        }
+    }
 }
@@ -0,0 +1,271 @@
+package org.im.cache.annotation;
+
+import org.im.cache.config.CacheConfigBuilder;
+import org.im.cache.core.Cache;
+import org.im.cache.impl.cache.SimpleMemoryCache;
+import org.im.cache.impl.manager.DefaultCacheManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 缓存注解代理的表达式编译、清除顺序、合并加载与异常解包测试
+ */
+public class CacheProxiesTest {
+
+    private DefaultCacheManager cacheManager;
+    private Cache<Object, Object> users;
+
+    @Before
+    public void setUp() {
+        cacheManager = new DefaultCacheManager();
+        users = new SimpleMemoryCache<>(CacheConfigBuilder.newBuilder().cacheName("users")
+                .avalancheProtection(false).build());
+        cacheManager.registerCache("users", users);
+    }
+
+    @After
+    public void tearDown() {
+        cacheManager.close();
+    }
+
+    /**
+     * #pN 选择键参数，condition 不满足时绕过缓存直接调用目标方法
+     */
+    @Test
+    public void keyAndConditionExpressions() {
+        UserServiceImpl target = new UserServiceImpl();
+        UserService service = CacheProxies.wrap(UserService.class, target, cacheManager);
+
+        assertEquals("t1:1", service.find("t1", "1"));
+        assertEquals("t1:1", service.find("t2", "1"));
+        assertEquals(1, target.calls.get());
+        assertEquals("t1:1", users.get("1"));
+
+        assertEquals("null:1", service.find(null, "1"));
+        assertEquals("null:1", service.find(null, "1"));
+        assertEquals(3, target.calls.get());
+    }
+
+    /**
+     * unless 为真时不写入缓存
+     */
+    @Test
+    public void unlessSkipsCaching() {
+        UserServiceImpl target = new UserServiceImpl();
+        UserService service = CacheProxies.wrap(UserService.class, target, cacheManager);
+
+        service.findUncached("ab");
+        service.findUncached("ab");
+        assertEquals(2, target.calls.get());
+        assertNull(users.get("ab"));
+    }
+
+    /**
+     * 不受支持的表达式和越界的参数下标在创建代理时抛出
+     */
+    @Test
+    public void unsupportedExpressionsFailAtWrap() {
+        try {
+            CacheProxies.wrap(BadKeyService.class, id -> id, cacheManager);
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("#p0.length()"));
+        }
+        try {
+            CacheProxies.wrap(BadIndexService.class, id -> id, cacheManager);
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("out of range"));
+        }
+    }
+
+    /**
+     * beforeInvocation 的清除在目标方法执行前生效，默认的清除在执行后生效
+     */
+    @Test
+    public void evictBeforeAndAfterInvocation() {
+        UserServiceImpl target = new UserServiceImpl();
+        UserService service = CacheProxies.wrap(UserService.class, target, cacheManager);
+
+        users.put("1", "cached");
+        service.evictBefore("1");
+        assertEquals(1, target.seenDuringCall.size());
+        assertNull(target.seenDuringCall.get(0));
+
+        users.put("1", "cached");
+        service.evictAfter("1");
+        assertEquals("cached", target.seenDuringCall.get(1));
+        assertNull(users.get("1"));
+    }
+
+    /**
+     * 同一键的并发未命中只执行一次目标方法，所有调用方得到同一结果
+     */
+    @Test
+    public void concurrentMissesLoadOnce() throws Exception {
+        UserServiceImpl target = new UserServiceImpl();
+        target.block = new CountDownLatch(1);
+        UserService service = CacheProxies.wrap(UserService.class, target, cacheManager);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> service.find("t", "1")));
+            }
+            // 等第一个调用进入目标方法，其余调用在合并加载上等待
+            long deadline = System.currentTimeMillis() + 5000;
+            while (target.calls.get() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            Thread.sleep(50);
+            target.block.countDown();
+            for (Future<String> result : results) {
+                assertEquals("t:1", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, target.calls.get());
+    }
+
+    /**
+     * 目标方法抛出的受检异常原样抛给调用方，不被包装为 UndeclaredThrowableException，也不写入缓存
+     */
+    @Test
+    public void targetExceptionsAreUnwrapped() {
+        UserServiceImpl target = new UserServiceImpl();
+        UserService service = CacheProxies.wrap(UserService.class, target, cacheManager);
+
+        try {
+            service.load("1");
+            fail("expected IOException");
+        } catch (IOException expected) {
+            assertEquals("load 1", expected.getMessage());
+        }
+        assertNull(users.get("1"));
+
+        try {
+            service.plain("1");
+            fail("expected IOException");
+        } catch (IOException expected) {
+            assertEquals("plain 1", expected.getMessage());
+        }
+    }
+
+    /**
+     * equals 和 hashCode 按代理自身的标识计算，toString 转给目标对象
+     */
+    @Test
+    public void objectMethodsOnProxy() {
+        UserServiceImpl target = new UserServiceImpl();
+        UserService service = CacheProxies.wrap(UserService.class, target, cacheManager);
+        UserService other = CacheProxies.wrap(UserService.class, target, cacheManager);
+
+        assertTrue(service.equals(service));
+        assertFalse(service.equals(other));
+        assertFalse(service.equals(target));
+        assertEquals(service.hashCode(), service.hashCode());
+        assertNotEquals(service, other);
+        assertSame(target.toString(), service.toString());
+        assertEquals(0, target.calls.get());
+    }
+
+    public interface UserService {
+
+        @Cacheable(cacheNames = "users", key = "#p1", condition = "#p0 != null")
+        String find(String tenant, String id);
+
+        @Cacheable(cacheNames = "users", unless = "#result != null")
+        String findUncached(String id);
+
+        @CacheEvict(cacheNames = "users", beforeInvocation = true)
+        void evictBefore(String id);
+
+        @CacheEvict(cacheNames = "users")
+        void evictAfter(String id);
+
+        @Cacheable(cacheNames = "users")
+        String load(String id) throws IOException;
+
+        String plain(String id) throws IOException;
+    }
+
+    public interface BadKeyService {
+        @Cacheable(cacheNames = "users", key = "#p0.length()")
+        String find(String id);
+    }
+
+    public interface BadIndexService {
+        @Cacheable(cacheNames = "users", key = "#p1")
+        String find(String id);
+    }
+
+    private final class UserServiceImpl implements UserService {
+        final AtomicInteger calls = new AtomicInteger();
+        final List<Object> seenDuringCall = new ArrayList<>();
+        volatile CountDownLatch block;
+
+        @Override
+        public String find(String tenant, String id) {
+            calls.incrementAndGet();
+            if (block != null) {
+                try {
+                    block.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return tenant + ":" + id;
+        }
+
+        @Override
+        public String findUncached(String id) {
+            calls.incrementAndGet();
+            return id;
+        }
+
+        @Override
+        public void evictBefore(String id) {
+            seenDuringCall.add(users.get(id));
+        }
+
+        @Override
+        public void evictAfter(String id) {
+            seenDuringCall.add(users.get(id));
+        }
+
+        @Override
+        public String load(String id) throws IOException {
+            throw new IOException("load " + id);
+        }
+
+        @Override
+        public String plain(String id) throws IOException {
+            throw new IOException("plain " + id);
+        }
+
+        @Override
+        public String toString() {
+            return "UserServiceImpl";
+        }
+    }
+}
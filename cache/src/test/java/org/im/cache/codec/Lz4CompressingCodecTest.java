@@ -0,0 +1,77 @@
+package org.im.cache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * LZ4 压缩编解码器存储格式与兼容未加头数据的测试
+ */
+public class Lz4CompressingCodecTest {
+
+    private final CacheCodec<String> json = new JacksonJsonCodec<>(new ObjectMapper(), String.class);
+    private final Lz4CompressingCodec<String> codec = new Lz4CompressingCodec<>(json, 64);
+
+    /**
+     * 小于阈值的值原样存储，大值压缩，两者都能解码
+     */
+    @Test
+    public void roundTripsSmallAndLargeValues() {
+        String small = "short";
+        assertArrayEquals(json.encode(small), codec.encode(small));
+        assertEquals(small, codec.decode(codec.encode(small)));
+
+        char[] chars = new char[4096];
+        Arrays.fill(chars, 'a');
+        String large = new String(chars);
+        byte[] encoded = codec.encode(large);
+        assertTrue(encoded.length < json.encode(large).length);
+        assertEquals(large, codec.decode(encoded));
+    }
+
+    /**
+     * 开启压缩之前写入的值（不带头，包括首字节为 0x01 的值）仍按委托编解码器解码
+     */
+    @Test
+    public void decodesValuesWrittenBeforeCompression() {
+        byte[] legacy = json.encode("{\"a\":1}");
+        assertEquals("{\"a\":1}", codec.decode(legacy));
+
+        Lz4CompressingCodec<byte[]> identity = new Lz4CompressingCodec<>(new IdentityCodec(), 64);
+        byte[] startsWithOne = {1, 2, 3, 4, 5};
+        assertArrayEquals(startsWithOne, identity.decode(startsWithOne));
+    }
+
+    /**
+     * 恰好以魔数开头的未压缩值加头存储，解码后保持原样
+     */
+    @Test
+    public void escapesRawValuesThatStartWithMagic() {
+        Lz4CompressingCodec<byte[]> identity = new Lz4CompressingCodec<>(new IdentityCodec(), 64);
+        byte[] tricky = {(byte) 0xFE, 'L', 'Z', 1, 0, 0, 0, 9};
+        byte[] encoded = identity.encode(tricky);
+        assertEquals(tricky.length + 4, encoded.length);
+        assertArrayEquals(tricky, identity.decode(encoded));
+
+        byte[] plain = "plain".getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(plain, identity.decode(identity.encode(plain)));
+    }
+
+    private static final class IdentityCodec implements CacheCodec<byte[]> {
+        @Override
+        public byte[] encode(byte[] value) {
+            return value;
+        }
+
+        @Override
+        public byte[] decode(byte[] bytes) {
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.im.cache.impl.cache;
+
+import org.im.cache.config.CacheConfig;
+import org.im.cache.config.CacheConfigBuilder;
+import org.im.cache.core.Cache;
+import org.im.cache.support.ExpirationScheduler;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 覆盖写入与按访问续期时到期定时器数量的测试
+ */
+public class ExpirationTimerTest {
+
+    private static final int WRITES = 200;
+
+    private final CountingScheduler scheduler = new CountingScheduler();
+
+    @After
+    public void tearDown() {
+        scheduler.close();
+    }
+
+    /**
+     * 反复覆盖同一个键：被覆盖值的定时器到期后不再重新登记
+     */
+    @Test
+    public void simpleMemoryCacheOverwritesDoNotReArmStaleTimers() throws InterruptedException {
+        CacheConfig config = CacheConfigBuilder.newBuilder()
+                .expireAfterWrite(150, TimeUnit.MILLISECONDS).avalancheProtection(false).build();
+        assertOverwritesArmOneTimerEach(new SimpleMemoryCache<>(config, scheduler));
+    }
+
+    @Test
+    public void memoryCacheOverwritesDoNotReArmStaleTimers() throws InterruptedException {
+        CacheConfig config = CacheConfigBuilder.newBuilder()
+                .expireAfterWrite(150, TimeUnit.MILLISECONDS).avalancheProtection(false).build();
+        assertOverwritesArmOneTimerEach(new MemoryCache<>(config, scheduler));
+    }
+
+    /**
+     * 按访问续期的条目沿用写入时的定时器，读取期间不过期，停止读取后按期过期
+     */
+    @Test
+    public void accessExtensionKeepsSingleTimerChain() throws InterruptedException {
+        CacheConfig config = CacheConfigBuilder.newBuilder()
+                .expireAfterAccess(150, TimeUnit.MILLISECONDS).avalancheProtection(false).build();
+        SimpleMemoryCache<String, String> cache = new SimpleMemoryCache<>(config, scheduler);
+        cache.put("k", "v");
+        for (int i = 0; i < 10; i++) {
+            Thread.sleep(50);
+            assertNotNull(cache.get("k"));
+        }
+        Thread.sleep(400);
+        assertNull(cache.get("k"));
+        assertEquals(0, cache.size());
+    }
+
+    private void assertOverwritesArmOneTimerEach(Cache<String, String> cache) throws InterruptedException {
+        for (int i = 0; i < WRITES; i++) {
+            cache.put("k", "v" + i);
+        }
+        assertEquals(WRITES, scheduler.scheduled.get());
+        Thread.sleep(500);
+        assertNull(cache.get("k"));
+        assertEquals(WRITES, scheduler.scheduled.get());
+    }
+
+    private static final class CountingScheduler extends ExpirationScheduler {
+        final AtomicInteger scheduled = new AtomicInteger();
+
+        CountingScheduler() {
+            super(10);
+        }
+
+        @Override
+        public void schedule(long expireTimestamp, Runnable task) {
+            scheduled.incrementAndGet();
+            super.schedule(expireTimestamp, task);
+        }
+    }
+}
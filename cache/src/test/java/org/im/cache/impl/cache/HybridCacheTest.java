@@ -0,0 +1,180 @@
+package org.im.cache.impl.cache;
+
+import org.im.cache.config.CacheConfig;
+import org.im.cache.config.CacheConfigBuilder;
+import org.im.cache.core.Cache;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * 混合缓存两级读写、失效广播编解码与回填竞争的测试
+ */
+public class HybridCacheTest {
+
+    private final CacheConfig config = CacheConfigBuilder.newBuilder().avalancheProtection(false).build();
+    private final Cache<Object, String> remote = new SimpleMemoryCache<>(config);
+    private final Bus bus = new Bus();
+
+    private <K> HybridCache<K, String> node(Class<K> keyType, Cache<K, String> remoteCache) {
+        return new HybridCache<>(config, keyType, new SimpleMemoryCache<>(config), remoteCache, bus);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K> Cache<K, String> sharedRemote() {
+        return (Cache<K, String>) (Cache<?, String>) remote;
+    }
+
+    /**
+     * 本地未命中时读取远程并回填，之后由本地命中
+     */
+    @Test
+    public void remoteHitIsServedLocallyAfterwards() {
+        HybridCache<String, String> a = node(String.class, sharedRemote());
+        remote.put("k", "v");
+
+        assertEquals("v", a.get("k"));
+        remote.remove("k");
+        assertEquals("v", a.get("k"));
+    }
+
+    /**
+     * 字符串键与可反序列化的非字符串键：其他节点写入后本节点丢弃本地副本
+     */
+    @Test
+    public void writesInvalidateOtherNodes() {
+        HybridCache<String, String> a = node(String.class, sharedRemote());
+        HybridCache<String, String> b = node(String.class, sharedRemote());
+        a.put("k", "v1");
+        assertEquals("v1", b.get("k"));
+        a.put("k", "v2");
+        assertEquals("v2", b.get("k"));
+        a.remove("k");
+        assertNull(b.get("k"));
+
+        HybridCache<Integer, String> c = node(Integer.class, sharedRemote());
+        HybridCache<Integer, String> d = node(Integer.class, sharedRemote());
+        c.put(1, "one");
+        assertEquals("one", d.get(1));
+        c.put(1, "uno");
+        assertEquals("uno", d.get(1));
+    }
+
+    /**
+     * 键类型未知时无法还原非字符串键，收到失效消息后清空本地缓存
+     */
+    @Test
+    public void undecodableKeyClearsLocalCache() {
+        HybridCache<Object, String> a = node(Object.class, remote);
+        HybridCache<Object, String> b = node(Object.class, remote);
+        a.put("x", "x1");
+        a.put(1, "one");
+        assertEquals("x1", b.get("x"));
+        assertEquals("one", b.get(1));
+
+        remote.remove("x");
+        a.put(1, "uno");
+
+        assertNull(b.get("x"));
+        assertEquals("uno", b.get(1));
+    }
+
+    /**
+     * 远程读取期间其他节点写入并广播失效：读到的旧值不回填本地
+     */
+    @Test
+    public void invalidationDuringRemoteReadSkipsBackFill() {
+        AtomicInteger reads = new AtomicInteger();
+        HybridCache<String, String>[] writer = newArray();
+        Cache<String, String> slowRemote = intercept(sharedRemote(), "get", () -> {
+            if (reads.incrementAndGet() == 1) {
+                writer[0].put("k", "v2");
+            }
+        });
+        HybridCache<String, String> reader = node(String.class, slowRemote);
+        writer[0] = node(String.class, sharedRemote());
+        remote.put("k", "v1");
+
+        assertEquals("v1", reader.get("k"));
+        assertEquals("v2", reader.get("k"));
+    }
+
+    /**
+     * 打开广播通道失败时关闭两级缓存
+     */
+    @Test
+    public void failedSubscriptionClosesBothLevels() {
+        AtomicInteger closed = new AtomicInteger();
+        Cache<String, String> local = intercept(new SimpleMemoryCache<>(config), "close", closed::incrementAndGet);
+        Cache<String, String> remoteCache = intercept(sharedRemote(), "close", closed::incrementAndGet);
+        IllegalStateException failure = new IllegalStateException("subscribe failed");
+        try {
+            new HybridCache<>(config, String.class, local, remoteCache, (cache, channel, listener) -> {
+                throw failure;
+            });
+            fail("Construction should fail");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+        assertEquals(2, closed.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> HybridCache<K, String>[] newArray() {
+        return (HybridCache<K, String>[]) new HybridCache<?, ?>[1];
+    }
+
+    /**
+     * 在调用指定方法之后执行钩子，其余方法直接转发
+     */
+    @SuppressWarnings("unchecked")
+    private static <K> Cache<K, String> intercept(Cache<K, String> delegate, String method, Runnable hook) {
+        return (Cache<K, String>) Proxy.newProxyInstance(Cache.class.getClassLoader(), new Class<?>[]{Cache.class},
+                (proxy, m, args) -> {
+                    try {
+                        Object result = m.invoke(delegate, args);
+                        if (m.getName().equals(method)) {
+                            hook.run();
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * 进程内广播通道，同步投递给所有订阅者（包括发送者）
+     */
+    private static final class Bus implements HybridCache.InvalidationBusFactory {
+        private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public HybridCache.InvalidationBus open(Cache<?, ?> remoteCache, String channel, Consumer<String> listener) {
+            listeners.add(listener);
+            return new HybridCache.InvalidationBus() {
+                @Override
+                public void publish(String message) {
+                    for (Consumer<String> l : listeners) {
+                        l.accept(message);
+                    }
+                }
+
+                @Override
+                public void close() {
+                    listeners.remove(listener);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.im.cache.support;
+
+import org.im.cache.config.CacheConfig;
+import org.im.cache.config.CacheConfigBuilder;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 快照按类型读回与读回后删除文件的测试
+ */
+public class CacheSnapshotTest {
+
+    @Test
+    public void untypedSnapshotIsSkipped() throws IOException {
+        CacheConfig config = config(Files.createTempDirectory("snapshot"));
+        assertNull(CacheSnapshot.of(config, null, null));
+        assertNull(CacheSnapshot.of(config, Long.class, null));
+    }
+
+    @Test
+    public void typedSnapshotRestoresKeyAndValueTypes() throws IOException {
+        CacheConfig config = config(Files.createTempDirectory("snapshot"));
+        long expireAt = System.currentTimeMillis() + 60_000;
+        Map<Long, ExpiringValue<Item>> entries = new HashMap<>();
+        entries.put(1L, new ExpiringValue<>(new Item("a", 1), expireAt));
+        entries.put(2L, new ExpiringValue<>(new Item("b", 2), expireAt));
+
+        CacheSnapshot<Long, Item> writer = CacheSnapshot.of(config, Long.class, Item.class);
+        assertEquals(2, writer.save(entries));
+        assertTrue(Files.isRegularFile(writer.getFile()));
+
+        Map<Object, Object> restored = new HashMap<>();
+        CacheSnapshot<Long, Item> reader = CacheSnapshot.of(config, Long.class, Item.class);
+        assertEquals(2, reader.load((key, value, expireTimestamp) -> restored.put(key, value)));
+        assertFalse(Files.exists(reader.getFile()));
+
+        Object value = restored.get(1L);
+        assertTrue(value instanceof Item);
+        assertEquals("a", ((Item) value).getName());
+        assertEquals(2, ((Item) restored.get(2L)).getCount());
+    }
+
+    private static CacheConfig config(Path directory) {
+        return CacheConfigBuilder.newBuilder().cacheName("snapshot-test")
+                .snapshotDirectory(directory.toString()).build();
+    }
+
+    public static class Item {
+        private String name;
+        private int count;
+
+        public Item() {
+        }
+
+        Item(String name, int count) {
+            this.name = name;
+            this.count = count;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+}
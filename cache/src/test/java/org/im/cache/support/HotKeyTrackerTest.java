@@ -0,0 +1,65 @@
+package org.im.cache.support;
+
+import org.im.cache.config.CacheConfig;
+import org.im.cache.config.CacheConfigBuilder;
+import org.im.cache.stats.CacheStats;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * HotKeyTracker 提升与本节点写入交错的测试
+ */
+public class HotKeyTrackerTest {
+
+    private final CacheConfig config = CacheConfigBuilder.newBuilder().hotKeyThreshold(2)
+            .hotKeyLocalTtl(10, TimeUnit.SECONDS).build();
+    private final HotKeyTracker<String, String> tracker = new HotKeyTracker<>(config, new CacheStats());
+
+    private void heat(String key) {
+        for (int i = 0; i < 3; i++) {
+            tracker.get(key);
+        }
+    }
+
+    @Test
+    public void promotesHotKeyWhenNoWriteIntervened() {
+        heat("k");
+        long version = tracker.version("k");
+        tracker.promoteIfHot("k", "v1", version);
+        assertEquals("v1", tracker.get("k"));
+    }
+
+    /**
+     * 读取在写入前取得版本号、写入后才提升：读到的旧值不能进入本地表
+     */
+    @Test
+    public void staleReadIsNotPromotedAfterWrite() {
+        heat("k");
+        long version = tracker.version("k");   // 读取方发起远程读取，读到 v1
+        tracker.invalidate("k");               // 写入方：发送前移除
+        tracker.invalidate("k");               // 写入方：完成后移除
+        tracker.promoteIfHot("k", "v1", version);
+        assertNull(tracker.get("k"));
+    }
+
+    /**
+     * 提升先于写入完成：写入完成后的移除撤回该提升
+     */
+    @Test
+    public void promotionDuringWriteIsWithdrawnOnCompletion() {
+        heat("k");
+        tracker.invalidate("k");               // 写入方：发送前移除
+        long version = tracker.version("k");   // 读取方在写入生效前读到 v1
+        tracker.promoteIfHot("k", "v1", version);
+        tracker.invalidate("k");               // 写入方：完成后移除
+        assertNull(tracker.get("k"));
+
+        heat("k");
+        tracker.promoteIfHot("k", "v2", tracker.version("k"));
+        assertEquals("v2", tracker.get("k"));
+    }
+}
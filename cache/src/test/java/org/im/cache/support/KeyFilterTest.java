@@ -0,0 +1,126 @@
+package org.im.cache.support;
+
+import org.im.cache.config.CacheConfig;
+import org.im.cache.config.CacheConfigBuilder;
+import org.im.cache.core.KeyEnumerator;
+import org.junit.Test;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * KeyFilter 写入与重建交错的测试
+ */
+public class KeyFilterTest {
+
+    private static CacheConfig config(KeyEnumerator<String> enumerator) {
+        return CacheConfigBuilder.newBuilder().cacheName("key-filter-test").keyEnumerator(enumerator)
+                .keyFilterRebuildInterval(1, TimeUnit.HOURS).keyFilterSizing(100_000, 0.001).build();
+    }
+
+    private static void awaitReady(KeyFilter<String> filter) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!filter.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(filter.isReady());
+    }
+
+    /**
+     * 重建枚举期间写入的键在重建完成后仍然可见
+     */
+    @Test
+    public void keyAddedDuringRebuildSurvivesSwap() throws Exception {
+        CountDownLatch enumerating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean block = new AtomicBoolean();
+        try (KeyFilter<String> filter = new KeyFilter<>("test", config(sink -> {
+            sink.accept("seed");
+            if (block.get()) {
+                enumerating.countDown();
+                release.await();
+            }
+        }), null)) {
+            awaitReady(filter);
+            assertFalse(filter.mightContain("written"));
+
+            block.set(true);
+            Thread rebuild = new Thread(() -> {
+                try {
+                    filter.rebuild();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            rebuild.start();
+            assertTrue(enumerating.await(5, TimeUnit.SECONDS));
+            filter.add("written");
+            release.countDown();
+            rebuild.join(5000);
+
+            assertTrue(filter.mightContain("written"));
+            assertTrue(filter.mightContain("seed"));
+        }
+    }
+
+    /**
+     * 周期性重建由传入的调度器驱动，关闭后不再安排下一次
+     */
+    @Test
+    public void rebuildsAreDrivenBySharedScheduler() throws Exception {
+        AtomicInteger enumerations = new AtomicInteger();
+        CapturingScheduler scheduler = new CapturingScheduler();
+        try {
+            KeyFilter<String> filter = new KeyFilter<>("test", config(sink -> {
+                enumerations.incrementAndGet();
+                sink.accept("seed");
+            }), null, scheduler);
+            awaitReady(filter);
+            Runnable next = scheduler.await();
+            assertEquals(1, enumerations.get());
+
+            next.run();
+            scheduler.await();
+            assertEquals(2, enumerations.get());
+
+            filter.close();
+            next.run();
+            Thread.sleep(50);
+            assertEquals(2, enumerations.get());
+            assertTrue(scheduler.tasks.isEmpty());
+        } finally {
+            scheduler.close();
+        }
+    }
+
+    /**
+     * 只记录登记的任务、由测试手动执行的调度器
+     */
+    private static final class CapturingScheduler extends ExpirationScheduler {
+        final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void schedule(long expireTimestamp, Runnable task) {
+            tasks.offer(task);
+        }
+
+        Runnable await() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            Runnable task;
+            while ((task = tasks.poll()) == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertNotNull(task);
+            return task;
+        }
+    }
+}
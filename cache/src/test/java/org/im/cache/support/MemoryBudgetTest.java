@@ -0,0 +1,190 @@
+package org.im.cache.support;
+
+import org.im.cache.stats.CacheStats;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 共享内存预算按收益重新分配容量的测试
+ */
+public class MemoryBudgetTest {
+
+    private static final long BUDGET = 100_000;
+
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final MemoryBudget budget = new MemoryBudget(BUDGET, scheduler);
+
+    @After
+    public void tearDown() {
+        budget.close();
+        scheduler.close();
+    }
+
+    /**
+     * 成员用量与命中随机变化、中途加入和退出时，容量之和始终不超过预算
+     */
+    @Test
+    public void limitsNeverExceedBudget() {
+        Random random = new Random(7);
+        List<FakeMember> members = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            FakeMember member = new FakeMember();
+            members.add(member);
+            budget.register("m" + i, member, 0);
+            assertWithinBudget();
+        }
+        for (int round = 0; round < 500; round++) {
+            for (FakeMember member : members) {
+                member.used = member.limit == 0 ? 0 : (long) (member.limit * random.nextDouble());
+                member.stats.recordHits(random.nextInt(1000));
+                member.stats.recordMisses(random.nextInt(3) == 0 ? 0 : random.nextInt(100));
+            }
+            if (round == 200) {
+                budget.unregister("m0");
+            }
+            if (round == 300) {
+                FakeMember late = new FakeMember();
+                members.add(late);
+                budget.register("late", late, 0);
+            }
+            budget.rebalance();
+            assertWithinBudget();
+        }
+    }
+
+    /**
+     * 没有命中的空闲成员收敛到保底份额 budget/(4n)
+     */
+    @Test
+    public void idleMembersKeepTheFloor() {
+        FakeMember hot = new FakeMember();
+        FakeMember idle1 = new FakeMember();
+        FakeMember idle2 = new FakeMember();
+        budget.register("hot", hot, 0);
+        budget.register("idle1", idle1, 0);
+        budget.register("idle2", idle2, 0);
+        for (int round = 0; round < 40; round++) {
+            hot.pressure(1000);
+            budget.rebalance();
+        }
+        long floor = BUDGET / (4 * 3);
+        assertEquals(floor, idle1.limit);
+        assertEquals(floor, idle2.limit);
+        assertTrue(hot.limit >= BUDGET - 2 * floor - 1);
+    }
+
+    /**
+     * 用满容量且仍有未命中的成员每轮增长，直到拿到其他成员让出的份额
+     */
+    @Test
+    public void pressuredMembersGrow() {
+        FakeMember pressured = new FakeMember();
+        FakeMember idle = new FakeMember();
+        budget.register("pressured", pressured, 0);
+        budget.register("idle", idle, 0);
+        for (int round = 0; round < 5; round++) {
+            idle.stats.recordHits(10);
+            budget.rebalance();
+        }
+        long previous = pressured.limit;
+        for (int round = 0; round < 10; round++) {
+            pressured.pressure(10);
+            idle.stats.recordHits(10);
+            budget.rebalance();
+            assertTrue(pressured.limit > previous);
+            previous = pressured.limit;
+            assertWithinBudget();
+        }
+        assertTrue(pressured.limit > BUDGET / 2);
+    }
+
+    /**
+     * 没有未命中的成员按已用量的 1.25 倍收缩，每轮最多移动一半差距
+     */
+    @Test
+    public void idleMembersShrinkTowardUsage() {
+        FakeMember pressured = new FakeMember();
+        FakeMember idle = new FakeMember();
+        budget.register("pressured", pressured, 0);
+        budget.register("idle", idle, 0);
+        idle.used = 20_000;
+        long target = idle.used + idle.used / 4;
+        long previous = idle.limit;
+        for (int round = 0; round < 40; round++) {
+            pressured.pressure(100);
+            idle.stats.recordHits(100);
+            budget.rebalance();
+            if (previous > target) {
+                assertTrue(idle.limit <= previous);
+                assertTrue(idle.limit >= target);
+                assertTrue(previous - idle.limit <= (previous - target + 1) / 2);
+            }
+            previous = idle.limit;
+        }
+        assertEquals(target, idle.limit);
+        assertEquals(BUDGET - target, pressured.limit, 1);
+    }
+
+    private void assertWithinBudget() {
+        long sum = 0;
+        for (Map.Entry<String, Long> entry : budget.getAllocations().entrySet()) {
+            assertTrue(entry.getValue() >= 0);
+            sum += entry.getValue();
+        }
+        assertTrue("sum " + sum + " exceeds budget", sum <= BUDGET);
+    }
+
+    /**
+     * 可设置用量的成员，容量缩小时用量随之截断
+     */
+    private static final class FakeMember implements MemoryBudget.Member {
+        final CacheStats stats = new CacheStats();
+        long used;
+        long limit;
+
+        /**
+         * 用满当前容量并产生未命中
+         */
+        void pressure(int misses) {
+            used = limit;
+            stats.recordMisses(misses);
+        }
+
+        @Override
+        public long getWeightedSize() {
+            return used;
+        }
+
+        @Override
+        public void setMaximumWeight(long maximumWeight) {
+            limit = maximumWeight;
+            used = Math.min(used, maximumWeight);
+        }
+
+        @Override
+        public CacheStats getStats() {
+            return stats;
+        }
+    }
+
+    /**
+     * 不执行周期任务的调度器，由测试直接调用 rebalance
+     */
+    private static final class ManualScheduler extends ExpirationScheduler {
+        ManualScheduler() {
+            super(10);
+        }
+
+        @Override
+        public void schedule(long expireTimestamp, Runnable task) {
+        }
+    }
+}
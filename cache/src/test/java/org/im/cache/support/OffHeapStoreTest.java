@@ -0,0 +1,232 @@
+package org.im.cache.support;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 堆外存储的块分配、索引后移删除、CLOCK 淘汰、整页改级别与过期的测试
+ */
+public class OffHeapStoreTest {
+
+    private static final int PAGE_SIZE = 4096;
+    private static final long FOREVER = Long.MAX_VALUE;
+
+    private final List<Object> removed = new ArrayList<>();
+    private OffHeapStore<Object> store;
+
+    @After
+    public void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private OffHeapStore<Object> newStore(int pages) {
+        store = new OffHeapStore<>((long) pages * PAGE_SIZE, PAGE_SIZE, removed::add);
+        return store;
+    }
+
+    private static byte[] bytes(int length, int seed) {
+        byte[] value = new byte[length];
+        Arrays.fill(value, (byte) seed);
+        return value;
+    }
+
+    /**
+     * 写入、读取与覆盖：块大小不变时原地覆盖，变化时迁移到新级别的块，占用按块大小计
+     */
+    @Test
+    public void putGetAndOverwriteAcrossChunkClasses() {
+        newStore(64);
+        assertTrue(store.put("k", bytes(10, 1), FOREVER));
+        assertArrayEquals(bytes(10, 1), store.get("k"));
+        assertEquals(64, store.usedBytes());
+
+        assertTrue(store.put("k", bytes(50, 2), FOREVER));
+        assertArrayEquals(bytes(50, 2), store.get("k"));
+        assertEquals(64, store.usedBytes());
+
+        assertTrue(store.put("k", bytes(100, 3), FOREVER));
+        assertArrayEquals(bytes(100, 3), store.get("k"));
+        assertEquals(128, store.usedBytes());
+
+        assertTrue(store.put("k", bytes(PAGE_SIZE - 4, 4), FOREVER));
+        assertArrayEquals(bytes(PAGE_SIZE - 4, 4), store.get("k"));
+        assertEquals(PAGE_SIZE, store.usedBytes());
+        assertEquals(1, store.size());
+
+        // 超过页大小的值写入失败，原有的值同时删除
+        assertFalse(store.put("k", bytes(PAGE_SIZE, 5), FOREVER));
+        assertNull(store.get("k"));
+        assertEquals(0, store.size());
+        assertEquals(0, store.usedBytes());
+        assertTrue(removed.isEmpty());
+    }
+
+    /**
+     * 哈希冲突严重时随机写入和删除，与 HashMap 的结果一致：后移删除不会让探测链上的条目丢失
+     */
+    @Test
+    public void removalKeepsProbeChainsIntact() {
+        // 容量足够，不发生淘汰
+        newStore(1024);
+        Map<CollidingKey, byte[]> model = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            CollidingKey key = new CollidingKey(random.nextInt(300), random.nextInt(6));
+            if (random.nextInt(3) == 0) {
+                assertEquals(model.remove(key) != null, store.remove(key));
+            } else {
+                byte[] value = bytes(1 + random.nextInt(100), i);
+                assertTrue(store.put(key, value, FOREVER));
+                model.put(key, value);
+            }
+        }
+        assertEquals(model.size(), store.size());
+        for (int id = 0; id < 300; id++) {
+            for (int hash = 0; hash < 6; hash++) {
+                CollidingKey key = new CollidingKey(id, hash);
+                byte[] expected = model.get(key);
+                if (expected == null) {
+                    assertNull(store.get(key));
+                } else {
+                    assertArrayEquals(expected, store.get(key));
+                }
+            }
+        }
+        assertTrue(removed.isEmpty());
+    }
+
+    /**
+     * 容量用尽时按 CLOCK 淘汰：写入都成功，条目数受页数限制，被淘汰的键通过回调通知，持续读取的键保留
+     */
+    @Test
+    public void evictsUnderCapacityPressure() {
+        // 16 页只够一个段，每页 64 个 64 字节的块
+        newStore(16);
+        int capacity = 16 * PAGE_SIZE / 64;
+        assertTrue(store.put("hot", bytes(60, 7), FOREVER));
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(store.put(i, bytes(60, i), FOREVER));
+            assertNotNull(store.get("hot"));
+        }
+        assertTrue(store.size() <= capacity);
+        assertEquals(5001 - store.size(), removed.size());
+        assertFalse(removed.contains("hot"));
+        assertTrue(store.usedBytes() <= 16L * PAGE_SIZE);
+        assertArrayEquals(bytes(60, 7), store.get("hot"));
+    }
+
+    /**
+     * 所有页都被小块占满后写入大值：整页淘汰并改为大块级别
+     */
+    @Test
+    public void reassignsWholePagesToNewChunkClass() {
+        newStore(16);
+        for (int i = 0; i < 16 * PAGE_SIZE / 64; i++) {
+            assertTrue(store.put(i, bytes(60, i), FOREVER));
+        }
+        assertEquals(16L * PAGE_SIZE, store.usedBytes());
+        assertTrue(removed.isEmpty());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(store.put("large-" + i, bytes(2000, i), FOREVER));
+        }
+        for (int i = 0; i < 4; i++) {
+            assertArrayEquals(bytes(2000, i), store.get("large-" + i));
+        }
+        // 每个大值需要腾出一整页小块（64 个条目），两个 2048 字节的块共用一页
+        assertTrue(removed.size() >= 64);
+        assertEquals(16 * PAGE_SIZE / 64 + 4 - removed.size(), store.size());
+        assertTrue(store.usedBytes() <= 16L * PAGE_SIZE);
+        for (Object key : removed) {
+            assertNull(store.get(key));
+        }
+    }
+
+    /**
+     * 写入null后读取返回共享的 NULL_VALUE 实例，之后可以覆盖为普通值
+     */
+    @Test
+    public void nullValueRoundTrips() {
+        newStore(64);
+        assertTrue(store.put("n", null, FOREVER));
+        assertSame(OffHeapStore.NULL_VALUE, store.get("n"));
+        assertTrue(store.containsKey("n"));
+        assertEquals(1, store.size());
+
+        assertTrue(store.put("n", bytes(8, 1), FOREVER));
+        assertArrayEquals(bytes(8, 1), store.get("n"));
+        assertTrue(store.put("n", null, FOREVER));
+        assertSame(OffHeapStore.NULL_VALUE, store.get("n"));
+    }
+
+    /**
+     * 过期条目读取时返回null并通知回调，expire() 批量回收
+     */
+    @Test
+    public void expiredEntriesAreRemoved() throws InterruptedException {
+        newStore(64);
+        long deadline = System.currentTimeMillis() + 50;
+        for (int i = 0; i < 100; i++) {
+            assertTrue(store.put(i, bytes(16, i), deadline));
+        }
+        assertTrue(store.put("live", bytes(16, 1), FOREVER));
+        Thread.sleep(100);
+
+        assertNull(store.get(0));
+        assertFalse(store.containsKey(1));
+        assertEquals(Arrays.<Object>asList(0), removed);
+        assertEquals(99, store.expire());
+        assertEquals(1, store.size());
+        assertEquals(100, removed.size());
+        assertArrayEquals(bytes(16, 1), store.get("live"));
+
+        store.clear();
+        assertEquals(0, store.size());
+        assertEquals(0, store.usedBytes());
+        assertTrue(store.put("again", bytes(16, 2), FOREVER));
+    }
+
+    /**
+     * 哈希值可控的键，用于制造探测链冲突
+     */
+    private static final class CollidingKey {
+        private final int id;
+        private final int hash;
+
+        CollidingKey(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CollidingKey)) {
+                return false;
+            }
+            CollidingKey other = (CollidingKey) o;
+            return id == other.id && hash == other.hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
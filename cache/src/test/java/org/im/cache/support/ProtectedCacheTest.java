@@ -0,0 +1,70 @@
+package org.im.cache.support;
+
+import org.im.cache.config.CacheConfig;
+import org.im.cache.config.CacheConfigBuilder;
+import org.im.cache.impl.cache.SimpleMemoryCache;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ProtectedCache 在默认配置（空值保护与击穿保护同时启用）下读取与进行中加载的交错测试
+ */
+public class ProtectedCacheTest {
+
+    private final CacheConfig config = CacheConfigBuilder.newBuilder().cacheName("protected-test").build();
+
+    /**
+     * 加载进行中时的 get 等待该次加载的结果，而不是返回未命中
+     */
+    @Test
+    public void getJoinsInFlightLoad() throws Exception {
+        ProtectedCache<String, String> cache = new ProtectedCache<>(new SimpleMemoryCache<>(config), config);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> loader = executor.submit(() -> cache.getOrLoad("k", k -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "loaded";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<String> reader = executor.submit(() -> cache.get("k"));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals("loaded", loader.get(5, TimeUnit.SECONDS));
+            assertEquals("loaded", reader.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 没有进行中的加载时，缓存的空值标记仍按 null 返回
+     */
+    @Test
+    public void cachedNullMarkerReadsAsNull() {
+        ProtectedCache<String, String> cache = new ProtectedCache<>(new SimpleMemoryCache<>(config), config);
+        assertNull(cache.getOrLoad("absent", k -> null));
+        assertNull(cache.get("absent"));
+        assertNull(cache.get("never-written"));
+    }
+}
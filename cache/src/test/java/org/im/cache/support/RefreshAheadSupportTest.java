@@ -0,0 +1,118 @@
+package org.im.cache.support;
+
+import org.im.cache.config.CacheConfig;
+import org.im.cache.config.CacheConfigBuilder;
+import org.im.cache.impl.cache.CaffeineCache;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 提前刷新登记上限与 Caffeine 缓存接入的测试
+ */
+public class RefreshAheadSupportTest {
+
+    /**
+     * 从不取消登记的键（如远程缓存由服务端过期）不会让登记无限增长，最近读取的键保留
+     */
+    @Test
+    public void registrationsAreBoundedByMaximumSize() throws InterruptedException {
+        CacheConfig config = CacheConfigBuilder.newBuilder().maximumSize(100)
+                .refreshAfterWrite(1, TimeUnit.HOURS).build();
+        RefreshAheadSupport<Integer, String> support = new RefreshAheadSupport<>(config);
+        support.register(-1, String::valueOf, value -> { });
+        for (int i = 0; i < 10_000; i++) {
+            support.register(i, String::valueOf, value -> { });
+            support.onRead(-1);
+        }
+        // 淘汰在后台执行，等待最后一次淘汰完成
+        long deadline = System.currentTimeMillis() + 5000;
+        while (support.size() > 100 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(support.size() <= 100);
+    }
+
+    /**
+     * 未启用自动刷新且从未调用 refreshAll 时不登记，不持有加载函数
+     */
+    @Test
+    public void registersOnlyWhenRefreshIsUsed() {
+        RefreshAheadSupport<Integer, String> support = new RefreshAheadSupport<>(CacheConfigBuilder.newBuilder().build());
+        support.register(1, String::valueOf, value -> { });
+        assertEquals(0, support.size());
+
+        assertEquals(0, support.refreshAll(key -> true));
+        support.register(1, String::valueOf, value -> { });
+        assertEquals(1, support.size());
+    }
+
+    /**
+     * 淘汰按最近读写时间进行，最近使用的登记保留
+     */
+    @Test
+    public void evictionKeepsRecentlyUsedRegistrations() throws InterruptedException {
+        CacheConfig config = CacheConfigBuilder.newBuilder().maximumSize(1000)
+                .refreshAfterWrite(1, TimeUnit.HOURS).build();
+        RefreshAheadSupport<Integer, String> support = new RefreshAheadSupport<>(config);
+        for (int i = 0; i < 1000; i++) {
+            support.register(i, String::valueOf, value -> { });
+        }
+        Thread.sleep(20);
+        for (int i = 1000; i < 1100; i++) {
+            support.register(i, String::valueOf, value -> { });
+        }
+        support.evictLeastRecentlyUsed();
+        assertTrue(support.size() <= 1000);
+        // 最近写入的 100 个登记全部保留，refreshAll 同时取消较早的登记
+        assertEquals(100, support.refreshAll(key -> key >= 1000));
+    }
+
+    /**
+     * refreshAll 取消已不存在的键的登记
+     */
+    @Test
+    public void refreshAllUnregistersDeadKeys() {
+        CacheConfig config = CacheConfigBuilder.newBuilder().build();
+        RefreshAheadSupport<Integer, String> support = new RefreshAheadSupport<>(config);
+        support.refreshAll(key -> true);
+        AtomicInteger reloads = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            support.register(i, key -> {
+                reloads.incrementAndGet();
+                return String.valueOf(key);
+            }, value -> { });
+        }
+        assertEquals(5, support.refreshAll(key -> key < 5));
+        assertEquals(5, reloads.get());
+        assertEquals(5, support.size());
+    }
+
+    /**
+     * Caffeine 缓存按 refreshAfterWrite 在后台重新加载，refresh() 重新加载存活的条目
+     */
+    @Test
+    public void caffeineCacheRefreshesAfterWrite() throws InterruptedException {
+        CacheConfig config = CacheConfigBuilder.newBuilder().cacheName("caffeine-refresh")
+                .refreshAfterWrite(100, TimeUnit.MILLISECONDS).build();
+        CaffeineCache<String, Integer> cache = new CaffeineCache<>(config);
+        AtomicInteger version = new AtomicInteger();
+        assertEquals(Integer.valueOf(1), cache.getOrLoad("k", k -> version.incrementAndGet()));
+
+        Thread.sleep(150);
+        assertEquals(Integer.valueOf(1), cache.get("k"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.get("k") == 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Integer.valueOf(2), cache.get("k"));
+
+        cache.refresh();
+        assertEquals(Integer.valueOf(3), cache.get("k"));
+        cache.close();
+    }
+}
@@ -0,0 +1,99 @@
+package org.im.cache.support;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * TinyLfuPolicy 回放乱序写入与删除记录的测试
+ */
+public class TinyLfuPolicyTest {
+
+    private final Map<String, String> store = new ConcurrentHashMap<>();
+
+    private TinyLfuPolicy<String> newPolicy(long maximum) {
+        return new TinyLfuPolicy<>(maximum, maximum, store::remove, store::containsKey);
+    }
+
+    /**
+     * B 删除、A 写入并记录、B 再记录删除：策略仍需跟踪存储中存在的键
+     */
+    @Test
+    public void removalRecordedAfterConcurrentPutKeepsLiveKey() {
+        TinyLfuPolicy<String> policy = newPolicy(10);
+        store.put("k", "v1");
+        policy.recordWrite("k");
+
+        store.remove("k");          // B
+        store.put("k", "v2");       // A
+        policy.recordWrite("k");    // A
+        policy.recordRemoval("k");  // B
+
+        assertEquals(1, policy.size());
+        assertTrue(store.containsKey("k"));
+    }
+
+    /**
+     * A 写入、B 删除并记录、A 再记录写入：策略不应跟踪已不在存储中的键
+     */
+    @Test
+    public void writeRecordedAfterConcurrentRemoveIsDropped() {
+        TinyLfuPolicy<String> policy = newPolicy(10);
+        store.put("k", "v");        // A
+        store.remove("k");          // B
+        policy.recordRemoval("k");  // B
+        policy.recordWrite("k");    // A
+
+        assertEquals(0, policy.size());
+    }
+
+    /**
+     * 乱序记录之后继续写入，存储仍被限制在容量之内
+     */
+    @Test
+    public void reorderedEventsDoNotEscapeSizeBound() {
+        TinyLfuPolicy<String> policy = newPolicy(10);
+        for (int i = 0; i < 5; i++) {
+            String key = "race-" + i;
+            store.put(key, "old");
+            policy.recordWrite(key);
+            store.remove(key);
+            store.put(key, "new");
+            policy.recordWrite(key);
+            policy.recordRemoval(key);
+        }
+        for (int i = 0; i < 100; i++) {
+            String key = "fill-" + i;
+            store.put(key, "v");
+            policy.recordWrite(key);
+        }
+        assertEquals(10, policy.size());
+        assertEquals(10, store.size());
+    }
+
+    /**
+     * 按权重淘汰且未指定条目数时，频率草图随条目数扩容
+     */
+    @Test
+    public void weightedSketchGrowsWithEntries() {
+        TinyLfuPolicy<String> policy = new TinyLfuPolicy<>(Long.MAX_VALUE, 0, store::remove, store::containsKey);
+        for (int i = 0; i < 5000; i++) {
+            String key = "w-" + i;
+            store.put(key, "v");
+            policy.recordWrite(key, 3);
+        }
+        assertEquals(5000, policy.size());
+        assertEquals(15000, policy.getWeightedSize());
+
+        FrequencySketch<String> sketch = new FrequencySketch<>(0);
+        assertEquals(16, sketch.capacity());
+        sketch.ensureCapacity(5000);
+        assertTrue(sketch.capacity() >= 5000);
+        assertFalse(sketch.frequency("x") > 0);
+    }
+}
@@ -30,6 +30,9 @@ public class BatchConfig {
     // 默认超时时间（毫秒）
     public static final long DEFAULT_TIMEOUT_MS = 300000L; // 5分钟
 
+    // 默认阶段间队列容量（分块数）
+    public static final int DEFAULT_QUEUE_CAPACITY = 4;
+
     // 批处理大小
     private int batchSize = DEFAULT_BATCH_SIZE;
 
@@ -48,6 +51,9 @@ public class BatchConfig {
     // 出错是否继续
     private boolean continueOnError = false;
 
+    // 流水线阶段间最多缓冲的分块数，分块大小即批处理大小
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
     // 自定义配置参数
     private Map<String, Object> customProperties = new HashMap<>();
 
@@ -113,6 +119,14 @@ public class BatchConfig {
         this.continueOnError = continueOnError;
     }
 
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
     public Map<String, Object> getCustomProperties() {
         return customProperties;
     }
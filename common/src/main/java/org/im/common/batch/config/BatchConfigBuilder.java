@@ -88,6 +88,17 @@ public class BatchConfigBuilder {
         return this;
     }
 
+    /**
+     * 设置流水线阶段间的队列容量
+     *
+     * @param queueCapacity 最多缓冲的分块数
+     * @return 配置构建器
+     */
+    public BatchConfigBuilder queueCapacity(int queueCapacity) {
+        config.setQueueCapacity(queueCapacity);
+        return this;
+    }
+
     /**
      * 设置自定义属性
      *
@@ -2,6 +2,7 @@ package org.im.common.batch.core;
 
 import org.im.common.batch.config.BatchConfig;
 import org.im.common.batch.monitor.JobMetrics;
+import org.im.common.batch.monitor.JobPerformanceTracker;
 import org.im.common.lifecycle.Lifecycle;
 
 /**
@@ -71,6 +72,15 @@ public interface BatchJob<T, R> extends Lifecycle {
      */
     JobMetrics getMetrics();
 
+    /**
+     * 获取作业性能跟踪器
+     *
+     * @return 性能跟踪器，作业不记录性能数据时返回null
+     */
+    default JobPerformanceTracker getPerformanceTracker() {
+        return null;
+    }
+
     /**
      * 取消作业执行
      *
@@ -2,6 +2,7 @@ package org.im.common.batch.core;
 
 import org.im.common.batch.config.BatchConfig;
 import org.im.common.batch.monitor.JobMetrics;
+import org.im.common.batch.monitor.JobPerformanceTracker;
 
 import java.util.List;
 import java.util.concurrent.Future;
@@ -98,6 +99,21 @@ public interface BatchJobManager {
      */
     JobMetrics getJobMetrics(String jobId);
 
+    /**
+     * 获取作业性能快照
+     * <p>
+     * 实现类应在作业开始执行时以 {@link JobPerformanceTracker#recordQueueWait(long)} 记录提交到开始执行的等待时间
+     * </p>
+     *
+     * @param jobId 作业ID
+     * @return 自上次快照以来的性能数据，作业不存在或不记录性能数据时返回null
+     */
+    default JobPerformanceTracker.Snapshot getJobPerformance(String jobId) {
+        BatchJob<?, ?> job = getJob(jobId);
+        JobPerformanceTracker tracker = job != null ? job.getPerformanceTracker() : null;
+        return tracker != null ? tracker.snapshot() : null;
+    }
+
     /**
      * 获取作业管理器配置
      *
@@ -3,6 +3,8 @@ package org.im.common.batch.engine;
 import org.im.common.batch.core.BatchJob;
 import org.im.common.batch.core.BatchJobStatus;
 import org.im.common.batch.monitor.JobMetrics;
+import org.im.common.batch.monitor.JobMetricsCollector;
+import org.im.common.batch.monitor.JobPerformanceTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +35,8 @@ public abstract class BatchEngine<T, R> implements BatchJob<T, R> {
     protected final AtomicReference<BatchJobStatus> status = new AtomicReference<>(BatchJobStatus.CREATED);
     // 作业指标
     protected final JobMetrics metrics;
+    // 作业性能跟踪器，首次访问时按作业名称创建
+    private volatile JobPerformanceTracker performance;
     // 作业名称
     protected String jobName;
     // 作业描述
@@ -87,6 +91,38 @@ public abstract class BatchEngine<T, R> implements BatchJob<T, R> {
         return metrics;
     }
 
+    @Override
+    public JobPerformanceTracker getPerformanceTracker() {
+        JobPerformanceTracker tracker = performance;
+        if (tracker == null) {
+            synchronized (this) {
+                if (performance == null) {
+                    performance = new JobPerformanceTracker(jobId, jobName);
+                }
+                tracker = performance;
+            }
+        }
+        return tracker;
+    }
+
+    /**
+     * 执行开始时将性能跟踪器注册到共享的 {@link JobMetricsCollector}
+     *
+     * @return 性能跟踪器
+     */
+    protected JobPerformanceTracker beginTracking() {
+        JobPerformanceTracker tracker = getPerformanceTracker();
+        JobMetricsCollector.getDefault().register(tracker);
+        return tracker;
+    }
+
+    /**
+     * 执行结束时从共享的 {@link JobMetricsCollector} 注销性能跟踪器
+     */
+    protected void endTracking() {
+        JobMetricsCollector.getDefault().unregister(jobId);
+    }
+
     @Override
     public boolean cancel() {
         return status.compareAndSet(BatchJobStatus.RUNNING, BatchJobStatus.CANCELLED);
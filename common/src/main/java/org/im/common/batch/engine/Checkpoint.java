@@ -0,0 +1,86 @@
+package org.im.common.batch.engine;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 分块流水线的检查点
+ * <p>
+ * 记录最后一个已提交分块结束时的位置，作业失败后以同一作业名称重新执行时从该位置继续
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/20
+ */
+public class Checkpoint {
+
+    private final String jobName;
+    private final long readCount;
+    private final long writeCount;
+    private final long chunkCount;
+    private final Map<String, String> readerState;
+    private final long updatedAt;
+
+    /**
+     * 构造函数
+     *
+     * @param jobName     作业名称
+     * @param readCount   已提交分块累计从读取器读取的条目数，包括被过滤和跳过的条目
+     * @param writeCount  累计写入的条目数
+     * @param chunkCount  已提交的分块数
+     * @param readerState 读取器的定位状态
+     * @param updatedAt   提交时间戳（毫秒）
+     */
+    public Checkpoint(String jobName, long readCount, long writeCount, long chunkCount,
+                      Map<String, String> readerState, long updatedAt) {
+        if (jobName == null || jobName.isEmpty()) {
+            throw new IllegalArgumentException("Job name cannot be empty");
+        }
+        this.jobName = jobName;
+        this.readCount = readCount;
+        this.writeCount = writeCount;
+        this.chunkCount = chunkCount;
+        this.readerState = readerState != null
+                ? Collections.unmodifiableMap(new LinkedHashMap<>(readerState)) : Collections.emptyMap();
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters
+    public String getJobName() {
+        return jobName;
+    }
+
+    public long getReadCount() {
+        return readCount;
+    }
+
+    public long getWriteCount() {
+        return writeCount;
+    }
+
+    public long getChunkCount() {
+        return chunkCount;
+    }
+
+    public Map<String, String> getReaderState() {
+        return readerState;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Checkpoint{" +
+                "jobName='" + jobName + '\'' +
+                ", readCount=" + readCount +
+                ", writeCount=" + writeCount +
+                ", chunkCount=" + chunkCount +
+                ", readerState=" + readerState +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
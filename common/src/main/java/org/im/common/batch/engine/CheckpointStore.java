@@ -0,0 +1,41 @@
+package org.im.common.batch.engine;
+
+/**
+ * 检查点存储
+ * <p>
+ * 按作业名称保存最后一个已提交分块的检查点，作业成功完成后清除
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/20
+ * @see FileCheckpointStore
+ * @see JdbcCheckpointStore
+ */
+public interface CheckpointStore {
+
+    /**
+     * 读取检查点
+     *
+     * @param jobName 作业名称
+     * @return 检查点，不存在时返回null
+     * @throws Exception 读取失败
+     */
+    Checkpoint load(String jobName) throws Exception;
+
+    /**
+     * 保存检查点，覆盖同名作业的上一个检查点
+     *
+     * @param checkpoint 检查点
+     * @throws Exception 保存失败
+     */
+    void save(Checkpoint checkpoint) throws Exception;
+
+    /**
+     * 清除检查点
+     *
+     * @param jobName 作业名称
+     * @throws Exception 清除失败
+     */
+    void clear(String jobName) throws Exception;
+}
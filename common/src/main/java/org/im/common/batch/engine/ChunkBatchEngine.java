@@ -0,0 +1,488 @@
+package org.im.common.batch.engine;
+
+import org.im.common.batch.config.BatchConfig;
+import org.im.common.batch.core.BatchJobStatus;
+import org.im.common.batch.exception.JobExecutionException;
+import org.im.common.batch.monitor.JobPerformanceTracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 分块流水线批处理引擎
+ * <p>
+ * 以 {@link ItemReader}、{@link ItemProcessor}、{@link ItemWriter} 三个阶段流式处理输入，内存占用与输入总量无关：
+ * </p>
+ * <ul>
+ *     <li>读取线程按批处理大小组装分块，交给处理线程池，最多 {@link BatchConfig#getQueueCapacity()} 个分块在途，
+ *     写入跟不上时读取线程阻塞；</li>
+ *     <li>处理线程池按 {@link BatchConfig#getConcurrentThreads()} 并行处理分块；</li>
+ *     <li>调用线程按读取顺序依次写入分块，写入成功即提交，随后保存检查点。</li>
+ * </ul>
+ * <p>
+ * 配置了 {@link CheckpointStore} 时，作业失败或被取消后以同一作业名称重新执行，会从最后提交的分块之后继续；
+ * 作业成功完成后检查点被清除。写入失败按重试次数重试，处理单个条目失败时若配置了出错继续则跳过该条目，否则作业失败。
+ * </p>
+ * <p>
+ * 执行期间向 {@link #getPerformanceTracker()} 记录每个条目的处理延迟，读取、处理、写入三个阶段的吞吐，
+ * 分块等待处理线程的时间，以及已读取未写入的积压条目数。
+ * </p>
+ *
+ * @param <I> 输入条目类型
+ * @param <O> 输出条目类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/20
+ */
+public class ChunkBatchEngine<I, O> extends BatchEngine<ItemReader<I>, ChunkBatchEngine.ChunkResult> {
+
+    private static final long PAUSE_POLL_MILLIS = 100;
+
+    /**
+     * 性能跟踪的阶段名称
+     */
+    public static final String STAGE_READ = "read";
+    public static final String STAGE_PROCESS = "process";
+    public static final String STAGE_WRITE = "write";
+
+    private final ItemProcessor<I, O> processor;
+    private final ItemWriter<O> writer;
+    private final CheckpointStore checkpointStore;
+    private final BatchConfig config;
+
+    /**
+     * 构造函数
+     *
+     * @param jobName         作业名称，同时作为检查点的键
+     * @param processor       条目处理器
+     * @param writer          条目写入器
+     * @param checkpointStore 检查点存储，为null时不支持断点续跑
+     * @param config          批处理配置，为null时使用默认配置
+     */
+    public ChunkBatchEngine(String jobName, ItemProcessor<I, O> processor, ItemWriter<O> writer,
+                            CheckpointStore checkpointStore, BatchConfig config) {
+        super(jobName);
+        if (processor == null || writer == null) {
+            throw new IllegalArgumentException("Processor and writer cannot be null");
+        }
+        if (checkpointStore != null && (jobName == null || jobName.isEmpty())) {
+            throw new IllegalArgumentException("Job name is required when checkpoints are enabled");
+        }
+        this.processor = processor;
+        this.writer = writer;
+        this.checkpointStore = checkpointStore;
+        this.config = config != null ? config : new BatchConfig();
+    }
+
+    /**
+     * 构造函数（不保存检查点）
+     *
+     * @param jobName   作业名称
+     * @param processor 条目处理器
+     * @param writer    条目写入器
+     * @param config    批处理配置
+     */
+    public ChunkBatchEngine(String jobName, ItemProcessor<I, O> processor, ItemWriter<O> writer, BatchConfig config) {
+        this(jobName, processor, writer, null, config);
+    }
+
+    /**
+     * 执行作业，读取器在作业结束时被关闭
+     *
+     * @param reader 条目读取器
+     * @return 执行结果，被取消时为取消前已提交的部分
+     * @throws JobExecutionException 读取、处理、写入或保存检查点失败
+     */
+    @Override
+    public ChunkResult execute(ItemReader<I> reader) throws JobExecutionException {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader cannot be null");
+        }
+        updateStatus(BatchJobStatus.RUNNING);
+        metrics.start();
+        long startTime = System.currentTimeMillis();
+
+        Checkpoint checkpoint;
+        try {
+            checkpoint = checkpointStore != null ? checkpointStore.load(jobName) : null;
+        } catch (Exception e) {
+            closeQuietly(reader);
+            throw fail(new JobExecutionException(jobId, "Failed to load checkpoint", e));
+        }
+        if (checkpoint != null) {
+            logger.info("Job {} resuming from {}", jobName, checkpoint);
+        }
+
+        int batchSize = config.getBatchSize() > 0 ? config.getBatchSize() : BatchConfig.DEFAULT_BATCH_SIZE;
+        int threads = config.getConcurrentThreads() > 0 ? config.getConcurrentThreads() : BatchConfig.DEFAULT_CONCURRENT_THREADS;
+        int capacity = config.getQueueCapacity() > 0 ? config.getQueueCapacity() : BatchConfig.DEFAULT_QUEUE_CAPACITY;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService processors = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "batch-process-" + jobName + "-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        BlockingQueue<CompletableFuture<Chunk<O>>> inFlight = new ArrayBlockingQueue<>(capacity);
+        AtomicReference<Throwable> readFailure = new AtomicReference<>();
+        Checkpoint start = checkpoint;
+        JobPerformanceTracker tracker = beginTracking();
+        Thread readerThread = new Thread(
+                () -> readChunks(reader, start, batchSize, processors, inFlight, readFailure, tracker),
+                "batch-read-" + jobName);
+        readerThread.setDaemon(true);
+
+        long readCount = checkpoint != null ? checkpoint.getReadCount() : 0;
+        long writeCount = checkpoint != null ? checkpoint.getWriteCount() : 0;
+        long chunkCount = checkpoint != null ? checkpoint.getChunkCount() : 0;
+        long filterCount = 0;
+        long skipCount = 0;
+        try {
+            readerThread.start();
+            while (awaitRunnable()) {
+                Chunk<O> chunk = nextChunk(inFlight, readFailure, readerThread);
+                if (chunk == Chunk.END) {
+                    break;
+                }
+                long writeStart = System.nanoTime();
+                writeWithRetry(chunk.items, chunkCount);
+                tracker.recordStage(STAGE_WRITE, chunk.items.size(), System.nanoTime() - writeStart);
+                tracker.addBacklog(readCount - chunk.readCount);
+                readCount = chunk.readCount;
+                writeCount += chunk.items.size();
+                chunkCount++;
+                filterCount += chunk.filterCount;
+                skipCount += chunk.skipCount;
+                metrics.setProcessedRecords(writeCount);
+                metrics.setFailedRecords(skipCount);
+                if (checkpointStore != null) {
+                    checkpointStore.save(new Checkpoint(jobName, readCount, writeCount, chunkCount,
+                            chunk.readerState, System.currentTimeMillis()));
+                }
+            }
+
+            ChunkResult result = new ChunkResult(readCount, writeCount, filterCount, skipCount, chunkCount,
+                    start != null ? start.getReadCount() : 0, System.currentTimeMillis() - startTime);
+            if (getStatus() == BatchJobStatus.CANCELLED) {
+                logger.info("Job {} cancelled after {}", jobName, result);
+                metrics.finish();
+                return result;
+            }
+            if (checkpointStore != null) {
+                checkpointStore.clear(jobName);
+            }
+            updateStatus(BatchJobStatus.SUCCESS);
+            metrics.finish();
+            logger.info("Job {} completed: {}", jobName, result);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw fail(new JobExecutionException(jobId, "Job interrupted", e));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            throw fail(new JobExecutionException(jobId,
+                    "Failed to read or process input after " + chunkCount + " committed chunks", cause));
+        } catch (JobExecutionException e) {
+            throw fail(e);
+        } catch (Exception e) {
+            throw fail(new JobExecutionException(jobId, "Failed to save checkpoint after chunk " + chunkCount, e));
+        } finally {
+            readerThread.interrupt();
+            processors.shutdownNow();
+            endTracking();
+            tracker.addBacklog(-tracker.getBacklog());
+        }
+    }
+
+    /**
+     * 按读取顺序取出下一个分块
+     * <p>
+     * 读取失败时读取线程会在队尾放入失败结果，队列满时等待写入腾出位置；
+     * 同时记录在 readFailure 中，读取线程意外退出而未放入结束标记时，在队列取空后据此结束等待
+     * </p>
+     */
+    private Chunk<O> nextChunk(BlockingQueue<CompletableFuture<Chunk<O>>> inFlight,
+                               AtomicReference<Throwable> readFailure, Thread readerThread)
+            throws InterruptedException, ExecutionException {
+        CompletableFuture<Chunk<O>> next;
+        while ((next = inFlight.poll(PAUSE_POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+            if (readerThread.isAlive()) {
+                continue;
+            }
+            next = inFlight.poll();
+            if (next != null) {
+                break;
+            }
+            Throwable failure = readFailure.get();
+            throw new ExecutionException(failure != null ? failure
+                    : new IllegalStateException("Reader thread stopped before end of input"));
+        }
+        return next.get();
+    }
+
+    /**
+     * 读取线程：组装分块并提交处理，队列满时阻塞
+     */
+    private void readChunks(ItemReader<I> reader, Checkpoint checkpoint, int batchSize, ExecutorService processors,
+                            BlockingQueue<CompletableFuture<Chunk<O>>> inFlight,
+                            AtomicReference<Throwable> readFailure, JobPerformanceTracker tracker) {
+        try {
+            reader.open(checkpoint);
+            long readCount = checkpoint != null ? checkpoint.getReadCount() : 0;
+            boolean more = true;
+            while (more && !Thread.currentThread().isInterrupted()) {
+                long readStart = System.nanoTime();
+                List<I> items = new ArrayList<>(batchSize);
+                I item;
+                while (items.size() < batchSize && (item = reader.read()) != null) {
+                    items.add(item);
+                }
+                more = items.size() == batchSize;
+                if (items.isEmpty()) {
+                    break;
+                }
+                readCount += items.size();
+                long chunkReadCount = readCount;
+                Map<String, String> state = reader.snapshot();
+                long queuedAt = System.nanoTime();
+                tracker.recordStage(STAGE_READ, items.size(), queuedAt - readStart);
+                tracker.addBacklog(items.size());
+                inFlight.put(CompletableFuture.supplyAsync(
+                        () -> processChunk(items, chunkReadCount, state, queuedAt, tracker), processors));
+            }
+            inFlight.put(CompletableFuture.completedFuture(Chunk.end()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            readFailure.set(e);
+            CompletableFuture<Chunk<O>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            try {
+                // 排在已读取的分块之后，队列满时等待写入腾出位置，不能丢弃
+                inFlight.put(failed);
+            } catch (InterruptedException interrupted) {
+                // 作业已结束，调用线程不再等待分块
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    private Chunk<O> processChunk(List<I> items, long readCount, Map<String, String> readerState, long queuedAt,
+                                  JobPerformanceTracker tracker) {
+        long chunkStart = System.nanoTime();
+        tracker.recordQueueWait(chunkStart - queuedAt);
+        List<O> outputs = new ArrayList<>(items.size());
+        int filtered = 0;
+        int skipped = 0;
+        long itemStart = chunkStart;
+        for (I item : items) {
+            try {
+                O output = processor.process(item);
+                if (output != null) {
+                    outputs.add(output);
+                } else {
+                    filtered++;
+                }
+                long itemEnd = System.nanoTime();
+                tracker.recordItem(itemEnd - itemStart, true);
+                itemStart = itemEnd;
+            } catch (Exception e) {
+                long itemEnd = System.nanoTime();
+                tracker.recordItem(itemEnd - itemStart, false);
+                itemStart = itemEnd;
+                if (!config.isContinueOnError()) {
+                    throw new CompletionException(e);
+                }
+                skipped++;
+                logger.warn("Job {} skipped item that failed to process", jobName, e);
+            }
+        }
+        tracker.recordStage(STAGE_PROCESS, items.size(), System.nanoTime() - chunkStart);
+        return new Chunk<>(outputs, readCount, readerState, filtered, skipped);
+    }
+
+    private void writeWithRetry(List<O> items, long chunkIndex) throws JobExecutionException, InterruptedException {
+        for (int retry = 0; ; retry++) {
+            try {
+                writer.write(items);
+                return;
+            } catch (Exception e) {
+                if (retry >= config.getRetryCount()) {
+                    throw new JobExecutionException(jobId, "Failed to write chunk " + chunkIndex, e);
+                }
+                logger.warn("Failed to write chunk {} (attempt {}/{})", chunkIndex, retry + 1, config.getRetryCount() + 1, e);
+                Thread.sleep(config.getRetryDelayMs() * (retry + 1));
+            }
+        }
+    }
+
+    /**
+     * 暂停时等待恢复
+     *
+     * @return 是否继续执行，作业被取消时返回false
+     */
+    private boolean awaitRunnable() throws InterruptedException {
+        while (getStatus() == BatchJobStatus.PAUSED) {
+            Thread.sleep(PAUSE_POLL_MILLIS);
+        }
+        return getStatus() != BatchJobStatus.CANCELLED;
+    }
+
+    private JobExecutionException fail(JobExecutionException e) {
+        updateStatus(BatchJobStatus.FAILED);
+        metrics.fail(e);
+        logger.error("Job {} failed", jobName, e);
+        return e;
+    }
+
+    private void closeQuietly(ItemReader<I> reader) {
+        try {
+            reader.close();
+        } catch (Exception e) {
+            logger.warn("Failed to close reader of job {}", jobName, e);
+        }
+    }
+
+    @Override
+    public BatchConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 启动组件，作业由 {@link #execute(ItemReader)} 驱动
+     */
+    @Override
+    public void start() {
+    }
+
+    /**
+     * 停止组件，取消正在执行的作业
+     */
+    @Override
+    public void stop() {
+        cancel();
+    }
+
+    /**
+     * 检查组件是否正在运行
+     */
+    @Override
+    public boolean isRunning() {
+        return getStatus() == BatchJobStatus.RUNNING;
+    }
+
+    /**
+     * 重启组件，断点续跑通过以同一作业名称重新执行实现
+     */
+    @Override
+    public void restart() {
+    }
+
+    /**
+     * 处理完成、等待写入的分块
+     */
+    private static final class Chunk<T> {
+        @SuppressWarnings("rawtypes")
+        static final Chunk END = new Chunk<>(Collections.emptyList(), 0, Collections.emptyMap(), 0, 0);
+
+        final List<T> items;
+        final long readCount;
+        final Map<String, String> readerState;
+        final int filterCount;
+        final int skipCount;
+
+        Chunk(List<T> items, long readCount, Map<String, String> readerState, int filterCount, int skipCount) {
+            this.items = items;
+            this.readCount = readCount;
+            this.readerState = readerState;
+            this.filterCount = filterCount;
+            this.skipCount = skipCount;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> Chunk<T> end() {
+            return (Chunk<T>) END;
+        }
+    }
+
+    /**
+     * 分块流水线的执行结果
+     */
+    public static class ChunkResult {
+        private final long readCount;
+        private final long writeCount;
+        private final long filterCount;
+        private final long skipCount;
+        private final long chunkCount;
+        private final long resumedFrom;
+        private final long processingTime;
+
+        public ChunkResult(long readCount, long writeCount, long filterCount, long skipCount, long chunkCount,
+                           long resumedFrom, long processingTime) {
+            this.readCount = readCount;
+            this.writeCount = writeCount;
+            this.filterCount = filterCount;
+            this.skipCount = skipCount;
+            this.chunkCount = chunkCount;
+            this.resumedFrom = resumedFrom;
+            this.processingTime = processingTime;
+        }
+
+        // Getters
+        public long getReadCount() {
+            return readCount;
+        }
+
+        public long getWriteCount() {
+            return writeCount;
+        }
+
+        public long getFilterCount() {
+            return filterCount;
+        }
+
+        public long getSkipCount() {
+            return skipCount;
+        }
+
+        public long getChunkCount() {
+            return chunkCount;
+        }
+
+        public long getResumedFrom() {
+            return resumedFrom;
+        }
+
+        public long getProcessingTime() {
+            return processingTime;
+        }
+
+        @Override
+        public String toString() {
+            return "ChunkResult{" +
+                    "readCount=" + readCount +
+                    ", writeCount=" + writeCount +
+                    ", filterCount=" + filterCount +
+                    ", skipCount=" + skipCount +
+                    ", chunkCount=" + chunkCount +
+                    ", resumedFrom=" + resumedFrom +
+                    ", processingTime=" + processingTime + "ms" +
+                    '}';
+        }
+    }
+}
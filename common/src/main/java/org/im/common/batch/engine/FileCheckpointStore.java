@@ -0,0 +1,105 @@
+package org.im.common.batch.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 基于本地文件的检查点存储
+ * <p>
+ * 每个作业一个 {@code <作业名称>.checkpoint} 文件，内容为 Properties 格式。
+ * 先写入临时文件再原子替换，进程在写入过程中退出时保留上一个完整的检查点
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/20
+ */
+public class FileCheckpointStore implements CheckpointStore {
+
+    private static final String SUFFIX = ".checkpoint";
+    private static final String STATE_PREFIX = "state.";
+
+    private final Path directory;
+
+    /**
+     * 构造函数
+     *
+     * @param directory 检查点目录，不存在时自动创建
+     */
+    public FileCheckpointStore(Path directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Checkpoint directory cannot be null");
+        }
+        this.directory = directory;
+    }
+
+    @Override
+    public Checkpoint load(String jobName) throws IOException {
+        Path file = fileOf(jobName);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        Map<String, String> state = new LinkedHashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(STATE_PREFIX)) {
+                state.put(name.substring(STATE_PREFIX.length()), properties.getProperty(name));
+            }
+        }
+        return new Checkpoint(jobName,
+                Long.parseLong(properties.getProperty("readCount", "0")),
+                Long.parseLong(properties.getProperty("writeCount", "0")),
+                Long.parseLong(properties.getProperty("chunkCount", "0")),
+                state,
+                Long.parseLong(properties.getProperty("updatedAt", "0")));
+    }
+
+    @Override
+    public void save(Checkpoint checkpoint) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("readCount", String.valueOf(checkpoint.getReadCount()));
+        properties.setProperty("writeCount", String.valueOf(checkpoint.getWriteCount()));
+        properties.setProperty("chunkCount", String.valueOf(checkpoint.getChunkCount()));
+        properties.setProperty("updatedAt", String.valueOf(checkpoint.getUpdatedAt()));
+        checkpoint.getReaderState().forEach((key, value) -> properties.setProperty(STATE_PREFIX + key, value));
+
+        Files.createDirectories(directory);
+        Path file = fileOf(checkpoint.getJobName());
+        Path temp = Files.createTempFile(directory, checkpoint.getJobName(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "checkpoint of " + checkpoint.getJobName());
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void clear(String jobName) throws IOException {
+        Files.deleteIfExists(fileOf(jobName));
+    }
+
+    private Path fileOf(String jobName) {
+        if (jobName == null || jobName.isEmpty() || jobName.contains("/") || jobName.contains("\\")) {
+            throw new IllegalArgumentException("Invalid job name for checkpoint file: " + jobName);
+        }
+        return directory.resolve(jobName + SUFFIX);
+    }
+}
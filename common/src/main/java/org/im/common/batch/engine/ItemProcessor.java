@@ -0,0 +1,26 @@
+package org.im.common.batch.engine;
+
+/**
+ * 条目处理器
+ * <p>
+ * 分块流水线的转换阶段，多个分块可能在不同线程上同时处理，实现应当是线程安全的
+ * </p>
+ *
+ * @param <I> 输入条目类型
+ * @param <O> 输出条目类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/20
+ */
+@FunctionalInterface
+public interface ItemProcessor<I, O> {
+
+    /**
+     * 处理单个条目
+     *
+     * @param item 输入条目
+     * @return 输出条目，返回null表示过滤掉该条目
+     * @throws Exception 处理失败
+     */
+    O process(I item) throws Exception;
+}
@@ -0,0 +1,84 @@
+package org.im.common.batch.engine;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 条目读取器
+ * <p>
+ * 分块流水线的输入端，逐条读取数据，不要求一次性将全部输入加载到内存中。
+ * 从检查点恢复时，{@link #open(Checkpoint)} 负责定位到检查点之后的位置：
+ * 默认实现逐条读取并丢弃已提交的条目，能够按主键或文件偏移量定位的读取器应覆盖该方法，
+ * 并通过 {@link #snapshot()} 提供定位所需的状态
+ * </p>
+ *
+ * @param <T> 条目类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/20
+ */
+public interface ItemReader<T> extends AutoCloseable {
+
+    /**
+     * 读取下一个条目
+     *
+     * @return 下一个条目，输入结束时返回null
+     * @throws Exception 读取失败
+     */
+    T read() throws Exception;
+
+    /**
+     * 打开读取器，从检查点恢复时定位到已提交条目之后
+     *
+     * @param checkpoint 上次提交的检查点，首次执行时为null
+     * @throws Exception 打开或定位失败
+     */
+    default void open(Checkpoint checkpoint) throws Exception {
+        if (checkpoint == null) {
+            return;
+        }
+        for (long i = 0; i < checkpoint.getReadCount(); i++) {
+            if (read() == null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 获取最近一次读取之后的定位状态，随所在分块的检查点一起保存
+     *
+     * @return 定位状态，如最后读取的主键；默认为空
+     */
+    default Map<String, String> snapshot() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * 关闭读取器，释放游标、文件等资源
+     * <p>
+     * 收窄为只抛出 {@link IOException}，避免 try-with-resources 因 {@link AutoCloseable#close()}
+     * 可能抛出 InterruptedException 而产生编译警告；其他受检异常由实现包装后抛出
+     * </p>
+     *
+     * @throws IOException 关闭失败
+     */
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * 将迭代器适配为读取器
+     *
+     * @param iterator 迭代器，不应返回null元素
+     * @param <T>      条目类型
+     * @return 读取器
+     */
+    static <T> ItemReader<T> of(Iterator<? extends T> iterator) {
+        if (iterator == null) {
+            throw new IllegalArgumentException("Iterator cannot be null");
+        }
+        return () -> iterator.hasNext() ? iterator.next() : null;
+    }
+}
@@ -0,0 +1,27 @@
+package org.im.common.batch.engine;
+
+import java.util.List;
+
+/**
+ * 条目写入器
+ * <p>
+ * 分块流水线的输出端，每次写入一个完整分块，写入成功即视为该分块已提交。
+ * 分块按读取顺序在同一线程上依次写入；写入失败会按配置重试，因此同一分块可能被写入多次，实现应当是幂等的
+ * </p>
+ *
+ * @param <T> 条目类型
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/20
+ */
+@FunctionalInterface
+public interface ItemWriter<T> {
+
+    /**
+     * 写入一个分块
+     *
+     * @param items 分块中的条目，过滤后可能为空
+     * @throws Exception 写入失败
+     */
+    void write(List<? extends T> items) throws Exception;
+}
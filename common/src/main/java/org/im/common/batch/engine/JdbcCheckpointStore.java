@@ -0,0 +1,168 @@
+package org.im.common.batch.engine;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * 基于数据库表的检查点存储
+ * <p>
+ * 适用于作业可能在不同节点上重新执行的场景，表结构如下（列类型按数据库调整）：
+ * </p>
+ * <pre>
+ * CREATE TABLE batch_checkpoint (
+ *     job_name     VARCHAR(200) PRIMARY KEY,
+ *     read_count   BIGINT       NOT NULL,
+ *     write_count  BIGINT       NOT NULL,
+ *     chunk_count  BIGINT       NOT NULL,
+ *     reader_state VARCHAR(4000),
+ *     updated_at   TIMESTAMP    NOT NULL
+ * )
+ * </pre>
+ * <p>
+ * 保存时先更新，未命中再插入；读取器状态以 Properties 文本存储
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/20
+ */
+public class JdbcCheckpointStore implements CheckpointStore {
+
+    /**
+     * 默认表名
+     */
+    public static final String DEFAULT_TABLE = "batch_checkpoint";
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_.]*");
+
+    private final DataSource dataSource;
+    private final String selectSql;
+    private final String updateSql;
+    private final String insertSql;
+    private final String deleteSql;
+
+    /**
+     * 构造函数（使用默认表名）
+     *
+     * @param dataSource 数据源
+     */
+    public JdbcCheckpointStore(DataSource dataSource) {
+        this(dataSource, DEFAULT_TABLE);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param dataSource 数据源
+     * @param table      表名，可带 schema 前缀
+     */
+    public JdbcCheckpointStore(DataSource dataSource, String table) {
+        if (dataSource == null) {
+            throw new IllegalArgumentException("DataSource cannot be null");
+        }
+        if (table == null || !TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid checkpoint table name: " + table);
+        }
+        this.dataSource = dataSource;
+        this.selectSql = "SELECT read_count, write_count, chunk_count, reader_state, updated_at FROM " + table
+                + " WHERE job_name = ?";
+        this.updateSql = "UPDATE " + table
+                + " SET read_count = ?, write_count = ?, chunk_count = ?, reader_state = ?, updated_at = ? WHERE job_name = ?";
+        this.insertSql = "INSERT INTO " + table
+                + " (read_count, write_count, chunk_count, reader_state, updated_at, job_name) VALUES (?, ?, ?, ?, ?, ?)";
+        this.deleteSql = "DELETE FROM " + table + " WHERE job_name = ?";
+    }
+
+    @Override
+    public Checkpoint load(String jobName) throws SQLException, IOException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(selectSql)) {
+            statement.setString(1, jobName);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                Timestamp updatedAt = rs.getTimestamp("updated_at");
+                return new Checkpoint(jobName,
+                        rs.getLong("read_count"),
+                        rs.getLong("write_count"),
+                        rs.getLong("chunk_count"),
+                        decodeState(rs.getString("reader_state")),
+                        updatedAt != null ? updatedAt.getTime() : 0);
+            }
+        }
+    }
+
+    @Override
+    public void save(Checkpoint checkpoint) throws SQLException, IOException {
+        String state = encodeState(checkpoint.getReaderState());
+        try (Connection connection = dataSource.getConnection()) {
+            if (execute(connection, updateSql, checkpoint, state) == 0) {
+                execute(connection, insertSql, checkpoint, state);
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+    }
+
+    @Override
+    public void clear(String jobName) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(deleteSql)) {
+            statement.setString(1, jobName);
+            statement.executeUpdate();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+    }
+
+    private static int execute(Connection connection, String sql, Checkpoint checkpoint, String state)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, checkpoint.getReadCount());
+            statement.setLong(2, checkpoint.getWriteCount());
+            statement.setLong(3, checkpoint.getChunkCount());
+            statement.setString(4, state);
+            statement.setTimestamp(5, new Timestamp(checkpoint.getUpdatedAt()));
+            statement.setString(6, checkpoint.getJobName());
+            return statement.executeUpdate();
+        }
+    }
+
+    private static String encodeState(Map<String, String> state) throws IOException {
+        if (state.isEmpty()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        properties.putAll(state);
+        StringWriter writer = new StringWriter();
+        properties.store(writer, null);
+        return writer.toString();
+    }
+
+    private static Map<String, String> decodeState(String text) throws IOException {
+        Map<String, String> state = new LinkedHashMap<>();
+        if (text == null || text.isEmpty()) {
+            return state;
+        }
+        Properties properties = new Properties();
+        properties.load(new StringReader(text));
+        for (String name : properties.stringPropertyNames()) {
+            state.put(name, properties.getProperty(name));
+        }
+        return state;
+    }
+}
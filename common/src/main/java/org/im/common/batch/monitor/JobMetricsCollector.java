@@ -1,10 +1,187 @@
 package org.im.common.batch.monitor;
 
+import org.im.common.lifecycle.Lifecycle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
 /**
+ * 作业指标采集器
+ * <p>
+ * 汇总正在执行的作业的 {@link JobPerformanceTracker}，启动后按固定周期生成快照并交给监听器，
+ * 未注册监听器时以INFO级别输出有活动的作业快照。作业结束注销时立即输出最后一个区间的快照。
+ * </p>
+ * <p>
+ * {@link #getDefault()} 返回进程内共享的采集器，批处理引擎执行期间自动注册到该采集器；
+ * 共享采集器默认不启动，不会创建线程，需要周期性输出时调用 {@link #start()}。
+ * </p>
+ *
  * @author gaozhilin
  * @email gaoolin@gmail.com
  * @date 2025/10/17
  */
+public class JobMetricsCollector implements Lifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobMetricsCollector.class);
+
+    public static final long DEFAULT_REPORT_INTERVAL_MS = 10_000;
+
+    private static final JobMetricsCollector DEFAULT = new JobMetricsCollector(DEFAULT_REPORT_INTERVAL_MS);
+
+    private final long reportIntervalMs;
+    private final Map<String, JobPerformanceTracker> trackers = new ConcurrentHashMap<>();
+    private final List<Consumer<JobPerformanceTracker.Snapshot>> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService reporter;
+
+    /**
+     * 构造函数
+     *
+     * @param reportIntervalMs 快照周期（毫秒）
+     */
+    public JobMetricsCollector(long reportIntervalMs) {
+        if (reportIntervalMs <= 0) {
+            throw new IllegalArgumentException("Report interval must be positive");
+        }
+        this.reportIntervalMs = reportIntervalMs;
+    }
+
+    /**
+     * 获取进程内共享的采集器
+     *
+     * @return 共享采集器
+     */
+    public static JobMetricsCollector getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 注册作业跟踪器，同一作业ID重复注册时替换
+     *
+     * @param tracker 作业跟踪器
+     */
+    public void register(JobPerformanceTracker tracker) {
+        if (tracker == null) {
+            throw new IllegalArgumentException("Tracker cannot be null");
+        }
+        trackers.put(tracker.getJobId(), tracker);
+    }
+
+    /**
+     * 注销作业跟踪器，采集器运行时输出最后一个区间的快照
+     *
+     * @param jobId 作业ID
+     */
+    public void unregister(String jobId) {
+        JobPerformanceTracker tracker = trackers.remove(jobId);
+        if (tracker != null && isRunning()) {
+            publish(tracker.snapshot());
+        }
+    }
+
+    /**
+     * 获取作业跟踪器
+     *
+     * @param jobId 作业ID
+     * @return 作业跟踪器，未注册时返回null
+     */
+    public JobPerformanceTracker getTracker(String jobId) {
+        return trackers.get(jobId);
+    }
+
+    /**
+     * 添加快照监听器
+     *
+     * @param listener 监听器
+     */
+    public void addListener(Consumer<JobPerformanceTracker.Snapshot> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * 移除快照监听器
+     *
+     * @param listener 监听器
+     */
+    public void removeListener(Consumer<JobPerformanceTracker.Snapshot> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 立即对所有已注册作业生成快照，不通知监听器
+     *
+     * @return 快照列表
+     */
+    public List<JobPerformanceTracker.Snapshot> collect() {
+        List<JobPerformanceTracker.Snapshot> snapshots = new ArrayList<>(trackers.size());
+        for (JobPerformanceTracker tracker : trackers.values()) {
+            snapshots.add(tracker.snapshot());
+        }
+        return snapshots;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (reporter != null) {
+            return;
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "batch-metrics-collector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(this::report, reportIntervalMs, reportIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return reporter != null;
+    }
+
+    @Override
+    public void restart() {
+        stop();
+        start();
+    }
+
+    private void report() {
+        for (JobPerformanceTracker.Snapshot snapshot : collect()) {
+            publish(snapshot);
+        }
+    }
 
-public class JobMetricsCollector {
-}
\ No newline at end of file
+    private void publish(JobPerformanceTracker.Snapshot snapshot) {
+        if (listeners.isEmpty()) {
+            if (snapshot.isActive()) {
+                logger.info("{}", snapshot);
+            }
+            return;
+        }
+        for (Consumer<JobPerformanceTracker.Snapshot> listener : listeners) {
+            try {
+                listener.accept(snapshot);
+            } catch (RuntimeException e) {
+                logger.warn("Job metrics listener failed", e);
+            }
+        }
+    }
+}
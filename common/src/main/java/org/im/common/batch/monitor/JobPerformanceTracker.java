@@ -1,11 +1,373 @@
 package org.im.common.batch.monitor;
 
+import org.im.common.metrics.LatencyHistogram;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
+ * 作业性能跟踪器
+ * <p>
+ * 记录单个作业的条目处理延迟、各阶段吞吐、排队等待时间和积压数量。计数使用 {@link LongAdder}，
+ * 延迟使用 {@link LatencyHistogram}，记录路径无锁，可在处理线程上逐条目调用。
+ * </p>
+ * <p>
+ * {@link #snapshot()} 返回自上次快照以来的区间数据：每秒处理条目数、条目延迟分位数、排队等待分位数，
+ * 以及快照时刻的积压数量和累计总数，通常由 {@link JobMetricsCollector} 周期性调用。
+ * </p>
+ *
  * @author gaozhilin
  * @email gaoolin@gmail.com
  * @date 2025/10/17
  */
+public class JobPerformanceTracker {
 
+    private final String jobId;
+    private final String jobName;
 
-public class JobPerformanceTracker {
+    // 累计处理条目数
+    private final LongAdder totalItems = new LongAdder();
+    // 累计失败条目数
+    private final LongAdder totalFailures = new LongAdder();
+    // 区间处理条目数
+    private final LongAdder intervalItems = new LongAdder();
+    // 区间失败条目数
+    private final LongAdder intervalFailures = new LongAdder();
+    // 已接收、尚未完成的条目数
+    private final LongAdder backlog = new LongAdder();
+    // 条目处理延迟
+    private final LatencyHistogram itemLatency = new LatencyHistogram();
+    // 排队等待时间
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    // 各阶段统计，按首次记录顺序输出
+    private final Map<String, Stage> stages = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, Stage> stageLookup = new ConcurrentHashMap<>();
+
+    private long lastSnapshotNanos = System.nanoTime();
+
+    /**
+     * 构造函数
+     *
+     * @param jobId   作业ID
+     * @param jobName 作业名称，可为null
+     */
+    public JobPerformanceTracker(String jobId, String jobName) {
+        if (jobId == null) {
+            throw new IllegalArgumentException("Job ID cannot be null");
+        }
+        this.jobId = jobId;
+        this.jobName = jobName;
+    }
+
+    /**
+     * 记录一个条目处理完成
+     *
+     * @param latencyNanos 处理耗时（纳秒）
+     * @param success      是否处理成功
+     */
+    public void recordItem(long latencyNanos, boolean success) {
+        itemLatency.record(latencyNanos);
+        totalItems.increment();
+        intervalItems.increment();
+        if (!success) {
+            totalFailures.increment();
+            intervalFailures.increment();
+        }
+    }
+
+    /**
+     * 记录一次阶段执行，如读取或写入一个分块
+     *
+     * @param stage        阶段名称
+     * @param items        本次处理的条目数
+     * @param latencyNanos 本次执行耗时（纳秒）
+     */
+    public void recordStage(String stage, int items, long latencyNanos) {
+        Stage stats = stageLookup.get(stage);
+        if (stats == null) {
+            synchronized (stages) {
+                stats = stageLookup.computeIfAbsent(stage, name -> {
+                    Stage created = new Stage();
+                    stages.put(name, created);
+                    return created;
+                });
+            }
+        }
+        stats.items.add(items);
+        stats.latency.record(latencyNanos);
+    }
+
+    /**
+     * 记录一次排队等待，如分块从读取完成到开始处理的等待
+     *
+     * @param waitNanos 等待时间（纳秒）
+     */
+    public void recordQueueWait(long waitNanos) {
+        queueWait.record(waitNanos);
+    }
+
+    /**
+     * 调整积压条目数，接收时增加，完成时减少
+     *
+     * @param delta 变化量
+     */
+    public void addBacklog(long delta) {
+        backlog.add(delta);
+    }
+
+    /**
+     * 生成自上次快照以来的区间快照
+     *
+     * @return 性能快照
+     */
+    public synchronized Snapshot snapshot() {
+        long now = System.nanoTime();
+        long intervalNanos = Math.max(1, now - lastSnapshotNanos);
+        lastSnapshotNanos = now;
+
+        Map<String, StageSnapshot> stageSnapshots = new LinkedHashMap<>();
+        synchronized (stages) {
+            for (Map.Entry<String, Stage> entry : stages.entrySet()) {
+                LatencyHistogram latency = entry.getValue().latency.drain();
+                long items = entry.getValue().items.sumThenReset();
+                stageSnapshots.put(entry.getKey(), new StageSnapshot(entry.getKey(), latency.getCount(), items,
+                        perSecond(items, intervalNanos), latency.getP99()));
+            }
+        }
+        LatencyHistogram latency = itemLatency.drain();
+        LatencyHistogram wait = queueWait.drain();
+        long items = intervalItems.sumThenReset();
+        return new Snapshot(jobId, jobName, System.currentTimeMillis(), TimeUnit.NANOSECONDS.toMillis(intervalNanos),
+                items, intervalFailures.sumThenReset(), perSecond(items, intervalNanos),
+                latency.getP50(), latency.getP99(), latency.getMax(),
+                wait.getP99(), backlog.sum(), totalItems.sum(), totalFailures.sum(),
+                Collections.unmodifiableMap(stageSnapshots));
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    /**
+     * 获取累计处理条目数
+     *
+     * @return 累计处理条目数
+     */
+    public long getTotalItems() {
+        return totalItems.sum();
+    }
+
+    /**
+     * 获取当前积压条目数
+     *
+     * @return 积压条目数
+     */
+    public long getBacklog() {
+        return backlog.sum();
+    }
+
+    private static double perSecond(long count, long intervalNanos) {
+        return count * (double) TimeUnit.SECONDS.toNanos(1) / intervalNanos;
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3fms", nanos / 1_000_000.0);
+    }
+
+    /**
+     * 阶段统计
+     */
+    private static final class Stage {
+        final LongAdder items = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    /**
+     * 作业性能快照，延迟单位为纳秒
+     */
+    public static class Snapshot {
+        private final String jobId;
+        private final String jobName;
+        private final long timestamp;
+        private final long intervalMs;
+        private final long items;
+        private final long failures;
+        private final double itemsPerSecond;
+        private final long itemLatencyP50;
+        private final long itemLatencyP99;
+        private final long itemLatencyMax;
+        private final long queueWaitP99;
+        private final long backlog;
+        private final long totalItems;
+        private final long totalFailures;
+        private final Map<String, StageSnapshot> stages;
+
+        public Snapshot(String jobId, String jobName, long timestamp, long intervalMs, long items, long failures,
+                        double itemsPerSecond, long itemLatencyP50, long itemLatencyP99, long itemLatencyMax,
+                        long queueWaitP99, long backlog, long totalItems, long totalFailures,
+                        Map<String, StageSnapshot> stages) {
+            this.jobId = jobId;
+            this.jobName = jobName;
+            this.timestamp = timestamp;
+            this.intervalMs = intervalMs;
+            this.items = items;
+            this.failures = failures;
+            this.itemsPerSecond = itemsPerSecond;
+            this.itemLatencyP50 = itemLatencyP50;
+            this.itemLatencyP99 = itemLatencyP99;
+            this.itemLatencyMax = itemLatencyMax;
+            this.queueWaitP99 = queueWaitP99;
+            this.backlog = backlog;
+            this.totalItems = totalItems;
+            this.totalFailures = totalFailures;
+            this.stages = stages;
+        }
+
+        /**
+         * 区间内是否有活动
+         *
+         * @return 有条目处理、阶段执行或积压时返回true
+         */
+        public boolean isActive() {
+            if (items > 0 || backlog > 0) {
+                return true;
+            }
+            for (StageSnapshot stage : stages.values()) {
+                if (stage.getExecutions() > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Getters
+        public String getJobId() {
+            return jobId;
+        }
+
+        public String getJobName() {
+            return jobName;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public long getIntervalMs() {
+            return intervalMs;
+        }
+
+        public long getItems() {
+            return items;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public double getItemsPerSecond() {
+            return itemsPerSecond;
+        }
+
+        public long getItemLatencyP50() {
+            return itemLatencyP50;
+        }
+
+        public long getItemLatencyP99() {
+            return itemLatencyP99;
+        }
+
+        public long getItemLatencyMax() {
+            return itemLatencyMax;
+        }
+
+        public long getQueueWaitP99() {
+            return queueWaitP99;
+        }
+
+        public long getBacklog() {
+            return backlog;
+        }
+
+        public long getTotalItems() {
+            return totalItems;
+        }
+
+        public long getTotalFailures() {
+            return totalFailures;
+        }
+
+        public Map<String, StageSnapshot> getStages() {
+            return stages;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                    "job='" + (jobName != null ? jobName : jobId) + '\'' +
+                    ", itemsPerSecond=" + String.format("%.1f", itemsPerSecond) +
+                    ", itemLatencyP50=" + millis(itemLatencyP50) +
+                    ", itemLatencyP99=" + millis(itemLatencyP99) +
+                    ", queueWaitP99=" + millis(queueWaitP99) +
+                    ", backlog=" + backlog +
+                    ", failures=" + failures +
+                    ", totalItems=" + totalItems +
+                    ", stages=" + stages.values() +
+                    '}';
+        }
+    }
+
+    /**
+     * 阶段性能快照，延迟单位为纳秒
+     */
+    public static class StageSnapshot {
+        private final String name;
+        private final long executions;
+        private final long items;
+        private final double itemsPerSecond;
+        private final long latencyP99;
+
+        public StageSnapshot(String name, long executions, long items, double itemsPerSecond, long latencyP99) {
+            this.name = name;
+            this.executions = executions;
+            this.items = items;
+            this.itemsPerSecond = itemsPerSecond;
+            this.latencyP99 = latencyP99;
+        }
+
+        // Getters
+        public String getName() {
+            return name;
+        }
+
+        public long getExecutions() {
+            return executions;
+        }
+
+        public long getItems() {
+            return items;
+        }
+
+        public double getItemsPerSecond() {
+            return itemsPerSecond;
+        }
+
+        public long getLatencyP99() {
+            return latencyP99;
+        }
+
+        @Override
+        public String toString() {
+            return name + "{itemsPerSecond=" + String.format("%.1f", itemsPerSecond) +
+                    ", latencyP99=" + millis(latencyP99) + '}';
+        }
+    }
 }
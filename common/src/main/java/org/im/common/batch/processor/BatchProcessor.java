@@ -1,15 +1,21 @@
 package org.im.common.batch.processor;
 
 import org.im.common.batch.config.BatchConfig;
+import org.im.common.batch.monitor.JobPerformanceTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -26,6 +32,10 @@ import java.util.function.Function;
  * - 复用性：高度可复用的批处理框架
  * - 容错性：失败重试和部分失败处理机制
  * </p>
+ * <p>
+ * 并行处理在进程内共享的 {@link ForkJoinPool} 或调用方指定的线程池上执行，输入被切分为自适应大小的分块，
+ * 每次调用同时在途的分块数不超过指定的并行度，结果保持输入顺序
+ * </p>
  *
  * @author gaozhilin
  * @version 1.0
@@ -36,6 +46,11 @@ public class BatchProcessor {
 
     private static final Logger logger = LoggerFactory.getLogger(BatchProcessor.class);
 
+    /**
+     * 性能跟踪的阶段名称
+     */
+    public static final String STAGE_BATCH = "batch";
+
     /**
      * 分批处理数据（使用默认配置）
      *
@@ -60,6 +75,23 @@ public class BatchProcessor {
     public static <T> List<BatchResult<T>> processInBatches(List<T> data,
                                                             Consumer<List<T>> processor,
                                                             BatchConfig config) {
+        return processInBatches(data, processor, config, null);
+    }
+
+    /**
+     * 分批处理数据，并记录每批的处理耗时和吞吐
+     *
+     * @param data      待处理数据列表
+     * @param processor 批处理器
+     * @param config    批处理配置
+     * @param tracker   性能跟踪器，批次记录为 {@link #STAGE_BATCH} 阶段，可为null
+     * @param <T>       数据类型
+     * @return 处理结果列表
+     */
+    public static <T> List<BatchResult<T>> processInBatches(List<T> data,
+                                                            Consumer<List<T>> processor,
+                                                            BatchConfig config,
+                                                            JobPerformanceTracker tracker) {
         if (data == null || data.isEmpty()) {
             return new ArrayList<>();
         }
@@ -73,6 +105,9 @@ public class BatchProcessor {
         int totalBatches = (int) Math.ceil((double) data.size() / batchSize);
 
         logger.info("Starting batch processing: {} items in {} batches", data.size(), totalBatches);
+        if (tracker != null) {
+            tracker.addBacklog(data.size());
+        }
 
         for (int i = 0; i < totalBatches; i++) {
             int start = i * batchSize;
@@ -114,6 +149,10 @@ public class BatchProcessor {
 
             BatchResult<T> result = new BatchResult<>(i, batch.size(), success, lastException, processingTime);
             results.add(result);
+            if (tracker != null) {
+                tracker.recordStage(STAGE_BATCH, batch.size(), TimeUnit.MILLISECONDS.toNanos(processingTime));
+                tracker.addBacklog(-batch.size());
+            }
 
             // 如果配置为出错停止，且当前批次失败，则停止处理
             if (!success && !config.isContinueOnError()) {
@@ -122,6 +161,13 @@ public class BatchProcessor {
             }
         }
 
+        if (tracker != null) {
+            int processed = 0;
+            for (BatchResult<T> result : results) {
+                processed += result.getBatchSize();
+            }
+            tracker.addBacklog(processed - data.size());
+        }
         return results;
     }
 
@@ -139,74 +185,148 @@ public class BatchProcessor {
     }
 
     /**
-     * 并行处理数据
+     * 并行处理数据，在共享线程池上执行
      *
      * @param data        待处理数据列表
      * @param processor   数据处理器
-     * @param threadCount 线程数
+     * @param threadCount 并行度，即同时处理的分块数
      * @param <T>         输入数据类型
      * @param <R>         输出数据类型
-     * @return 处理结果列表
+     * @return 处理结果列表，与输入顺序一致，处理失败的元素为null
      */
     public static <T, R> List<R> processParallel(List<T> data, Function<T, R> processor, int threadCount) {
+        return processParallel(data, processor, threadCount, SharedPool.POOL);
+    }
+
+    /**
+     * 并行处理数据，在指定线程池上执行
+     * <p>
+     * 调用线程等待期间被中断时取消剩余处理，保留中断状态并返回已完成的部分结果
+     * </p>
+     *
+     * @param data        待处理数据列表
+     * @param processor   数据处理器
+     * @param threadCount 并行度，即同时处理的分块数
+     * @param executor    执行分块的线程池，如 {@code ThreadPoolManager} 管理的线程池
+     * @param <T>         输入数据类型
+     * @param <R>         输出数据类型
+     * @return 处理结果列表，与输入顺序一致，处理失败或未处理的元素为null
+     */
+    public static <T, R> List<R> processParallel(List<T> data, Function<T, R> processor, int threadCount,
+                                                 Executor executor) {
+        return processParallel(data, processor, threadCount, executor, null);
+    }
+
+    /**
+     * 并行处理数据，在指定线程池上执行，并记录每个元素的处理延迟
+     *
+     * @param data        待处理数据列表
+     * @param processor   数据处理器
+     * @param threadCount 并行度，即同时处理的分块数
+     * @param executor    执行分块的线程池
+     * @param tracker     性能跟踪器，可为null
+     * @param <T>         输入数据类型
+     * @param <R>         输出数据类型
+     * @return 处理结果列表，与输入顺序一致，处理失败或未处理的元素为null
+     */
+    public static <T, R> List<R> processParallel(List<T> data, Function<T, R> processor, int threadCount,
+                                                 Executor executor, JobPerformanceTracker tracker) {
         if (data == null || data.isEmpty()) {
             return new ArrayList<>();
         }
 
-        if (threadCount <= 0) {
-            threadCount = BatchConfig.DEFAULT_CONCURRENT_THREADS;
-        }
-
-        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
-        List<Future<R>> futures = new ArrayList<>();
-
+        ParallelExecution<T, R> execution = startParallel(data, processor, threadCount, executor, tracker);
         try {
-            // 提交任务
-            for (T item : data) {
-                Future<R> future = executor.submit(() -> {
-                    try {
-                        return processor.apply(item);
-                    } catch (Exception e) {
-                        logger.warn("Failed to process item", e);
-                        return null; // 或者抛出异常
-                    }
-                });
-                futures.add(future);
-            }
+            return execution.get();
+        } catch (InterruptedException e) {
+            execution.cancel(false);
+            Thread.currentThread().interrupt();
+            logger.warn("Parallel processing interrupted, returning partial results");
+            return execution.snapshot();
+        } catch (ExecutionException e) {
+            logger.warn("Parallel processing aborted", e.getCause());
+            return execution.snapshot();
+        }
+    }
 
-            // 收集结果
-            List<R> results = new ArrayList<>();
-            for (Future<R> future : futures) {
-                try {
-                    R result = future.get();
-                    results.add(result);
-                } catch (Exception e) {
-                    logger.warn("Failed to get result from future", e);
-                    results.add(null); // 或者抛出异常
-                }
-            }
+    /**
+     * 异步并行处理数据，在共享线程池上执行
+     *
+     * @param data        待处理数据列表
+     * @param processor   数据处理器
+     * @param threadCount 并行度，即同时处理的分块数
+     * @param <T>         输入数据类型
+     * @param <R>         输出数据类型
+     * @return 处理结果列表的异步结果，取消后不再开始处理新的元素
+     */
+    public static <T, R> CompletableFuture<List<R>> processParallelAsync(List<T> data, Function<T, R> processor,
+                                                                        int threadCount) {
+        return processParallelAsync(data, processor, threadCount, SharedPool.POOL);
+    }
 
-            return results;
-        } finally {
-            shutdownExecutor(executor);
-        }
+    /**
+     * 异步并行处理数据，在指定线程池上执行
+     * <p>
+     * 输入按引导式自调度切分：每个工作任务处理完一块后领取下一块，块大小为剩余数量除以两倍并行度，
+     * 开始时块大、调度开销低，接近结束时块小、各任务负载均衡。每次调用最多向线程池提交 {@code threadCount} 个任务，
+     * 不为每个元素创建 Future，也不创建或销毁线程。
+     * </p>
+     *
+     * @param data        待处理数据列表
+     * @param processor   数据处理器
+     * @param threadCount 并行度，即同时处理的分块数，不大于0时使用默认值
+     * @param executor    执行分块的线程池
+     * @param <T>         输入数据类型
+     * @param <R>         输出数据类型
+     * @return 处理结果列表的异步结果，与输入顺序一致，处理失败的元素为null；取消后不再开始处理新的元素
+     */
+    public static <T, R> CompletableFuture<List<R>> processParallelAsync(List<T> data, Function<T, R> processor,
+                                                                        int threadCount, Executor executor) {
+        return processParallelAsync(data, processor, threadCount, executor, null);
     }
 
     /**
-     * 安全关闭线程池
+     * 异步并行处理数据，在指定线程池上执行，并记录每个元素的处理延迟
+     * <p>
+     * 跟踪器记录每个元素的处理耗时和成败、工作任务从提交到开始执行的排队时间，以及尚未处理的元素数
+     * </p>
      *
-     * @param executor 线程池
+     * @param data        待处理数据列表
+     * @param processor   数据处理器
+     * @param threadCount 并行度，即同时处理的分块数，不大于0时使用默认值
+     * @param executor    执行分块的线程池
+     * @param tracker     性能跟踪器，可为null
+     * @param <T>         输入数据类型
+     * @param <R>         输出数据类型
+     * @return 处理结果列表的异步结果，与输入顺序一致，处理失败的元素为null；取消后不再开始处理新的元素
      */
-    private static void shutdownExecutor(ExecutorService executor) {
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
-            Thread.currentThread().interrupt();
+    public static <T, R> CompletableFuture<List<R>> processParallelAsync(List<T> data, Function<T, R> processor,
+                                                                        int threadCount, Executor executor,
+                                                                        JobPerformanceTracker tracker) {
+        if (data == null || data.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
         }
+        return startParallel(data, processor, threadCount, executor, tracker);
+    }
+
+    private static <T, R> ParallelExecution<T, R> startParallel(List<T> data, Function<T, R> processor,
+                                                                int threadCount, Executor executor,
+                                                                JobPerformanceTracker tracker) {
+        if (processor == null) {
+            throw new IllegalArgumentException("Processor cannot be null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        if (threadCount <= 0) {
+            threadCount = BatchConfig.DEFAULT_CONCURRENT_THREADS;
+        }
+
+        List<T> items = data instanceof RandomAccess ? data : new ArrayList<>(data);
+        ParallelExecution<T, R> execution = new ParallelExecution<>(items, processor, Math.min(threadCount, items.size()),
+                tracker);
+        execution.start(executor);
+        return execution;
     }
 
     /**
@@ -259,4 +379,143 @@ public class BatchProcessor {
                     '}';
         }
     }
+
+    /**
+     * 共享的并行处理线程池，线程按需创建，空闲后自动回收
+     */
+    private static final class SharedPool {
+        /**
+         * 所有调用合计同时运行的分块数上限，分块可能阻塞在 I/O 上，因此不按 CPU 数限制
+         */
+        static final int PARALLELISM = Math.max(64, Runtime.getRuntime().availableProcessors());
+
+        static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("batch-parallel-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, true);
+    }
+
+    /**
+     * 一次并行处理：固定数量的工作任务从共享游标领取分块，结果按下标写入
+     */
+    private static final class ParallelExecution<T, R> extends CompletableFuture<List<R>> {
+        private final List<T> items;
+        private final Function<T, R> processor;
+        private final int parallelism;
+        private final Object[] results;
+        private final AtomicInteger cursor = new AtomicInteger();
+        private final AtomicInteger activeWorkers;
+        private final JobPerformanceTracker tracker;
+        private final AtomicInteger pending;
+        private long submittedAt;
+
+        ParallelExecution(List<T> items, Function<T, R> processor, int parallelism, JobPerformanceTracker tracker) {
+            this.items = items;
+            this.processor = processor;
+            this.parallelism = parallelism;
+            this.tracker = tracker;
+            this.pending = new AtomicInteger(items.size());
+            this.results = new Object[items.size()];
+            this.activeWorkers = new AtomicInteger(parallelism);
+        }
+
+        void start(Executor executor) {
+            if (tracker != null) {
+                tracker.addBacklog(items.size());
+                submittedAt = System.nanoTime();
+            }
+            for (int i = 0; i < parallelism; i++) {
+                try {
+                    executor.execute(this::work);
+                } catch (RejectedExecutionException e) {
+                    completeExceptionally(e);
+                    // 未能启动的工作任务不会再递减计数，由此处代为结束，最后一个结束者清理积压
+                    workersFinished(parallelism - i);
+                    return;
+                }
+            }
+        }
+
+        private void work() {
+            if (tracker != null) {
+                tracker.recordQueueWait(System.nanoTime() - submittedAt);
+            }
+            try {
+                int start;
+                while (!isDone() && (start = claim()) >= 0) {
+                    int end = Math.min(items.size(), start + chunkSize(start));
+                    int i = start;
+                    for (; i < end && !isDone(); i++) {
+                        if (tracker != null) {
+                            processTracked(i);
+                        } else {
+                            process(i);
+                        }
+                    }
+                    if (tracker != null) {
+                        pending.addAndGet(start - i);
+                        tracker.addBacklog(start - i);
+                    }
+                }
+            } finally {
+                workersFinished(1);
+            }
+        }
+
+        private void workersFinished(int count) {
+            if (activeWorkers.addAndGet(-count) == 0) {
+                if (tracker != null) {
+                    // 取消或失败后未处理的元素不再计入积压
+                    tracker.addBacklog(-pending.getAndSet(0));
+                }
+                complete(snapshot());
+            }
+        }
+
+        private boolean process(int i) {
+            try {
+                results[i] = processor.apply(items.get(i));
+                return true;
+            } catch (Exception e) {
+                logger.warn("Failed to process item", e);
+                return false;
+            }
+        }
+
+        private void processTracked(int i) {
+            long start = System.nanoTime();
+            boolean success = process(i);
+            tracker.recordItem(System.nanoTime() - start, success);
+        }
+
+        /**
+         * 领取下一块的起始下标，已全部领取时返回-1
+         */
+        private int claim() {
+            while (true) {
+                int start = cursor.get();
+                if (start >= items.size()) {
+                    return -1;
+                }
+                if (cursor.compareAndSet(start, start + chunkSize(start))) {
+                    return start;
+                }
+            }
+        }
+
+        private int chunkSize(int start) {
+            return Math.max(1, (items.size() - start) / (parallelism * 2));
+        }
+
+        @SuppressWarnings("unchecked")
+        List<R> snapshot() {
+            List<R> list = new ArrayList<>(results.length);
+            for (Object result : results) {
+                list.add((R) result);
+            }
+            return list;
+        }
+    }
 }
@@ -0,0 +1,238 @@
+package org.im.common.batch.schedule;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.BitSet;
+import java.util.Locale;
+
+/**
+ * Cron 表达式
+ * <p>
+ * 支持六个字段（秒 分 时 日 月 周）或省略秒的五个字段，字段支持 {@code *}、{@code ?}、
+ * 列表 {@code 1,3,5}、范围 {@code 1-5}、步长 {@code *}{@code /15}、{@code 10-50/5}，
+ * 月份和星期可以使用英文缩写，星期的 0 和 7 都表示周日。
+ * 日和周同时被限定时按任一匹配触发，与 Unix cron 一致；不支持 {@code L}、{@code W}、{@code #}
+ * </p>
+ * <p>
+ * 夏令时切换按 Vixie cron 的方式处理：时钟拨快跳过的本地时间中有触发时刻时，在切换后的第一个时刻触发一次；
+ * 时钟拨回重复的本地时间只在第一遍触发，小时字段为 {@code *} 时按实际经过的时间两遍都触发
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/20
+ */
+public final class CronExpression {
+
+    private static final String[] MONTHS = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN",
+            "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    private static final String[] DAYS = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+    /**
+     * 向后查找下一个触发时刻的年数上限，超过即认为表达式不会再触发
+     */
+    private static final int MAX_YEARS_AHEAD = 5;
+
+    private final String expression;
+    private final ZoneId zone;
+    private final BitSet seconds;
+    private final BitSet minutes;
+    private final BitSet hours;
+    private final BitSet daysOfMonth;
+    private final BitSet months;
+    private final BitSet daysOfWeek;
+    private final boolean dayOfMonthRestricted;
+    private final boolean dayOfWeekRestricted;
+    private final boolean hourRestricted;
+
+    /**
+     * 解析表达式，使用系统默认时区
+     *
+     * @param expression 表达式
+     */
+    public CronExpression(String expression) {
+        this(expression, ZoneId.systemDefault());
+    }
+
+    /**
+     * 解析表达式
+     *
+     * @param expression 表达式
+     * @param zone       计算触发时刻使用的时区
+     */
+    public CronExpression(String expression, ZoneId zone) {
+        if (expression == null || expression.trim().isEmpty()) {
+            throw new IllegalArgumentException("Cron expression cannot be empty");
+        }
+        if (zone == null) {
+            throw new IllegalArgumentException("Zone cannot be null");
+        }
+        String[] fields = expression.trim().toUpperCase(Locale.ROOT).split("\\s+");
+        if (fields.length == 5) {
+            fields = new String[]{"0", fields[0], fields[1], fields[2], fields[3], fields[4]};
+        } else if (fields.length != 6) {
+            throw new IllegalArgumentException("Cron expression must have 5 or 6 fields: " + expression);
+        }
+        this.expression = expression;
+        this.zone = zone;
+        this.seconds = parseField(fields[0], 0, 59, null, expression);
+        this.minutes = parseField(fields[1], 0, 59, null, expression);
+        this.hours = parseField(fields[2], 0, 23, null, expression);
+        this.daysOfMonth = parseField(fields[3], 1, 31, null, expression);
+        this.months = parseField(fields[4], 1, 12, MONTHS, expression);
+        BitSet dow = parseField(fields[5], 0, 7, DAYS, expression);
+        if (dow.get(7)) {
+            dow.set(0);
+        }
+        this.daysOfWeek = dow;
+        this.dayOfMonthRestricted = !isWildcard(fields[3]);
+        this.dayOfWeekRestricted = !isWildcard(fields[5]);
+        this.hourRestricted = hours.cardinality() < 24;
+    }
+
+    /**
+     * 计算严格晚于指定时刻的下一个触发时刻
+     *
+     * @param afterMillis 起始时刻（毫秒）
+     * @return 下一个触发时刻（毫秒），不再触发时返回-1
+     */
+    public long next(long afterMillis) {
+        ZonedDateTime time = Instant.ofEpochMilli(afterMillis).atZone(zone).truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        int lastYear = time.getYear() + MAX_YEARS_AHEAD;
+        while (time.getYear() <= lastYear) {
+            ZonedDateTime next;
+            if (hourRestricted && isRepeatedPass(time)) {
+                // 重复的本地时间已在第一遍处理过，跳到重复区间之后
+                next = zone.getRules().getTransition(time.toLocalDateTime()).getDateTimeBefore().atZone(zone);
+            } else if (!months.get(time.getMonthValue())) {
+                next = time.plusMonths(1).withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+            } else if (!dayMatches(time.toLocalDateTime())) {
+                next = time.plusDays(1).truncatedTo(ChronoUnit.DAYS);
+            } else if (!hours.get(time.getHour())) {
+                next = time.plusHours(1).truncatedTo(ChronoUnit.HOURS);
+            } else if (!minutes.get(time.getMinute())) {
+                next = time.plusMinutes(1).truncatedTo(ChronoUnit.MINUTES);
+            } else if (!seconds.get(time.getSecond())) {
+                next = time.plusSeconds(1);
+            } else {
+                return time.toInstant().toEpochMilli();
+            }
+            if (firesInSkippedTime(time, next)) {
+                return next.toInstant().toEpochMilli();
+            }
+            time = next;
+        }
+        return -1;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * 是否处于时钟拨回后重复的本地时间的第二遍
+     */
+    private static boolean isRepeatedPass(ZonedDateTime time) {
+        return !time.withEarlierOffsetAtOverlap().equals(time);
+    }
+
+    /**
+     * 从 from 推进到 to 时是否越过了时钟拨快跳过的、含有触发时刻的本地时间
+     */
+    private boolean firesInSkippedTime(ZonedDateTime from, ZonedDateTime to) {
+        if (from.getOffset().equals(to.getOffset())) {
+            return false;
+        }
+        ZoneOffsetTransition transition = zone.getRules().nextTransition(from.toInstant());
+        if (transition == null || !transition.isGap() || transition.getInstant().isAfter(to.toInstant())) {
+            return false;
+        }
+        for (LocalDateTime local = transition.getDateTimeBefore(); local.isBefore(transition.getDateTimeAfter());
+             local = local.plusSeconds(1)) {
+            if (months.get(local.getMonthValue()) && dayMatches(local) && hours.get(local.getHour())
+                    && minutes.get(local.getMinute()) && seconds.get(local.getSecond())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean dayMatches(LocalDateTime time) {
+        boolean dom = daysOfMonth.get(time.getDayOfMonth());
+        boolean dow = daysOfWeek.get(time.getDayOfWeek().getValue() % 7);
+        if (dayOfMonthRestricted && dayOfWeekRestricted) {
+            return dom || dow;
+        }
+        return dom && dow;
+    }
+
+    private static boolean isWildcard(String field) {
+        return "*".equals(field) || "?".equals(field);
+    }
+
+    private static BitSet parseField(String field, int min, int max, String[] names, String expression) {
+        BitSet bits = new BitSet(max + 1);
+        for (String part : field.split(",")) {
+            int step = 1;
+            int slash = part.indexOf('/');
+            if (slash >= 0) {
+                step = parseNumber(part.substring(slash + 1), 0, null, expression);
+                if (step <= 0) {
+                    throw new IllegalArgumentException("Invalid step in cron expression: " + expression);
+                }
+                part = part.substring(0, slash);
+            }
+            int from;
+            int to;
+            if ("*".equals(part) || "?".equals(part)) {
+                from = min;
+                to = max;
+            } else {
+                int dash = part.indexOf('-');
+                if (dash > 0) {
+                    from = parseNumber(part.substring(0, dash), min, names, expression);
+                    to = parseNumber(part.substring(dash + 1), min, names, expression);
+                } else {
+                    from = parseNumber(part, min, names, expression);
+                    to = slash >= 0 ? max : from;
+                }
+            }
+            if (from < min || to > max || from > to) {
+                throw new IllegalArgumentException("Value out of range [" + min + ", " + max + "] in cron expression: "
+                        + expression);
+            }
+            for (int value = from; value <= to; value += step) {
+                bits.set(value);
+            }
+        }
+        return bits;
+    }
+
+    private static int parseNumber(String text, int min, String[] names, String expression) {
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(text)) {
+                    return i + (min == 1 ? 1 : 0);
+                }
+            }
+        }
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + text + "' in cron expression: " + expression);
+        }
+    }
+}
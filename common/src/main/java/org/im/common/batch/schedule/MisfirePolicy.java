@@ -0,0 +1,25 @@
+package org.im.common.batch.schedule;
+
+/**
+ * 错过触发时的处理策略
+ * <p>
+ * 触发时刻到达时作业的并发执行数已达上限，或调度线程因停顿、时钟跳变等原因晚于
+ * {@link Trigger#getMisfireThreshold()} 才处理该触发，即视为错过触发
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/20
+ */
+public enum MisfirePolicy {
+
+    /**
+     * 尽快补触发一次：并发已满时等待正在执行的作业结束后立即执行，多次错过合并为一次，之后按触发器继续
+     */
+    FIRE_NOW,
+
+    /**
+     * 跳过错过的触发，等待触发器的下一个触发时刻
+     */
+    SKIP
+}
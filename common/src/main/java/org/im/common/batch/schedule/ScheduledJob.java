@@ -0,0 +1,114 @@
+package org.im.common.batch.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 已注册到 {@link JobScheduler} 的调度项
+ * <p>
+ * 触发时刻、在途执行等可变状态只由调度线程修改，对外只读
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/20
+ */
+public final class ScheduledJob {
+
+    private final String name;
+    private final Trigger trigger;
+    private final Supplier<? extends Future<?>> launcher;
+    private final List<Future<?>> running = new ArrayList<>();
+    private final AtomicLong fireCount = new AtomicLong();
+    private final AtomicLong misfireCount = new AtomicLong();
+    private volatile long nextFireTime;
+    private volatile boolean cancelled;
+
+    /**
+     * 触发器计划的触发时刻，补触发等待期间 {@link #nextFireTime} 为重试时刻，计划时刻保持不变
+     */
+    long plannedTime;
+
+    /**
+     * 为补触发而等待并发名额，此时不再按错过阈值判断
+     */
+    boolean catchingUp;
+
+    ScheduledJob(String name, Trigger trigger, Supplier<? extends Future<?>> launcher) {
+        this.name = name;
+        this.trigger = trigger;
+        this.launcher = launcher;
+    }
+
+    /**
+     * 取消调度，已开始的执行不受影响
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Trigger getTrigger() {
+        return trigger;
+    }
+
+    /**
+     * 获取下一次计划触发时刻
+     *
+     * @return 触发时刻（毫秒），不再触发时为-1
+     */
+    public long getNextFireTime() {
+        return nextFireTime;
+    }
+
+    public long getFireCount() {
+        return fireCount.get();
+    }
+
+    public long getMisfireCount() {
+        return misfireCount.get();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void setNextFireTime(long nextFireTime) {
+        this.nextFireTime = nextFireTime;
+    }
+
+    /**
+     * 清理已结束的执行后判断是否还有并发名额
+     */
+    boolean hasCapacity() {
+        running.removeIf(Future::isDone);
+        return running.size() < trigger.getMaxConcurrent();
+    }
+
+    void launch() {
+        running.add(launcher.get());
+        fireCount.incrementAndGet();
+    }
+
+    void recordMisfire() {
+        misfireCount.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduledJob{" +
+                "name='" + name + '\'' +
+                ", trigger=" + trigger +
+                ", nextFireTime=" + nextFireTime +
+                ", fireCount=" + fireCount.get() +
+                ", misfireCount=" + misfireCount.get() +
+                ", cancelled=" + cancelled +
+                '}';
+    }
+}
@@ -0,0 +1,110 @@
+package org.im.common.batch.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮
+ * <p>
+ * 每层 {@value #BUCKETS} 个槽，第 0 层每槽 2^{@value #TICK_SHIFT} 毫秒，上一层的每槽覆盖下一层的一整圈，
+ * 五层共覆盖约 397 天，更远的条目放在最高层并在经过时重新计算位置。插入为 O(1)，
+ * 时间推进时只处理经过的槽：到期条目交给回调，未到期条目降级到更精细的层。
+ * 非线程安全，由 {@link JobScheduler} 的调度线程独占使用
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/20
+ */
+final class TimingWheel {
+
+    /**
+     * 第 0 层每槽毫秒数的位移，即调度精度约为 32 毫秒
+     */
+    static final int TICK_SHIFT = 5;
+
+    static final int BUCKETS = 64;
+
+    private static final int BUCKET_SHIFT = 6;
+    private static final int LEVELS = 5;
+
+    private final List<List<ScheduledJob>> wheel = new ArrayList<>(LEVELS * BUCKETS);
+    private long currentTime;
+    private int size;
+
+    TimingWheel(long now) {
+        for (int i = 0; i < LEVELS * BUCKETS; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.currentTime = now;
+    }
+
+    /**
+     * 放入条目，按 {@link ScheduledJob#getNextFireTime()} 定位
+     */
+    void schedule(ScheduledJob job) {
+        long fireTime = Math.max(job.getNextFireTime(), currentTime);
+        long delta = fireTime - currentTime;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << shift(level + 1)) {
+            level++;
+        }
+        int index = (int) ((fireTime >>> shift(level)) & (BUCKETS - 1));
+        wheel.get(level * BUCKETS + index).add(job);
+        size++;
+    }
+
+    /**
+     * 推进到指定时刻，处理经过的槽
+     *
+     * @param now    当前时刻
+     * @param expire 到期条目的回调
+     */
+    void advance(long now, Consumer<ScheduledJob> expire) {
+        long previousTime = currentTime;
+        if (now <= previousTime) {
+            return;
+        }
+        currentTime = now;
+        for (int level = 0; level < LEVELS; level++) {
+            long previousTicks = previousTime >>> shift(level);
+            long currentTicks = now >>> shift(level);
+            long delta = currentTicks - previousTicks;
+            if (delta <= 0) {
+                break;
+            }
+            long steps = Math.min(delta + 1, BUCKETS);
+            for (long tick = previousTicks; tick < previousTicks + steps; tick++) {
+                List<ScheduledJob> bucket = wheel.get(level * BUCKETS + (int) (tick & (BUCKETS - 1)));
+                if (bucket.isEmpty()) {
+                    continue;
+                }
+                List<ScheduledJob> drained = new ArrayList<>(bucket);
+                bucket.clear();
+                size -= drained.size();
+                for (ScheduledJob job : drained) {
+                    if (job.isCancelled()) {
+                        continue;
+                    }
+                    if (job.getNextFireTime() <= now) {
+                        expire.accept(job);
+                    } else {
+                        schedule(job);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取时间轮中的条目数，包括已取消但尚未经过的条目
+     */
+    int size() {
+        return size;
+    }
+
+    private static int shift(int level) {
+        return TICK_SHIFT + level * BUCKET_SHIFT;
+    }
+}
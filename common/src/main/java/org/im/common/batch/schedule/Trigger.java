@@ -1,11 +1,243 @@
 package org.im.common.batch.schedule;
 
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
 /**
+ * 作业触发器
+ * <p>
+ * 决定作业的触发时刻，通过静态工厂方法创建一次性、固定频率或 cron 触发器，
+ * 并在交给 {@link JobScheduler} 之前设置错过触发策略和并发上限：
+ * </p>
+ * <pre>
+ * Trigger.cron("0 0/5 * * * ?").misfirePolicy(MisfirePolicy.SKIP).maxConcurrent(1);
+ * Trigger.fixedRate(0, 30, TimeUnit.SECONDS);
+ * Trigger.once(10, TimeUnit.MINUTES);
+ * </pre>
+ *
  * @author gaozhilin
  * @email gaoolin@gmail.com
  * @date 2025/10/17
  */
+public abstract class Trigger {
+
+    /**
+     * 默认的错过触发判定阈值（毫秒）
+     */
+    public static final long DEFAULT_MISFIRE_THRESHOLD_MS = 5000L;
+
+    private MisfirePolicy misfirePolicy = MisfirePolicy.FIRE_NOW;
+    private long misfireThreshold = DEFAULT_MISFIRE_THRESHOLD_MS;
+    private int maxConcurrent = 1;
+
+    /**
+     * 创建在指定延迟后触发一次的触发器
+     *
+     * @param delay 延迟
+     * @param unit  时间单位
+     * @return 触发器
+     */
+    public static Trigger once(long delay, TimeUnit unit) {
+        return new OnceTrigger(-1, unit.toMillis(Math.max(0, delay)));
+    }
+
+    /**
+     * 创建在指定时刻触发一次的触发器
+     *
+     * @param epochMillis 触发时刻（毫秒）
+     * @return 触发器
+     */
+    public static Trigger at(long epochMillis) {
+        return new OnceTrigger(epochMillis, 0);
+    }
+
+    /**
+     * 创建固定频率触发器，触发时刻按首次触发时刻加整数倍周期计算，不随执行耗时漂移
+     *
+     * @param initialDelay 首次触发延迟
+     * @param period       触发周期
+     * @param unit         时间单位
+     * @return 触发器
+     */
+    public static Trigger fixedRate(long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        return new FixedRateTrigger(unit.toMillis(Math.max(0, initialDelay)), unit.toMillis(period));
+    }
+
+    /**
+     * 创建 cron 触发器，使用系统默认时区
+     *
+     * @param expression cron 表达式
+     * @return 触发器
+     * @see CronExpression
+     */
+    public static Trigger cron(String expression) {
+        return new CronTrigger(new CronExpression(expression));
+    }
+
+    /**
+     * 创建 cron 触发器
+     *
+     * @param expression cron 表达式
+     * @param zone       时区
+     * @return 触发器
+     */
+    public static Trigger cron(String expression, ZoneId zone) {
+        return new CronTrigger(new CronExpression(expression, zone));
+    }
+
+    /**
+     * 计算首次触发时刻
+     *
+     * @param now 当前时刻（毫秒）
+     * @return 首次触发时刻（毫秒），不会触发时返回-1
+     */
+    public abstract long firstFireTime(long now);
+
+    /**
+     * 计算上一次计划触发之后的下一个触发时刻
+     *
+     * @param lastFireTime 上一次计划触发时刻（毫秒）
+     * @return 下一个触发时刻（毫秒），不再触发时返回-1
+     */
+    public abstract long nextFireTime(long lastFireTime);
+
+    /**
+     * 设置错过触发策略，默认为 {@link MisfirePolicy#FIRE_NOW}
+     *
+     * @param misfirePolicy 错过触发策略
+     * @return 当前触发器
+     */
+    public Trigger misfirePolicy(MisfirePolicy misfirePolicy) {
+        if (misfirePolicy == null) {
+            throw new IllegalArgumentException("Misfire policy cannot be null");
+        }
+        this.misfirePolicy = misfirePolicy;
+        return this;
+    }
+
+    /**
+     * 设置错过触发判定阈值，调度晚于计划时刻超过该值即视为错过触发
+     *
+     * @param threshold 阈值
+     * @param unit      时间单位
+     * @return 当前触发器
+     */
+    public Trigger misfireThreshold(long threshold, TimeUnit unit) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Misfire threshold cannot be negative");
+        }
+        this.misfireThreshold = unit.toMillis(threshold);
+        return this;
+    }
+
+    /**
+     * 设置同一作业的最大并发执行数，默认为1
+     *
+     * @param maxConcurrent 最大并发执行数
+     * @return 当前触发器
+     */
+    public Trigger maxConcurrent(int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Max concurrent must be positive");
+        }
+        this.maxConcurrent = maxConcurrent;
+        return this;
+    }
+
+    public MisfirePolicy getMisfirePolicy() {
+        return misfirePolicy;
+    }
+
+    public long getMisfireThreshold() {
+        return misfireThreshold;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * 一次性触发器
+     */
+    private static final class OnceTrigger extends Trigger {
+        private final long fireTime;
+        private final long delay;
+
+        OnceTrigger(long fireTime, long delay) {
+            this.fireTime = fireTime;
+            this.delay = delay;
+        }
+
+        @Override
+        public long firstFireTime(long now) {
+            return fireTime >= 0 ? fireTime : now + delay;
+        }
+
+        @Override
+        public long nextFireTime(long lastFireTime) {
+            return -1;
+        }
+
+        @Override
+        public String toString() {
+            return fireTime >= 0 ? "once(at=" + fireTime + ")" : "once(delay=" + delay + "ms)";
+        }
+    }
+
+    /**
+     * 固定频率触发器
+     */
+    private static final class FixedRateTrigger extends Trigger {
+        private final long initialDelay;
+        private final long period;
+
+        FixedRateTrigger(long initialDelay, long period) {
+            this.initialDelay = initialDelay;
+            this.period = period;
+        }
+
+        @Override
+        public long firstFireTime(long now) {
+            return now + initialDelay;
+        }
+
+        @Override
+        public long nextFireTime(long lastFireTime) {
+            return lastFireTime + period;
+        }
+
+        @Override
+        public String toString() {
+            return "fixedRate(period=" + period + "ms)";
+        }
+    }
+
+    /**
+     * cron 触发器
+     */
+    private static final class CronTrigger extends Trigger {
+        private final CronExpression expression;
+
+        CronTrigger(CronExpression expression) {
+            this.expression = expression;
+        }
+
+        @Override
+        public long firstFireTime(long now) {
+            return expression.next(now);
+        }
 
+        @Override
+        public long nextFireTime(long lastFireTime) {
+            return expression.next(lastFireTime);
+        }
 
-public class Trigger {
+        @Override
+        public String toString() {
+            return "cron(" + expression + ")";
+        }
+    }
 }
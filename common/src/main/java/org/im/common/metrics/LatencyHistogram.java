@@ -0,0 +1,229 @@
+package org.im.common.metrics;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 对数线性延迟直方图
+ * <p>
+ * 每个2的幂区间再等分为16个桶，记录值的相对误差不超过6.25%，覆盖纳秒到数百年的全部范围，
+ * 共960个桶、约8KB。记录只做一次原子自增，不加锁、不分配对象，可在每个条目的处理路径上调用。
+ * </p>
+ * <p>
+ * 分位数在读取时按桶计数累计得出，返回所在桶的中点（不超过记录到的最大值）；读取期间并发写入的数据可能只被部分计入，
+ * 结果适合用于监控而非精确计量。{@link #drain()} 原子地取走已记录的数据，用于按周期统计区间内的分位数。
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/21
+ */
+public final class LatencyHistogram implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 记录一个延迟值
+     *
+     * @param nanos 延迟（纳秒），负值按0记录
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketIndex(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        updateMax(value);
+    }
+
+    /**
+     * 取走已记录的数据，当前直方图清零
+     *
+     * @return 包含取走数据的新直方图
+     */
+    public LatencyHistogram drain() {
+        LatencyHistogram drained = new LatencyHistogram();
+        long drainedCount = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = counts.getAndSet(i, 0);
+            if (c != 0) {
+                drained.counts.set(i, c);
+                drainedCount += c;
+            }
+        }
+        // 以桶计数之和为准，避免与并发记录交错时计数与分布不一致
+        count.addAndGet(-drainedCount);
+        drained.count.set(drainedCount);
+        drained.sum.set(sum.getAndSet(0));
+        drained.max.set(max.getAndSet(0));
+        return drained;
+    }
+
+    /**
+     * 合并另一个直方图的数据
+     *
+     * @param other 另一个直方图
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+        count.addAndGet(other.count.get());
+        sum.addAndGet(other.sum.get());
+        updateMax(other.max.get());
+    }
+
+    /**
+     * 重置直方图
+     */
+    public void reset() {
+        drain();
+    }
+
+    /**
+     * 获取记录数
+     *
+     * @return 记录数
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * 获取总耗时
+     *
+     * @return 总耗时（纳秒）
+     */
+    public long getTotalTime() {
+        return sum.get();
+    }
+
+    /**
+     * 获取最大值
+     *
+     * @return 最大值（纳秒）
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * 获取平均值
+     *
+     * @return 平均值（纳秒），无记录时为0
+     */
+    public double getMean() {
+        long c = count.get();
+        return c == 0 ? 0 : (double) sum.get() / c;
+    }
+
+    /**
+     * 获取分位数
+     *
+     * @param quantile 分位点 (0.0 to 1.0)
+     * @return 分位数（纳秒），无记录时为0
+     */
+    public long getPercentile(double quantile) {
+        if (quantile < 0.0 || quantile > 1.0) {
+            throw new IllegalArgumentException("Quantile must be between 0.0 and 1.0: " + quantile);
+        }
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(bucketValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * 获取中位数
+     *
+     * @return p50（纳秒）
+     */
+    public long getP50() {
+        return getPercentile(0.5);
+    }
+
+    /**
+     * 获取 p99
+     *
+     * @return p99（纳秒）
+     */
+    public long getP99() {
+        return getPercentile(0.99);
+    }
+
+    /**
+     * 获取 p999
+     *
+     * @return p999（纳秒）
+     */
+    public long getP999() {
+        return getPercentile(0.999);
+    }
+
+    private void updateMax(long value) {
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // 并发更新最大值时重试
+        }
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * 桶的代表值，取桶区间的中点
+     */
+    private static long bucketValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + ((1L << shift) >>> 1);
+    }
+
+    /**
+     * 返回对象的字符串表示
+     *
+     * @return 对象的字符串表示
+     */
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+                "count=" + getCount() +
+                ", mean=" + String.format("%.3fms", getMean() / 1e6) +
+                ", p50=" + String.format("%.3fms", getP50() / 1e6) +
+                ", p99=" + String.format("%.3fms", getP99() / 1e6) +
+                ", p999=" + String.format("%.3fms", getP999() / 1e6) +
+                '}';
+    }
+}
@@ -20,6 +20,8 @@ public class ThreadPoolFrameworkProperties {
     private PoolConfig normal = new PoolConfig();
     private PoolConfig low = new PoolConfig();
     private MonitorConfig monitor = new MonitorConfig();
+    private SharedPoolConfig shared = new SharedPoolConfig();
+    private AdaptiveConfig adaptive = new AdaptiveConfig();
 
     public ThreadPoolFrameworkProperties() {
         this.configManager = new DefaultConfigurationManager();
@@ -38,6 +40,7 @@ public class ThreadPoolFrameworkProperties {
         // 虚拟线程详细配置
         virtual.setMaxConcurrency(configManager.getIntProperty("thread.pool.virtual.max.concurrency", virtual.getMaxConcurrency()));
         virtual.setThreadNamePrefix(configManager.getString("thread.pool.virtual.thread.name.prefix", virtual.getThreadNamePrefix()));
+        virtual.setAcquireTimeoutMs(configManager.getLong("thread.pool.virtual.acquire.timeout.ms", virtual.getAcquireTimeoutMs()));
 
         // 重要线程池配置
         important.setCorePoolSize(configManager.getIntProperty("thread.pool.important.core.size", important.getCorePoolSize()));
@@ -60,6 +63,25 @@ public class ThreadPoolFrameworkProperties {
         low.setKeepAliveSeconds(configManager.getIntProperty("thread.pool.low.keep.alive.seconds", low.getKeepAliveSeconds()));
         low.setThreadNamePrefix(configManager.getString("thread.pool.low.thread.name.prefix", low.getThreadNamePrefix()));
 
+        // 共享线程池配置
+        shared.setEnabled(configManager.getBoolean("thread.pool.shared.enabled", shared.isEnabled()));
+        shared.setCorePoolSize(configManager.getIntProperty("thread.pool.shared.core.size", shared.getCorePoolSize()));
+        shared.setMaxPoolSize(configManager.getIntProperty("thread.pool.shared.max.size", shared.getMaxPoolSize()));
+        shared.setQueueCapacity(configManager.getIntProperty("thread.pool.shared.queue.capacity", shared.getQueueCapacity()));
+        shared.setKeepAliveSeconds(configManager.getIntProperty("thread.pool.shared.keep.alive.seconds", shared.getKeepAliveSeconds()));
+        shared.setThreadNamePrefix(configManager.getString("thread.pool.shared.thread.name.prefix", shared.getThreadNamePrefix()));
+        shared.setImportantWeight(configManager.getIntProperty("thread.pool.shared.weight.important", shared.getImportantWeight()));
+        shared.setNormalWeight(configManager.getIntProperty("thread.pool.shared.weight.normal", shared.getNormalWeight()));
+        shared.setLowWeight(configManager.getIntProperty("thread.pool.shared.weight.low", shared.getLowWeight()));
+
+        // 自适应线程数配置
+        adaptive.setEnabled(configManager.getBoolean("thread.pool.adaptive.enabled", adaptive.isEnabled()));
+        adaptive.setIntervalMs(configManager.getLong("thread.pool.adaptive.interval.ms", adaptive.getIntervalMs()));
+        adaptive.setTargetQueueWaitMs(configManager.getLong("thread.pool.adaptive.target.queue.wait.ms", adaptive.getTargetQueueWaitMs()));
+        adaptive.setIncreaseStep(configManager.getIntProperty("thread.pool.adaptive.increase.step", adaptive.getIncreaseStep()));
+        adaptive.setDecreaseFactor(configManager.getDouble("thread.pool.adaptive.decrease.factor", adaptive.getDecreaseFactor()));
+        adaptive.setLowUtilization(configManager.getDouble("thread.pool.adaptive.low.utilization", adaptive.getLowUtilization()));
+
         // 监控配置
         monitor.setEnabled(configManager.getBoolean("thread.pool.monitor.enabled", monitor.isEnabled()));
         monitor.setLogIntervalSeconds(configManager.getLong("thread.pool.monitor.log.interval.seconds", monitor.getLogIntervalSeconds()));
@@ -114,9 +136,27 @@ public class ThreadPoolFrameworkProperties {
         this.monitor = monitor;
     }
 
+    public SharedPoolConfig getShared() {
+        return shared;
+    }
+
+    public void setShared(SharedPoolConfig shared) {
+        this.shared = shared;
+    }
+
+    public AdaptiveConfig getAdaptive() {
+        return adaptive;
+    }
+
+    public void setAdaptive(AdaptiveConfig adaptive) {
+        this.adaptive = adaptive;
+    }
+
     public static class VirtualThreadConfig {
         private int maxConcurrency = 100;
         private String threadNamePrefix = "vt-";
+        // 并发已满时提交方等待许可的最长时间（毫秒），小于0表示一直等待，0表示立即拒绝
+        private long acquireTimeoutMs = 30_000;
 
         // Getters and setters
         public int getMaxConcurrency() {
@@ -134,6 +174,14 @@ public class ThreadPoolFrameworkProperties {
         public void setThreadNamePrefix(String threadNamePrefix) {
             this.threadNamePrefix = threadNamePrefix;
         }
+
+        public long getAcquireTimeoutMs() {
+            return acquireTimeoutMs;
+        }
+
+        public void setAcquireTimeoutMs(long acquireTimeoutMs) {
+            this.acquireTimeoutMs = acquireTimeoutMs;
+        }
     }
 
     public static class PoolConfig {
@@ -206,4 +254,121 @@ public class ThreadPoolFrameworkProperties {
             this.logIntervalSeconds = logIntervalSeconds;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 共享线程池配置：重要、普通、低优先级任务共用一个线程池，按权重轮流出队
+     */
+    public static class SharedPoolConfig extends PoolConfig {
+        private boolean enabled = true;
+        // 各优先级出队权重，均有任务排队时按权重比例分配线程
+        private int importantWeight = 6;
+        private int normalWeight = 3;
+        private int lowWeight = 1;
+
+        public SharedPoolConfig() {
+            setCorePoolSize(10);
+            setMaxPoolSize(40);
+            setQueueCapacity(200);
+            setThreadNamePrefix("shared-");
+        }
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getImportantWeight() {
+            return importantWeight;
+        }
+
+        public void setImportantWeight(int importantWeight) {
+            this.importantWeight = importantWeight;
+        }
+
+        public int getNormalWeight() {
+            return normalWeight;
+        }
+
+        public void setNormalWeight(int normalWeight) {
+            this.normalWeight = normalWeight;
+        }
+
+        public int getLowWeight() {
+            return lowWeight;
+        }
+
+        public void setLowWeight(int lowWeight) {
+            this.lowWeight = lowWeight;
+        }
+    }
+
+    /**
+     * 自适应线程数配置：核心线程数在配置的核心数与最大数之间按排队时间加性增加、按利用率乘性减少
+     */
+    public static class AdaptiveConfig {
+        private boolean enabled = true;
+        // 调整周期（毫秒）
+        private long intervalMs = 1000;
+        // 平均排队时间超过该值时增加线程（毫秒）
+        private long targetQueueWaitMs = 20;
+        // 每次增加的线程数
+        private int increaseStep = 2;
+        // 空闲时核心线程数乘以该系数
+        private double decreaseFactor = 0.75;
+        // 利用率低于该值且队列为空时减少线程
+        private double lowUtilization = 0.5;
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getIntervalMs() {
+            return intervalMs;
+        }
+
+        public void setIntervalMs(long intervalMs) {
+            this.intervalMs = intervalMs;
+        }
+
+        public long getTargetQueueWaitMs() {
+            return targetQueueWaitMs;
+        }
+
+        public void setTargetQueueWaitMs(long targetQueueWaitMs) {
+            this.targetQueueWaitMs = targetQueueWaitMs;
+        }
+
+        public int getIncreaseStep() {
+            return increaseStep;
+        }
+
+        public void setIncreaseStep(int increaseStep) {
+            this.increaseStep = increaseStep;
+        }
+
+        public double getDecreaseFactor() {
+            return decreaseFactor;
+        }
+
+        public void setDecreaseFactor(double decreaseFactor) {
+            this.decreaseFactor = decreaseFactor;
+        }
+
+        public double getLowUtilization() {
+            return lowUtilization;
+        }
+
+        public void setLowUtilization(double lowUtilization) {
+            this.lowUtilization = lowUtilization;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package org.im.common.thread.core;
+
+import org.im.common.thread.config.ThreadPoolFrameworkProperties;
+import org.im.common.thread.task.TaskPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 自适应线程数的线程池
+ * <p>
+ * 记录每个任务的排队时间和执行时间，按固定周期调整核心线程数（AIMD）：
+ * </p>
+ * <ul>
+ *     <li>周期内平均排队时间超过目标值，或队列非空却没有任务出队时，核心线程数加上固定步长；</li>
+ *     <li>线程利用率（执行时间 / 周期 × 核心线程数）低于阈值且队列为空时，核心线程数乘以衰减系数。</li>
+ * </ul>
+ * <p>
+ * 核心线程数在构造时的核心数与最大数之间变化。标准线程池只有队列满时才创建超过核心数的线程，
+ * 提前增加核心线程可以在队列积压时就扩容，避免等到队列满后触发拒绝策略。
+ * 所有实例共用一个守护线程执行调整。
+ * </p>
+ * <p>
+ * 提交的任务被包装后入队，{@link #shutdownNow()} 返回的是包装后的任务。
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/21
+ */
+public class AdaptiveThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveThreadPoolExecutor.class);
+
+    private final String name;
+    private final int minCorePoolSize;
+    private final int maxCorePoolSize;
+    private final ThreadPoolFrameworkProperties.AdaptiveConfig adaptive;
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder dequeuedCount = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private final ScheduledFuture<?> sizing;
+
+    private volatile double lastQueueWaitMs;
+    private volatile double lastUtilization;
+    private long lastAdjustNanos = System.nanoTime();
+
+    /**
+     * 构造函数
+     *
+     * @param name            线程池名称，用于日志
+     * @param corePoolSize    核心线程数下限
+     * @param maximumPoolSize 最大线程数，同时是核心线程数上限
+     * @param keepAliveTime   空闲线程存活时间
+     * @param unit            时间单位
+     * @param workQueue       任务队列
+     * @param threadFactory   线程工厂
+     * @param handler         拒绝策略
+     * @param adaptive        自适应配置，为null或未启用时核心线程数固定
+     */
+    public AdaptiveThreadPoolExecutor(String name, int corePoolSize, int maximumPoolSize, long keepAliveTime,
+                                      TimeUnit unit, BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory,
+                                      RejectedExecutionHandler handler,
+                                      ThreadPoolFrameworkProperties.AdaptiveConfig adaptive) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+        this.name = name;
+        this.minCorePoolSize = corePoolSize;
+        this.maxCorePoolSize = maximumPoolSize;
+        this.adaptive = adaptive;
+        if (adaptive != null && adaptive.isEnabled() && maximumPoolSize > corePoolSize) {
+            if (adaptive.getIntervalMs() <= 0 || adaptive.getIncreaseStep() <= 0
+                    || adaptive.getDecreaseFactor() <= 0 || adaptive.getDecreaseFactor() >= 1) {
+                throw new IllegalArgumentException("Invalid adaptive sizing configuration for pool " + name);
+            }
+            this.sizing = Sizer.SCHEDULER.scheduleWithFixedDelay(this::adjust, adaptive.getIntervalMs(),
+                    adaptive.getIntervalMs(), TimeUnit.MILLISECONDS);
+        } else {
+            this.sizing = null;
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        execute(command, TaskPriority.NORMAL);
+    }
+
+    /**
+     * 按优先级执行任务，优先级由支持优先级的队列（如 {@link WeightedPriorityQueue}）使用
+     *
+     * @param command  任务
+     * @param priority 任务优先级
+     */
+    public void execute(Runnable command, TaskPriority priority) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        super.execute(command instanceof QueuedTask ? command : new QueuedTask(command, priority));
+    }
+
+    /**
+     * 从队列中删除尚未执行的任务
+     * <p>
+     * 入队的任务都被包装为 {@link QueuedTask}，因此按原始任务在队列中查找对应的包装再删除，
+     * 对任意队列实现都有效
+     * </p>
+     *
+     * @param task 提交时的任务或队列中的元素
+     * @return 删除成功时返回true
+     */
+    @Override
+    public boolean remove(Runnable task) {
+        if (task == null) {
+            return false;
+        }
+        for (Runnable queued : getQueue()) {
+            if (task.equals(queued) || queued instanceof QueuedTask && task.equals(((QueuedTask) queued).task)) {
+                return super.remove(queued);
+            }
+        }
+        return super.remove(task);
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        if (r instanceof QueuedTask) {
+            QueuedTask task = (QueuedTask) r;
+            task.startNanos = System.nanoTime();
+            queueWaitNanos.add(task.startNanos - task.enqueueNanos);
+            dequeuedCount.increment();
+        }
+        super.beforeExecute(t, r);
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+        if (r instanceof QueuedTask) {
+            busyNanos.add(System.nanoTime() - ((QueuedTask) r).startNanos);
+        }
+    }
+
+    @Override
+    protected void terminated() {
+        if (sizing != null) {
+            sizing.cancel(false);
+        }
+        super.terminated();
+    }
+
+    /**
+     * 按上一周期的排队时间和利用率调整核心线程数
+     */
+    private void adjust() {
+        long now = System.nanoTime();
+        long intervalNanos = Math.max(1, now - lastAdjustNanos);
+        lastAdjustNanos = now;
+        long dequeued = dequeuedCount.sumThenReset();
+        long waitNanos = queueWaitNanos.sumThenReset();
+        long busy = busyNanos.sumThenReset();
+        if (isShutdown()) {
+            return;
+        }
+
+        int core = getCorePoolSize();
+        boolean queued = !getQueue().isEmpty();
+        lastQueueWaitMs = dequeued == 0 ? 0 : waitNanos / 1_000_000.0 / dequeued;
+        lastUtilization = (double) busy / intervalNanos / core;
+
+        int target = core;
+        if (lastQueueWaitMs > adaptive.getTargetQueueWaitMs() || (dequeued == 0 && queued)) {
+            target = Math.min(maxCorePoolSize, core + adaptive.getIncreaseStep());
+        } else if (lastUtilization < adaptive.getLowUtilization() && !queued) {
+            target = Math.max(minCorePoolSize, (int) (core * adaptive.getDecreaseFactor()));
+        }
+        if (target != core) {
+            setCorePoolSize(target);
+            logger.debug("[{}] Core pool size {} -> {} (queue wait {}ms, utilization {})", name, core, target,
+                    String.format("%.1f", lastQueueWaitMs), String.format("%.2f", lastUtilization));
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMinCorePoolSize() {
+        return minCorePoolSize;
+    }
+
+    public int getMaxCorePoolSize() {
+        return maxCorePoolSize;
+    }
+
+    /**
+     * 获取上一调整周期的平均排队时间
+     *
+     * @return 平均排队时间（毫秒）
+     */
+    public double getQueueWaitMillis() {
+        return lastQueueWaitMs;
+    }
+
+    /**
+     * 获取上一调整周期的线程利用率
+     *
+     * @return 执行时间占核心线程可用时间的比例
+     */
+    public double getUtilization() {
+        return lastUtilization;
+    }
+
+    /**
+     * 入队的任务，记录优先级和入队时刻
+     */
+    static final class QueuedTask implements Runnable {
+        final Runnable task;
+        final TaskPriority priority;
+        final long enqueueNanos = System.nanoTime();
+        long startNanos;
+
+        QueuedTask(Runnable task, TaskPriority priority) {
+            this.task = task;
+            this.priority = priority != null ? priority : TaskPriority.NORMAL;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
+
+    /**
+     * 所有线程池共用的调整线程
+     */
+    private static final class Sizer {
+        static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "thread-pool-sizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -13,6 +13,9 @@ import java.util.function.Supplier;
 
 /**
  * 原生Java线程池执行器
+ * <p>
+ * 底层为 {@link AdaptiveThreadPoolExecutor}，核心线程数在配置的核心数与最大数之间按排队时间自适应调整
+ * </p>
  *
  * @author gaozhilin
  * @email gaoolin@gmail.com
@@ -43,7 +46,8 @@ public class NativeThreadPoolExecutor implements SmartThreadPoolExecutor {
         ThreadPoolFrameworkProperties.PoolConfig config = getPoolConfig();
 
         // 创建线程池
-        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        ThreadPoolExecutor executor = new AdaptiveThreadPoolExecutor(
+                name,
                 config.getCorePoolSize(),
                 config.getMaxPoolSize(),
                 config.getKeepAliveSeconds(),
@@ -64,7 +68,8 @@ public class NativeThreadPoolExecutor implements SmartThreadPoolExecutor {
                         return thread;
                     }
                 },
-                new SmartRejectionHandler(name, priority)
+                new SmartRejectionHandler(name, priority),
+                properties.getAdaptive()
         );
 
         return executor;
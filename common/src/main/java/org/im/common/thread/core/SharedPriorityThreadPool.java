@@ -0,0 +1,160 @@
+package org.im.common.thread.core;
+
+import org.im.common.thread.config.ThreadPoolFrameworkProperties;
+import org.im.common.thread.policy.SmartRejectionHandler;
+import org.im.common.thread.task.TaskPriority;
+import org.im.common.thread.task.TaskType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 多优先级共享线程池
+ * <p>
+ * 重要、普通、低优先级任务共用一个 {@link AdaptiveThreadPoolExecutor}，任务进入 {@link WeightedPriorityQueue}
+ * 中各自优先级的队列，按权重公平出队。与三个独立线程池相比，空闲线程可以处理任意优先级的任务，
+ * 突发流量集中在某一优先级时能用上全部线程，线程数再按排队时间自适应调整。
+ * </p>
+ * <p>
+ * 某一优先级的队列满且线程数已达上限时，按该优先级的 {@link SmartRejectionHandler} 策略处理。
+ * {@link #forPriority(TaskPriority)} 返回按固定优先级提交的执行器视图。
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/21
+ */
+public class SharedPriorityThreadPool {
+
+    private final String name;
+    private final AdaptiveThreadPoolExecutor executor;
+    private final WeightedPriorityQueue queue;
+    private final Map<TaskPriority, SmartThreadPoolExecutor> views = new EnumMap<>(TaskPriority.class);
+
+    public SharedPriorityThreadPool(String name, ThreadPoolFrameworkProperties properties) {
+        ThreadPoolFrameworkProperties.SharedPoolConfig config = properties.getShared();
+        this.name = name;
+        this.queue = new WeightedPriorityQueue(config.getQueueCapacity(), config.getImportantWeight(),
+                config.getNormalWeight(), config.getLowWeight());
+
+        Map<TaskPriority, RejectedExecutionHandler> handlers = new EnumMap<>(TaskPriority.class);
+        for (TaskPriority priority : new TaskPriority[]{TaskPriority.IMPORTANT, TaskPriority.NORMAL, TaskPriority.LOW}) {
+            handlers.put(priority, new SmartRejectionHandler(name + "-" + priority.name().toLowerCase(), priority));
+        }
+        RejectedExecutionHandler handler = (r, pool) -> {
+            TaskPriority priority = r instanceof AdaptiveThreadPoolExecutor.QueuedTask
+                    ? ((AdaptiveThreadPoolExecutor.QueuedTask) r).priority : TaskPriority.NORMAL;
+            handlers.getOrDefault(priority, handlers.get(TaskPriority.NORMAL)).rejectedExecution(r, pool);
+        };
+
+        String threadNamePrefix = config.getThreadNamePrefix();
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        this.executor = new AdaptiveThreadPoolExecutor(name, config.getCorePoolSize(), config.getMaxPoolSize(),
+                config.getKeepAliveSeconds(), TimeUnit.SECONDS, queue,
+                r -> new Thread(r, threadNamePrefix + name + "-" + threadNumber.getAndIncrement()),
+                handler, properties.getAdaptive());
+
+        for (TaskPriority priority : TaskPriority.values()) {
+            views.put(priority, new PriorityView(priority));
+        }
+    }
+
+    /**
+     * 获取按指定优先级提交任务的执行器
+     *
+     * @param priority 任务优先级，虚拟线程优先级按普通优先级处理
+     * @return 执行器视图，关闭视图即关闭共享线程池
+     */
+    public SmartThreadPoolExecutor forPriority(TaskPriority priority) {
+        return views.get(priority != null ? priority : TaskPriority.NORMAL);
+    }
+
+    /**
+     * 获取底层线程池
+     *
+     * @return 底层线程池
+     */
+    public AdaptiveThreadPoolExecutor getExecutor() {
+        return executor;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 固定优先级的执行器视图
+     */
+    private final class PriorityView implements SmartThreadPoolExecutor {
+        private final TaskPriority priority;
+
+        PriorityView(TaskPriority priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            executor.execute(task, priority);
+        }
+
+        @Override
+        public void execute(Runnable task, TaskType taskType) {
+            execute(task);
+        }
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            FutureTask<T> future = new FutureTask<>(task);
+            execute(future);
+            return future;
+        }
+
+        @Override
+        public <T> CompletableFuture<T> submitAsync(Supplier<T> task) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            execute(() -> {
+                try {
+                    T result = task.get();
+                    future.complete(result);
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+            return future;
+        }
+
+        @Override
+        public ThreadPoolStatus getStatus() {
+            ThreadPoolStatus status = new ThreadPoolStatus();
+            status.setName(name + "-" + priority.name().toLowerCase());
+            status.setCorePoolSize(executor.getCorePoolSize());
+            status.setMaximumPoolSize(executor.getMaximumPoolSize());
+            status.setActiveCount(executor.getActiveCount());
+            status.setPoolSize(executor.getPoolSize());
+            status.setCompletedTaskCount(executor.getCompletedTaskCount());
+            status.setTaskCount(executor.getTaskCount());
+            status.setQueueSize(queue.size(priority));
+            status.setRemainingCapacity(queue.remainingCapacity(priority));
+            status.setShutdown(executor.isShutdown());
+            status.setTerminated(executor.isTerminated());
+            return status;
+        }
+
+        @Override
+        public void shutdown() {
+            executor.shutdown();
+        }
+    }
+}
@@ -5,16 +5,31 @@ import org.im.common.thread.task.TaskType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 /**
  * 虚拟线程执行器 - 支持Java 21虚拟线程
+ * <p>
+ * Java 21 及以上运行时每个任务一个虚拟线程（由多版本 JAR 中的 Java 21 实现创建，不经过反射）；
+ * 不支持虚拟线程或未启用时使用按需创建、空闲回收的平台线程池。
+ * </p>
+ * <p>
+ * 同时执行的任务数不超过最大并发数。并发已满时提交方阻塞等待许可，
+ * 超过 {@link ThreadPoolFrameworkProperties.VirtualThreadConfig#getAcquireTimeoutMs() 等待时间} 仍未获得许可、
+ * 等待期间被中断或执行器已关闭时抛出 {@link RejectedExecutionException}，任务不会被静默丢弃。
+ * </p>
  *
  * @author gaozhilin
  * @email gaoolin@gmail.com
@@ -24,72 +39,105 @@ import java.util.function.Supplier;
 public class VirtualThreadPoolExecutor implements SmartThreadPoolExecutor {
 
     private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPoolExecutor.class);
-    // Java 21虚拟线程支持检测
-    private static final boolean VIRTUAL_THREADS_SUPPORTED;
-    private static Method ofVirtualMethod;
-    private static Method startMethod;
-
-    static {
-        boolean supported = false;
-        try {
-            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
-            ofVirtualMethod = Thread.class.getMethod("ofVirtual");
-            startMethod = builderClass.getMethod("start", Runnable.class);
-            supported = true;
-        } catch (Exception e) {
-            logger.info("Virtual threads not supported in current Java version");
-        }
-        VIRTUAL_THREADS_SUPPORTED = supported;
-    }
 
     private final String name;
-    private final ThreadPoolFrameworkProperties properties;
+    private final int maxConcurrency;
+    private final long acquireTimeoutMs;
     private final Semaphore concurrencyLimiter;
+    private final ExecutorService delegate;
+    private final boolean virtual;
     private final AtomicInteger activeCount = new AtomicInteger(0);
+    private final AtomicLong taskCount = new AtomicLong();
+    private final AtomicLong completedTaskCount = new AtomicLong();
+    private volatile boolean shutdown;
 
     public VirtualThreadPoolExecutor(String name, ThreadPoolFrameworkProperties properties) {
         this.name = name;
-        this.properties = properties;
-        this.concurrencyLimiter = new Semaphore(properties.getVirtual().getMaxConcurrency());
+        this.maxConcurrency = properties.getVirtual().getMaxConcurrency();
+        this.acquireTimeoutMs = properties.getVirtual().getAcquireTimeoutMs();
+        this.concurrencyLimiter = new Semaphore(maxConcurrency);
+        String threadNamePrefix = properties.getVirtual().getThreadNamePrefix() + name + "-";
+        this.virtual = VirtualThreads.isSupported() && properties.isVirtualThreadEnabled();
+        if (virtual) {
+            this.delegate = VirtualThreads.newThreadPerTaskExecutor(threadNamePrefix);
+        } else {
+            if (properties.isVirtualThreadEnabled()) {
+                logger.info("[{}] Virtual threads require Java 21, running Java {}, using platform threads", name,
+                        System.getProperty("java.version"));
+            }
+            this.delegate = createPlatformExecutor(threadNamePrefix);
+        }
+    }
+
+    /**
+     * Java 8兼容模式：按需创建平台线程，空闲60秒回收，线程数受并发许可限制
+     */
+    private ExecutorService createPlatformExecutor(String threadNamePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                r -> new Thread(r, threadNamePrefix + threadNumber.getAndIncrement()));
     }
 
     @Override
     public void execute(Runnable task) {
-        if (!concurrencyLimiter.tryAcquire()) {
-            logger.warn("[{}] Virtual thread limit reached ({}), task rejected",
-                    name, properties.getVirtual().getMaxConcurrency());
-            return;
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        if (shutdown) {
+            throw new RejectedExecutionException("[" + name + "] Virtual thread executor has been shut down");
         }
+        acquirePermit();
 
         activeCount.incrementAndGet();
-
+        taskCount.incrementAndGet();
         Runnable wrappedTask = () -> {
             try {
                 task.run();
             } finally {
-                concurrencyLimiter.release();
                 activeCount.decrementAndGet();
+                completedTaskCount.incrementAndGet();
+                concurrencyLimiter.release();
             }
         };
 
-        if (VIRTUAL_THREADS_SUPPORTED && properties.isVirtualThreadEnabled()) {
-            try {
-                Object builder = ofVirtualMethod.invoke(null);
-                startMethod.invoke(builder, wrappedTask);
-            } catch (Exception e) {
-                logger.error("[{}] Failed to create virtual thread", name, e);
-                // 回退到平台线程
-                createPlatformThread(wrappedTask).start();
-            }
-        } else {
-            // Java 8兼容模式
-            createPlatformThread(wrappedTask).start();
+        try {
+            delegate.execute(wrappedTask);
+        } catch (RejectedExecutionException e) {
+            // 等待许可期间执行器被关闭
+            activeCount.decrementAndGet();
+            taskCount.decrementAndGet();
+            concurrencyLimiter.release();
+            throw e;
         }
     }
 
-    private Thread createPlatformThread(Runnable task) {
-        return new Thread(task, properties.getVirtual().getThreadNamePrefix() +
-                name + "-" + System.currentTimeMillis());
+    /**
+     * 获取并发许可，并发已满时按配置等待
+     */
+    private void acquirePermit() {
+        try {
+            boolean acquired;
+            if (acquireTimeoutMs < 0) {
+                concurrencyLimiter.acquire();
+                acquired = true;
+            } else {
+                acquired = concurrencyLimiter.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            }
+            if (!acquired) {
+                logger.warn("[{}] Virtual thread limit reached ({}), no permit within {}ms, task rejected",
+                        name, maxConcurrency, acquireTimeoutMs);
+                throw new RejectedExecutionException("[" + name + "] Virtual thread limit reached (" + maxConcurrency
+                        + "), no permit within " + acquireTimeoutMs + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("[" + name + "] Interrupted while waiting for a permit", e);
+        }
+        if (shutdown) {
+            // 关闭时释放的许可逐个传递给等待中的提交方，每个提交方拿到后归还并拒绝任务
+            concurrencyLimiter.release();
+            throw new RejectedExecutionException("[" + name + "] Virtual thread executor has been shut down");
+        }
     }
 
     @Override
@@ -105,7 +153,7 @@ public class VirtualThreadPoolExecutor implements SmartThreadPoolExecutor {
             try {
                 T result = task.call();
                 future.complete(result);
-            } catch (Exception e) {
+            } catch (Throwable e) {
                 future.completeExceptionally(e);
             }
         });
@@ -119,24 +167,84 @@ public class VirtualThreadPoolExecutor implements SmartThreadPoolExecutor {
             try {
                 T result = task.get();
                 future.complete(result);
-            } catch (Exception e) {
+            } catch (Throwable e) {
                 future.completeExceptionally(e);
             }
         });
         return future;
     }
 
+    /**
+     * 是否使用虚拟线程执行任务
+     *
+     * @return 使用虚拟线程时返回true，回退到平台线程时返回false
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
     @Override
     public ThreadPoolStatus getStatus() {
         ThreadPoolStatus status = new ThreadPoolStatus();
         status.setName(name);
+        status.setMaximumPoolSize(maxConcurrency);
         status.setActiveCount(activeCount.get());
+        status.setPoolSize(activeCount.get());
+        status.setTaskCount(taskCount.get());
+        status.setCompletedTaskCount(completedTaskCount.get());
+        // 等待许可的提交方数量
+        status.setQueueSize(concurrencyLimiter.getQueueLength());
         status.setRemainingCapacity(concurrencyLimiter.availablePermits());
+        status.setShutdown(shutdown);
+        status.setTerminated(delegate.isTerminated());
         return status;
     }
 
+    /**
+     * 关闭执行器，不再接受新任务，已提交的任务继续执行到结束
+     */
     @Override
     public void shutdown() {
-        logger.info("[{}] Virtual thread executor shutdown requested", name);
+        markShutdown();
+        delegate.shutdown();
+        logger.info("[{}] Virtual thread executor shutdown, {} tasks still running", name, activeCount.get());
+    }
+
+    /**
+     * 立即关闭执行器，中断正在执行的任务
+     *
+     * @return 已提交但尚未开始的任务
+     */
+    public List<Runnable> shutdownNow() {
+        markShutdown();
+        List<Runnable> pending = delegate.shutdownNow();
+        logger.info("[{}] Virtual thread executor shutdown now, {} tasks interrupted", name, activeCount.get());
+        return pending;
+    }
+
+    /**
+     * 标记关闭并唤醒等待许可的提交方
+     * <p>
+     * 额外释放一个许可：等待中的提交方获得后发现已关闭，归还许可并拒绝任务，归还的许可再唤醒下一个，
+     * 不限时等待的提交方因此不会在执行中的任务长时间不结束时一直阻塞
+     * </p>
+     */
+    private synchronized void markShutdown() {
+        if (!shutdown) {
+            shutdown = true;
+            concurrencyLimiter.release();
+        }
+    }
+
+    /**
+     * 等待已提交的任务全部结束
+     *
+     * @param timeout 超时时间
+     * @param unit    时间单位
+     * @return 超时前全部结束时返回true
+     * @throws InterruptedException 等待期间被中断
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package org.im.common.thread.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虚拟线程支持
+ * <p>
+ * Java 8 版本。Java 21 及以上运行时通常加载 {@code META-INF/versions/21} 下的同名实现，直接调用 {@code Thread.ofVirtual()}。
+ * 以下情况仍会加载本类：使用 JDK 21 以下构建（未生成多版本类）、多版本 JAR 被重新打包为普通 JAR、从 classes 目录运行。
+ * 此时在类加载时查找一次 {@code Thread.ofVirtual().name(prefix, 1).factory()} 的方法句柄，运行时支持则照常使用虚拟线程，
+ * 之后每次创建执行器只调用已解析的句柄，不再反射查找。
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/21
+ */
+final class VirtualThreads {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreads.class);
+
+    /**
+     * {@code Thread.ofVirtual()}，运行时不支持时为null
+     */
+    private static final MethodHandle OF_VIRTUAL;
+
+    /**
+     * {@code Thread.Builder.OfVirtual.name(String, long)}
+     */
+    private static final MethodHandle NAME;
+
+    /**
+     * {@code Thread.Builder.factory()}
+     */
+    private static final MethodHandle FACTORY;
+
+    /**
+     * {@code Executors.newThreadPerTaskExecutor(ThreadFactory)}
+     */
+    private static final MethodHandle NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        MethodHandle ofVirtual = null;
+        MethodHandle name = null;
+        MethodHandle factory = null;
+        MethodHandle newExecutor = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Class<?> virtualBuilderType = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(virtualBuilderType));
+            name = lookup.findVirtual(virtualBuilderType, "name",
+                    MethodType.methodType(virtualBuilderType, String.class, long.class));
+            factory = lookup.findVirtual(builderType, "factory", MethodType.methodType(ThreadFactory.class));
+            newExecutor = lookup.findStatic(Executors.class, "newThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            ofVirtual = null;
+            logger.debug("Virtual threads are not available in Java {}", System.getProperty("java.version"));
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newExecutor;
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * 当前运行时是否支持虚拟线程，不使用常量以免被调用方在编译期内联
+     *
+     * @return 是否支持
+     */
+    static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的执行器
+     *
+     * @param threadNamePrefix 线程名前缀
+     * @return 执行器
+     */
+    static ExecutorService newThreadPerTaskExecutor(String threadNamePrefix) {
+        if (OF_VIRTUAL == null) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21, running "
+                    + System.getProperty("java.version"));
+        }
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(), threadNamePrefix, 1L);
+            ThreadFactory threadFactory = (ThreadFactory) FACTORY.invoke(builder);
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(threadFactory);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to create virtual thread executor", e);
+        }
+    }
+}
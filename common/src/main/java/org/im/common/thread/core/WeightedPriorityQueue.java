@@ -0,0 +1,406 @@
+package org.im.common.thread.core;
+
+import org.im.common.thread.task.TaskPriority;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按权重公平出队的任务队列
+ * <p>
+ * 重要、普通、低优先级任务各自排队，每条队列有独立容量，某条队列满时只拒绝该优先级的任务。
+ * 出队采用平滑加权轮询：多条队列都有任务时，各优先级按权重比例获得线程，低优先级不会被饿死；
+ * 只有一条队列有任务时直接出队。任务优先级取自 {@link AdaptiveThreadPoolExecutor.QueuedTask}，
+ * 其他任务及虚拟线程优先级按普通优先级排队。
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/21
+ */
+final class WeightedPriorityQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    private static final int IMPORTANT = 0;
+    private static final int NORMAL = 1;
+    private static final int LOW = 2;
+
+    private final ArrayDeque<Runnable>[] lanes;
+    private final int[] weights;
+    private final int[] currentWeights = new int[3];
+    private final int laneCapacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private int count;
+
+    /**
+     * 构造函数
+     *
+     * @param laneCapacity    每个优先级的队列容量
+     * @param importantWeight 重要任务权重
+     * @param normalWeight    普通任务权重
+     * @param lowWeight       低优先级任务权重
+     */
+    WeightedPriorityQueue(int laneCapacity, int importantWeight, int normalWeight, int lowWeight) {
+        if (laneCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        if (importantWeight <= 0 || normalWeight <= 0 || lowWeight <= 0) {
+            throw new IllegalArgumentException("Priority weights must be positive");
+        }
+        this.laneCapacity = laneCapacity;
+        this.weights = new int[]{importantWeight, normalWeight, lowWeight};
+        this.lanes = newLanes(weights.length);
+    }
+
+    /**
+     * 获取指定优先级的排队任务数
+     *
+     * @param priority 任务优先级
+     * @return 排队任务数
+     */
+    int size(TaskPriority priority) {
+        lock.lock();
+        try {
+            return lanes[laneOf(priority)].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取指定优先级的剩余容量
+     *
+     * @param priority 任务优先级
+     * @return 剩余容量
+     */
+    int remainingCapacity(TaskPriority priority) {
+        lock.lock();
+        try {
+            return laneCapacity - lanes[laneOf(priority)].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable task) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        lock.lock();
+        try {
+            ArrayDeque<Runnable> lane = lanes[laneOf(task)];
+            if (lane.size() >= laneCapacity) {
+                return false;
+            }
+            enqueue(lane, task);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Runnable task) throws InterruptedException {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        lock.lockInterruptibly();
+        try {
+            ArrayDeque<Runnable> lane = lanes[laneOf(task)];
+            while (lane.size() >= laneCapacity) {
+                notFull.await();
+            }
+            enqueue(lane, task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            ArrayDeque<Runnable> lane = lanes[laneOf(task)];
+            while (lane.size() >= laneCapacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueue(lane, task);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll() {
+        lock.lock();
+        try {
+            return count == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按优先级顺序返回队首任务，不代表下一个出队的任务
+     */
+    @Override
+    public Runnable peek() {
+        lock.lock();
+        try {
+            for (ArrayDeque<Runnable> lane : lanes) {
+                if (!lane.isEmpty()) {
+                    return lane.peekFirst();
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 删除任务，参数既可以是队列中的元素，也可以是被 {@link AdaptiveThreadPoolExecutor.QueuedTask} 包装的原始任务
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        lock.lock();
+        try {
+            for (ArrayDeque<Runnable> lane : lanes) {
+                for (Iterator<Runnable> it = lane.iterator(); it.hasNext(); ) {
+                    if (matches(it.next(), o)) {
+                        it.remove();
+                        count--;
+                        notFull.signalAll();
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 是否包含任务，匹配规则与 {@link #remove(Object)} 相同
+     */
+    @Override
+    public boolean contains(Object o) {
+        if (o == null) {
+            return false;
+        }
+        lock.lock();
+        try {
+            for (ArrayDeque<Runnable> lane : lanes) {
+                for (Runnable element : lane) {
+                    if (matches(element, o)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 所有优先级的剩余容量之和，单个优先级的容量见 {@link #remainingCapacity(TaskPriority)}
+     */
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return laneCapacity * lanes.length - count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c, int maxElements) {
+        if (c == null) {
+            throw new NullPointerException();
+        }
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        lock.lock();
+        try {
+            int n = 0;
+            while (count > 0 && n < maxElements) {
+                c.add(dequeue());
+                n++;
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 返回快照迭代器，支持删除
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+        List<Runnable> snapshot;
+        lock.lock();
+        try {
+            snapshot = new ArrayList<>(count);
+            for (ArrayDeque<Runnable> lane : lanes) {
+                snapshot.addAll(lane);
+            }
+        } finally {
+            lock.unlock();
+        }
+        Iterator<Runnable> it = snapshot.iterator();
+        return new Iterator<Runnable>() {
+            private Runnable last;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Runnable next() {
+                last = it.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                WeightedPriorityQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    private void enqueue(ArrayDeque<Runnable> lane, Runnable task) {
+        lane.addLast(task);
+        count++;
+        notEmpty.signal();
+    }
+
+    /**
+     * 平滑加权轮询：非空队列的当前权重各加上自身权重，取当前权重最大者出队，并减去非空队列的权重之和
+     */
+    private Runnable dequeue() {
+        int total = 0;
+        int selected = -1;
+        for (int i = 0; i < lanes.length; i++) {
+            if (lanes[i].isEmpty()) {
+                continue;
+            }
+            currentWeights[i] += weights[i];
+            total += weights[i];
+            if (selected < 0 || currentWeights[i] > currentWeights[selected]) {
+                selected = i;
+            }
+        }
+        currentWeights[selected] -= total;
+        Runnable task = lanes[selected].pollFirst();
+        count--;
+        notFull.signalAll();
+        return task;
+    }
+
+    private static boolean matches(Runnable element, Object o) {
+        return o.equals(element) || element instanceof AdaptiveThreadPoolExecutor.QueuedTask
+                && o.equals(((AdaptiveThreadPoolExecutor.QueuedTask) element).task);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayDeque<Runnable>[] newLanes(int count) {
+        ArrayDeque<Runnable>[] lanes = (ArrayDeque<Runnable>[]) new ArrayDeque<?>[count];
+        for (int i = 0; i < count; i++) {
+            lanes[i] = new ArrayDeque<>();
+        }
+        return lanes;
+    }
+
+    private static int laneOf(Runnable task) {
+        return task instanceof AdaptiveThreadPoolExecutor.QueuedTask
+                ? laneOf(((AdaptiveThreadPoolExecutor.QueuedTask) task).priority) : NORMAL;
+    }
+
+    private static int laneOf(TaskPriority priority) {
+        switch (priority) {
+            case IMPORTANT:
+                return IMPORTANT;
+            case LOW:
+                return LOW;
+            default:
+                return NORMAL;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.im.common.thread.factory;
 
 import org.im.common.thread.config.ThreadPoolFrameworkProperties;
 import org.im.common.thread.core.NativeThreadPoolExecutor;
+import org.im.common.thread.core.SharedPriorityThreadPool;
 import org.im.common.thread.task.TaskPriority;
 
 /**
@@ -40,4 +41,11 @@ public class ThreadPoolFactory {
     public NativeThreadPoolExecutor createLowExecutor() {
         return new NativeThreadPoolExecutor("low", TaskPriority.LOW, properties);
     }
+
+    /**
+     * 创建重要、普通、低优先级任务共用的线程池
+     */
+    public SharedPriorityThreadPool createSharedPool() {
+        return new SharedPriorityThreadPool("shared", properties);
+    }
 }
\ No newline at end of file
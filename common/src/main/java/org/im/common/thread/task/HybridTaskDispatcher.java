@@ -2,13 +2,17 @@ package org.im.common.thread.task;
 
 
 import org.im.common.thread.config.ThreadPoolFrameworkProperties;
-import org.im.common.thread.core.NativeThreadPoolExecutor;
+import org.im.common.thread.core.SharedPriorityThreadPool;
 import org.im.common.thread.core.SmartThreadPoolExecutor;
 import org.im.common.thread.core.VirtualThreadPoolExecutor;
 import org.im.common.thread.factory.ThreadPoolFactory;
 
 /**
  * 混合模式任务调度器 - 结合重要性分类和任务类型
+ * <p>
+ * 默认重要、普通、低优先级任务共用一个 {@link SharedPriorityThreadPool}，按权重公平出队；
+ * {@code thread.pool.shared.enabled=false} 时使用三个独立的线程池。
+ * </p>
  *
  * @author gaozhilin
  * @email gaoolin@gmail.com
@@ -17,15 +21,24 @@ import org.im.common.thread.factory.ThreadPoolFactory;
 
 public class HybridTaskDispatcher {
 
-    private final NativeThreadPoolExecutor importantExecutor;
-    private final NativeThreadPoolExecutor normalExecutor;
-    private final NativeThreadPoolExecutor lowExecutor;
+    private final SharedPriorityThreadPool sharedPool;
+    private final SmartThreadPoolExecutor importantExecutor;
+    private final SmartThreadPoolExecutor normalExecutor;
+    private final SmartThreadPoolExecutor lowExecutor;
     private final VirtualThreadPoolExecutor virtualExecutor;
 
     public HybridTaskDispatcher(ThreadPoolFactory factory, ThreadPoolFrameworkProperties properties) {
-        this.importantExecutor = factory.createImportantExecutor();
-        this.normalExecutor = factory.createNormalExecutor();
-        this.lowExecutor = factory.createLowExecutor();
+        if (properties.getShared().isEnabled()) {
+            this.sharedPool = factory.createSharedPool();
+            this.importantExecutor = sharedPool.forPriority(TaskPriority.IMPORTANT);
+            this.normalExecutor = sharedPool.forPriority(TaskPriority.NORMAL);
+            this.lowExecutor = sharedPool.forPriority(TaskPriority.LOW);
+        } else {
+            this.sharedPool = null;
+            this.importantExecutor = factory.createImportantExecutor();
+            this.normalExecutor = factory.createNormalExecutor();
+            this.lowExecutor = factory.createLowExecutor();
+        }
         this.virtualExecutor = properties.isVirtualThreadEnabled() ?
                 new VirtualThreadPoolExecutor("virtual", properties) : null;
     }
@@ -76,9 +89,13 @@ public class HybridTaskDispatcher {
      * 关闭所有执行器
      */
     public void shutdown() {
-        importantExecutor.shutdown();
-        normalExecutor.shutdown();
-        lowExecutor.shutdown();
+        if (sharedPool != null) {
+            sharedPool.shutdown();
+        } else {
+            importantExecutor.shutdown();
+            normalExecutor.shutdown();
+            lowExecutor.shutdown();
+        }
         if (virtualExecutor != null) {
             virtualExecutor.shutdown();
         }
@@ -0,0 +1,35 @@
+package org.im.common.thread.core;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 虚拟线程支持
+ * <p>
+ * Java 21 版本，打包在多版本 JAR 的 {@code META-INF/versions/21} 下，替换 Java 8 版本的同名类。
+ * </p>
+ *
+ * @author gaozhilin
+ * @email gaoolin@gmail.com
+ * @date 2025/12/21
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的执行器，与 {@link Executors#newVirtualThreadPerTaskExecutor()} 相同，
+     * 只是线程按前缀和序号命名，便于在线程转储中定位
+     *
+     * @param threadNamePrefix 线程名前缀
+     * @return 执行器
+     */
+    static ExecutorService newThreadPerTaskExecutor(String threadNamePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 1).factory());
+    }
+}
@@ -0,0 +1,90 @@
+package org.im.common.batch.engine;
+
+import org.im.common.batch.config.BatchConfig;
+import org.im.common.batch.exception.JobExecutionException;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 分块流水线读取失败与在途队列已满交错的测试
+ */
+public class ChunkBatchEngineTest {
+
+    /**
+     * 读取器在在途队列已满时抛出 Error：已读取的分块照常写入，随后作业以该错误失败而不是一直等待
+     */
+    @Test
+    public void readerErrorWithFullQueueFailsJob() throws Exception {
+        BatchConfig config = BatchConfig.builder().batchSize(1).queueCapacity(1).concurrentThreads(1).build();
+        Error readError = new Error("reader broke");
+        CountDownLatch thrown = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+        ItemReader<Integer> reader = () -> {
+            int n = reads.incrementAndGet();
+            if (n <= 2) {
+                return n;
+            }
+            thrown.countDown();
+            throw readError;
+        };
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        ItemWriter<Integer> writer = items -> {
+            // 第一个分块写入时等待读取线程失败，此时第二个分块占满队列
+            thrown.await(5, TimeUnit.SECONDS);
+            Thread.sleep(100);
+            written.addAll(items);
+        };
+        ChunkBatchEngine<Integer, Integer> engine = new ChunkBatchEngine<>("reader-error", item -> item, writer, config);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ChunkBatchEngine.ChunkResult> result = executor.submit(() -> engine.execute(reader));
+            try {
+                result.get(10, TimeUnit.SECONDS);
+                fail("Job should fail when the reader throws");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof JobExecutionException);
+                assertSame(readError, e.getCause().getCause());
+            }
+            assertEquals(2, written.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 读取器正常结束时全部分块按顺序写入
+     */
+    @Test
+    public void writesAllChunksInReadOrder() throws Exception {
+        BatchConfig config = BatchConfig.builder().batchSize(3).queueCapacity(2).concurrentThreads(4).build();
+        List<Integer> source = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            source.add(i);
+        }
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        ChunkBatchEngine<Integer, Integer> engine = new ChunkBatchEngine<>("in-order", item -> item * 2,
+                written::addAll, config);
+
+        ChunkBatchEngine.ChunkResult result = engine.execute(ItemReader.of(source.iterator()));
+        assertEquals(100, written.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf(i * 2), written.get(i));
+        }
+        assertEquals(100, result.getWriteCount());
+    }
+}
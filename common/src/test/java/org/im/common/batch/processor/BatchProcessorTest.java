@@ -0,0 +1,72 @@
+package org.im.common.batch.processor;
+
+import org.im.common.batch.monitor.JobPerformanceTracker;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 并行处理在线程池拒绝任务时的积压清理测试
+ */
+public class BatchProcessorTest {
+
+    /**
+     * 线程池拒绝全部工作任务：结果以拒绝异常结束，积压归零
+     */
+    @Test
+    public void rejectedStartClearsBacklog() {
+        JobPerformanceTracker tracker = new JobPerformanceTracker("job-1", "rejected");
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("saturated");
+        };
+
+        CompletableFuture<List<Integer>> result = BatchProcessor.processParallelAsync(items(100), i -> i, 4,
+                rejecting, tracker);
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0, tracker.getBacklog());
+    }
+
+    /**
+     * 线程池只接受部分工作任务：已启动的任务结束后积压归零
+     */
+    @Test
+    public void partiallyRejectedStartClearsBacklog() throws Exception {
+        JobPerformanceTracker tracker = new JobPerformanceTracker("job-2", "partial");
+        AtomicInteger accepted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        Executor executor = task -> {
+            if (accepted.incrementAndGet() > 1) {
+                throw new RejectedExecutionException("saturated");
+            }
+            Thread thread = new Thread(task);
+            threads.add(thread);
+            thread.start();
+        };
+
+        CompletableFuture<List<Integer>> result = BatchProcessor.processParallelAsync(items(1000), i -> i, 4,
+                executor, tracker);
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0, tracker.getBacklog());
+    }
+
+    private static List<Integer> items(int count) {
+        List<Integer> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(i);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,170 @@
+package org.im.common.batch.schedule;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Cron 表达式解析与下一个触发时刻计算的测试
+ */
+public class CronExpressionTest {
+
+    private static final ZoneId UTC = ZoneOffset.UTC;
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    /**
+     * 月份和星期的英文缩写、范围与 ? 通配
+     */
+    @Test
+    public void namesAndRanges() {
+        CronExpression cron = new CronExpression("0 0 9 ? jan-mar MON-FRI", UTC);
+        // 2025-01-03 是周五
+        assertFires(cron, time(UTC, 2025, 1, 3, 10, 0, 0),
+                time(UTC, 2025, 1, 6, 9, 0, 0),
+                time(UTC, 2025, 1, 7, 9, 0, 0));
+        assertFires(cron, time(UTC, 2025, 3, 31, 9, 0, 0),
+                time(UTC, 2026, 1, 1, 9, 0, 0));
+    }
+
+    /**
+     * 星期的 0 和 7 都表示周日
+     */
+    @Test
+    public void sundayIsZeroOrSeven() {
+        long from = time(UTC, 2025, 7, 1, 0, 0, 0);
+        long sunday = time(UTC, 2025, 7, 6, 0, 0, 0);
+        assertEquals(sunday, new CronExpression("0 0 * * 0", UTC).next(from));
+        assertEquals(sunday, new CronExpression("0 0 * * 7", UTC).next(from));
+        assertEquals(sunday, new CronExpression("0 0 * * SUN", UTC).next(from));
+    }
+
+    /**
+     * 步长、带步长的范围、列表，以及省略秒的五字段写法
+     */
+    @Test
+    public void stepsAndLists() {
+        long from = time(UTC, 2025, 7, 1, 12, 0, 7);
+        assertFires(new CronExpression("*/15 * * * * *", UTC), from,
+                time(UTC, 2025, 7, 1, 12, 0, 15),
+                time(UTC, 2025, 7, 1, 12, 0, 30));
+        assertFires(new CronExpression("0 10-50/20 * * * *", UTC), from,
+                time(UTC, 2025, 7, 1, 12, 10, 0),
+                time(UTC, 2025, 7, 1, 12, 30, 0),
+                time(UTC, 2025, 7, 1, 12, 50, 0),
+                time(UTC, 2025, 7, 1, 13, 10, 0));
+        assertFires(new CronExpression("5/20 1,3 * * *", UTC), from,
+                time(UTC, 2025, 7, 2, 1, 5, 0),
+                time(UTC, 2025, 7, 2, 1, 25, 0),
+                time(UTC, 2025, 7, 2, 1, 45, 0),
+                time(UTC, 2025, 7, 2, 3, 5, 0));
+    }
+
+    /**
+     * 下一个触发时刻严格晚于起始时刻，毫秒部分不影响结果
+     */
+    @Test
+    public void nextIsStrictlyAfter() {
+        CronExpression cron = new CronExpression("0 0 12 * * *", UTC);
+        long noon = time(UTC, 2025, 7, 1, 12, 0, 0);
+        assertEquals(noon, cron.next(noon - 1));
+        assertEquals(noon + 86_400_000L, cron.next(noon));
+        assertEquals(noon + 86_400_000L, cron.next(noon + 999));
+    }
+
+    /**
+     * 日和周同时被限定时按任一匹配触发
+     */
+    @Test
+    public void dayOfMonthOrDayOfWeek() {
+        // 每月 13 日或每个周五，2025-07-04、11、18 是周五，13 日是周日
+        assertFires(new CronExpression("0 0 0 13 * FRI", UTC), time(UTC, 2025, 7, 1, 0, 0, 0),
+                time(UTC, 2025, 7, 4, 0, 0, 0),
+                time(UTC, 2025, 7, 11, 0, 0, 0),
+                time(UTC, 2025, 7, 13, 0, 0, 0),
+                time(UTC, 2025, 7, 18, 0, 0, 0));
+        // 只限定日时星期不参与判断
+        assertFires(new CronExpression("0 0 0 13 * ?", UTC), time(UTC, 2025, 7, 1, 0, 0, 0),
+                time(UTC, 2025, 7, 13, 0, 0, 0),
+                time(UTC, 2025, 8, 13, 0, 0, 0));
+    }
+
+    /**
+     * 时钟拨快跳过的触发时刻在切换后的第一个时刻触发一次
+     */
+    @Test
+    public void springForwardFiresAfterTheGap() {
+        // 2025-03-09 02:00 America/New_York 拨快到 03:00
+        assertFires(new CronExpression("0 30 2 * * *", NEW_YORK), time(NEW_YORK, 2025, 3, 8, 12, 0, 0),
+                time(NEW_YORK, 2025, 3, 9, 3, 0, 0),
+                time(NEW_YORK, 2025, 3, 10, 2, 30, 0));
+        assertFires(new CronExpression("0 0 * * * *", NEW_YORK), time(NEW_YORK, 2025, 3, 9, 0, 30, 0),
+                time(NEW_YORK, 2025, 3, 9, 1, 0, 0),
+                time(NEW_YORK, 2025, 3, 9, 3, 0, 0),
+                time(NEW_YORK, 2025, 3, 9, 4, 0, 0));
+    }
+
+    /**
+     * 时钟拨回时固定小时的触发只在第一遍触发，小时为 * 时两遍都按实际经过的时间触发
+     */
+    @Test
+    public void fallBackFiresFixedHoursOnce() {
+        // 2025-11-02 02:00 EDT 拨回到 01:00 EST，01:00-02:00 重复一次
+        ZonedDateTime start = ZonedDateTime.of(2025, 11, 2, 0, 0, 0, 0, NEW_YORK);
+        ZonedDateTime firstPass = ZonedDateTime.of(2025, 11, 2, 1, 30, 0, 0, NEW_YORK).withEarlierOffsetAtOverlap();
+        assertFires(new CronExpression("0 30 1 * * *", NEW_YORK), start.toInstant().toEpochMilli(),
+                firstPass.toInstant().toEpochMilli(),
+                time(NEW_YORK, 2025, 11, 3, 1, 30, 0));
+
+        ZonedDateTime firstOne = ZonedDateTime.of(2025, 11, 2, 1, 0, 0, 0, NEW_YORK).withEarlierOffsetAtOverlap();
+        long hour = 3_600_000L;
+        long oneEdt = firstOne.toInstant().toEpochMilli();
+        assertFires(new CronExpression("0 */30 * * * *", NEW_YORK), oneEdt - 1,
+                oneEdt, oneEdt + hour / 2, oneEdt + hour, oneEdt + hour * 3 / 2, oneEdt + 2 * hour);
+    }
+
+    /**
+     * 不会再触发的表达式返回-1
+     */
+    @Test
+    public void neverFires() {
+        assertEquals(-1, new CronExpression("0 0 0 30 2 ?", UTC).next(time(UTC, 2025, 1, 1, 0, 0, 0)));
+        assertEquals(-1, new CronExpression("0 0 0 31 4,6,9,11 ?", UTC).next(time(UTC, 2025, 1, 1, 0, 0, 0)));
+    }
+
+    /**
+     * 字段个数、取值范围、步长和名称错误时抛出 IllegalArgumentException
+     */
+    @Test
+    public void rejectsInvalidExpressions() {
+        String[] invalid = {"", "* * * *", "* * * * * * *", "60 * * * * *", "* * 24 * * *", "* * * 0 * *",
+                "* * * * 13 *", "* * * * * 8", "*/0 * * * * *", "5-1 * * * * *", "* * * * FOO *"};
+        for (String expression : invalid) {
+            try {
+                new CronExpression(expression, UTC);
+                fail("Expected rejection of '" + expression + "'");
+            } catch (IllegalArgumentException expected) {
+                // 期望的异常
+            }
+        }
+    }
+
+    private static void assertFires(CronExpression cron, long from, long... expected) {
+        long time = from;
+        for (long fire : expected) {
+            time = cron.next(time);
+            assertEquals(cron + " after " + ZonedDateTime.ofInstant(Instant.ofEpochMilli(from), cron.getZone()),
+                    ZonedDateTime.ofInstant(Instant.ofEpochMilli(fire), cron.getZone()),
+                    ZonedDateTime.ofInstant(Instant.ofEpochMilli(time), cron.getZone()));
+        }
+    }
+
+    private static long time(ZoneId zone, int year, int month, int day, int hour, int minute, int second) {
+        return ZonedDateTime.of(year, month, day, hour, minute, second, 0, zone).toInstant().toEpochMilli();
+    }
+}
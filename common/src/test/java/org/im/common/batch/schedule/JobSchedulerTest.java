@@ -0,0 +1,151 @@
+package org.im.common.batch.schedule;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 作业调度器错过触发策略与并发上限补触发的测试
+ */
+public class JobSchedulerTest {
+
+    /**
+     * 调度精度约为 32 毫秒，比较触发间隔时留出一倍余量
+     */
+    private static final long TOLERANCE_MILLIS = 64;
+
+    private final JobScheduler scheduler = new JobScheduler();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * 调度线程晚于阈值才处理触发时，SKIP 放弃该次触发
+     */
+    @Test
+    public void lateFireIsSkipped() throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(1);
+        ScheduledJob job = scheduler.schedule("late-skip", Trigger.once(50, TimeUnit.MILLISECONDS)
+                .misfireThreshold(50, TimeUnit.MILLISECONDS).misfirePolicy(MisfirePolicy.SKIP), ran::countDown);
+        // 启动前错过计划时刻，启动后按迟到处理
+        Thread.sleep(300);
+        scheduler.start();
+
+        awaitCondition(() -> job.getMisfireCount() == 1);
+        assertFalse(ran.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(0, job.getFireCount());
+        assertNull(scheduler.getScheduledJob("late-skip"));
+    }
+
+    /**
+     * 调度线程晚于阈值才处理触发时，FIRE_NOW 立即补触发一次
+     */
+    @Test
+    public void lateFireRunsImmediately() throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(1);
+        ScheduledJob job = scheduler.schedule("late-fire-now", Trigger.once(50, TimeUnit.MILLISECONDS)
+                .misfireThreshold(50, TimeUnit.MILLISECONDS).misfirePolicy(MisfirePolicy.FIRE_NOW), ran::countDown);
+        Thread.sleep(300);
+        scheduler.start();
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertEquals(1, job.getFireCount());
+        assertEquals(1, job.getMisfireCount());
+    }
+
+    /**
+     * 并发已满时 FIRE_NOW 在在途执行结束后立即补触发，多次错过合并为一次，之后按原周期继续
+     */
+    @Test
+    public void fullConcurrencyCatchesUpOnce() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> starts = new CopyOnWriteArrayList<>();
+        ScheduledJob job = scheduler.schedule("catch-up", Trigger.fixedRate(0, 500, TimeUnit.MILLISECONDS)
+                .maxConcurrent(1).misfirePolicy(MisfirePolicy.FIRE_NOW), blockFirstRun(starts, release));
+        scheduler.start();
+
+        awaitCondition(() -> starts.size() == 1);
+        // 首次执行期间错过 500ms、1000ms 两次计划触发
+        sleepUntil(starts.get(0) + 1250);
+        long released = System.currentTimeMillis();
+        release.countDown();
+
+        awaitCondition(() -> starts.size() == 2);
+        assertTrue("catch-up started " + (starts.get(1) - released) + "ms after release",
+                starts.get(1) - released < 200);
+        sleepUntil(released + 150);
+        assertEquals(2, job.getFireCount());
+        assertEquals(1, job.getMisfireCount());
+
+        // 补触发不改变计划时刻，下一次仍在 1500ms 处
+        awaitCondition(() -> starts.size() == 3);
+        assertTrue(starts.get(2) - starts.get(0) >= 1500 - TOLERANCE_MILLIS);
+    }
+
+    /**
+     * 并发已满时 SKIP 放弃期间的所有计划触发，等待下一个计划时刻
+     */
+    @Test
+    public void fullConcurrencySkipsMissedFires() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> starts = new CopyOnWriteArrayList<>();
+        ScheduledJob job = scheduler.schedule("skip", Trigger.fixedRate(0, 500, TimeUnit.MILLISECONDS)
+                .maxConcurrent(1).misfirePolicy(MisfirePolicy.SKIP), blockFirstRun(starts, release));
+        scheduler.start();
+
+        awaitCondition(() -> starts.size() == 1);
+        sleepUntil(starts.get(0) + 1250);
+        long released = System.currentTimeMillis();
+        release.countDown();
+
+        sleepUntil(released + 150);
+        assertEquals(1, job.getFireCount());
+        assertEquals(2, job.getMisfireCount());
+
+        awaitCondition(() -> starts.size() == 2);
+        assertTrue(starts.get(1) - starts.get(0) >= 1500 - TOLERANCE_MILLIS);
+    }
+
+    /**
+     * 第一次执行阻塞到放行，之后的执行立即返回
+     */
+    private static Runnable blockFirstRun(List<Long> starts, CountDownLatch release) {
+        return () -> {
+            starts.add(System.currentTimeMillis());
+            if (starts.size() == 1) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining > 0) {
+            Thread.sleep(remaining);
+        }
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
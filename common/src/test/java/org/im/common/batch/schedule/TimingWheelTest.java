@@ -0,0 +1,146 @@
+package org.im.common.batch.schedule;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 分层时间轮跨层降级与整圈回绕的测试
+ */
+public class TimingWheelTest {
+
+    /**
+     * 起始时刻不与槽边界对齐，覆盖槽内偏移的情况
+     */
+    private static final long START = 1_750_000_000_123L;
+
+    /**
+     * 第 0 层每槽毫秒数，条目最迟在其所在槽被经过时触发
+     */
+    private static final long TICK = 1L << TimingWheel.TICK_SHIFT;
+
+    /**
+     * 第 n 层一整圈的毫秒数
+     */
+    private static long span(int level) {
+        return 1L << (TimingWheel.TICK_SHIFT + 6 * (level + 1));
+    }
+
+    /**
+     * 高层条目在经过时降级到更精细的层，到期前不触发，到期后一个槽内触发
+     */
+    @Test
+    public void cascadesAcrossLevelBoundaries() {
+        TimingWheel wheel = new TimingWheel(START);
+        List<ScheduledJob> fired = new ArrayList<>();
+        for (int level = 0; level < 4; level++) {
+            long base = START + span(level) * 3;
+            wheel.advance(base, fired::add);
+            long fireTime = base + span(level) + 17;
+            wheel.schedule(job(fireTime));
+
+            wheel.advance(base + span(level), fired::add);
+            assertTrue("level " + level, fired.isEmpty());
+            wheel.advance(fireTime - 1, fired::add);
+            assertTrue("level " + level, fired.isEmpty());
+            assertEquals(1, wheel.size());
+            wheel.advance(fireTime + TICK, fired::add);
+            assertEquals("level " + level, 1, fired.size());
+            assertEquals(0, wheel.size());
+            fired.clear();
+        }
+    }
+
+    /**
+     * 一次推进超过一整圈时每个槽只处理一次，未到期条目重新定位，超出覆盖范围的条目在最高层等待
+     */
+    @Test
+    public void wrapsAroundOnLargeJumps() {
+        TimingWheel wheel = new TimingWheel(START);
+        List<ScheduledJob> fired = new ArrayList<>();
+        ScheduledJob near = job(START + 10);
+        ScheduledJob sameSlotNextLap = job(START + 10 + span(0));
+        ScheduledJob beyondRange = job(START + TimeUnit.DAYS.toMillis(500));
+        wheel.schedule(near);
+        wheel.schedule(sameSlotNextLap);
+        wheel.schedule(beyondRange);
+
+        wheel.advance(START + span(0) / 2, fired::add);
+        assertEquals(1, fired.size());
+        assertTrue(fired.contains(near));
+
+        wheel.advance(START + TimeUnit.DAYS.toMillis(400), fired::add);
+        assertEquals(2, fired.size());
+        assertTrue(fired.contains(sameSlotNextLap));
+        assertEquals(1, wheel.size());
+
+        wheel.advance(START + TimeUnit.DAYS.toMillis(500) - 1, fired::add);
+        assertEquals(2, fired.size());
+        wheel.advance(START + TimeUnit.DAYS.toMillis(500) + TICK, fired::add);
+        assertEquals(3, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * 随机的到期时刻与推进步长：每个条目不早于到期时刻触发，且最迟在推进越过其所在槽时触发，只触发一次
+     */
+    @Test
+    public void firesEachJobOnceWithinItsSlot() {
+        Random random = new Random(42);
+        TimingWheel wheel = new TimingWheel(START);
+        Map<ScheduledJob, Long> firedAt = new HashMap<>();
+        List<ScheduledJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            long delay = (long) Math.pow(2, random.nextDouble() * 37);
+            ScheduledJob job = job(START + delay);
+            jobs.add(job);
+            wheel.schedule(job);
+        }
+
+        long previous = START;
+        long now = START;
+        while (firedAt.size() < jobs.size()) {
+            long step = Math.max(1, (long) Math.pow(2, random.nextDouble() * 33));
+            now += step;
+            long lowerBound = previous;
+            long currentNow = now;
+            wheel.advance(now, job -> {
+                long fireTime = job.getNextFireTime();
+                assertTrue(fireTime <= currentNow);
+                assertTrue("fired late", lowerBound < ((fireTime >>> TimingWheel.TICK_SHIFT) + 1) * TICK);
+                assertEquals(null, firedAt.put(job, currentNow));
+            });
+            previous = now;
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * 已取消的条目在经过时丢弃
+     */
+    @Test
+    public void dropsCancelledJobs() {
+        TimingWheel wheel = new TimingWheel(START);
+        List<ScheduledJob> fired = new ArrayList<>();
+        ScheduledJob job = job(START + span(1) + 100);
+        wheel.schedule(job);
+        job.cancel();
+        wheel.advance(START + span(1) * 2, fired::add);
+        assertTrue(fired.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    private static ScheduledJob job(long fireTime) {
+        ScheduledJob job = new ScheduledJob("job-" + fireTime, Trigger.at(fireTime), () -> null);
+        job.setNextFireTime(fireTime);
+        return job;
+    }
+}
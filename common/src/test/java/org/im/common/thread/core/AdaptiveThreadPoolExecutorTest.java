@@ -0,0 +1,90 @@
+package org.im.common.thread.core;
+
+import org.im.common.thread.task.TaskPriority;
+import org.junit.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 按提交时的任务删除排队任务的测试
+ */
+public class AdaptiveThreadPoolExecutorTest {
+
+    private static AdaptiveThreadPoolExecutor newExecutor(BlockingQueue<Runnable> queue) {
+        return new AdaptiveThreadPoolExecutor("test", 1, 1, 60, TimeUnit.SECONDS, queue,
+                Executors.defaultThreadFactory(), new ThreadPoolExecutor.AbortPolicy(), null);
+    }
+
+    /**
+     * 加权优先级队列：按原始任务删除和查找被包装的排队任务
+     */
+    @Test(timeout = 10000)
+    public void removesWrappedTaskFromWeightedQueue() throws Exception {
+        WeightedPriorityQueue queue = new WeightedPriorityQueue(10, 6, 3, 1);
+        assertRemovesQueuedTask(newExecutor(queue), queue);
+    }
+
+    /**
+     * 普通队列同样可以按原始任务删除
+     */
+    @Test(timeout = 10000)
+    public void removesWrappedTaskFromPlainQueue() throws Exception {
+        LinkedBlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+        assertRemovesQueuedTask(newExecutor(queue), queue);
+    }
+
+    private static void assertRemovesQueuedTask(AdaptiveThreadPoolExecutor executor, BlockingQueue<Runnable> queue)
+            throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Runnable task = () -> {
+            };
+            executor.execute(task, TaskPriority.LOW);
+            assertEquals(1, queue.size());
+
+            assertTrue(executor.remove(task));
+            assertEquals(0, queue.size());
+            assertFalse(executor.remove(task));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 加权优先级队列直接按原始任务查找和删除
+     */
+    @Test
+    public void weightedQueueMatchesWrappedTask() {
+        WeightedPriorityQueue queue = new WeightedPriorityQueue(10, 6, 3, 1);
+        Runnable task = () -> {
+        };
+        queue.offer(new AdaptiveThreadPoolExecutor.QueuedTask(task, TaskPriority.IMPORTANT));
+
+        assertTrue(queue.contains(task));
+        assertTrue(queue.remove(task));
+        assertFalse(queue.contains(task));
+        assertEquals(0, queue.size(TaskPriority.IMPORTANT));
+    }
+}
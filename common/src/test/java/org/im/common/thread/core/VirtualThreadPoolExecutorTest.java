@@ -0,0 +1,86 @@
+package org.im.common.thread.core;
+
+import org.im.common.thread.config.ThreadPoolFrameworkProperties;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 虚拟线程执行器关闭与任务异常的测试
+ */
+public class VirtualThreadPoolExecutorTest {
+
+    private static VirtualThreadPoolExecutor newExecutor(int maxConcurrency) {
+        ThreadPoolFrameworkProperties properties = new ThreadPoolFrameworkProperties();
+        properties.getVirtual().setMaxConcurrency(maxConcurrency);
+        properties.getVirtual().setAcquireTimeoutMs(-1);
+        return new VirtualThreadPoolExecutor("test", properties);
+    }
+
+    /**
+     * 不限时等待许可的提交方在关闭时被拒绝，不会一直阻塞
+     */
+    @Test(timeout = 10000)
+    public void shutdownReleasesBlockedSubmitters() throws Exception {
+        VirtualThreadPoolExecutor executor = newExecutor(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        int submitters = 3;
+        CountDownLatch rejected = new CountDownLatch(submitters);
+        for (int i = 0; i < submitters; i++) {
+            new Thread(() -> {
+                try {
+                    executor.execute(() -> {
+                    });
+                } catch (RejectedExecutionException e) {
+                    rejected.countDown();
+                }
+            }).start();
+        }
+        while (executor.getStatus().getQueueSize() < submitters) {
+            Thread.sleep(10);
+        }
+
+        executor.shutdown();
+        assertTrue(rejected.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 任务抛出 Error 时异步结果以该错误结束
+     */
+    @Test(timeout = 10000)
+    public void submitAsyncCompletesOnError() throws Exception {
+        VirtualThreadPoolExecutor executor = newExecutor(2);
+        Error error = new Error("boom");
+        AtomicReference<Throwable> cause = new AtomicReference<>();
+        CompletableFuture<Object> future = executor.submitAsync(() -> {
+            throw error;
+        });
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Future should complete exceptionally");
+        } catch (ExecutionException e) {
+            cause.set(e.getCause());
+        }
+        assertSame(error, cause.get());
+        executor.shutdown();
+    }
+}